@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.fory.format.encoder.ColumnarEncoder;
+import org.apache.fory.format.encoder.Encoders;
+import org.apache.fory.format.encoder.RowEncoder;
+import org.apache.fory.format.vectorized.ArrowRowReader;
+import org.apache.fory.format.vectorized.ArrowUtils;
+import org.apache.fory.format.vectorized.ArrowWriter;
+import org.apache.fory.logging.Logger;
+import org.apache.fory.logging.LoggerFactory;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Compares encoding a batch of beans into arrow vectors by rows, which are built by {@link
+ * RowEncoder} then copied by {@link ArrowWriter}, with writing bean fields into vectors directly by
+ * {@link ColumnarEncoder}.
+ */
+public class ColumnarSuite {
+  private static final Logger LOG = LoggerFactory.getLogger(ColumnarSuite.class);
+  private static final int BATCH_SIZE = 1024;
+
+  public static final class FlatStruct {
+    public int f1;
+    public long f2;
+    public double f3;
+    public short f4;
+    public Integer f5;
+    public Long f6;
+    public String f7;
+    public String f8;
+  }
+
+  private static FlatStruct[] createBeans(int num) {
+    Random rnd = new Random(37);
+    FlatStruct[] beans = new FlatStruct[num];
+    for (int i = 0; i < num; i++) {
+      FlatStruct struct = new FlatStruct();
+      struct.f1 = rnd.nextInt();
+      struct.f2 = rnd.nextLong();
+      struct.f3 = rnd.nextDouble();
+      struct.f4 = (short) rnd.nextInt();
+      struct.f5 = i % 10 == 0 ? null : rnd.nextInt();
+      struct.f6 = rnd.nextLong();
+      struct.f7 = "str" + rnd.nextInt(1000);
+      struct.f8 = i % 10 == 0 ? null : "longer string " + rnd.nextLong();
+      beans[i] = struct;
+    }
+    return beans;
+  }
+
+  private static final FlatStruct[] objects = createBeans(BATCH_SIZE);
+  private static final RowEncoder<FlatStruct> rowEncoder = Encoders.bean(FlatStruct.class);
+  private static final ArrowWriter arrowWriter = ArrowUtils.createArrowWriter(rowEncoder.schema());
+  private static final ColumnarEncoder<FlatStruct> columnarEncoder =
+      Encoders.columnarEncoder(FlatStruct.class);
+  // Write benchmark uses a separate root to keep vectors read by other benchmarks unchanged.
+  private static final ColumnarEncoder<FlatStruct> writeEncoder =
+      Encoders.columnarEncoder(FlatStruct.class);
+  private static final ArrowRowReader rowReader;
+
+  static {
+    for (FlatStruct object : objects) {
+      columnarEncoder.write(object);
+    }
+    rowReader = new ArrowRowReader(columnarEncoder.finish());
+  }
+
+  @Benchmark
+  public Object rowBasedWrite() {
+    arrowWriter.reset();
+    for (FlatStruct object : objects) {
+      arrowWriter.write(rowEncoder.toRow(object));
+    }
+    return arrowWriter.finish();
+  }
+
+  @Benchmark
+  public Object columnarWrite() {
+    writeEncoder.reset();
+    for (FlatStruct object : objects) {
+      writeEncoder.write(object);
+    }
+    return writeEncoder.finish();
+  }
+
+  @Benchmark
+  public Object rowBasedRead() {
+    Object o = null;
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      o = rowEncoder.fromRow(rowReader.read(i));
+    }
+    return o;
+  }
+
+  @Benchmark
+  public Object columnarRead() {
+    Object o = null;
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      o = columnarEncoder.read(i);
+    }
+    return o;
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length == 0) {
+      String commandLine =
+          "org.apache.fory.*ColumnarSuite.* -f 3 -wi 3 -i 3 -t 1 -w 2s -r 2s -rf csv";
+      args = commandLine.split(" ");
+    }
+    LOG.info("command line: {}", Arrays.toString(args));
+    Main.main(args);
+  }
+}
@@ -20,16 +20,26 @@
 package org.apache.fory.benchmark;
 
 import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.apache.fory.Fory;
 import org.apache.fory.benchmark.state.ForyState;
 import org.apache.fory.benchmark.state.FstState;
 import org.apache.fory.benchmark.state.HessionState;
 import org.apache.fory.benchmark.state.JDKState;
 import org.apache.fory.benchmark.state.KryoState;
 import org.apache.fory.benchmark.state.ProtostuffState;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.util.StringEncodingUtils;
+import org.apache.fory.util.StringUtils;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 
 @BenchmarkMode(Mode.Throughput)
@@ -73,4 +83,95 @@ public class StringSerializationSuite {
     JDKState.serialize(state.bos, state.data.str);
     return state.bos;
   }
+
+  /**
+   * State for comparing vectorized string ops of `fory-simd` with scalar ops. `vectorized_*`
+   * benchmarks require JDK 17+ and `fory-simd` in classpath, which is added by the `jdk17-simd`
+   * profile automatically.
+   */
+  @State(Scope.Thread)
+  public static class SimdState {
+    @Param({"128", "1024", "8192"})
+    public int length;
+
+    public Fory fory;
+    public MemoryBuffer buffer;
+    // Mostly ascii strings are written as utf8 when string compression is enabled.
+    public String str;
+    public byte[] utf16Bytes;
+    public byte[] utf8Bytes;
+    public byte[] dst;
+
+    @Setup
+    public void setup() {
+      fory = Fory.builder().withStringCompressed(true).requireClassRegistration(false).build();
+      buffer = MemoryBuffer.newHeapBuffer(length * 4);
+      str = StringUtils.random(length - 1) + "\u4f60";
+      utf16Bytes = str.getBytes(StandardCharsets.UTF_16LE);
+      utf8Bytes = str.getBytes(StandardCharsets.UTF_8);
+      dst = new byte[length * 3];
+      fory.serialize(buffer, str);
+    }
+  }
+
+  private static Object serializeStr(SimdState state) {
+    state.buffer.writerIndex(0);
+    state.fory.serialize(state.buffer, state.str);
+    return state.buffer;
+  }
+
+  private static Object deserializeStr(SimdState state) {
+    state.buffer.readerIndex(0);
+    return state.fory.deserialize(state.buffer);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+  public Object vectorized_serializeStr(SimdState state) {
+    return serializeStr(state);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "-Dfory.vectorized_ops=false")
+  public Object scalar_serializeStr(SimdState state) {
+    return serializeStr(state);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+  public Object vectorized_deserializeStr(SimdState state) {
+    return deserializeStr(state);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "-Dfory.vectorized_ops=false")
+  public Object scalar_deserializeStr(SimdState state) {
+    return deserializeStr(state);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+  public int vectorized_utf16ToUtf8(SimdState state) {
+    return StringEncodingUtils.convertUTF16ToUTF8(state.utf16Bytes, state.dst, 0);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "-Dfory.vectorized_ops=false")
+  public int scalar_utf16ToUtf8(SimdState state) {
+    return StringEncodingUtils.convertUTF16ToUTF8(state.utf16Bytes, state.dst, 0);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+  public int vectorized_utf8ToUtf16(SimdState state) {
+    byte[] utf8Bytes = state.utf8Bytes;
+    return StringEncodingUtils.convertUTF8ToUTF16(utf8Bytes, 0, utf8Bytes.length, state.dst);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "-Dfory.vectorized_ops=false")
+  public int scalar_utf8ToUtf16(SimdState state) {
+    byte[] utf8Bytes = state.utf8Bytes;
+    return StringEncodingUtils.convertUTF8ToUTF16(utf8Bytes, 0, utf8Bytes.length, state.dst);
+  }
 }
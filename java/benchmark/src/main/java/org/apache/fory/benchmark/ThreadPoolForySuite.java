@@ -23,6 +23,7 @@ import java.io.IOException;
 import org.apache.fory.Fory;
 import org.apache.fory.ThreadSafeFory;
 import org.apache.fory.config.CompatibleMode;
+import org.apache.fory.config.ForyBuilder;
 import org.apache.fory.config.Language;
 import org.apache.fory.logging.Logger;
 import org.apache.fory.logging.LoggerFactory;
@@ -46,16 +47,22 @@ public class ThreadPoolForySuite {
 
   private static final Logger LOG = LoggerFactory.getLogger(ThreadPoolForySuite.class);
 
-  private ThreadSafeFory fory =
-      Fory.builder()
-          .withLanguage(Language.JAVA)
-          .requireClassRegistration(false)
-          .withJdkClassSerializableCheck(false)
-          .withRefTracking(false)
-          .withCompatibleMode(CompatibleMode.COMPATIBLE)
-          .withAsyncCompilation(true)
-          .withRefTracking(true)
-          .buildThreadSafeForyPool(10, 60);
+  private ThreadSafeFory fory = newBuilder().buildThreadSafeForyPool(10, 60);
+
+  private ThreadSafeFory stripedFory = newBuilder().buildThreadSafeForyPool(10, 60, true);
+
+  private ThreadSafeFory threadLocalFory = newBuilder().buildThreadLocalFory();
+
+  private static ForyBuilder newBuilder() {
+    return Fory.builder()
+        .withLanguage(Language.JAVA)
+        .requireClassRegistration(false)
+        .withJdkClassSerializableCheck(false)
+        .withRefTracking(false)
+        .withCompatibleMode(CompatibleMode.COMPATIBLE)
+        .withAsyncCompilation(true)
+        .withRefTracking(true);
+  }
 
   private static StructBenchmark.NumericStruct struct;
 
@@ -77,13 +84,25 @@ public class ThreadPoolForySuite {
     bh.consume(fory.serialize(struct));
   }
 
+  @Benchmark()
+  @Threads(10000)
+  public void testStripedObjectPool(Blackhole bh) {
+    bh.consume(stripedFory.serialize(struct));
+  }
+
+  @Benchmark()
+  @Threads(10000)
+  public void testThreadLocal(Blackhole bh) {
+    bh.consume(threadLocalFory.serialize(struct));
+  }
+
   @TearDown
   public void tearDown() {}
 
   public static void main(String[] args) throws IOException {
     if (args.length == 0) {
       String commandLine =
-          "org.apache.fory.*ObjectPoolBenchmark.* -f 1 -wi 0 -i 5 -w 2s -r 2s -rf csv";
+          "org.apache.fory.*ThreadPoolForySuite.* -f 1 -wi 0 -i 5 -w 2s -r 2s -rf csv";
       System.out.println(commandLine);
       args = commandLine.split(" ");
     }
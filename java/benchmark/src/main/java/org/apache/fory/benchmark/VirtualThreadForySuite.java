@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.fory.Fory;
+import org.apache.fory.ThreadSafeFory;
+import org.apache.fory.config.CompatibleMode;
+import org.apache.fory.config.ForyBuilder;
+import org.apache.fory.config.Language;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Serialize concurrently from 100k virtual threads, requires JDK 21+. Compares fory instances
+ * bounded by carrier threads against {@link org.apache.fory.ThreadLocalFory}, which creates a fory
+ * for every virtual thread.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MILLISECONDS)
+public class VirtualThreadForySuite {
+
+  @Param({"virtual", "striped_pool", "pool", "thread_local"})
+  public String foryType;
+
+  @Param({"100000"})
+  public int numThreads;
+
+  private ThreadSafeFory fory;
+  private ExecutorService executor;
+  private static final StructBenchmark.NumericStruct struct = StructBenchmark.NumericStruct.build();
+
+  @Setup
+  public void setup() throws Exception {
+    ForyBuilder builder =
+        Fory.builder()
+            .withLanguage(Language.JAVA)
+            .requireClassRegistration(false)
+            .withCompatibleMode(CompatibleMode.COMPATIBLE)
+            .withRefTracking(true);
+    int numCarriers = Runtime.getRuntime().availableProcessors();
+    switch (foryType) {
+      case "virtual":
+        fory = builder.buildVirtualThreadSafeFory();
+        break;
+      case "striped_pool":
+        fory = builder.buildThreadSafeForyPool(numCarriers, numCarriers, true);
+        break;
+      case "pool":
+        fory = builder.buildThreadSafeForyPool(numCarriers, numCarriers);
+        break;
+      case "thread_local":
+        fory = builder.buildThreadLocalFory();
+        break;
+      default:
+        throw new IllegalArgumentException(foryType);
+    }
+    // Created by reflection to keep benchmark compiling on JDK8.
+    executor =
+        (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+  }
+
+  @Benchmark
+  public Object serialize() throws Exception {
+    List<Future<byte[]>> futures = new ArrayList<>(numThreads);
+    for (int i = 0; i < numThreads; i++) {
+      futures.add(executor.submit(() -> fory.serialize(struct)));
+    }
+    long size = 0;
+    for (Future<byte[]> future : futures) {
+      size += future.get().length;
+    }
+    return size;
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      String commandLine =
+          "org.apache.fory.*VirtualThreadForySuite.* -f 1 -wi 3 -i 5 -t 1 -rf csv"
+              + " -jvmArgs -Xmx4g";
+      System.out.println(commandLine);
+      args = commandLine.split(" ");
+    }
+    Main.main(args);
+  }
+}
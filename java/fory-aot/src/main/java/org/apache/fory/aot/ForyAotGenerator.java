@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.aot;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.apache.fory.Fory;
+import org.apache.fory.builder.AotCodecs;
+import org.apache.fory.codegen.CompileUnit;
+import org.apache.fory.codegen.JaninoUtils;
+import org.apache.fory.config.CompatibleMode;
+import org.apache.fory.exception.ForyException;
+import org.apache.fory.logging.Logger;
+import org.apache.fory.logging.LoggerFactory;
+import org.apache.fory.util.Preconditions;
+
+/**
+ * Generates serializers of bean classes at build time. Generated classes are written to the class
+ * output directory and packaged into the jar together with the bean classes, fory will load them
+ * instead of generating serializers by jit when the bean classes are serialized by a fory with the
+ * same config, so there will be no jit compilation and warm up at runtime.
+ *
+ * <p>The generator needs the compiled bean classes, so it should run after compilation, for example
+ * in the <code>process-classes</code> phase by the exec-maven-plugin:
+ *
+ * <pre>{@code
+ * <plugin>
+ *   <groupId>org.codehaus.mojo</groupId>
+ *   <artifactId>exec-maven-plugin</artifactId>
+ *   <executions>
+ *     <execution>
+ *       <phase>process-classes</phase>
+ *       <goals><goal>java</goal></goals>
+ *       <configuration>
+ *         <mainClass>org.apache.fory.aot.ForyAotGenerator</mainClass>
+ *         <classpathScope>compile</classpathScope>
+ *         <arguments>
+ *           <argument>--output</argument>
+ *           <argument>${project.build.outputDirectory}</argument>
+ *           <argument>--fory-factory</argument>
+ *           <argument>com.example.MyForyFactory</argument>
+ *           <argument>com.example.Order</argument>
+ *         </arguments>
+ *       </configuration>
+ *     </execution>
+ *   </executions>
+ * </plugin>
+ * }</pre>
+ *
+ * <p>Generated serializers depend on the config and the serializers of the field types, so the fory
+ * used for generation must be created the same way as the runtime one, which is usually done by
+ * passing a {@link Supplier} of fory by <code>--fory-factory</code>. Serializers generated by a
+ * different config won't be used, and fory will fall back to jit for such classes.
+ */
+public class ForyAotGenerator {
+  private static final Logger LOG = LoggerFactory.getLogger(ForyAotGenerator.class);
+
+  private final Fory fory;
+  private final Path classesDir;
+  private Path sourcesDir;
+
+  /**
+   * Creates a generator.
+   *
+   * @param fory fory which has the same config and registrations as the runtime one, codegen must
+   *     be enabled and async compilation must be disabled.
+   * @param classesDir directory to write generated classes.
+   */
+  public ForyAotGenerator(Fory fory, Path classesDir) {
+    Preconditions.checkArgument(
+        fory.getConfig().isCodeGenEnabled(), "Codegen must be enabled for AOT generation");
+    Preconditions.checkArgument(
+        !fory.getConfig().isAsyncCompilationEnabled(),
+        "Async compilation must be disabled for AOT generation");
+    this.fory = fory;
+    this.classesDir = classesDir;
+  }
+
+  /** Set directory to write sources of generated classes, sources won't be written if not set. */
+  public ForyAotGenerator withSourcesDir(Path sourcesDir) {
+    this.sourcesDir = sourcesDir;
+    return this;
+  }
+
+  /** Generate serializers for <code>classes</code>, returns names of generated classes. */
+  public List<String> generate(Collection<Class<?>> classes) {
+    List<CompileUnit> units;
+    synchronized (AotCodecs.class) {
+      AotCodecs.setGenerating(true);
+      try {
+        for (Class<?> cls : classes) {
+          fory.getClassResolver().getSerializerClass(cls);
+        }
+        units = AotCodecs.drainRecordedUnits();
+      } finally {
+        AotCodecs.setGenerating(false);
+      }
+    }
+    List<String> classNames = new ArrayList<>();
+    if (units.isEmpty()) {
+      return classNames;
+    }
+    ClassLoader classLoader = classes.iterator().next().getClassLoader();
+    if (classLoader == null) {
+      classLoader = Fory.class.getClassLoader();
+    }
+    // compile all units together, because codecs reference codecs of field types.
+    Map<String, byte[]> bytecodes =
+        JaninoUtils.toBytecode(classLoader, units.toArray(new CompileUnit[0]));
+    try {
+      for (Map.Entry<String, byte[]> entry : bytecodes.entrySet()) {
+        write(classesDir.resolve(entry.getKey()), entry.getValue());
+      }
+      for (CompileUnit unit : units) {
+        String className = unit.getQualifiedClassName();
+        classNames.add(className);
+        if (sourcesDir != null) {
+          Path path = sourcesDir.resolve(className.replace('.', '/') + ".java");
+          write(path, unit.getCode().getBytes(StandardCharsets.UTF_8));
+        }
+      }
+    } catch (IOException e) {
+      throw new ForyException("Failed to write generated serializers", e);
+    }
+    return classNames;
+  }
+
+  private static void write(Path path, byte[] bytes) throws IOException {
+    Files.createDirectories(path.getParent());
+    Files.write(path, bytes);
+  }
+
+  /**
+   * Command line entry, usage: <code>
+   * ForyAotGenerator --output classesDir [--sources sourcesDir] [--fory-factory factoryClass]
+   * [--ref-tracking] [--compatible] className...</code>.
+   */
+  @SuppressWarnings("unchecked")
+  public static void main(String[] args) throws Exception {
+    String output = null;
+    String sources = null;
+    String factory = null;
+    boolean refTracking = false;
+    boolean compatible = false;
+    List<String> classNames = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--output":
+          output = args[++i];
+          break;
+        case "--sources":
+          sources = args[++i];
+          break;
+        case "--fory-factory":
+          factory = args[++i];
+          break;
+        case "--ref-tracking":
+          refTracking = true;
+          break;
+        case "--compatible":
+          compatible = true;
+          break;
+        default:
+          if (args[i].startsWith("--")) {
+            throw new IllegalArgumentException(String.format("Unknown option %s", args[i]));
+          }
+          classNames.add(args[i]);
+      }
+    }
+    if (output == null || classNames.isEmpty()) {
+      throw new IllegalArgumentException(
+          "Usage: ForyAotGenerator --output classesDir [--sources sourcesDir] "
+              + "[--fory-factory factoryClass] [--ref-tracking] [--compatible] className...");
+    }
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    if (classLoader == null) {
+      classLoader = ForyAotGenerator.class.getClassLoader();
+    }
+    Fory fory;
+    if (factory != null) {
+      Class<?> factoryClass = Class.forName(factory, true, classLoader);
+      fory = ((Supplier<Fory>) factoryClass.getDeclaredConstructor().newInstance()).get();
+    } else {
+      fory =
+          Fory.builder()
+              .withRefTracking(refTracking)
+              .withCompatibleMode(
+                  compatible ? CompatibleMode.COMPATIBLE : CompatibleMode.SCHEMA_CONSISTENT)
+              .requireClassRegistration(false)
+              .withCodegen(true)
+              .withAsyncCompilation(false)
+              .withClassLoader(classLoader)
+              .build();
+    }
+    List<Class<?>> classes = new ArrayList<>();
+    for (String className : classNames) {
+      classes.add(Class.forName(className, false, classLoader));
+    }
+    ForyAotGenerator generator = new ForyAotGenerator(fory, Paths.get(output));
+    if (sources != null) {
+      generator.withSourcesDir(Paths.get(sources));
+    }
+    List<String> generated = generator.generate(classes);
+    LOG.info("Generated {} classes for {} into {}", generated.size(), classNames, output);
+  }
+}
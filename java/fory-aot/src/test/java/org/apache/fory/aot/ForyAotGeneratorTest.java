@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.aot;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.fory.Fory;
+import org.apache.fory.builder.AotCodecs;
+import org.apache.fory.codegen.CompileUnit;
+import org.apache.fory.codegen.JaninoUtils;
+import org.apache.fory.config.Language;
+import org.testng.annotations.Test;
+
+public class ForyAotGeneratorTest {
+
+  private static Fory createFory(ClassLoader classLoader) {
+    return Fory.builder()
+        .withLanguage(Language.JAVA)
+        .requireClassRegistration(false)
+        .withCodegen(true)
+        .withAsyncCompilation(false)
+        .withClassLoader(classLoader)
+        .build();
+  }
+
+  @Test
+  public void testGenerate() throws Exception {
+    Path classesDir = Files.createTempDirectory("fory_aot_classes");
+    Path sourcesDir = Files.createTempDirectory("fory_aot_sources");
+    CompileUnit beanUnit =
+        new CompileUnit(
+            "demo.aot",
+            "Point",
+            ""
+                + "package demo.aot;\n"
+                + "public class Point {\n"
+                + "  public int x;\n"
+                + "  public long y;\n"
+                + "  public String name;\n"
+                + "}");
+    ClassLoader parent = getClass().getClassLoader();
+    for (Map.Entry<String, byte[]> entry : JaninoUtils.toBytecode(parent, beanUnit).entrySet()) {
+      Path path = classesDir.resolve(entry.getKey());
+      Files.createDirectories(path.getParent());
+      Files.write(path, entry.getValue());
+    }
+    URL[] urls = {classesDir.toUri().toURL()};
+    try (URLClassLoader loader = new URLClassLoader(urls, parent)) {
+      Class<?> cls = loader.loadClass("demo.aot.Point");
+      ForyAotGenerator generator =
+          new ForyAotGenerator(createFory(loader), classesDir).withSourcesDir(sourcesDir);
+      List<String> classNames = generator.generate(Collections.singletonList(cls));
+      assertEquals(classNames.size(), 1);
+      assertTrue(classNames.get(0).startsWith("demo.aot.PointForyCodecAot_"));
+      assertTrue(Files.exists(sourcesDir.resolve(classNames.get(0).replace('.', '/') + ".java")));
+      assertFalse(AotCodecs.isGenerating());
+    }
+    // A new classloader which loads the bean and generated serializers from the classes dir.
+    try (URLClassLoader loader = new URLClassLoader(urls, parent)) {
+      Class<?> cls = loader.loadClass("demo.aot.Point");
+      Fory fory = createFory(loader);
+      Class<?> serializerClass = fory.getClassResolver().getSerializerClass(cls);
+      assertEquals(
+          serializerClass.getName(),
+          "demo.aot.PointForyCodecAot_" + AotCodecs.configFingerprint(fory.getConfig()));
+      assertEquals(serializerClass.getClassLoader(), loader);
+      Object point = cls.getDeclaredConstructor().newInstance();
+      cls.getField("x").set(point, 1);
+      cls.getField("y").set(point, 2L);
+      cls.getField("name").set(point, "p");
+      Object newPoint = fory.deserialize(fory.serialize(point));
+      assertEquals(cls.getField("x").get(newPoint), 1);
+      assertEquals(cls.getField("y").get(newPoint), 2L);
+      assertEquals(cls.getField("name").get(newPoint), "p");
+    }
+  }
+}
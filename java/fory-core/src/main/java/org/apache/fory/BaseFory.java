@@ -20,11 +20,18 @@
 package org.apache.fory;
 
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.List;
 import java.util.function.Function;
 import org.apache.fory.io.ForyInputStream;
+import org.apache.fory.io.ForyOutputStream;
 import org.apache.fory.io.ForyReadableChannel;
+import org.apache.fory.io.ForyWritableChannel;
+import org.apache.fory.io.SegmentedBuffer;
 import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.memory.MemoryUtils;
 import org.apache.fory.serializer.BufferCallback;
+import org.apache.fory.serializer.FieldProjection;
 import org.apache.fory.serializer.Serializer;
 import org.apache.fory.serializer.SerializerFactory;
 import org.apache.fory.serializer.Serializers;
@@ -127,6 +134,42 @@ public interface BaseFory {
 
   void serialize(OutputStream outputStream, Object obj, BufferCallback callback);
 
+  /**
+   * Serialize <code>obj</code> to a {@link ForyOutputStream}, the serialized data will be flushed
+   * to the underlying stream in chunks instead of being buffered as a whole in memory.
+   */
+  void serialize(ForyOutputStream outputStream, Object obj);
+
+  /**
+   * Serialize <code>obj</code> to a {@link ForyOutputStream}, the serialized data will be flushed
+   * to the underlying stream in chunks instead of being buffered as a whole in memory.
+   */
+  void serialize(ForyOutputStream outputStream, Object obj, BufferCallback callback);
+
+  /**
+   * Serialize <code>obj</code> to a {@link ForyWritableChannel}, the serialized data will be
+   * flushed to the underlying channel in chunks instead of being buffered as a whole in memory.
+   */
+  void serialize(ForyWritableChannel channel, Object obj);
+
+  /**
+   * Serialize <code>obj</code> to a {@link ForyWritableChannel}, the serialized data will be
+   * flushed to the underlying channel in chunks instead of being buffered as a whole in memory.
+   */
+  void serialize(ForyWritableChannel channel, Object obj, BufferCallback callback);
+
+  /**
+   * Serialize <code>obj</code> to a {@link SegmentedBuffer}, the serialized data will be kept in
+   * fixed-size segments instead of a contiguous buffer.
+   */
+  void serialize(SegmentedBuffer buffer, Object obj);
+
+  /**
+   * Serialize <code>obj</code> to a {@link SegmentedBuffer}, the serialized data will be kept in
+   * fixed-size segments instead of a contiguous buffer.
+   */
+  void serialize(SegmentedBuffer buffer, Object obj, BufferCallback callback);
+
   /** Deserialize <code>obj</code> from a byte array. */
   Object deserialize(byte[] bytes);
 
@@ -134,6 +177,14 @@ public interface BaseFory {
 
   Object deserialize(byte[] bytes, Iterable<MemoryBuffer> outOfBandBuffers);
 
+  /**
+   * Deserialize an object of <code>type</code> from a byte array, only fields selected by <code>
+   * projection</code> are deserialized, other fields are skipped and left as default values.
+   */
+  <T> T deserialize(byte[] bytes, Class<T> type, FieldProjection projection);
+
+  <T> T deserialize(MemoryBuffer buffer, Class<T> type, FieldProjection projection);
+
   /**
    * Deserialize <code>obj</code> from a off-heap buffer specified by <code>address</code> and
    * <code>size</code>.
@@ -153,6 +204,17 @@ public interface BaseFory {
 
   Object deserialize(ForyReadableChannel channel, Iterable<MemoryBuffer> outOfBandBuffers);
 
+  /**
+   * Deserialize <code>obj</code> from the file region [position, position + size) by mapping it
+   * into memory without copying, see {@link MemoryUtils#map}. Deserialized {@link
+   * java.nio.ByteBuffer}s are read-only views onto the mapped region, while primitive arrays are
+   * still copied onto heap.
+   */
+  Object deserialize(FileChannel channel, long position, int size);
+
+  Object deserialize(
+      FileChannel channel, long position, int size, Iterable<MemoryBuffer> outOfBandBuffers);
+
   /**
    * Serialize java object without class info, deserialization should use {@link
    * #deserializeJavaObject}.
@@ -211,6 +273,31 @@ public interface BaseFory {
   @Deprecated
   Object deserializeJavaObjectAndClass(ForyReadableChannel channel);
 
+  /**
+   * Serialize objects of same class as a batch, the class info and serializer are resolved only
+   * once for the whole batch.
+   */
+  <T> byte[] serializeBatch(Iterable<T> objects, Class<T> cls);
+
+  /**
+   * Serialize objects of same class as a batch, the class info and serializer are resolved only
+   * once for the whole batch. Every object in the batch can be read by {@link
+   * #deserializeBatchElement} without decoding the others.
+   */
+  <T> void serializeBatch(MemoryBuffer buffer, Iterable<T> objects, Class<T> cls);
+
+  /** Deserialize all objects of a batch written by {@link #serializeBatch}. */
+  <T> List<T> deserializeBatch(byte[] bytes, Class<T> cls);
+
+  /** Deserialize all objects of a batch written by {@link #serializeBatch}. */
+  <T> List<T> deserializeBatch(MemoryBuffer buffer, Class<T> cls);
+
+  /**
+   * Deserialize the object at <code>index</code> of a batch written by {@link #serializeBatch}
+   * without decoding other objects.
+   */
+  <T> T deserializeBatchElement(MemoryBuffer buffer, Class<T> cls, int index);
+
   /** Deep copy the <code>obj</code>. */
   <T> T copy(T obj);
 }
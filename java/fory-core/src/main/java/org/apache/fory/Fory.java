@@ -23,27 +23,38 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.apache.fory.builder.JITContext;
 import org.apache.fory.collection.IdentityMap;
+import org.apache.fory.collection.IntArray;
 import org.apache.fory.config.CompatibleMode;
 import org.apache.fory.config.Config;
 import org.apache.fory.config.ForyBuilder;
 import org.apache.fory.config.Language;
 import org.apache.fory.config.LongEncoding;
+import org.apache.fory.exception.CorruptedDataException;
 import org.apache.fory.io.ForyInputStream;
+import org.apache.fory.io.ForyOutputStream;
 import org.apache.fory.io.ForyReadableChannel;
+import org.apache.fory.io.ForyStreamWriter;
+import org.apache.fory.io.ForyWritableChannel;
+import org.apache.fory.io.PayloadCompressor;
+import org.apache.fory.io.SegmentedBuffer;
 import org.apache.fory.logging.Logger;
 import org.apache.fory.logging.LoggerFactory;
+import org.apache.fory.memory.MemoryArena;
 import org.apache.fory.memory.MemoryBuffer;
 import org.apache.fory.memory.MemoryUtils;
 import org.apache.fory.meta.MetaCompressor;
+import org.apache.fory.metrics.ForyMetrics;
 import org.apache.fory.resolver.ClassInfo;
 import org.apache.fory.resolver.ClassInfoHolder;
 import org.apache.fory.resolver.ClassResolver;
@@ -57,7 +68,9 @@ import org.apache.fory.resolver.XtypeResolver;
 import org.apache.fory.serializer.ArraySerializers;
 import org.apache.fory.serializer.BufferCallback;
 import org.apache.fory.serializer.BufferObject;
+import org.apache.fory.serializer.FieldProjection;
 import org.apache.fory.serializer.PrimitiveSerializers.LongSerializer;
+import org.apache.fory.serializer.ProjectedObjectSerializer;
 import org.apache.fory.serializer.Serializer;
 import org.apache.fory.serializer.SerializerFactory;
 import org.apache.fory.serializer.StringSerializer;
@@ -65,6 +78,7 @@ import org.apache.fory.serializer.collection.CollectionSerializers.ArrayListSeri
 import org.apache.fory.serializer.collection.MapSerializers.HashMapSerializer;
 import org.apache.fory.type.Generics;
 import org.apache.fory.type.Types;
+import org.apache.fory.util.Crc32C;
 import org.apache.fory.util.ExceptionUtils;
 import org.apache.fory.util.Preconditions;
 import org.apache.fory.util.StringUtils;
@@ -98,6 +112,13 @@ public final class Fory implements BaseFory {
   private static final boolean isLittleEndian = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
   private static final byte BITMAP = isLittleEndian ? isLittleEndianFlag : 0;
   private static final short MAGIC_NUMBER = 0x62D4;
+  // | int32 body length | int32 crc32c of body |
+  private static final int FRAME_HEADER_SIZE = 8;
+  // payload header: | int8 flag | varuint32 length | varuint32 compressed length |, lengths are
+  // written only if the payload is compressed.
+  private static final byte PAYLOAD_RAW = 0;
+  private static final byte PAYLOAD_COMPRESSED = 1;
+  private static final int MAX_PAYLOAD_HEADER_SIZE = 11;
 
   private final Config config;
   private final boolean refTracking;
@@ -117,6 +138,11 @@ public final class Fory implements BaseFory {
   private final boolean compressInt;
   private final LongEncoding longEncoding;
   private final Generics generics;
+  private final ForyMetrics metrics;
+  private final boolean frameChecksum;
+  private final PayloadCompressor payloadCompressor;
+  private final int payloadCompressionThreshold;
+  private MemoryBuffer compressionBuffer;
   private Language peerLanguage;
   private BufferCallback bufferCallback;
   private Iterator<MemoryBuffer> outOfBandBuffers;
@@ -137,8 +163,12 @@ public final class Fory implements BaseFory {
     this.shareMeta = config.isMetaShareEnabled();
     compressInt = config.compressInt();
     longEncoding = config.longEncoding();
+    metrics = config.getMetrics();
+    frameChecksum = config.isFrameChecksumEnabled();
+    payloadCompressor = config.getPayloadCompressor();
+    payloadCompressionThreshold = config.getPayloadCompressionThreshold();
     if (refTracking) {
-      this.refResolver = new MapRefResolver();
+      this.refResolver = new MapRefResolver(metrics);
     } else {
       this.refResolver = new NoRefResolver();
     }
@@ -299,6 +329,75 @@ public final class Fory implements BaseFory {
 
   @Override
   public MemoryBuffer serialize(MemoryBuffer buffer, Object obj, BufferCallback callback) {
+    if (frameChecksum) {
+      return serializeFrame(buffer, obj, callback);
+    }
+    return serializePayload(buffer, obj, callback);
+  }
+
+  private MemoryBuffer serializeFrame(MemoryBuffer buffer, Object obj, BufferCallback callback) {
+    int frameStart = buffer.writerIndex();
+    // frame header will be patched after the body is written, the whole frame must be kept in the
+    // buffer if it's a stream buffer.
+    int pinnedIndex = buffer.pinWriterIndex(frameStart);
+    try {
+      buffer.writeInt64(0);
+      serializePayload(buffer, obj, callback);
+      int bodyStart = frameStart + FRAME_HEADER_SIZE;
+      int bodyLength = buffer.writerIndex() - bodyStart;
+      buffer.putInt32(frameStart, bodyLength);
+      buffer.putInt32(frameStart + 4, Crc32C.compute(buffer, bodyStart, bodyLength));
+    } finally {
+      buffer.unpinWriterIndex(pinnedIndex);
+    }
+    return buffer;
+  }
+
+  private MemoryBuffer serializePayload(MemoryBuffer buffer, Object obj, BufferCallback callback) {
+    if (payloadCompressor == null) {
+      return serializeInternal(buffer, obj, callback);
+    }
+    int payloadStart = buffer.writerIndex();
+    // the payload will be replaced by compressed data, it must be kept in the buffer if it's a
+    // stream buffer.
+    int pinnedIndex = buffer.pinWriterIndex(payloadStart);
+    try {
+      buffer.writeByte(PAYLOAD_RAW);
+      serializeInternal(buffer, obj, callback);
+      int length = buffer.writerIndex() - payloadStart - 1;
+      if (length >= payloadCompressionThreshold) {
+        compressPayload(buffer, payloadStart, length);
+      }
+    } finally {
+      buffer.unpinWriterIndex(pinnedIndex);
+    }
+    return buffer;
+  }
+
+  private void compressPayload(MemoryBuffer buffer, int payloadStart, int length) {
+    MemoryBuffer compressionBuffer = this.compressionBuffer;
+    if (compressionBuffer == null) {
+      compressionBuffer = this.compressionBuffer = MemoryBuffer.newHeapBuffer(length);
+    }
+    compressionBuffer.ensure(payloadCompressor.maxCompressedLength(length));
+    int compressedLength =
+        payloadCompressor.compress(buffer, payloadStart + 1, length, compressionBuffer, 0);
+    if (compressedLength + MAX_PAYLOAD_HEADER_SIZE < length) {
+      buffer.writerIndex(payloadStart);
+      buffer.writeByte(PAYLOAD_COMPRESSED);
+      buffer.writeVarUint32(length);
+      buffer.writeVarUint32(compressedLength);
+      buffer.writeBytes(compressionBuffer.getHeapMemory(), 0, compressedLength);
+    }
+    // otherwise the raw payload is kept since the data is incompressible.
+    if (compressionBuffer.size() > config.bufferSizeLimitBytes()) {
+      this.compressionBuffer = null;
+    }
+  }
+
+  private MemoryBuffer serializeInternal(MemoryBuffer buffer, Object obj, BufferCallback callback) {
+    long startTime = metrics != null ? System.nanoTime() : 0;
+    int startIndex = buffer.writerIndex();
     if (crossLanguage) {
       buffer.writeInt16(MAGIC_NUMBER);
     }
@@ -326,6 +425,12 @@ public final class Fory implements BaseFory {
       } else {
         xwrite(buffer, obj);
       }
+      if (metrics != null) {
+        metrics.onSerialize(
+            obj.getClass(),
+            Math.max(buffer.writerIndex() - startIndex, 0),
+            System.nanoTime() - startTime);
+      }
       return buffer;
     } catch (StackOverflowError t) {
       throw processStackOverflowError(t);
@@ -337,12 +442,78 @@ public final class Fory implements BaseFory {
 
   @Override
   public void serialize(OutputStream outputStream, Object obj) {
-    serializeToStream(outputStream, buf -> serialize(buf, obj, null));
+    serialize(outputStream, obj, null);
   }
 
   @Override
   public void serialize(OutputStream outputStream, Object obj, BufferCallback callback) {
-    serializeToStream(outputStream, buf -> serialize(buf, obj, callback));
+    if (outputStream instanceof ForyOutputStream) {
+      serialize((ForyOutputStream) outputStream, obj, callback);
+    } else {
+      serializeToStream(outputStream, buf -> serialize(buf, obj, callback));
+    }
+  }
+
+  @Override
+  public void serialize(ForyOutputStream outputStream, Object obj) {
+    serialize(outputStream, obj, null);
+  }
+
+  /**
+   * Serialize <code>obj</code> to <code>outputStream</code> in chunks. Serialized data will be
+   * flushed to the underlying stream whenever the buffer of <code>outputStream</code> is full, so
+   * the peak memory is bounded by the buffer size instead of the serialized size.
+   */
+  @Override
+  public void serialize(ForyOutputStream outputStream, Object obj, BufferCallback callback) {
+    serializeToStreamWriter(outputStream, obj, callback);
+  }
+
+  @Override
+  public void serialize(ForyWritableChannel channel, Object obj) {
+    serialize(channel, obj, null);
+  }
+
+  /**
+   * Serialize <code>obj</code> to <code>channel</code> in chunks. Serialized data will be flushed
+   * to the underlying channel whenever the buffer of <code>channel</code> is full, and large out of
+   * band buffers written in band will be written to the channel directly without copying.
+   */
+  @Override
+  public void serialize(ForyWritableChannel channel, Object obj, BufferCallback callback) {
+    serializeToStreamWriter(channel, obj, callback);
+  }
+
+  @Override
+  public void serialize(SegmentedBuffer buffer, Object obj) {
+    serialize(buffer, obj, null);
+  }
+
+  /**
+   * Serialize <code>obj</code> to <code>buffer</code>. A new segment will be allocated whenever
+   * current segment is full, so a large payload is never copied into a larger contiguous array.
+   */
+  @Override
+  public void serialize(SegmentedBuffer buffer, Object obj, BufferCallback callback) {
+    serializeToStreamWriter(buffer, obj, callback);
+  }
+
+  private void serializeToStreamWriter(
+      ForyStreamWriter streamWriter, Object obj, BufferCallback callback) {
+    MemoryBuffer buf = streamWriter.getBuffer();
+    int pinnedIndex = -1;
+    if (shareMeta) {
+      // meta start offset will be patched after the object graph is written.
+      pinnedIndex = buf.pinWriterIndex(buf.writerIndex());
+    }
+    try {
+      serialize(buf, obj, callback);
+    } finally {
+      if (shareMeta) {
+        buf.unpinWriterIndex(pinnedIndex);
+      }
+    }
+    streamWriter.flush();
   }
 
   private StackOverflowError processStackOverflowError(StackOverflowError e) {
@@ -378,7 +549,9 @@ public final class Fory implements BaseFory {
   public MemoryBuffer getBuffer() {
     MemoryBuffer buf = buffer;
     if (buf == null) {
-      buf = buffer = MemoryBuffer.newHeapBuffer(64);
+      MemoryArena arena = config.getMemoryArena();
+      buf = buffer = arena != null ? arena.allocate(64) : MemoryBuffer.newHeapBuffer(64);
+      buf.setMetrics(metrics);
     }
     return buf;
   }
@@ -386,7 +559,16 @@ public final class Fory implements BaseFory {
   public void resetBuffer() {
     MemoryBuffer buf = buffer;
     if (buf != null && buf.size() > config.bufferSizeLimitBytes()) {
-      buffer = MemoryBuffer.newHeapBuffer(config.bufferSizeLimitBytes());
+      MemoryArena arena = config.getMemoryArena();
+      if (arena != null) {
+        // The buffer may still be referenced by users through `getBuffer` or slices of it, so its
+        // block can't be returned to the arena for reuse, leave it to gc instead.
+        arena.detach(buf);
+        buffer = arena.allocate(config.bufferSizeLimitBytes());
+      } else {
+        buffer = MemoryBuffer.newHeapBuffer(config.bufferSizeLimitBytes());
+      }
+      buffer.setMetrics(metrics);
     }
   }
 
@@ -678,6 +860,10 @@ public final class Fory implements BaseFory {
       } else {
         buffer.writeVarUint32(totalBytes);
       }
+      ForyStreamWriter streamWriter = buffer.getStreamWriter();
+      if (streamWriter != null && streamWriter.writeBufferObject(bufferObject)) {
+        return;
+      }
       int writerIndex = buffer.writerIndex();
       buffer.ensure(writerIndex + bufferObject.totalBytes());
       bufferObject.writeTo(buffer);
@@ -702,6 +888,10 @@ public final class Fory implements BaseFory {
       } else {
         buffer.writeVarUint32(totalBytes);
       }
+      ForyStreamWriter streamWriter = buffer.getStreamWriter();
+      if (streamWriter != null && streamWriter.writeBufferObject(bufferObject)) {
+        return;
+      }
       bufferObject.writeTo(buffer);
     } else {
       buffer.writeBoolean(false);
@@ -718,6 +908,8 @@ public final class Fory implements BaseFory {
       } else {
         size = buffer.readVarUint32();
       }
+      // fill buffer from stream if data isn't read yet.
+      buffer.checkReadableBytes(size);
       MemoryBuffer slice = buffer.slice(buffer.readerIndex(), size);
       buffer.readerIndex(buffer.readerIndex() + size);
       return slice;
@@ -804,6 +996,34 @@ public final class Fory implements BaseFory {
     }
   }
 
+  @Override
+  public <T> T deserialize(byte[] bytes, Class<T> type, FieldProjection projection) {
+    return deserialize(MemoryUtils.wrap(bytes), type, projection);
+  }
+
+  /**
+   * Deserialize an object of <code>type</code> from a <code>buffer</code>, only fields selected by
+   * <code>projection</code> are deserialized, unselected fields are skipped and left as default
+   * values, see {@link ProjectedObjectSerializer} for how fields are skipped.
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T deserialize(MemoryBuffer buffer, Class<T> type, FieldProjection projection) {
+    Preconditions.checkNotNull(projection);
+    if (frameChecksum) {
+      checkFrame(buffer);
+    }
+    if (payloadCompressor != null) {
+      buffer = readPayload(buffer);
+    }
+    generics.pushGenericType(classResolver.buildGenericType(type));
+    try {
+      return (T) deserializeInternal(buffer, null, type, projection);
+    } finally {
+      generics.popGenericType();
+    }
+  }
+
   @Override
   public Object deserialize(byte[] bytes, Iterable<MemoryBuffer> outOfBandBuffers) {
     return deserialize(MemoryUtils.wrap(bytes), outOfBandBuffers);
@@ -834,6 +1054,22 @@ public final class Fory implements BaseFory {
    */
   @Override
   public Object deserialize(MemoryBuffer buffer, Iterable<MemoryBuffer> outOfBandBuffers) {
+    if (frameChecksum) {
+      checkFrame(buffer);
+    }
+    if (payloadCompressor != null) {
+      buffer = readPayload(buffer);
+    }
+    return deserializeInternal(buffer, outOfBandBuffers, null, null);
+  }
+
+  private Object deserializeInternal(
+      MemoryBuffer buffer,
+      Iterable<MemoryBuffer> outOfBandBuffers,
+      Class<?> type,
+      FieldProjection projection) {
+    long startTime = metrics != null ? System.nanoTime() : 0;
+    int startIndex = buffer.readerIndex();
     try {
       jitContext.lock();
       if (depth != 0) {
@@ -879,9 +1115,15 @@ public final class Fory implements BaseFory {
       Object obj;
       if (isTargetXLang) {
         obj = xreadRef(buffer);
+      } else if (projection != null) {
+        obj = readProjectedRef(buffer, type, projection);
       } else {
         obj = readRef(buffer);
       }
+      if (metrics != null && obj != null) {
+        metrics.onDeserialize(
+            obj.getClass(), buffer.readerIndex() - startIndex, System.nanoTime() - startTime);
+      }
       return obj;
     } catch (Throwable t) {
       throw ExceptionUtils.handleReadFailed(this, t);
@@ -894,6 +1136,82 @@ public final class Fory implements BaseFory {
     }
   }
 
+  /**
+   * Reads the frame header, and verifies the checksum of the frame body before it's deserialized.
+   * For a stream buffer, the whole body will be read into the buffer first.
+   */
+  private void checkFrame(MemoryBuffer buffer) {
+    int bodyLength;
+    int checksum;
+    try {
+      bodyLength = buffer.readInt32();
+      checksum = buffer.readInt32();
+      if (bodyLength < 0) {
+        throw new CorruptedDataException("Invalid frame body length " + bodyLength);
+      }
+      if (bodyLength > config.maxFrameBytes()) {
+        throw new CorruptedDataException(
+            String.format(
+                "Frame body length %d exceeds max frame bytes %d",
+                bodyLength, config.maxFrameBytes()));
+      }
+      buffer.checkReadableBytes(bodyLength);
+    } catch (IndexOutOfBoundsException e) {
+      throw new CorruptedDataException("Frame is truncated: " + e.getMessage());
+    }
+    int actual = Crc32C.compute(buffer, buffer.readerIndex(), bodyLength);
+    if (actual != checksum) {
+      throw new CorruptedDataException(
+          String.format(
+              "Frame checksum mismatch, expected 0x%08x but got 0x%08x for %d bytes body",
+              checksum, actual, bodyLength));
+    }
+  }
+
+  /**
+   * Reads the payload header, and returns a new buffer which holds the decompressed payload if the
+   * payload is compressed, or <code>buffer</code> itself otherwise. The decompressed buffer isn't
+   * reused since deserialized objects such as in-band buffer objects may be sliced from it. The
+   * compressor must produce exactly the length in the header, otherwise the payload is rejected.
+   */
+  private MemoryBuffer readPayload(MemoryBuffer buffer) {
+    byte flag;
+    int length;
+    int compressedLength;
+    try {
+      flag = buffer.readByte();
+      if (flag == PAYLOAD_RAW) {
+        return buffer;
+      }
+      if (flag != PAYLOAD_COMPRESSED) {
+        throw new CorruptedDataException("Invalid payload flag " + flag);
+      }
+      length = buffer.readVarUint32();
+      compressedLength = buffer.readVarUint32();
+      if (length < 0
+          || compressedLength < 0
+          || compressedLength > payloadCompressor.maxCompressedLength(length)) {
+        throw new CorruptedDataException(
+            String.format("Invalid payload length %d, compressed %d", length, compressedLength));
+      }
+      if (length > config.maxDecompressedBytes()) {
+        throw new CorruptedDataException(
+            String.format(
+                "Payload length %d exceeds max decompressed bytes %d",
+                length, config.maxDecompressedBytes()));
+      }
+      buffer.checkReadableBytes(compressedLength);
+    } catch (IndexOutOfBoundsException e) {
+      throw new CorruptedDataException("Payload is truncated: " + e.getMessage());
+    }
+    MemoryBuffer payload = MemoryBuffer.newHeapBuffer(length);
+    int readerIndex = buffer.readerIndex();
+    payloadCompressor.decompress(buffer, readerIndex, compressedLength, payload, 0, length);
+    buffer.readerIndex(readerIndex + compressedLength);
+    payload.writerIndex(length);
+    return payload;
+  }
+
   @Override
   public Object deserialize(ForyInputStream inputStream) {
     return deserialize(inputStream, null);
@@ -920,6 +1238,17 @@ public final class Fory implements BaseFory {
     return deserialize(buf, outOfBandBuffers);
   }
 
+  @Override
+  public Object deserialize(FileChannel channel, long position, int size) {
+    return deserialize(MemoryUtils.map(channel, position, size));
+  }
+
+  @Override
+  public Object deserialize(
+      FileChannel channel, long position, int size, Iterable<MemoryBuffer> outOfBandBuffers) {
+    return deserialize(MemoryUtils.map(channel, position, size), outOfBandBuffers);
+  }
+
   /** Deserialize nullable referencable object from <code>buffer</code>. */
   public Object readRef(MemoryBuffer buffer) {
     RefResolver refResolver = this.refResolver;
@@ -934,6 +1263,33 @@ public final class Fory implements BaseFory {
     }
   }
 
+  private Object readProjectedRef(MemoryBuffer buffer, Class<?> type, FieldProjection projection) {
+    RefResolver refResolver = this.refResolver;
+    int nextReadRefId = refResolver.tryPreserveRefId(buffer);
+    if (nextReadRefId >= NOT_NULL_VALUE_FLAG) {
+      ClassInfo classInfo = classResolver.readClassInfo(buffer);
+      Object o;
+      if (classInfo.getCls() == type) {
+        ProjectedObjectSerializer<?> serializer =
+            classResolver.getProjectedSerializer(classInfo, projection);
+        if (serializer.isSkipSupported()) {
+          depth++;
+          o = serializer.read(buffer);
+          depth--;
+        } else {
+          o = readDataInternal(buffer, classInfo);
+          serializer.clearUnselectedFields(o);
+        }
+      } else {
+        o = readDataInternal(buffer, classInfo);
+      }
+      refResolver.setReadObject(nextReadRefId, o);
+      return o;
+    } else {
+      return refResolver.getReadObject();
+    }
+  }
+
   public Object readRef(MemoryBuffer buffer, ClassInfoHolder classInfoHolder) {
     RefResolver refResolver = this.refResolver;
     int nextReadRefId = refResolver.tryPreserveRefId(buffer);
@@ -1370,6 +1726,170 @@ public final class Fory implements BaseFory {
     return deserializeJavaObjectAndClass(buf);
   }
 
+  @Override
+  public <T> byte[] serializeBatch(Iterable<T> objects, Class<T> cls) {
+    MemoryBuffer buf = getBuffer();
+    buf.writerIndex(0);
+    serializeBatch(buf, objects, cls);
+    byte[] bytes = buf.getBytes(0, buf.writerIndex());
+    resetBuffer();
+    return bytes;
+  }
+
+  /**
+   * Serialize objects of same class <code>cls</code> as a batch. The serializer and class info of
+   * <code>cls</code> are resolved and written only once, and meta share context is kept across all
+   * objects, so serializing a batch is faster and smaller than serializing every object separately.
+   * Objects are written independently of each other, so any object can be read by {@link
+   * #deserializeBatchElement} without decoding the others. This also means references between
+   * objects won't be preserved.
+   *
+   * <p>Batch layout: | int32 index offset | [int32 class def offset | class info] | objects... |
+   * int32 size | int32 object offsets... | [class defs] |, all offsets except class def offset are
+   * relative to batch start.
+   */
+  @Override
+  public <T> void serializeBatch(MemoryBuffer buffer, Iterable<T> objects, Class<T> cls) {
+    int batchStart = buffer.writerIndex();
+    // index offset and meta start offset will be patched after all objects are written.
+    int pinnedIndex = buffer.pinWriterIndex(batchStart);
+    try {
+      jitContext.lock();
+      if (depth != 0) {
+        throwDepthSerializationException();
+      }
+      buffer.writeInt32(-1);
+      int metaOffset = buffer.writerIndex();
+      ClassInfo classInfo = classResolver.getOrUpdateClassInfo(cls);
+      if (shareMeta) {
+        buffer.writeInt32(-1);
+        classResolver.writeClassInfo(buffer, classInfo);
+      }
+      IntArray offsets = new IntArray(16);
+      for (T obj : objects) {
+        if (obj != null && obj.getClass() != cls) {
+          throw new IllegalArgumentException(
+              String.format("Batch object %s is not an instance of %s", obj.getClass(), cls));
+        }
+        offsets.add(buffer.writerIndex() - batchStart);
+        if (!refResolver.writeRefOrNull(buffer, obj)) {
+          writeData(buffer, classInfo, obj);
+        }
+        refResolver.resetWrite();
+        metaStringResolver.resetWrite();
+      }
+      int size = offsets.size;
+      buffer.putInt32(batchStart, buffer.writerIndex() - batchStart);
+      buffer.writeInt32(size);
+      int[] elementData = offsets.elementData;
+      for (int i = 0; i < size; i++) {
+        buffer.writeInt32(elementData[i]);
+      }
+      MetaContext metaContext = serializationContext.getMetaContext();
+      if (shareMeta && metaContext != null && !metaContext.writingClassDefs.isEmpty()) {
+        buffer.putInt32(metaOffset, buffer.writerIndex() - metaOffset - 4);
+        classResolver.writeClassDefs(buffer);
+      }
+    } catch (StackOverflowError t) {
+      throw processStackOverflowError(t);
+    } finally {
+      buffer.unpinWriterIndex(pinnedIndex);
+      resetWrite();
+      jitContext.unlock();
+    }
+  }
+
+  @Override
+  public <T> List<T> deserializeBatch(byte[] bytes, Class<T> cls) {
+    return deserializeBatch(MemoryBuffer.fromByteArray(bytes), cls);
+  }
+
+  /** Deserialize all objects of a batch written by {@link #serializeBatch}. */
+  @Override
+  public <T> List<T> deserializeBatch(MemoryBuffer buffer, Class<T> cls) {
+    int batchStart = buffer.readerIndex();
+    try {
+      jitContext.lock();
+      if (depth != 0) {
+        throwDepthDeserializationException();
+      }
+      int indexOffset = buffer.readInt32();
+      ClassInfo classInfo = readBatchClassInfo(buffer, cls);
+      int size = buffer.getInt32(batchStart + indexOffset);
+      List<T> objects = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        objects.add(readBatchElement(buffer, classInfo));
+      }
+      buffer.readerIndex(batchStart + indexOffset + 4 + (size << 2));
+      return objects;
+    } catch (Throwable t) {
+      throw ExceptionUtils.handleReadFailed(this, t);
+    } finally {
+      if (classDefEndOffset != -1) {
+        buffer.readerIndex(classDefEndOffset);
+      }
+      resetRead();
+      jitContext.unlock();
+    }
+  }
+
+  /**
+   * Deserialize the object at <code>index</code> of a batch written by {@link #serializeBatch}
+   * without decoding other objects. The reader index of <code>buffer</code> should be the batch
+   * start, and will be moved to the batch end after this call.
+   */
+  @Override
+  public <T> T deserializeBatchElement(MemoryBuffer buffer, Class<T> cls, int index) {
+    int batchStart = buffer.readerIndex();
+    int indexOffset = buffer.getInt32(batchStart);
+    int size = buffer.getInt32(batchStart + indexOffset);
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(
+          String.format("Index %s out of bounds for batch size %s", index, size));
+    }
+    try {
+      jitContext.lock();
+      if (depth != 0) {
+        throwDepthDeserializationException();
+      }
+      buffer.increaseReaderIndex(4);
+      ClassInfo classInfo = readBatchClassInfo(buffer, cls);
+      buffer.readerIndex(batchStart + buffer.getInt32(batchStart + indexOffset + 4 + (index << 2)));
+      T obj = readBatchElement(buffer, classInfo);
+      buffer.readerIndex(batchStart + indexOffset + 4 + (size << 2));
+      return obj;
+    } catch (Throwable t) {
+      throw ExceptionUtils.handleReadFailed(this, t);
+    } finally {
+      if (classDefEndOffset != -1) {
+        buffer.readerIndex(classDefEndOffset);
+      }
+      resetRead();
+      jitContext.unlock();
+    }
+  }
+
+  private ClassInfo readBatchClassInfo(MemoryBuffer buffer, Class<?> cls) {
+    if (shareMeta) {
+      readClassDefs(buffer);
+      return classResolver.readClassInfoWithMetaShare(buffer, cls);
+    } else {
+      return classResolver.getClassInfo(cls);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T readBatchElement(MemoryBuffer buffer, ClassInfo classInfo) {
+    T obj = null;
+    int nextReadRefId = refResolver.tryPreserveRefId(buffer);
+    if (nextReadRefId >= NOT_NULL_VALUE_FLAG) {
+      obj = (T) readDataInternal(buffer, classInfo);
+    }
+    refResolver.resetRead();
+    metaStringResolver.resetRead();
+    return obj;
+  }
+
   @Override
   public <T> T copy(T obj) {
     try {
@@ -1521,7 +2041,7 @@ public final class Fory implements BaseFory {
 
   private void serializeToStream(OutputStream outputStream, Consumer<MemoryBuffer> function) {
     MemoryBuffer buf = getBuffer();
-    if (outputStream.getClass() == ByteArrayOutputStream.class) {
+    if (outputStream.getClass() == ByteArrayOutputStream.class && !buf.isOffHeap()) {
       byte[] oldBytes = buf.getHeapMemory(); // Note: This should not be null.
       assert oldBytes != null;
       MemoryUtils.wrap((ByteArrayOutputStream) outputStream, buf);
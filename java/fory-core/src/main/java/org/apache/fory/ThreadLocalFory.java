@@ -21,7 +21,9 @@ package org.apache.fory;
 
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.function.Consumer;
@@ -29,10 +31,14 @@ import java.util.function.Function;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.fory.annotation.Internal;
 import org.apache.fory.io.ForyInputStream;
+import org.apache.fory.io.ForyOutputStream;
 import org.apache.fory.io.ForyReadableChannel;
+import org.apache.fory.io.ForyWritableChannel;
+import org.apache.fory.io.SegmentedBuffer;
 import org.apache.fory.memory.MemoryBuffer;
 import org.apache.fory.memory.MemoryUtils;
 import org.apache.fory.serializer.BufferCallback;
+import org.apache.fory.serializer.FieldProjection;
 import org.apache.fory.util.LoaderBinding;
 import org.apache.fory.util.LoaderBinding.StagingType;
 
@@ -132,6 +138,36 @@ public class ThreadLocalFory extends AbstractThreadSafeFory {
     bindingThreadLocal.get().get().serialize(outputStream, obj, callback);
   }
 
+  @Override
+  public void serialize(ForyOutputStream outputStream, Object obj) {
+    bindingThreadLocal.get().get().serialize(outputStream, obj);
+  }
+
+  @Override
+  public void serialize(ForyOutputStream outputStream, Object obj, BufferCallback callback) {
+    bindingThreadLocal.get().get().serialize(outputStream, obj, callback);
+  }
+
+  @Override
+  public void serialize(ForyWritableChannel channel, Object obj) {
+    bindingThreadLocal.get().get().serialize(channel, obj);
+  }
+
+  @Override
+  public void serialize(ForyWritableChannel channel, Object obj, BufferCallback callback) {
+    bindingThreadLocal.get().get().serialize(channel, obj, callback);
+  }
+
+  @Override
+  public void serialize(SegmentedBuffer buffer, Object obj) {
+    bindingThreadLocal.get().get().serialize(buffer, obj);
+  }
+
+  @Override
+  public void serialize(SegmentedBuffer buffer, Object obj, BufferCallback callback) {
+    bindingThreadLocal.get().get().serialize(buffer, obj, callback);
+  }
+
   @Override
   public Object deserialize(byte[] bytes) {
     return bindingThreadLocal.get().get().deserialize(bytes);
@@ -142,6 +178,16 @@ public class ThreadLocalFory extends AbstractThreadSafeFory {
     return bindingThreadLocal.get().get().deserialize(bytes, type);
   }
 
+  @Override
+  public <T> T deserialize(byte[] bytes, Class<T> type, FieldProjection projection) {
+    return bindingThreadLocal.get().get().deserialize(bytes, type, projection);
+  }
+
+  @Override
+  public <T> T deserialize(MemoryBuffer buffer, Class<T> type, FieldProjection projection) {
+    return bindingThreadLocal.get().get().deserialize(buffer, type, projection);
+  }
+
   @Override
   public Object deserialize(byte[] bytes, Iterable<MemoryBuffer> outOfBandBuffers) {
     return bindingThreadLocal.get().get().deserialize(bytes, outOfBandBuffers);
@@ -187,6 +233,17 @@ public class ThreadLocalFory extends AbstractThreadSafeFory {
     return bindingThreadLocal.get().get().deserialize(channel, outOfBandBuffers);
   }
 
+  @Override
+  public Object deserialize(FileChannel channel, long position, int size) {
+    return bindingThreadLocal.get().get().deserialize(channel, position, size);
+  }
+
+  @Override
+  public Object deserialize(
+      FileChannel channel, long position, int size, Iterable<MemoryBuffer> outOfBandBuffers) {
+    return bindingThreadLocal.get().get().deserialize(channel, position, size, outOfBandBuffers);
+  }
+
   @Override
   public byte[] serializeJavaObject(Object obj) {
     return bindingThreadLocal.get().get().serializeJavaObject(obj);
@@ -257,6 +314,31 @@ public class ThreadLocalFory extends AbstractThreadSafeFory {
     return bindingThreadLocal.get().get().deserializeJavaObjectAndClass(channel);
   }
 
+  @Override
+  public <T> byte[] serializeBatch(Iterable<T> objects, Class<T> cls) {
+    return bindingThreadLocal.get().get().serializeBatch(objects, cls);
+  }
+
+  @Override
+  public <T> void serializeBatch(MemoryBuffer buffer, Iterable<T> objects, Class<T> cls) {
+    bindingThreadLocal.get().get().serializeBatch(buffer, objects, cls);
+  }
+
+  @Override
+  public <T> List<T> deserializeBatch(byte[] bytes, Class<T> cls) {
+    return bindingThreadLocal.get().get().deserializeBatch(bytes, cls);
+  }
+
+  @Override
+  public <T> List<T> deserializeBatch(MemoryBuffer buffer, Class<T> cls) {
+    return bindingThreadLocal.get().get().deserializeBatch(buffer, cls);
+  }
+
+  @Override
+  public <T> T deserializeBatchElement(MemoryBuffer buffer, Class<T> cls, int index) {
+    return bindingThreadLocal.get().get().deserializeBatchElement(buffer, cls, index);
+  }
+
   @Override
   public <T> T copy(T obj) {
     return bindingThreadLocal.get().get().copy(obj);
@@ -173,6 +173,9 @@ public class AccessorHelper {
         LOG.info("Generate code {} take {} ms", qualifiedClassName, durationMs);
         String pkg = CodeGenerator.getPackage(beanClass);
         CompileUnit compileUnit = new CompileUnit(pkg, accessorClassName(beanClass), code);
+        if (AotCodecs.isGenerating()) {
+          AotCodecs.record(compileUnit);
+        }
         Map<String, byte[]> classByteCodes = JaninoUtils.toBytecode(classLoader, compileUnit);
         boolean succeed =
             ClassLoaderUtils.tryDefineClassesInClassLoader(
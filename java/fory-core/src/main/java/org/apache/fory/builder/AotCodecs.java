@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.builder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.fory.Fory;
+import org.apache.fory.annotation.Internal;
+import org.apache.fory.codegen.CompileUnit;
+import org.apache.fory.config.Config;
+import org.apache.fory.reflect.ReflectionUtils;
+import org.apache.fory.serializer.Serializer;
+import org.apache.fory.util.MurmurHash3;
+import org.apache.fory.util.StringUtils;
+
+/**
+ * Support for serializers generated ahead of time. A build time generator turns on {@link
+ * #setGenerating generating mode} and creates serializers for the bean classes, generated codec
+ * classes will be named by the bean class and a fingerprint of the codegen related config, and
+ * their compile units will be recorded so that the generator can write them to the class output
+ * directory. At runtime, {@link CodecUtils} loads such classes from the classloader of the bean
+ * class before falling back to jit.
+ *
+ * <p>Generated code depends on the config and the serializers of field types, so the fory used to
+ * generate codecs must be created with the same config and class registrations as the runtime one.
+ */
+@Internal
+public class AotCodecs {
+  private static final String VERSION;
+  private static final List<CompileUnit> recordedUnits = new ArrayList<>();
+  private static volatile boolean generating;
+
+  static {
+    String version = Fory.class.getPackage().getImplementationVersion();
+    VERSION = version == null ? "dev" : version;
+  }
+
+  public static boolean isGenerating() {
+    return generating;
+  }
+
+  /** Turn on/off generating mode, recorded units will be cleared when turned on. */
+  public static void setGenerating(boolean generating) {
+    synchronized (recordedUnits) {
+      if (generating) {
+        recordedUnits.clear();
+      }
+      AotCodecs.generating = generating;
+    }
+  }
+
+  static void record(CompileUnit unit) {
+    synchronized (recordedUnits) {
+      if (generating) {
+        recordedUnits.add(unit);
+      }
+    }
+  }
+
+  /** Returns and clears units of the generated codecs and accessors which are recorded. */
+  public static List<CompileUnit> drainRecordedUnits() {
+    synchronized (recordedUnits) {
+      List<CompileUnit> units = new ArrayList<>(recordedUnits);
+      recordedUnits.clear();
+      return units;
+    }
+  }
+
+  /**
+   * Returns a fingerprint of the config options which affect generated code. Unlike {@link
+   * Config#getConfigHash}, it's stable across processes.
+   */
+  public static String configFingerprint(Config config) {
+    String str =
+        VERSION
+            + ","
+            + config.getLanguage()
+            + ","
+            + config.trackingRef()
+            + ","
+            + config.isBasicTypesRefIgnored()
+            + ","
+            + config.isStringRefIgnored()
+            + ","
+            + config.isTimeRefIgnored()
+            + ","
+            + config.checkClassVersion()
+            + ","
+            + config.getCompatibleMode()
+            + ","
+            + config.compressString()
+            + ","
+            + config.writeNumUtf16BytesForUtf8Encoding()
+            + ","
+            + config.compressInt()
+            + ","
+            + config.compressLong()
+            + ","
+            + config.longEncoding()
+            + ","
+            + config.isMetaShareEnabled()
+            + ","
+            + config.isScopedMetaShareEnabled()
+            + ","
+            + config.deserializeNonexistentClass()
+            + ","
+            + config.deserializeNonexistentEnumValueAsNull()
+            + ","
+            + config.serializeEnumByName()
+            + ","
+            + config.isScalaOptimizationEnabled();
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    long hash = MurmurHash3.murmurhash3_x64_128(bytes, 0, bytes.length, 47)[0];
+    return Long.toHexString(hash);
+  }
+
+  /**
+   * Returns the name of ahead-of-time generated codec class for <code>beanClass</code>.
+   *
+   * @param codecSuffix suffix of the codec builder, see {@link BaseObjectCodecBuilder#codecSuffix}.
+   */
+  public static String codecClassName(Class<?> beanClass, Fory fory, String codecSuffix) {
+    String name = ReflectionUtils.getClassNameWithoutPackage(beanClass).replace("$", "_");
+    return name
+        + (fory.trackingRef() ? "ForyRef" : "Fory")
+        + "Codec"
+        + codecSuffix
+        + "Aot_"
+        + configFingerprint(fory.getConfig());
+  }
+
+  /**
+   * Load ahead-of-time generated codec class of <code>beanClass</code>, returns null if not exists.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> Class<? extends Serializer<T>> loadCodecClass(
+      Class<T> beanClass, Fory fory, String codecSuffix) {
+    ClassLoader classLoader = beanClass.getClassLoader();
+    if (classLoader == null) {
+      // jdk classes, generated codecs are in fory package.
+      classLoader = Fory.class.getClassLoader();
+    }
+    // Don't use `CodeGenerator.getPackage`, which will load janino classes.
+    String pkg = ReflectionUtils.getPackage(beanClass);
+    if (pkg.startsWith("java.")) {
+      pkg = Generated.class.getPackage().getName();
+    }
+    String className = codecClassName(beanClass, fory, codecSuffix);
+    if (StringUtils.isNotBlank(pkg)) {
+      className = pkg + "." + className;
+    }
+    Class<?> cls;
+    try {
+      cls = Class.forName(className, false, classLoader);
+    } catch (ClassNotFoundException | LinkageError e) {
+      return null;
+    }
+    if (!Generated.GeneratedSerializer.class.isAssignableFrom(cls)) {
+      return null;
+    }
+    return (Class<? extends Serializer<T>>) cls;
+  }
+}
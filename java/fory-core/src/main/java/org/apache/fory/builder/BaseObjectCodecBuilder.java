@@ -72,7 +72,7 @@ import static org.apache.fory.util.Preconditions.checkArgument;
 
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -102,6 +102,7 @@ import org.apache.fory.codegen.Expression.While;
 import org.apache.fory.codegen.ExpressionUtils;
 import org.apache.fory.codegen.ExpressionVisitor.ExprHolder;
 import org.apache.fory.collection.Tuple2;
+import org.apache.fory.io.ForyStreamWriter;
 import org.apache.fory.memory.MemoryBuffer;
 import org.apache.fory.memory.Platform;
 import org.apache.fory.reflect.ReflectionUtils;
@@ -155,6 +156,8 @@ public abstract class BaseObjectCodecBuilder extends CodecBuilder {
   protected final Class<?> parentSerializerClass;
   private final Map<String, Expression> jitCallbackUpdateFields;
   protected LinkedList<String> walkPath = new LinkedList<>();
+  // Whether the codec can be generated ahead of time, see {@link AotCodecs}.
+  boolean aot;
 
   public BaseObjectCodecBuilder(TypeRef<?> beanType, Fory fory, Class<?> parentSerializerClass) {
     super(new CodegenContext(), beanType);
@@ -187,6 +190,9 @@ public abstract class BaseObjectCodecBuilder extends CodecBuilder {
   private static final Map<String, Map<String, Integer>> idGenerator = new ConcurrentHashMap<>();
 
   public String codecClassName(Class<?> beanClass) {
+    if (aot && AotCodecs.isGenerating()) {
+      return AotCodecs.codecClassName(beanClass, fory, codecSuffix());
+    }
     String name = ReflectionUtils.getClassNameWithoutPackage(beanClass).replace("$", "_");
     StringBuilder nameBuilder = new StringBuilder(name);
     if (fory.trackingRef()) {
@@ -273,7 +279,8 @@ public abstract class BaseObjectCodecBuilder extends CodecBuilder {
 
   protected static class InvokeHint {
     public boolean genNewMethod;
-    public Set<Expression> cutPoints = new HashSet<>();
+    // keep insertion order so that generated code is deterministic across processes.
+    public Set<Expression> cutPoints = new LinkedHashSet<>();
 
     public InvokeHint(boolean genNewMethod, Expression... cutPoints) {
       this.genNewMethod = genNewMethod;
@@ -289,7 +296,7 @@ public abstract class BaseObjectCodecBuilder extends CodecBuilder {
 
     public InvokeHint copy() {
       InvokeHint invokeHint = new InvokeHint(genNewMethod);
-      invokeHint.cutPoints = new HashSet<>(cutPoints);
+      invokeHint.cutPoints = new LinkedHashSet<>(cutPoints);
       return invokeHint;
     }
 
@@ -1257,6 +1264,15 @@ public abstract class BaseObjectCodecBuilder extends CodecBuilder {
     Expression chunkSizeOffset =
         subtract(
             inlineInvoke(buffer, "writerIndex", PRIMITIVE_INT_TYPE), ofInt(1), "chunkSizeOffset");
+    // keep chunk header in buffer until patched for streaming writer, non-streaming buffers
+    // never flush, skip pinning for them.
+    Expression pinnedIndex =
+        new If(
+            eqNull(inlineInvoke(buffer, "getStreamWriter", TypeRef.of(ForyStreamWriter.class))),
+            ofInt(-1),
+            new Invoke(
+                buffer, "pinWriterIndex", PRIMITIVE_INT_TYPE, subtract(chunkSizeOffset, ofInt(1))),
+            false);
     expressions.add(
         key,
         value,
@@ -1265,7 +1281,8 @@ public abstract class BaseObjectCodecBuilder extends CodecBuilder {
         writePlaceHolder,
         chunkSizeOffset,
         writePlaceHolder,
-        chunkSizeOffset);
+        chunkSizeOffset,
+        pinnedIndex);
 
     Expression chunkHeader;
     Expression keySerializer, valueSerializer;
@@ -1438,7 +1455,10 @@ public abstract class BaseObjectCodecBuilder extends CodecBuilder {
                       list(new Assign(entry, new Literal(null, MAP_ENTRY_TYPE)), new Break())),
                   new If(eq(chunkSize, ofInt(MAX_CHUNK_SIZE)), new Break()));
             });
-    expressions.add(writeLoop, new Invoke(buffer, "putByte", chunkSizeOffset, chunkSize));
+    expressions.add(
+        writeLoop,
+        new Invoke(buffer, "putByte", chunkSizeOffset, chunkSize),
+        new If(gt(pinnedIndex, ofInt(-1)), new Invoke(buffer, "unpinWriterIndex", pinnedIndex)));
     if (!inline) {
       expressions.add(new Return(entry));
       // method too big, spilt it into a new method.
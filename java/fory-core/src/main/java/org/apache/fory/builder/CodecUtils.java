@@ -24,6 +24,7 @@ import org.apache.fory.Fory;
 import org.apache.fory.codegen.CodeGenerator;
 import org.apache.fory.codegen.CompileUnit;
 import org.apache.fory.meta.ClassDef;
+import org.apache.fory.metrics.ForyMetrics;
 import org.apache.fory.reflect.TypeRef;
 import org.apache.fory.resolver.ClassResolver;
 import org.apache.fory.resolver.FieldResolver;
@@ -40,7 +41,14 @@ public class CodecUtils {
   public static <T> Class<? extends Serializer<T>> loadOrGenObjectCodecClass(
       Class<T> cls, Fory fory) {
     Preconditions.checkNotNull(fory);
+    if (!AotCodecs.isGenerating()) {
+      Class<? extends Serializer<T>> aotCodecClass = AotCodecs.loadCodecClass(cls, fory, "");
+      if (aotCodecClass != null) {
+        return aotCodecClass;
+      }
+    }
     BaseObjectCodecBuilder codecBuilder = new ObjectCodecBuilder(cls, fory);
+    codecBuilder.aot = true;
     return loadOrGenCodecClass(cls, fory, codecBuilder);
   }
 
@@ -54,8 +62,20 @@ public class CodecUtils {
 
   public static <T> Class<? extends Serializer<T>> loadOrGenCompatibleCodecClass(
       Class<T> cls, Fory fory) {
+    Preconditions.checkNotNull(fory);
+    if (!AotCodecs.isGenerating()) {
+      Class<? extends Serializer<T>> aotCodecClass =
+          AotCodecs.loadCodecClass(cls, fory, "Compatible");
+      if (aotCodecClass != null) {
+        return aotCodecClass;
+      }
+    }
     FieldResolver resolver = FieldResolver.of(fory, cls, true, false);
-    return loadOrGenCompatibleCodecClass(cls, fory, resolver, Generated.GeneratedSerializer.class);
+    BaseObjectCodecBuilder codecBuilder =
+        new CompatibleCodecBuilder(
+            TypeRef.of(cls), fory, resolver, Generated.GeneratedSerializer.class);
+    codecBuilder.aot = true;
+    return loadOrGenCodecClass(cls, fory, codecBuilder);
   }
 
   public static <T> Class<? extends Serializer<T>> loadOrGenCompatibleCodecClass(
@@ -75,6 +95,9 @@ public class CodecUtils {
             CodeGenerator.getPackage(beanClass),
             codecBuilder.codecClassName(beanClass),
             codecBuilder::genCode);
+    if (codecBuilder.aot && AotCodecs.isGenerating()) {
+      AotCodecs.record(compileUnit);
+    }
     CodeGenerator codeGenerator;
     ClassLoader beanClassClassLoader =
         beanClass.getClassLoader() == null
@@ -85,9 +108,16 @@ public class CodecUtils {
     }
     ClassResolver classResolver = fory.getClassResolver();
     codeGenerator = getCodeGenerator(fory, beanClassClassLoader, classResolver);
+    ForyMetrics metrics = fory.getConfig().getMetrics();
+    long startTime = metrics != null ? System.nanoTime() : 0;
     ClassLoader classLoader =
         codeGenerator.compile(
-            Collections.singletonList(compileUnit), compileState -> compileState.lock.lock());
+            Collections.singletonList(compileUnit),
+            compileState -> compileState.lock.lock(),
+            fory.getJITContext().getCodegenCache());
+    if (metrics != null) {
+      metrics.onJitCompile(beanClass, System.nanoTime() - startTime);
+    }
     String className = codecBuilder.codecQualifiedClassName(beanClass);
     try {
       return (Class<? extends Serializer<T>>) classLoader.loadClass(className);
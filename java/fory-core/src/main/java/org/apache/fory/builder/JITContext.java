@@ -30,6 +30,7 @@ import java.util.function.Function;
 import org.apache.fory.Fory;
 import org.apache.fory.annotation.Internal;
 import org.apache.fory.codegen.CodeGenerator;
+import org.apache.fory.codegen.CodegenCache;
 import org.apache.fory.config.Config;
 import org.apache.fory.memory.Platform;
 import org.apache.fory.util.Preconditions;
@@ -40,11 +41,14 @@ public class JITContext {
   private final boolean asyncCompilationEnabled;
   // ReentrantLock used Atomic internally first and used thread queue if failed.
   // So it's unnecessary to build atomic locks by fory again.
+  // Don't replace it with `synchronized`, which will pin the carrier thread when a virtual thread
+  // waits for this lock.
   private final ReentrantLock jitLock;
   // state for recursive jit fory visit.
   private int foryVisitState;
   private int numRunningTask;
   private final Map<Object, List<NotifyCallback>> hasJITResult;
+  private final CodegenCache codegenCache;
 
   public JITContext(Fory fory) {
     this.fory = fory;
@@ -53,6 +57,13 @@ public class JITContext {
     // It's ok the cost for fail lock is slightly higher than no-fair lock.
     jitLock = new ReentrantLock(true);
     hasJITResult = new HashMap<>();
+    String codegenCacheDir = fory.getConfig().getCodegenCacheDir();
+    codegenCache = codegenCacheDir != null ? CodegenCache.getSharedCache(codegenCacheDir) : null;
+  }
+
+  /** Returns the on-disk cache for compiled serializers, or null if not enabled. */
+  public CodegenCache getCodegenCache() {
+    return codegenCache;
   }
 
   /**
@@ -118,6 +118,15 @@ public class CodeGenerator {
   }
 
   public ClassLoader compile(List<CompileUnit> units, CompileCallback callback) {
+    return compile(units, callback, null);
+  }
+
+  /**
+   * Compile code, return as a new classloader. Compiled bytecode will be loaded from <code>
+   * codegenCache</code> if exists, and be stored into it after compiled otherwise.
+   */
+  public ClassLoader compile(
+      List<CompileUnit> units, CompileCallback callback, CodegenCache codegenCache) {
     List<CompileUnit> compileUnits = new ArrayList<>();
     ClassLoader parentClassLoader;
     // Note: avoid deadlock between classloader lock, compiler lock,
@@ -128,21 +137,34 @@ public class CodeGenerator {
           compileUnits.add(unit);
         }
       }
-      if (compileUnits.isEmpty()) {
-        return classLoader;
-      }
       parentClassLoader = classLoader;
     }
+    if (compileUnits.isEmpty()) {
+      if (codegenCache != null) {
+        // Classes may be compiled for another fory which doesn't use the cache.
+        cacheCompiled(units, codegenCache);
+      }
+      return parentClassLoader;
+    }
     CompileState compileState = getCompileState(compileUnits);
     callback.lock(compileState);
     Map<String, byte[]> classes;
     if (compileState.finished) {
       classes = compileState.result;
       compileState.lock.unlock();
+      if (codegenCache != null) {
+        codegenCache.put(classes, compileUnits.toArray(new CompileUnit[0]));
+      }
     } else {
       try {
-        classes =
-            JaninoUtils.toBytecode(parentClassLoader, compileUnits.toArray(new CompileUnit[0]));
+        CompileUnit[] unitsArray = compileUnits.toArray(new CompileUnit[0]);
+        classes = codegenCache != null ? codegenCache.get(unitsArray) : null;
+        if (classes == null) {
+          classes = JaninoUtils.toBytecode(parentClassLoader, unitsArray);
+          if (codegenCache != null) {
+            codegenCache.put(classes, unitsArray);
+          }
+        }
         compileState.result = classes;
         compileState.finished = true;
       } finally {
@@ -259,6 +281,25 @@ public class CodeGenerator {
     }
   }
 
+  /** Store bytecode compiled by this generator before for <code>units</code> into the cache. */
+  private void cacheCompiled(List<CompileUnit> units, CodegenCache codegenCache) {
+    CompileState compileState = parallelCompileState.get(getCompileLockKey(units));
+    if (compileState == null) {
+      // not compiled by this generator, e.g. classes generated ahead of time.
+      return;
+    }
+    Map<String, byte[]> classes;
+    compileState.lock.lock();
+    try {
+      classes = compileState.finished ? compileState.result : null;
+    } finally {
+      compileState.lock.unlock();
+    }
+    if (classes != null) {
+      codegenCache.put(classes, units.toArray(new CompileUnit[0]));
+    }
+  }
+
   private CompileState getCompileState(List<CompileUnit> toCompile) {
     return parallelCompileState.computeIfAbsent(
         getCompileLockKey(toCompile), k -> new CompileState());
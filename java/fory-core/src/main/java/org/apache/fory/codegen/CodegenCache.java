@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.codegen;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.fory.Fory;
+import org.apache.fory.logging.Logger;
+import org.apache.fory.logging.LoggerFactory;
+import org.apache.fory.util.MurmurHash3;
+
+/**
+ * An on-disk cache of compiled bytecode for generated code, which is shared across processes, so
+ * that a restarted process can skip the janino compilation of generated serializers.
+ *
+ * <p>Cache entries are keyed by the hash of the generated source code. Generated code encodes the
+ * class fields and their types, the fory config and the serializers chosen for the field types, so
+ * any schema or config change produces a different key and stale entries are never loaded. Names of
+ * generated classes are allocated by a process-local counter, so they are normalized when computing
+ * the key and rewritten to the names of current process when an entry is loaded.
+ */
+public class CodegenCache {
+  private static final Logger LOG = LoggerFactory.getLogger(CodegenCache.class);
+  private static final int MAGIC_NUMBER = 0x46435343;
+  private static final String ENTRY_SUFFIX = ".bin";
+  private static final String NAME_PLACEHOLDER = "__FORY_CODEGEN_CLASS__";
+  private static final String VERSION;
+  private static final ConcurrentHashMap<Path, CodegenCache> sharedCaches =
+      new ConcurrentHashMap<>();
+
+  static {
+    String version = Fory.class.getPackage().getImplementationVersion();
+    VERSION = version == null ? "dev" : version;
+  }
+
+  private final Path dir;
+  // keys of entries on disk, loaded when the cache is created to avoid file lookup for misses.
+  private final Set<String> keys;
+
+  private CodegenCache(Path dir) {
+    this.dir = dir;
+    keys = ConcurrentHashMap.newKeySet();
+    try {
+      Files.createDirectories(dir);
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + ENTRY_SUFFIX)) {
+        for (Path path : stream) {
+          String fileName = path.getFileName().toString();
+          keys.add(fileName.substring(0, fileName.length() - ENTRY_SUFFIX.length()));
+        }
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to load codegen cache from {}", dir, e);
+    }
+  }
+
+  /** Returns the cache for <code>dir</code>, which is shared by all fory instances. */
+  public static CodegenCache getSharedCache(String dir) {
+    return sharedCaches.computeIfAbsent(
+        Paths.get(dir).toAbsolutePath().normalize(), CodegenCache::new);
+  }
+
+  public Path getDir() {
+    return dir;
+  }
+
+  /**
+   * Returns bytecode of <code>units</code> keyed by class file path like {@link
+   * JaninoUtils#toBytecode}, or null if not cached.
+   */
+  public Map<String, byte[]> get(CompileUnit... units) {
+    String key = key(units);
+    if (!keys.contains(key)) {
+      return null;
+    }
+    Path path = dir.resolve(key + ENTRY_SUFFIX);
+    try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(readFile(path)))) {
+      if (input.readInt() != MAGIC_NUMBER) {
+        throw new IOException("Invalid codegen cache file " + path);
+      }
+      int numUnits = input.readInt();
+      if (numUnits != units.length) {
+        throw new IOException("Inconsistent codegen cache file " + path);
+      }
+      String[] cachedNames = new String[numUnits];
+      String[] names = new String[numUnits];
+      for (int i = 0; i < numUnits; i++) {
+        cachedNames[i] = input.readUTF().replace('.', '/');
+        names[i] = units[i].getQualifiedClassName().replace('.', '/');
+      }
+      int numClasses = input.readInt();
+      Map<String, byte[]> classes = new HashMap<>();
+      for (int i = 0; i < numClasses; i++) {
+        String classFile = input.readUTF();
+        byte[] bytecode = new byte[input.readInt()];
+        input.readFully(bytecode);
+        for (int j = 0; j < numUnits; j++) {
+          if (!cachedNames[j].equals(names[j])) {
+            classFile = renameInternalName(classFile, cachedNames[j], names[j]);
+            bytecode = renameClass(bytecode, cachedNames[j], names[j]);
+          }
+        }
+        classes.put(classFile, bytecode);
+      }
+      return classes;
+    } catch (IOException e) {
+      LOG.warn("Failed to read codegen cache file {}, will compile again", path, e);
+      keys.remove(key);
+      return null;
+    }
+  }
+
+  /** Store compiled bytecode of <code>units</code> into this cache. */
+  public void put(Map<String, byte[]> classes, CompileUnit... units) {
+    String key = key(units);
+    if (keys.contains(key)) {
+      return;
+    }
+    ByteArrayOutputStream bas = new ByteArrayOutputStream();
+    Path path = dir.resolve(key + ENTRY_SUFFIX);
+    try (DataOutputStream output = new DataOutputStream(bas)) {
+      output.writeInt(MAGIC_NUMBER);
+      output.writeInt(units.length);
+      for (CompileUnit unit : units) {
+        output.writeUTF(unit.getQualifiedClassName());
+      }
+      output.writeInt(classes.size());
+      for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+        output.writeUTF(entry.getKey());
+        output.writeInt(entry.getValue().length);
+        output.write(entry.getValue());
+      }
+      output.flush();
+      byte[] content = bas.toByteArray();
+      long checksum = MurmurHash3.murmurhash3_x64_128(content, 0, content.length, 47)[0];
+      for (int i = 0; i < 8; i++) {
+        bas.write((int) (checksum >>> (i * 8)));
+      }
+      // write a temp file then move it, so other processes won't read a partial file.
+      Path tmpPath = Files.createTempFile(dir, key, ".tmp");
+      Files.write(tmpPath, bas.toByteArray());
+      try {
+        Files.move(tmpPath, path, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+      keys.add(key);
+    } catch (IOException e) {
+      LOG.warn("Failed to write codegen cache file {}", path, e);
+    }
+  }
+
+  private static byte[] readFile(Path path) throws IOException {
+    byte[] bytes = Files.readAllBytes(path);
+    if (bytes.length < 8) {
+      throw new IOException("Truncated codegen cache file " + path);
+    }
+    // trailing 8 bytes is the checksum of the content.
+    int length = bytes.length - 8;
+    long checksum = MurmurHash3.murmurhash3_x64_128(bytes, 0, length, 47)[0];
+    long expected = 0;
+    for (int i = 0; i < 8; i++) {
+      expected |= (bytes[length + i] & 0xFFL) << (i * 8);
+    }
+    if (checksum != expected) {
+      throw new IOException("Corrupted codegen cache file " + path);
+    }
+    byte[] content = new byte[length];
+    System.arraycopy(bytes, 0, content, 0, length);
+    return content;
+  }
+
+  static String key(CompileUnit... units) {
+    StringBuilder builder = new StringBuilder(VERSION);
+    for (CompileUnit unit : units) {
+      builder.append('\n').append(unit.pkg).append('\n');
+      builder.append(
+          unit.getCode()
+              .replaceAll("\\b" + Pattern.quote(unit.mainClassName) + "\\b", NAME_PLACEHOLDER));
+    }
+    byte[] bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+    long[] hash = MurmurHash3.murmurhash3_x64_128(bytes, 0, bytes.length, 47);
+    return Long.toHexString(hash[0]) + Long.toHexString(hash[1]);
+  }
+
+  /**
+   * Rewrite all references to internal class name <code>from</code> in the constant pool of <code>
+   * bytecode</code> to <code>to</code>, including nested classes of it.
+   */
+  static byte[] renameClass(byte[] bytecode, String from, String to) throws IOException {
+    DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytecode));
+    ByteArrayOutputStream bas = new ByteArrayOutputStream(bytecode.length + 64);
+    DataOutputStream output = new DataOutputStream(bas);
+    output.writeInt(input.readInt()); // magic
+    output.writeInt(input.readInt()); // minor and major version
+    int constantPoolCount = input.readUnsignedShort();
+    output.writeShort(constantPoolCount);
+    String fromSimpleName = from.substring(from.lastIndexOf('/') + 1);
+    String toSimpleName = to.substring(to.lastIndexOf('/') + 1);
+    for (int i = 1; i < constantPoolCount; i++) {
+      int tag = input.readUnsignedByte();
+      output.writeByte(tag);
+      switch (tag) {
+        case 1: // Utf8
+          String value = input.readUTF();
+          if (value.equals(fromSimpleName + ".java")) {
+            value = toSimpleName + ".java";
+          } else {
+            value = renameInternalName(value, from, to);
+          }
+          output.writeUTF(value);
+          break;
+        case 7: // Class
+        case 8: // String
+        case 16: // MethodType
+        case 19: // Module
+        case 20: // Package
+          output.writeShort(input.readUnsignedShort());
+          break;
+        case 15: // MethodHandle
+          output.writeByte(input.readUnsignedByte());
+          output.writeShort(input.readUnsignedShort());
+          break;
+        case 3: // Integer
+        case 4: // Float
+        case 9: // Fieldref
+        case 10: // Methodref
+        case 11: // InterfaceMethodref
+        case 12: // NameAndType
+        case 17: // Dynamic
+        case 18: // InvokeDynamic
+          output.writeInt(input.readInt());
+          break;
+        case 5: // Long
+        case 6: // Double
+          output.writeLong(input.readLong());
+          // 8-byte constants take up two entries.
+          i++;
+          break;
+        default:
+          throw new IOException("Unknown constant pool tag " + tag);
+      }
+    }
+    byte[] buffer = new byte[4096];
+    int n;
+    while ((n = input.read(buffer)) != -1) {
+      output.write(buffer, 0, n);
+    }
+    output.flush();
+    return bas.toByteArray();
+  }
+
+  private static String renameInternalName(String value, String from, String to) {
+    if (!value.contains(from)) {
+      return value;
+    }
+    // Don't rename classes which has `from` as a prefix, such as `Codec_1` for `Codec_12`.
+    Matcher matcher = Pattern.compile(Pattern.quote(from) + "(?![A-Za-z0-9_])").matcher(value);
+    return matcher.replaceAll(Matcher.quoteReplacement(to));
+  }
+}
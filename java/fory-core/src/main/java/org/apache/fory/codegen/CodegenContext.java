@@ -135,7 +135,7 @@ public class CodegenContext {
    * <p>The exprCode's code of subsequent same expression will be null, because the code is already
    * added to current context
    */
-  Map<Expression, ExprState> exprState = new HashMap<>();
+  Map<Expression, ExprState> exprState = new LinkedHashMap<>();
 
   String pkg;
   LinkedHashSet<String> imports = new LinkedHashSet<>();
@@ -23,7 +23,6 @@ import static org.apache.fory.type.TypeUtils.PRIMITIVE_VOID_TYPE;
 import static org.apache.fory.type.TypeUtils.getRawType;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -46,7 +45,7 @@ public class ExpressionOptimizer {
     List<Expression> cutPoint =
         ExpressionUtils.extractCapturedExpressions(groupExpressionsGenerator);
     return invokeGenerated(
-        ctx, new HashSet<>(cutPoint), groupExpressionsGenerator.get(), methodPrefix, false);
+        ctx, new LinkedHashSet<>(cutPoint), groupExpressionsGenerator.get(), methodPrefix, false);
   }
 
   public static Expression invokeGenerated(
@@ -57,7 +56,11 @@ public class ExpressionOptimizer {
     List<Expression> cutPoint =
         ExpressionUtils.extractCapturedExpressions(groupExpressionsGenerator);
     return invokeGenerated(
-        ctx, new HashSet<>(cutPoint), groupExpressionsGenerator.get(), methodPrefix, inlineInvoke);
+        ctx,
+        new LinkedHashSet<>(cutPoint),
+        groupExpressionsGenerator.get(),
+        methodPrefix,
+        inlineInvoke);
   }
 
   public static Expression invokeGenerated(
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -108,20 +109,20 @@ public class Collections {
   }
 
   public static <E> HashSet<E> ofHashSet(E e) {
-    HashSet<E> set = new HashSet<>(1);
+    HashSet<E> set = new LinkedHashSet<>(1);
     set.add(e);
     return set;
   }
 
   public static <E> HashSet<E> ofHashSet(E e1, E e2) {
-    HashSet<E> set = new HashSet<>(2);
+    HashSet<E> set = new LinkedHashSet<>(2);
     set.add(e1);
     set.add(e2);
     return set;
   }
 
   public static <E> HashSet<E> ofHashSet(E e1, E e2, E e3) {
-    HashSet<E> set = new HashSet<>(3);
+    HashSet<E> set = new LinkedHashSet<>(3);
     set.add(e1);
     set.add(e2);
     set.add(e3);
@@ -129,7 +130,7 @@ public class Collections {
   }
 
   public static <E> HashSet<E> ofHashSet(E e1, E e2, E e3, E e4) {
-    HashSet<E> set = new HashSet<>(4);
+    HashSet<E> set = new LinkedHashSet<>(4);
     set.add(e1);
     set.add(e2);
     set.add(e3);
@@ -138,7 +139,7 @@ public class Collections {
   }
 
   public static <E> HashSet<E> ofHashSet(E e1, E e2, E e3, E e4, E e5) {
-    HashSet<E> set = new HashSet<>(5);
+    HashSet<E> set = new LinkedHashSet<>(5);
     set.add(e1);
     set.add(e2);
     set.add(e3);
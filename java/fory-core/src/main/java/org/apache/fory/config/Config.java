@@ -25,7 +25,10 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.fory.Fory;
+import org.apache.fory.io.PayloadCompressor;
+import org.apache.fory.memory.MemoryArena;
 import org.apache.fory.meta.MetaCompressor;
+import org.apache.fory.metrics.ForyMetrics;
 import org.apache.fory.serializer.Serializer;
 import org.apache.fory.serializer.TimeSerializers;
 import org.apache.fory.util.Preconditions;
@@ -49,6 +52,11 @@ public class Config implements Serializable {
   private final boolean writeNumUtf16BytesForUtf8Encoding;
   private final boolean compressInt;
   private final boolean compressLong;
+  private final boolean compressIntArray;
+  private final boolean compressLongArray;
+  private final boolean frameChecksumEnabled;
+  private final int maxFrameBytes;
+  private final boolean fieldOffsetTableEnabled;
   private final LongEncoding longEncoding;
   private final boolean requireClassRegistration;
   private final boolean suppressClassRegistrationWarnings;
@@ -56,13 +64,19 @@ public class Config implements Serializable {
   private final boolean metaShareEnabled;
   private final boolean scopedMetaShareEnabled;
   private final MetaCompressor metaCompressor;
+  private final PayloadCompressor payloadCompressor;
+  private final int payloadCompressionThreshold;
+  private final int maxDecompressedBytes;
   private final boolean asyncCompilationEnabled;
+  private final String codegenCacheDir;
   private final boolean deserializeNonexistentClass;
   private final boolean scalaOptimizationEnabled;
   private transient int configHash;
   private final boolean deserializeNonexistentEnumValueAsNull;
   private final boolean serializeEnumByName;
   private final int bufferSizeLimitBytes;
+  private final transient MemoryArena memoryArena;
+  private final transient ForyMetrics metrics;
 
   public Config(ForyBuilder builder) {
     name = builder.name;
@@ -77,6 +91,11 @@ public class Config implements Serializable {
     compressInt = builder.compressInt;
     longEncoding = builder.longEncoding;
     compressLong = longEncoding != LongEncoding.LE_RAW_BYTES;
+    compressIntArray = builder.compressIntArray;
+    compressLongArray = builder.compressLongArray;
+    frameChecksumEnabled = builder.frameChecksumEnabled;
+    maxFrameBytes = builder.maxFrameBytes;
+    fieldOffsetTableEnabled = builder.fieldOffsetTableEnabled;
     requireClassRegistration = builder.requireClassRegistration;
     suppressClassRegistrationWarnings = builder.suppressClassRegistrationWarnings;
     registerGuavaTypes = builder.registerGuavaTypes;
@@ -88,6 +107,9 @@ public class Config implements Serializable {
     metaShareEnabled = builder.metaShareEnabled;
     scopedMetaShareEnabled = builder.scopedMetaShareEnabled;
     metaCompressor = builder.metaCompressor;
+    payloadCompressor = builder.payloadCompressor;
+    payloadCompressionThreshold = builder.payloadCompressionThreshold;
+    maxDecompressedBytes = builder.maxDecompressedBytes;
     deserializeNonexistentClass = builder.deserializeNonexistentClass;
     if (deserializeNonexistentClass) {
       // Only in meta share mode or compatibleMode, fory knows how to deserialize
@@ -95,10 +117,13 @@ public class Config implements Serializable {
       Preconditions.checkArgument(metaShareEnabled || compatibleMode == CompatibleMode.COMPATIBLE);
     }
     asyncCompilationEnabled = builder.asyncCompilationEnabled;
+    codegenCacheDir = builder.codegenCacheDir;
     scalaOptimizationEnabled = builder.scalaOptimizationEnabled;
     deserializeNonexistentEnumValueAsNull = builder.deserializeNonexistentEnumValueAsNull;
     serializeEnumByName = builder.serializeEnumByName;
     bufferSizeLimitBytes = builder.bufferSizeLimitBytes;
+    memoryArena = builder.memoryArena;
+    metrics = builder.metrics;
   }
 
   /** Returns the name for Fory serialization. */
@@ -190,6 +215,29 @@ public class Config implements Serializable {
     return compressLong;
   }
 
+  public boolean compressIntArray() {
+    return compressIntArray;
+  }
+
+  public boolean compressLongArray() {
+    return compressLongArray;
+  }
+
+  /** Whether a frame header with CRC32C checksum of serialized data is written and verified. */
+  public boolean isFrameChecksumEnabled() {
+    return frameChecksumEnabled;
+  }
+
+  /** Max body length of a frame accepted by deserialization if frame checksum is enabled. */
+  public int maxFrameBytes() {
+    return maxFrameBytes;
+  }
+
+  /** Whether an offset table of fields is written for every object serialized by fields. */
+  public boolean isFieldOffsetTableEnabled() {
+    return fieldOffsetTableEnabled;
+  }
+
   /** Returns long encoding. */
   public LongEncoding longEncoding() {
     return longEncoding;
@@ -199,6 +247,22 @@ public class Config implements Serializable {
     return bufferSizeLimitBytes;
   }
 
+  /**
+   * Returns the arena which Fory's internal buffer is allocated from, or null if the buffer is
+   * allocated on heap. The arena won't affect serialized data, so it's not part of config equality.
+   */
+  public MemoryArena getMemoryArena() {
+    return memoryArena;
+  }
+
+  /**
+   * Returns the instrumentation callbacks, or null if metrics are disabled. Metrics won't affect
+   * serialized data, so it's not part of config equality.
+   */
+  public ForyMetrics getMetrics() {
+    return metrics;
+  }
+
   public boolean requireClassRegistration() {
     return requireClassRegistration;
   }
@@ -243,6 +307,24 @@ public class Config implements Serializable {
     return metaCompressor;
   }
 
+  /**
+   * Returns a {@link PayloadCompressor} to compress the whole serialized data, or null if payload
+   * compression is disabled.
+   */
+  public PayloadCompressor getPayloadCompressor() {
+    return payloadCompressor;
+  }
+
+  /** Returns the min size of serialized data to be compressed by the payload compressor. */
+  public int getPayloadCompressionThreshold() {
+    return payloadCompressionThreshold;
+  }
+
+  /** Max size of a decompressed payload accepted by deserialization. */
+  public int maxDecompressedBytes() {
+    return maxDecompressedBytes;
+  }
+
   /**
    * Whether deserialize/skip data of un-existed class. If not enabled, an exception will be thrown
    * if class not exist.
@@ -269,6 +351,15 @@ public class Config implements Serializable {
     return asyncCompilationEnabled;
   }
 
+  /**
+   * Returns the directory to cache compiled bytecode of generated serializers across processes, or
+   * null if the cache is disabled. The cache won't affect generated code, so it's not part of
+   * config equality.
+   */
+  public String getCodegenCacheDir() {
+    return codegenCacheDir;
+  }
+
   /** Whether enable scala-specific serialization optimization. */
   public boolean isScalaOptimizationEnabled() {
     return scalaOptimizationEnabled;
@@ -296,6 +387,11 @@ public class Config implements Serializable {
         && writeNumUtf16BytesForUtf8Encoding == config.writeNumUtf16BytesForUtf8Encoding
         && compressInt == config.compressInt
         && compressLong == config.compressLong
+        && compressIntArray == config.compressIntArray
+        && compressLongArray == config.compressLongArray
+        && frameChecksumEnabled == config.frameChecksumEnabled
+        && maxFrameBytes == config.maxFrameBytes
+        && fieldOffsetTableEnabled == config.fieldOffsetTableEnabled
         && bufferSizeLimitBytes == config.bufferSizeLimitBytes
         && requireClassRegistration == config.requireClassRegistration
         && suppressClassRegistrationWarnings == config.suppressClassRegistrationWarnings
@@ -303,6 +399,9 @@ public class Config implements Serializable {
         && metaShareEnabled == config.metaShareEnabled
         && scopedMetaShareEnabled == config.scopedMetaShareEnabled
         && Objects.equals(metaCompressor, config.metaCompressor)
+        && Objects.equals(payloadCompressor, config.payloadCompressor)
+        && payloadCompressionThreshold == config.payloadCompressionThreshold
+        && maxDecompressedBytes == config.maxDecompressedBytes
         && asyncCompilationEnabled == config.asyncCompilationEnabled
         && deserializeNonexistentClass == config.deserializeNonexistentClass
         && scalaOptimizationEnabled == config.scalaOptimizationEnabled
@@ -331,6 +430,11 @@ public class Config implements Serializable {
         writeNumUtf16BytesForUtf8Encoding,
         compressInt,
         compressLong,
+        compressIntArray,
+        compressLongArray,
+        frameChecksumEnabled,
+        maxFrameBytes,
+        fieldOffsetTableEnabled,
         longEncoding,
         bufferSizeLimitBytes,
         requireClassRegistration,
@@ -339,6 +443,9 @@ public class Config implements Serializable {
         metaShareEnabled,
         scopedMetaShareEnabled,
         metaCompressor,
+        payloadCompressor,
+        payloadCompressionThreshold,
+        maxDecompressedBytes,
         asyncCompilationEnabled,
         deserializeNonexistentClass,
         scalaOptimizationEnabled);
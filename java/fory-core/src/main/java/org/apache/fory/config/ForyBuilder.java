@@ -20,16 +20,22 @@
 package org.apache.fory.config;
 
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import org.apache.fory.Fory;
 import org.apache.fory.ThreadLocalFory;
 import org.apache.fory.ThreadSafeFory;
+import org.apache.fory.io.PayloadCompressor;
 import org.apache.fory.logging.Logger;
 import org.apache.fory.logging.LoggerFactory;
+import org.apache.fory.memory.MemoryArena;
 import org.apache.fory.memory.Platform;
 import org.apache.fory.meta.DeflaterMetaCompressor;
 import org.apache.fory.meta.MetaCompressor;
+import org.apache.fory.metrics.ForyMetrics;
+import org.apache.fory.pool.ParallelFory;
 import org.apache.fory.pool.ThreadPoolFory;
+import org.apache.fory.pool.VirtualThreadSafeFory;
 import org.apache.fory.reflect.ReflectionUtils;
 import org.apache.fory.resolver.ClassResolver;
 import org.apache.fory.serializer.JavaSerializer;
@@ -38,6 +44,7 @@ import org.apache.fory.serializer.Serializer;
 import org.apache.fory.serializer.TimeSerializers;
 import org.apache.fory.serializer.collection.GuavaCollectionSerializers;
 import org.apache.fory.util.GraalvmSupport;
+import org.apache.fory.util.Preconditions;
 
 /** Builder class to config and create {@link Fory}. */
 // Method naming style for this builder:
@@ -68,6 +75,11 @@ public final class ForyBuilder {
   ClassLoader classLoader;
   boolean compressInt = true;
   public LongEncoding longEncoding = LongEncoding.SLI;
+  boolean compressIntArray = false;
+  boolean compressLongArray = false;
+  boolean frameChecksumEnabled = false;
+  int maxFrameBytes = 256 * 1024 * 1024;
+  boolean fieldOffsetTableEnabled = false;
   boolean compressString = false;
   Boolean writeNumUtf16BytesForUtf8Encoding;
   CompatibleMode compatibleMode = CompatibleMode.SCHEMA_CONSISTENT;
@@ -79,13 +91,19 @@ public final class ForyBuilder {
   boolean codeGenEnabled = true;
   Boolean deserializeNonexistentClass;
   boolean asyncCompilationEnabled = false;
+  String codegenCacheDir;
   boolean registerGuavaTypes = true;
   boolean scalaOptimizationEnabled = false;
   boolean suppressClassRegistrationWarnings = true;
   boolean deserializeNonexistentEnumValueAsNull = false;
   boolean serializeEnumByName = false;
   int bufferSizeLimitBytes = 128 * 1024;
+  MemoryArena memoryArena;
+  ForyMetrics metrics;
   MetaCompressor metaCompressor = new DeflaterMetaCompressor();
+  PayloadCompressor payloadCompressor;
+  int payloadCompressionThreshold = 4096;
+  int maxDecompressedBytes = 256 * 1024 * 1024;
 
   public ForyBuilder() {}
 
@@ -183,6 +201,75 @@ public final class ForyBuilder {
     return this;
   }
 
+  /**
+   * Whether compress int arrays. Every array will be encoded by the smallest one of raw bytes,
+   * delta varint, frame-of-reference bit-packing and run-length encoding, which is chosen by an
+   * estimate of encoded sizes. This saves lots of space for sorted ids and small counters, but
+   * costs more cpu than copying raw bytes. Only take effect in java mode.
+   */
+  public ForyBuilder withIntArrayCompressed(boolean intArrayCompressed) {
+    this.compressIntArray = intArrayCompressed;
+    return this;
+  }
+
+  /**
+   * Whether compress long arrays like {@link #withIntArrayCompressed}. Only take effect in java
+   * mode.
+   */
+  public ForyBuilder withLongArrayCompressed(boolean longArrayCompressed) {
+    this.compressLongArray = longArrayCompressed;
+    return this;
+  }
+
+  /**
+   * Whether write serialized data of {@link Fory#serialize} as a frame with a header of body length
+   * and CRC32C checksum of the body, and verify the checksum in {@link Fory#deserialize} before
+   * decoding, including the stream deserialization. Truncated or corrupted frames will be rejected
+   * by {@link org.apache.fory.exception.CorruptedDataException} cheaply instead of failing deep in
+   * a serializer or producing wrong values. Out-of-band buffers are not covered by the checksum.
+   *
+   * <p>The header is patched after the body is written, so the whole frame will be kept in memory
+   * before it's flushed to a stream, which disables the chunked output of {@link
+   * org.apache.fory.io.ForyOutputStream}, {@link org.apache.fory.io.ForyWritableChannel} and {@link
+   * org.apache.fory.io.SegmentedBuffer}. The whole body will be read into memory before decoding
+   * too, see {@link #withMaxFrameBytes}. Both sides must enable this option, and it's only
+   * supported in java mode.
+   */
+  public ForyBuilder withFrameChecksum(boolean frameChecksum) {
+    this.frameChecksumEnabled = frameChecksum;
+    return this;
+  }
+
+  /**
+   * Frames whose body length in the header exceeds this limit will be rejected by {@link
+   * org.apache.fory.exception.CorruptedDataException} before the body is read, so that a corrupted
+   * or malicious header can't make fory read a huge body into memory. Only used when {@link
+   * #withFrameChecksum} is enabled. The default is 256MB.
+   */
+  public ForyBuilder withMaxFrameBytes(int maxFrameBytes) {
+    Preconditions.checkArgument(
+        maxFrameBytes > 0, "Max frame bytes %s must be positive", maxFrameBytes);
+    this.maxFrameBytes = maxFrameBytes;
+    return this;
+  }
+
+  /**
+   * Whether write an offset table for every object serialized by {@link
+   * org.apache.fory.serializer.ObjectSerializer}. The table is written after field values, with the
+   * total size of the object written before field values, so that readers can skip a nested object
+   * or jump to a field in O(1) without decoding other fields, see {@link Fory#deserialize(byte[],
+   * Class, org.apache.fory.serializer.FieldProjection)}.
+   *
+   * <p>Jit object serializers don't write the table, so bean classes will be serialized by {@link
+   * org.apache.fory.serializer.ObjectSerializer} if this option is enabled, other jit serializers
+   * are still used. Both sides must enable this option, and it's only supported in java mode with
+   * {@link CompatibleMode#SCHEMA_CONSISTENT}.
+   */
+  public ForyBuilder withFieldOffsetTable(boolean fieldOffsetTable) {
+    this.fieldOffsetTableEnabled = fieldOffsetTable;
+    return this;
+  }
+
   /** Whether compress string for small size. */
   public ForyBuilder withStringCompressed(boolean stringCompressed) {
     this.compressString = stringCompressed;
@@ -211,6 +298,29 @@ public final class ForyBuilder {
     return this;
   }
 
+  /**
+   * Allocate Fory's internal buffer from the provided off-heap {@link MemoryArena}, so that buffer
+   * growth reuses pooled direct memory instead of allocating new heap arrays. The arena is thread
+   * safe and can be shared by all fory instances of a thread safe fory. Buffers which exceed {@link
+   * #withBufferSizeLimitBytes} are dropped by {@link Fory#resetBuffer} and reclaimed by gc, since
+   * they may still be referenced through {@link Fory#getBuffer}.
+   */
+  public ForyBuilder withMemoryArena(MemoryArena memoryArena) {
+    this.memoryArena = memoryArena;
+    return this;
+  }
+
+  /**
+   * Record serialization metrics such as per-class bytes and latencies, jit compile time, buffer
+   * growth and reference hits into <code>metrics</code>. Metrics are disabled by default.
+   *
+   * @see org.apache.fory.metrics.ForyStats
+   */
+  public ForyBuilder withMetrics(ForyMetrics metrics) {
+    this.metrics = metrics;
+    return this;
+  }
+
   /**
    * Set classloader for fory to load classes, this classloader can't up updated. Fory will cache
    * the class meta data, if classloader can be updated, there may be class meta collision if
@@ -314,6 +424,58 @@ public final class ForyBuilder {
     return this;
   }
 
+  /**
+   * Set a compressor to compress the whole serialized data of {@link Fory#serialize}, and
+   * decompress it in {@link Fory#deserialize}, including the stream serialization. Data is
+   * compressed out of and decompressed into fory buffers directly, which saves the copy and
+   * allocation of compressing serialized bytes afterwards. Fory provides a `Deflater` based {@link
+   * org.apache.fory.io.DeflaterPayloadCompressor}, `lz4` and `zstd` based compressors can be found
+   * in `fory-extensions`. Out-of-band buffers are not compressed.
+   *
+   * <p>The compressed data replaces the raw payload in place, so the whole payload will be kept in
+   * memory before it's flushed to a stream, which disables the chunked output of {@link
+   * org.apache.fory.io.ForyOutputStream}, {@link org.apache.fory.io.ForyWritableChannel} and {@link
+   * org.apache.fory.io.SegmentedBuffer}. Decompressed payloads are bounded by {@link
+   * #withMaxDecompressedBytes}.
+   *
+   * <p>Note that the passed {@link PayloadCompressor} should be thread-safe. Both sides must use
+   * the same compressor, and it's only supported in java mode. Payload compression is disabled by
+   * default.
+   */
+  public ForyBuilder withPayloadCompressor(PayloadCompressor payloadCompressor) {
+    this.payloadCompressor = payloadCompressor;
+    return this;
+  }
+
+  /**
+   * Serialized data smaller than this threshold won't be compressed by the compressor set by {@link
+   * #withPayloadCompressor}, since the compression overhead is bigger than the saved size. The
+   * default is 4k.
+   */
+  public ForyBuilder withPayloadCompressionThreshold(int payloadCompressionThreshold) {
+    Preconditions.checkArgument(
+        payloadCompressionThreshold >= 0,
+        "Payload compression threshold %s must be non-negative",
+        payloadCompressionThreshold);
+    this.payloadCompressionThreshold = payloadCompressionThreshold;
+    return this;
+  }
+
+  /**
+   * Compressed payloads whose decompressed size in the header exceeds this limit will be rejected
+   * by {@link org.apache.fory.exception.CorruptedDataException} before decompression, so that a
+   * corrupted or malicious header can't make fory allocate a huge buffer. Only used when {@link
+   * #withPayloadCompressor} is set. The default is 256MB.
+   */
+  public ForyBuilder withMaxDecompressedBytes(int maxDecompressedBytes) {
+    Preconditions.checkArgument(
+        maxDecompressedBytes > 0,
+        "Max decompressed bytes %s must be positive",
+        maxDecompressedBytes);
+    this.maxDecompressedBytes = maxDecompressedBytes;
+    return this;
+  }
+
   /**
    * Whether deserialize/skip data of un-existed class.
    *
@@ -348,6 +510,19 @@ public final class ForyBuilder {
     return this;
   }
 
+  /**
+   * Cache compiled bytecode of generated serializers in <code>codegenCacheDir</code>, so that
+   * serializers can be loaded from the cache instead of being compiled again after process restart.
+   * Cache entries are keyed by generated code, entries will be invalidated automatically when class
+   * schema or fory config changes.
+   *
+   * @see org.apache.fory.codegen.CodegenCache
+   */
+  public ForyBuilder withCodegenCacheDir(String codegenCacheDir) {
+    this.codegenCacheDir = codegenCacheDir;
+    return this;
+  }
+
   /** Whether enable scala-specific serialization optimization. */
   public ForyBuilder withScalaOptimizationEnabled(boolean enableScalaOptimization) {
     this.scalaOptimizationEnabled = enableScalaOptimization;
@@ -396,6 +571,12 @@ public final class ForyBuilder {
           ObjectStreamSerializer.class,
           Serializer.class);
     }
+    Preconditions.checkArgument(
+        !frameChecksumEnabled || language == Language.JAVA,
+        "Frame checksum is only supported in java mode.");
+    Preconditions.checkArgument(
+        payloadCompressor == null || language == Language.JAVA,
+        "Payload compression is only supported in java mode.");
     if (writeNumUtf16BytesForUtf8Encoding == null) {
       writeNumUtf16BytesForUtf8Encoding = language == Language.JAVA;
     }
@@ -431,6 +612,18 @@ public final class ForyBuilder {
         checkClassVersion = true;
       }
     }
+    if (fieldOffsetTableEnabled) {
+      Preconditions.checkArgument(
+          language == Language.JAVA
+              && compatibleMode == CompatibleMode.SCHEMA_CONSISTENT
+              && !metaShareEnabled,
+          "Field offset table is only supported in java mode with schema consistent mode.");
+      if (codeGenEnabled) {
+        LOG.warn(
+            "Jit object serializers don't write field offset table, "
+                + "bean classes will be serialized by ObjectSerializer.");
+      }
+    }
     if (!requireClassRegistration) {
       LOG.warn(
           "Class registration isn't forced, unknown classes can be deserialized. "
@@ -486,6 +679,49 @@ public final class ForyBuilder {
     return threadSafeFory;
   }
 
+  /**
+   * Build thread safe fory for virtual threads, the number of fory instances is bounded by the
+   * number of carrier threads.
+   *
+   * @see VirtualThreadSafeFory
+   */
+  public ThreadSafeFory buildVirtualThreadSafeFory() {
+    return buildVirtualThreadSafeFory(VirtualThreadSafeFory.defaultPoolSize());
+  }
+
+  /**
+   * Build thread safe fory for virtual threads.
+   *
+   * @param maxPoolSize max number of fory instances
+   * @see VirtualThreadSafeFory
+   */
+  public ThreadSafeFory buildVirtualThreadSafeFory(int maxPoolSize) {
+    if (maxPoolSize <= 0) {
+      throw new IllegalArgumentException(
+          String.format("thread safe fory max pool size must be positive: [%s]", maxPoolSize));
+    }
+    finish();
+    ClassLoader loader = this.classLoader;
+    this.classLoader = null;
+    ThreadSafeFory threadSafeFory =
+        new VirtualThreadSafeFory(classLoader -> newFory(this, classLoader), maxPoolSize);
+    threadSafeFory.setClassLoader(loader);
+    return threadSafeFory;
+  }
+
+  /**
+   * Build fory which serializes large top-level collections, maps and object arrays in parallel.
+   *
+   * @param pool pool to run segment tasks, every worker thread uses its own {@link Fory}
+   * @param segmentSize max number of elements or map entries serialized by a task
+   * @see ParallelFory
+   */
+  public ParallelFory buildParallelFory(ForkJoinPool pool, int segmentSize) {
+    Preconditions.checkArgument(
+        language == Language.JAVA, "Parallel serialization is only supported in java mode");
+    return new ParallelFory(buildThreadLocalFory(), pool, segmentSize);
+  }
+
   /**
    * Build pooled ThreadSafeFory.
    *
@@ -508,6 +744,35 @@ public final class ForyBuilder {
    */
   public ThreadSafeFory buildThreadSafeForyPool(
       int minPoolSize, int maxPoolSize, long expireTime, TimeUnit timeUnit) {
+    return buildThreadSafeForyPool(minPoolSize, maxPoolSize, expireTime, timeUnit, false);
+  }
+
+  /**
+   * Build pooled ThreadSafeFory.
+   *
+   * @param minPoolSize min pool size
+   * @param maxPoolSize max pool size
+   * @param striped use lock-free slots striped by thread to hold idle fory instead of a blocking
+   *     queue, which scales better when many threads serialize concurrently
+   * @return ThreadSafeForyPool
+   */
+  public ThreadSafeFory buildThreadSafeForyPool(int minPoolSize, int maxPoolSize, boolean striped) {
+    return buildThreadSafeForyPool(minPoolSize, maxPoolSize, 30L, TimeUnit.SECONDS, striped);
+  }
+
+  /**
+   * Build pooled ThreadSafeFory.
+   *
+   * @param minPoolSize min pool size
+   * @param maxPoolSize max pool size
+   * @param expireTime cache expire time, default 5's
+   * @param timeUnit TimeUnit, default SECONDS
+   * @param striped use lock-free slots striped by thread to hold idle fory instead of a blocking
+   *     queue, which scales better when many threads serialize concurrently
+   * @return ThreadSafeForyPool
+   */
+  public ThreadSafeFory buildThreadSafeForyPool(
+      int minPoolSize, int maxPoolSize, long expireTime, TimeUnit timeUnit, boolean striped) {
     if (minPoolSize < 0 || maxPoolSize < 0 || minPoolSize > maxPoolSize) {
       throw new IllegalArgumentException(
           String.format(
@@ -523,7 +788,8 @@ public final class ForyBuilder {
             minPoolSize,
             maxPoolSize,
             expireTime,
-            timeUnit);
+            timeUnit,
+            striped);
     threadSafeFory.setClassLoader(loader);
     return threadSafeFory;
   }
@@ -166,14 +166,34 @@ public class BlockedStreamUtils {
   private static void readToBufferFromStream(InputStream inputStream, MemoryBuffer buffer)
       throws IOException {
     buffer.readerIndex(0);
-    int read = readBytes(inputStream, buffer.getHeapMemory(), 0, 4);
+    int read = readBytes(inputStream, buffer, 0, 4);
     Preconditions.checkArgument(read == 4);
     int size = buffer.readInt32();
     buffer.ensure(4 + size);
-    read = readBytes(inputStream, buffer.getHeapMemory(), 4, size);
+    read = readBytes(inputStream, buffer, 4, size);
     Preconditions.checkArgument(read == size);
   }
 
+  private static int readBytes(InputStream inputStream, MemoryBuffer buffer, int offset, int size)
+      throws IOException {
+    byte[] heapMemory = buffer.getHeapMemory();
+    if (heapMemory != null) {
+      return readBytes(inputStream, heapMemory, offset, size);
+    }
+    // off-heap buffer allocated by a `MemoryArena`, copy data by chunks.
+    byte[] chunk = new byte[Math.min(size, 8192)];
+    int read = 0;
+    while (read < size) {
+      int count = readBytes(inputStream, chunk, 0, Math.min(chunk.length, size - read));
+      if (count <= 0) {
+        break;
+      }
+      buffer.put(offset + read, chunk, 0, count);
+      read += count;
+    }
+    return read;
+  }
+
   private static int readBytes(InputStream inputStream, byte[] buffer, int offset, int size)
       throws IOException {
     int read = 0;
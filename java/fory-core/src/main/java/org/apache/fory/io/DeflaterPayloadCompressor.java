@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.apache.fory.exception.DeserializationException;
+import org.apache.fory.memory.MemoryBuffer;
+
+/**
+ * A payload compressor based on {@link Deflater} compression algorithm. Deflater and inflater are
+ * pooled by this compressor since they hold native memory and are expensive to create. The pool is
+ * bounded, instances which can't be put back are ended immediately, so the native memory won't be
+ * leaked by short-lived threads such as virtual threads.
+ */
+public class DeflaterPayloadCompressor implements PayloadCompressor {
+  private static final int MAX_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+  private final int level;
+  private final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(MAX_POOL_SIZE);
+  private final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(MAX_POOL_SIZE);
+
+  public DeflaterPayloadCompressor() {
+    this(Deflater.BEST_SPEED);
+  }
+
+  /** Create a compressor with deflate compression level from 0 to 9. */
+  public DeflaterPayloadCompressor(int level) {
+    this.level = level;
+  }
+
+  @Override
+  public int maxCompressedLength(int length) {
+    // same as `compressBound` of zlib.
+    return length + (length >>> 12) + (length >>> 14) + (length >>> 25) + 13;
+  }
+
+  @Override
+  public int compress(MemoryBuffer src, int srcIndex, int length, MemoryBuffer dst, int dstIndex) {
+    Deflater deflater = deflaters.poll();
+    if (deflater == null) {
+      deflater = new Deflater(level);
+    }
+    try {
+      return deflate(deflater, src, srcIndex, length, dst, dstIndex);
+    } finally {
+      deflater.reset();
+      if (!deflaters.offer(deflater)) {
+        deflater.end();
+      }
+    }
+  }
+
+  private int deflate(
+      Deflater deflater,
+      MemoryBuffer src,
+      int srcIndex,
+      int length,
+      MemoryBuffer dst,
+      int dstIndex) {
+    ByteBuffer input = src.sliceAsByteBuffer(srcIndex, length);
+    if (input.hasArray()) {
+      deflater.setInput(input.array(), input.arrayOffset(), length);
+    } else {
+      byte[] bytes = new byte[length];
+      src.get(srcIndex, bytes, 0, length);
+      deflater.setInput(bytes);
+    }
+    deflater.finish();
+    int maxLength = maxCompressedLength(length);
+    ByteBuffer output = dst.sliceAsByteBuffer(dstIndex, maxLength);
+    byte[] outputArray = output.hasArray() ? output.array() : new byte[maxLength];
+    int outputOffset = output.hasArray() ? output.arrayOffset() : 0;
+    int size = 0;
+    while (!deflater.finished()) {
+      size += deflater.deflate(outputArray, outputOffset + size, maxLength - size);
+    }
+    if (!output.hasArray()) {
+      dst.put(dstIndex, outputArray, 0, size);
+    }
+    return size;
+  }
+
+  @Override
+  public void decompress(
+      MemoryBuffer src,
+      int srcIndex,
+      int compressedLength,
+      MemoryBuffer dst,
+      int dstIndex,
+      int length) {
+    Inflater inflater = inflaters.poll();
+    if (inflater == null) {
+      inflater = new Inflater();
+    }
+    try {
+      inflate(inflater, src, srcIndex, compressedLength, dst, dstIndex, length);
+    } finally {
+      inflater.reset();
+      if (!inflaters.offer(inflater)) {
+        inflater.end();
+      }
+    }
+  }
+
+  private void inflate(
+      Inflater inflater,
+      MemoryBuffer src,
+      int srcIndex,
+      int compressedLength,
+      MemoryBuffer dst,
+      int dstIndex,
+      int length) {
+    ByteBuffer input = src.sliceAsByteBuffer(srcIndex, compressedLength);
+    if (input.hasArray()) {
+      inflater.setInput(input.array(), input.arrayOffset(), compressedLength);
+    } else {
+      byte[] bytes = new byte[compressedLength];
+      src.get(srcIndex, bytes, 0, compressedLength);
+      inflater.setInput(bytes);
+    }
+    ByteBuffer output = dst.sliceAsByteBuffer(dstIndex, length);
+    byte[] outputArray = output.hasArray() ? output.array() : new byte[length];
+    int outputOffset = output.hasArray() ? output.arrayOffset() : 0;
+    int size = 0;
+    try {
+      while (size < length) {
+        int n = inflater.inflate(outputArray, outputOffset + size, length - size);
+        if (n == 0
+            && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        size += n;
+      }
+      // the stream must end exactly at `length`, otherwise the header doesn't match the data.
+      if (size == length && !inflater.finished() && inflater.inflate(new byte[1]) > 0) {
+        size++;
+      }
+    } catch (DataFormatException e) {
+      throw new DeserializationException(e);
+    }
+    if (size != length) {
+      throw new DeserializationException(
+          String.format("Decompressed %d bytes, but expect %d bytes", size, length));
+    }
+    if (!output.hasArray()) {
+      dst.put(dstIndex, outputArray, 0, length);
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return DeflaterPayloadCompressor.class.hashCode() * 31 + level;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o != null
+        && getClass() == o.getClass()
+        && level == ((DeflaterPayloadCompressor) o).level;
+  }
+}
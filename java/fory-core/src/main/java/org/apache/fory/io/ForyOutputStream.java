@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.serializer.BufferObject;
+
+/**
+ * A buffered output stream by fory, which flushes serialized data to the original stream in chunks
+ * when the buffer is full, so serializing a large object graph doesn't need to hold the whole
+ * serialized data in memory. Do not use original {@link OutputStream} when this stream object
+ * created, use this stream as a wrapper instead.
+ *
+ * <p>Note that data which may still be patched by serializers, such as map chunk headers and meta
+ * share offsets, are kept in the buffer until they are patched, so the buffer may still grow beyond
+ * the configured buffer size in such cases.
+ */
+@NotThreadSafe
+public class ForyOutputStream extends OutputStream implements ForyStreamWriter {
+  private final OutputStream stream;
+  private final int bufferSize;
+  private final MemoryBuffer buffer;
+  // Buffer index of first byte in the underlying byte array, all data before it has been flushed.
+  private int windowStart;
+
+  public ForyOutputStream(OutputStream stream) {
+    this(stream, 8192);
+  }
+
+  public ForyOutputStream(OutputStream stream, int bufferSize) {
+    this.stream = stream;
+    this.bufferSize = bufferSize;
+    this.buffer = MemoryBuffer.fromByteArray(new byte[bufferSize], this);
+  }
+
+  @Override
+  public void flushBuffer(int minSize) {
+    MemoryBuffer buffer = this.buffer;
+    byte[] window = buffer.getHeapMemory();
+    int windowStart = this.windowStart;
+    int writerIndex = buffer.writerIndex();
+    int flushEnd = Math.min(writerIndex, buffer.getPinnedWriterIndex());
+    if (flushEnd > windowStart) {
+      writeToStream(window, 0, flushEnd - windowStart);
+    } else {
+      flushEnd = windowStart;
+    }
+    int remaining = writerIndex - flushEnd;
+    int newSize = minSize - flushEnd;
+    byte[] newWindow = window;
+    if (newSize > window.length) {
+      newSize =
+          newSize < MemoryBuffer.BUFFER_GROW_STEP_THRESHOLD
+              ? newSize << 1
+              : (int) Math.min(newSize * 1.5d, Integer.MAX_VALUE - 8);
+      newWindow = new byte[Math.max(newSize, bufferSize)];
+    }
+    System.arraycopy(window, flushEnd - windowStart, newWindow, 0, remaining);
+    buffer.pointToWindow(newWindow, flushEnd);
+    this.windowStart = flushEnd;
+  }
+
+  @Override
+  public void flush() {
+    MemoryBuffer buffer = this.buffer;
+    int size = buffer.writerIndex() - windowStart;
+    if (size > 0) {
+      writeToStream(buffer.getHeapMemory(), 0, size);
+    }
+    byte[] window = buffer.getHeapMemory();
+    if (window.length > bufferSize) {
+      // shrink buffer to release memory.
+      window = new byte[bufferSize];
+    }
+    buffer.pointToWindow(window, 0);
+    buffer.writerIndex(0);
+    buffer.unpinWriterIndex(Integer.MAX_VALUE);
+    windowStart = 0;
+    try {
+      stream.flush();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public boolean writeBufferObject(BufferObject bufferObject) {
+    MemoryBuffer buffer = this.buffer;
+    int writerIndex = buffer.writerIndex();
+    int totalBytes = bufferObject.totalBytes();
+    if (totalBytes < bufferSize || buffer.getPinnedWriterIndex() < writerIndex) {
+      return false;
+    }
+    ByteBuffer[] byteBuffers = bufferObject.toByteBuffers();
+    if (byteBuffers == null) {
+      return false;
+    }
+    for (ByteBuffer byteBuffer : byteBuffers) {
+      if (!byteBuffer.hasArray()) {
+        return false;
+      }
+    }
+    byte[] window = buffer.getHeapMemory();
+    writeToStream(window, 0, writerIndex - windowStart);
+    for (ByteBuffer byteBuffer : byteBuffers) {
+      int offset = byteBuffer.arrayOffset() + byteBuffer.position();
+      writeToStream(byteBuffer.array(), offset, byteBuffer.remaining());
+    }
+    int newWriterIndex = writerIndex + totalBytes;
+    buffer.pointToWindow(window, newWriterIndex);
+    buffer.writerIndex(newWriterIndex);
+    windowStart = newWriterIndex;
+    return true;
+  }
+
+  private void writeToStream(byte[] bytes, int offset, int length) {
+    try {
+      stream.write(bytes, offset, length);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public MemoryBuffer getBuffer() {
+    return buffer;
+  }
+
+  public OutputStream getStream() {
+    return stream;
+  }
+
+  @Override
+  public void write(int b) {
+    buffer.writeByte((byte) b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) {
+    buffer.writeBytes(b, off, len);
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+    stream.close();
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.io;
+
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.serializer.BufferObject;
+
+/**
+ * A streaming writer to make {@link MemoryBuffer} to support streaming writing. Instead of growing
+ * the buffer to hold the whole serialized data, written data will be flushed to the underlying sink
+ * when the buffer is full, so the memory is bounded by the buffer size rather than the payload.
+ */
+public interface ForyStreamWriter {
+
+  /**
+   * Flush written data of underlying {@link MemoryBuffer} to the sink, so that the buffer can hold
+   * data up to index <code>minSize</code>. Data at or after {@link
+   * MemoryBuffer#getPinnedWriterIndex} will be kept in the buffer since it may still be patched.
+   * Indices of the buffer are kept unchanged.
+   */
+  void flushBuffer(int minSize);
+
+  /**
+   * Write all data in the underlying {@link MemoryBuffer} to the sink and reset the buffer for next
+   * write. Do not invoke this method if the serialization for an object didn't finish.
+   */
+  void flush();
+
+  /**
+   * Write data of <code>bufferObject</code> to the sink directly instead of copying it into the
+   * buffer, buffered data will be flushed first to keep data order. If written, the writer index of
+   * the buffer will be increased by {@link BufferObject#totalBytes}.
+   *
+   * @return false if the <code>bufferObject</code> isn't written, e.g. it's too small to be worth a
+   *     direct write or buffered data is still pinned, the caller should write it into the buffer
+   *     instead.
+   */
+  boolean writeBufferObject(BufferObject bufferObject);
+
+  /**
+   * Returns the underlying {@link MemoryBuffer}. This method will return same instance of buffer
+   * for same {@link ForyStreamWriter} instance.
+   */
+  MemoryBuffer getBuffer();
+
+  /**
+   * Create a {@link ForyOutputStream} from the provided {@link OutputStream}. Note that the
+   * provided stream will be owned by the returned {@link ForyOutputStream}, <bold>do not</bold>
+   * write the provided {@link OutputStream} anymore, write the returned stream instead.
+   */
+  static ForyOutputStream of(OutputStream stream) {
+    return new ForyOutputStream(stream);
+  }
+
+  /**
+   * Create a {@link ForyWritableChannel} from the provided {@link WritableByteChannel}. Note that
+   * the provided channel will be owned by the returned {@link ForyWritableChannel}, <bold>do
+   * not</bold> write the provided {@link WritableByteChannel} anymore, write the returned channel
+   * instead.
+   */
+  static ForyWritableChannel of(WritableByteChannel channel) {
+    return new ForyWritableChannel(channel);
+  }
+}
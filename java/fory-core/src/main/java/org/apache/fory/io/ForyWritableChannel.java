@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.apache.fory.exception.ForyException;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.serializer.BufferObject;
+import org.apache.fory.util.Preconditions;
+
+/**
+ * A buffered writable channel by fory, which serializes data into a direct buffer and flushes it to
+ * the original channel in chunks when the buffer is full. Large {@link BufferObject}s such as byte
+ * arrays and byte buffers are written to the channel directly without copying into the buffer, by a
+ * single gathering write if the channel is a {@link GatheringByteChannel}. Arrays of other
+ * primitive types can't be viewed as byte buffers, they are copied through the buffer in chunks. Do
+ * not use original {@link WritableByteChannel} when this channel object created, use this channel
+ * as a wrapper instead.
+ *
+ * <p>Note that data which may still be patched by serializers, such as map chunk headers and meta
+ * share offsets, are kept in the buffer until they are patched, so the buffer may still grow beyond
+ * the configured buffer size in such cases.
+ */
+@NotThreadSafe
+public class ForyWritableChannel implements ForyStreamWriter, WritableByteChannel {
+  private final WritableByteChannel channel;
+  private final int bufferSize;
+  private final MemoryBuffer memoryBuffer;
+  private ByteBuffer byteBuffer;
+  // Buffer index of first byte in the direct buffer, all data before it has been flushed.
+  private int windowStart;
+
+  public ForyWritableChannel(WritableByteChannel channel) {
+    this(channel, ByteBuffer.allocateDirect(8192));
+  }
+
+  public ForyWritableChannel(WritableByteChannel channel, ByteBuffer directBuffer) {
+    Preconditions.checkArgument(
+        directBuffer.isDirect(), "ForyWritableChannel support only direct ByteBuffer.");
+    this.channel = channel;
+    this.bufferSize = directBuffer.capacity();
+    this.byteBuffer = directBuffer;
+    this.memoryBuffer = MemoryBuffer.fromDirectByteBuffer(directBuffer, this);
+  }
+
+  @Override
+  public void flushBuffer(int minSize) {
+    MemoryBuffer memoryBuf = memoryBuffer;
+    ByteBuffer byteBuf = byteBuffer;
+    int windowStart = this.windowStart;
+    int writerIndex = memoryBuf.writerIndex();
+    int flushEnd = Math.min(writerIndex, memoryBuf.getPinnedWriterIndex());
+    if (flushEnd > windowStart) {
+      byteBuf.clear();
+      byteBuf.limit(flushEnd - windowStart);
+      writeFully(byteBuf);
+    } else {
+      flushEnd = windowStart;
+    }
+    int newSize = minSize - flushEnd;
+    byteBuf.limit(writerIndex - windowStart);
+    byteBuf.position(flushEnd - windowStart);
+    if (newSize > byteBuf.capacity()) {
+      newSize =
+          newSize < MemoryBuffer.BUFFER_GROW_STEP_THRESHOLD
+              ? newSize << 1
+              : (int) Math.min(newSize * 1.5d, Integer.MAX_VALUE - 8);
+      ByteBuffer newByteBuf = ByteBuffer.allocateDirect(Math.max(newSize, bufferSize));
+      newByteBuf.put(byteBuf);
+      byteBuf = byteBuffer = newByteBuf;
+    } else {
+      byteBuf.compact();
+    }
+    memoryBuf.pointToWindow(byteBuf, flushEnd);
+    this.windowStart = flushEnd;
+  }
+
+  @Override
+  public void flush() {
+    MemoryBuffer memoryBuf = memoryBuffer;
+    ByteBuffer byteBuf = byteBuffer;
+    int size = memoryBuf.writerIndex() - windowStart;
+    if (size > 0) {
+      byteBuf.clear();
+      byteBuf.limit(size);
+      writeFully(byteBuf);
+    }
+    if (byteBuf.capacity() > bufferSize) {
+      // shrink buffer to release memory.
+      byteBuf = byteBuffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+    byteBuf.clear();
+    memoryBuf.pointToWindow(byteBuf, 0);
+    memoryBuf.writerIndex(0);
+    memoryBuf.unpinWriterIndex(Integer.MAX_VALUE);
+    windowStart = 0;
+  }
+
+  @Override
+  public boolean writeBufferObject(BufferObject bufferObject) {
+    MemoryBuffer memoryBuf = memoryBuffer;
+    int writerIndex = memoryBuf.writerIndex();
+    int totalBytes = bufferObject.totalBytes();
+    if (totalBytes < bufferSize || memoryBuf.getPinnedWriterIndex() < writerIndex) {
+      return false;
+    }
+    ByteBuffer[] byteBuffers = bufferObject.toByteBuffers();
+    if (byteBuffers == null) {
+      return false;
+    }
+    writeDirectly(byteBuffers, totalBytes);
+    return true;
+  }
+
+  /** Write buffered data and <code>srcs</code> to the channel, then skip the written bytes. */
+  private void writeDirectly(ByteBuffer[] srcs, int totalBytes) {
+    MemoryBuffer memoryBuf = memoryBuffer;
+    int writerIndex = memoryBuf.writerIndex();
+    ByteBuffer byteBuf = byteBuffer;
+    byteBuf.clear();
+    byteBuf.limit(writerIndex - windowStart);
+    ByteBuffer[] buffers = new ByteBuffer[srcs.length + 1];
+    buffers[0] = byteBuf;
+    System.arraycopy(srcs, 0, buffers, 1, srcs.length);
+    writeFully(buffers);
+    byteBuf.clear();
+    int newWriterIndex = writerIndex + totalBytes;
+    memoryBuf.pointToWindow(byteBuf, newWriterIndex);
+    memoryBuf.writerIndex(newWriterIndex);
+    windowStart = newWriterIndex;
+  }
+
+  private void writeFully(ByteBuffer src) {
+    try {
+      while (src.hasRemaining()) {
+        channel.write(src);
+      }
+    } catch (IOException e) {
+      throw new ForyException("Failed to write the provided byte channel", e);
+    }
+  }
+
+  private void writeFully(ByteBuffer[] srcs) {
+    try {
+      if (channel instanceof GatheringByteChannel) {
+        GatheringByteChannel gatheringChannel = (GatheringByteChannel) channel;
+        long remaining = 0;
+        for (ByteBuffer src : srcs) {
+          remaining += src.remaining();
+        }
+        while (remaining > 0) {
+          remaining -= gatheringChannel.write(srcs);
+        }
+      } else {
+        for (ByteBuffer src : srcs) {
+          while (src.hasRemaining()) {
+            channel.write(src);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new ForyException("Failed to write the provided byte channel", e);
+    }
+  }
+
+  @Override
+  public int write(ByteBuffer src) {
+    int length = src.remaining();
+    MemoryBuffer memoryBuf = memoryBuffer;
+    if (length >= bufferSize && memoryBuf.getPinnedWriterIndex() >= memoryBuf.writerIndex()) {
+      writeDirectly(new ByteBuffer[] {src}, length);
+    } else {
+      memoryBuf.write(src);
+    }
+    return length;
+  }
+
+  @Override
+  public MemoryBuffer getBuffer() {
+    return memoryBuffer;
+  }
+
+  public WritableByteChannel getChannel() {
+    return channel;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return channel.isOpen();
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+    channel.close();
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.io;
+
+import org.apache.fory.memory.MemoryBuffer;
+
+/**
+ * An interface used to compress the whole serialized payload, see {@link
+ * org.apache.fory.config.ForyBuilder#withPayloadCompressor}. Data is compressed out of and
+ * decompressed into {@link MemoryBuffer} directly, so no intermediate byte arrays are needed for
+ * heap buffers. The implementation of this interface should be thread safe.
+ */
+public interface PayloadCompressor {
+  /** Returns the max size of compressed data for <code>length</code> bytes input. */
+  int maxCompressedLength(int length);
+
+  /**
+   * Compresses <code>length</code> bytes of <code>src</code> starting from <code>srcIndex</code>
+   * into <code>dst</code> starting from <code>dstIndex</code>.
+   *
+   * @param dst buffer which has at least {@link #maxCompressedLength} bytes from <code>dstIndex
+   *     </code>.
+   * @return compressed size.
+   */
+  int compress(MemoryBuffer src, int srcIndex, int length, MemoryBuffer dst, int dstIndex);
+
+  /**
+   * Decompresses <code>compressedLength</code> bytes of <code>src</code> starting from <code>
+   * srcIndex</code> into <code>dst</code> starting from <code>dstIndex</code>.
+   *
+   * @param length size of the decompressed data, <code>dst</code> has exactly this number of bytes
+   *     from <code>dstIndex</code>.
+   * @throws org.apache.fory.exception.DeserializationException if the data can't be decompressed to
+   *     exactly <code>length</code> bytes.
+   */
+  void decompress(
+      MemoryBuffer src,
+      int srcIndex,
+      int compressedLength,
+      MemoryBuffer dst,
+      int dstIndex,
+      int length);
+}
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.serializer.BufferObject;
+import org.apache.fory.util.Preconditions;
+
+/**
+ * A composite buffer made of byte array segments, which can be used as the target of {@link
+ * org.apache.fory.Fory#serialize(SegmentedBuffer, Object)}. When the current segment is full, it's
+ * sealed as is and a new segment is allocated, so serializing a large object graph never grows and
+ * copies a large contiguous array, and the buffer growth cost doesn't depend on the written size.
+ *
+ * <p>Serialized data can be written out by {@link #writeTo(OutputStream)} and {@link
+ * #writeTo(GatheringByteChannel)} segment by segment, and be deserialized by reading {@link
+ * #newInputStream} through {@link org.apache.fory.Fory#deserialize(ForyInputStream)}, which buffers
+ * only one segment at a time.
+ *
+ * <p>Note that data which may still be patched by serializers, such as map chunk headers and meta
+ * share offsets, are kept in the current segment until they are patched, so a segment may still be
+ * larger than the configured segment size in such cases.
+ */
+@NotThreadSafe
+public class SegmentedBuffer implements ForyStreamWriter {
+  private static final byte[] EMPTY_WINDOW = new byte[0];
+
+  private final int segmentSize;
+  private final MemoryBuffer buffer;
+  private final List<ByteBuffer> segments = new ArrayList<>();
+  private long sealedBytes;
+  // Buffer index of first byte in current segment, all data before it has been sealed.
+  private int windowStart;
+
+  public SegmentedBuffer() {
+    this(256 * 1024);
+  }
+
+  /**
+   * Create a segmented buffer.
+   *
+   * @param segmentSize size of a segment, which should be smaller than half of G1 region size to
+   *     avoid humongous allocations.
+   */
+  public SegmentedBuffer(int segmentSize) {
+    Preconditions.checkArgument(segmentSize > 0, "Segment size must be positive: %s", segmentSize);
+    this.segmentSize = segmentSize;
+    this.buffer = MemoryBuffer.fromByteArray(new byte[segmentSize], this);
+  }
+
+  @Override
+  public void flushBuffer(int minSize) {
+    MemoryBuffer buffer = this.buffer;
+    byte[] window = buffer.getHeapMemory();
+    int windowStart = this.windowStart;
+    int writerIndex = buffer.writerIndex();
+    int flushEnd = Math.min(writerIndex, buffer.getPinnedWriterIndex());
+    int newSize;
+    if (flushEnd > windowStart) {
+      // Data won't be patched anymore, seal current segment without copy.
+      seal(window, flushEnd - windowStart);
+      newSize = minSize - flushEnd;
+    } else {
+      // All data are pinned, grow current segment like a normal buffer.
+      flushEnd = windowStart;
+      newSize = minSize - flushEnd;
+      if (newSize > window.length) {
+        newSize =
+            newSize < MemoryBuffer.BUFFER_GROW_STEP_THRESHOLD
+                ? newSize << 1
+                : (int) Math.min(newSize * 1.5d, Integer.MAX_VALUE - 8);
+      }
+    }
+    byte[] newWindow = new byte[Math.max(newSize, segmentSize)];
+    System.arraycopy(window, flushEnd - windowStart, newWindow, 0, writerIndex - flushEnd);
+    buffer.pointToWindow(newWindow, flushEnd);
+    this.windowStart = flushEnd;
+  }
+
+  @Override
+  public void flush() {
+    MemoryBuffer buffer = this.buffer;
+    int size = buffer.writerIndex() - windowStart;
+    if (size > 0) {
+      seal(buffer.getHeapMemory(), size);
+      // next segment will be allocated when data are written.
+      buffer.pointToWindow(EMPTY_WINDOW, 0);
+    } else {
+      buffer.pointToWindow(buffer.getHeapMemory(), 0);
+    }
+    buffer.writerIndex(0);
+    buffer.unpinWriterIndex(Integer.MAX_VALUE);
+    windowStart = 0;
+  }
+
+  private void seal(byte[] window, int length) {
+    segments.add(ByteBuffer.wrap(window, 0, length));
+    sealedBytes += length;
+  }
+
+  /** Buffer objects are copied into segments too, so that the data are owned by this buffer. */
+  @Override
+  public boolean writeBufferObject(BufferObject bufferObject) {
+    return false;
+  }
+
+  @Override
+  public MemoryBuffer getBuffer() {
+    return buffer;
+  }
+
+  /** Returns the number of bytes written and flushed by serialization. */
+  public long size() {
+    return sealedBytes;
+  }
+
+  /** Returns read-only views of sealed segments. */
+  public ByteBuffer[] getSegments() {
+    ByteBuffer[] buffers = new ByteBuffer[segments.size()];
+    for (int i = 0; i < buffers.length; i++) {
+      buffers[i] = segments.get(i).asReadOnlyBuffer();
+    }
+    return buffers;
+  }
+
+  /** Copy all segments into a byte array, which requires {@link #size} less than 2GB. */
+  public byte[] toByteArray() {
+    Preconditions.checkArgument(
+        sealedBytes <= Integer.MAX_VALUE - 8, "Size %s is too large for a byte array", sealedBytes);
+    byte[] bytes = new byte[(int) sealedBytes];
+    int offset = 0;
+    for (ByteBuffer segment : segments) {
+      int length = segment.remaining();
+      System.arraycopy(segment.array(), segment.arrayOffset(), bytes, offset, length);
+      offset += length;
+    }
+    return bytes;
+  }
+
+  /** Write all segments to <code>stream</code> without copying them into a single array. */
+  public void writeTo(OutputStream stream) throws IOException {
+    for (ByteBuffer segment : segments) {
+      stream.write(segment.array(), segment.arrayOffset(), segment.remaining());
+    }
+  }
+
+  /** Write all segments to <code>channel</code> by gathering writes. */
+  public void writeTo(GatheringByteChannel channel) throws IOException {
+    ByteBuffer[] buffers = getSegments();
+    long remaining = sealedBytes;
+    int offset = 0;
+    while (remaining > 0) {
+      remaining -= channel.write(buffers, offset, buffers.length - offset);
+      while (offset < buffers.length && !buffers[offset].hasRemaining()) {
+        offset++;
+      }
+    }
+  }
+
+  /**
+   * Returns an input stream which reads the segments in order, wrap it by {@link ForyInputStream}
+   * to deserialize the written objects.
+   */
+  public InputStream newInputStream() {
+    return new SegmentsInputStream(getSegments());
+  }
+
+  /** Drop all written data, segments are released to the gc. */
+  public void reset() {
+    flush();
+    segments.clear();
+    sealedBytes = 0;
+  }
+
+  private static final class SegmentsInputStream extends InputStream {
+    private final ByteBuffer[] segments;
+    private int index;
+
+    private SegmentsInputStream(ByteBuffer[] segments) {
+      this.segments = segments;
+    }
+
+    @Override
+    public int read() {
+      ByteBuffer segment = nextSegment();
+      return segment == null ? -1 : segment.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      ByteBuffer segment = nextSegment();
+      if (segment == null) {
+        return -1;
+      }
+      int n = Math.min(len, segment.remaining());
+      segment.get(b, off, n);
+      return n;
+    }
+
+    @Override
+    public int available() {
+      ByteBuffer segment = nextSegment();
+      return segment == null ? 0 : segment.remaining();
+    }
+
+    private ByteBuffer nextSegment() {
+      ByteBuffer[] segments = this.segments;
+      while (index < segments.length) {
+        ByteBuffer segment = segments[index];
+        if (segment.hasRemaining()) {
+          return segment;
+        }
+        segments[index++] = null;
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.memory;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.fory.util.Preconditions;
+
+/**
+ * A pooled allocator of off-heap memory for {@link MemoryBuffer}. Memory is handed out in blocks
+ * whose sizes are power-of-two size classes starting from {@link #MIN_BLOCK_SIZE}. Blocks smaller
+ * than the slab size are carved out of a larger direct memory slab, bigger blocks are allocated
+ * individually. Released blocks are kept in a free list of their size class until the pooled bytes
+ * reach the configured limit, blocks released after that will be left to the garbage collector.
+ *
+ * <p>Buffers allocated by {@link #allocate} grow by taking a bigger block from this arena and
+ * returning the old one, so the memory won't be churned through java heap. If a slice or {@link
+ * ByteBuffer} view has been taken from the buffer, the old block is left to the garbage collector
+ * instead, so views stay valid after growth. Such buffers must be released by {@link #release}
+ * explicitly when they are not used anymore, slices taken from a buffer must not be used after the
+ * buffer is released.
+ */
+@ThreadSafe
+public final class MemoryArena {
+  public static final int MIN_BLOCK_SIZE = 4096;
+  private static final int MIN_BLOCK_SHIFT = 12;
+  // Size classes are [4KB, 1GB], larger blocks won't be pooled.
+  private static final int NUM_SIZE_CLASSES = 31 - MIN_BLOCK_SHIFT;
+  private static final byte[] EMPTY = new byte[0];
+
+  private final int slabSize;
+  private final long maxPooledBytes;
+  private final ConcurrentLinkedQueue<ByteBuffer>[] freeLists;
+  private final AtomicLong pooledBytes = new AtomicLong();
+
+  /** Creates an arena with 1MB slabs which pools at most 64MB memory. */
+  public MemoryArena() {
+    this(1 << 20, 64L << 20);
+  }
+
+  /**
+   * Creates an arena.
+   *
+   * @param slabSize size of the slab which small blocks are carved from, must be a power of two and
+   *     no less than {@link #MIN_BLOCK_SIZE}.
+   * @param maxPooledBytes max bytes kept in free lists.
+   */
+  @SuppressWarnings("unchecked")
+  public MemoryArena(int slabSize, long maxPooledBytes) {
+    if (slabSize < MIN_BLOCK_SIZE || Integer.bitCount(slabSize) != 1) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Slab size %d should be a power of two and no less than %d",
+              slabSize, MIN_BLOCK_SIZE));
+    }
+    Preconditions.checkArgument(maxPooledBytes >= 0, "maxPooledBytes must be non-negative");
+    this.slabSize = slabSize;
+    this.maxPooledBytes = maxPooledBytes;
+    freeLists = new ConcurrentLinkedQueue[NUM_SIZE_CLASSES];
+    for (int i = 0; i < NUM_SIZE_CLASSES; i++) {
+      freeLists[i] = new ConcurrentLinkedQueue<>();
+    }
+  }
+
+  /**
+   * Allocates an off-heap buffer with at least <code>size</code> bytes, which grows in this arena
+   * too.
+   */
+  public MemoryBuffer allocate(int size) {
+    ByteBuffer block = allocateBlock(size);
+    MemoryBuffer buffer = MemoryBuffer.fromByteBuffer(block);
+    buffer.arena = this;
+    return buffer;
+  }
+
+  /**
+   * Returns the memory of a buffer allocated by this arena. The buffer will be detached from this
+   * arena and point to an empty heap array, so it's still safe to be written, but not backed by
+   * this arena anymore.
+   */
+  public void release(MemoryBuffer buffer) {
+    Preconditions.checkArgument(buffer.arena == this, "Buffer is not allocated by this arena");
+    ByteBuffer block = buffer.offHeapBlock();
+    buffer.arena = null;
+    buffer.viewed = false;
+    buffer.initHeapBuffer(EMPTY, 0, 0);
+    buffer.readerIndex(0);
+    buffer.writerIndex(0);
+    if (block != null) {
+      releaseBlock(block);
+    }
+  }
+
+  /**
+   * Detaches a buffer allocated by this arena without returning its memory. The buffer keeps its
+   * current block and will grow on heap afterwards, the block will be reclaimed by the garbage
+   * collector once the buffer and all slices taken from it are unreachable. Use this instead of
+   * {@link #release} when the buffer may still be referenced by others.
+   */
+  public void detach(MemoryBuffer buffer) {
+    Preconditions.checkArgument(buffer.arena == this, "Buffer is not allocated by this arena");
+    buffer.arena = null;
+  }
+
+  /** Allocates a direct block with at least <code>size</code> bytes. */
+  public ByteBuffer allocateBlock(int size) {
+    Preconditions.checkArgument(size >= 0, "size must be non-negative");
+    int sizeClass = sizeClass(size);
+    if (sizeClass >= NUM_SIZE_CLASSES) {
+      return ByteBuffer.allocateDirect(size);
+    }
+    ByteBuffer block = freeLists[sizeClass].poll();
+    if (block != null) {
+      pooledBytes.addAndGet(-block.capacity());
+      return block;
+    }
+    int blockSize = MIN_BLOCK_SIZE << sizeClass;
+    if (blockSize < slabSize) {
+      return carveSlab(sizeClass, blockSize);
+    }
+    return ByteBuffer.allocateDirect(blockSize);
+  }
+
+  /**
+   * Returns a block allocated by {@link #allocateBlock} to this arena. The block must not be used
+   * after released.
+   */
+  public void releaseBlock(ByteBuffer block) {
+    int capacity = block.capacity();
+    int sizeClass = sizeClass(capacity);
+    if (!block.isDirect()
+        || sizeClass >= NUM_SIZE_CLASSES
+        || (MIN_BLOCK_SIZE << sizeClass) != capacity) {
+      // not a block of any size class, leave it to gc.
+      return;
+    }
+    if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+      pooledBytes.addAndGet(-capacity);
+      return;
+    }
+    ((Buffer) block).clear();
+    freeLists[sizeClass].offer(block);
+  }
+
+  /** Returns bytes held by free lists of this arena. */
+  public long pooledBytes() {
+    return pooledBytes.get();
+  }
+
+  void reallocate(MemoryBuffer buffer, int newSize) {
+    ByteBuffer block = allocateBlock(newSize);
+    ByteBuffer oldBlock = buffer.offHeapBlock();
+    long address = ByteBufferUtil.getAddress(block);
+    buffer.copyToUnsafe(0, null, address, buffer.size());
+    buffer.initDirectBuffer(address, block.capacity(), block);
+    // Views of the old block may still be in use, it can be reused only if none was taken.
+    if (oldBlock != null && !buffer.viewed) {
+      releaseBlock(oldBlock);
+    }
+    buffer.viewed = false;
+  }
+
+  private ByteBuffer carveSlab(int sizeClass, int blockSize) {
+    ByteBuffer slab = ByteBuffer.allocateDirect(slabSize);
+    ConcurrentLinkedQueue<ByteBuffer> freeList = freeLists[sizeClass];
+    ByteBuffer first = null;
+    for (int offset = 0; offset < slabSize; offset += blockSize) {
+      ((Buffer) slab).limit(offset + blockSize);
+      ((Buffer) slab).position(offset);
+      ByteBuffer block = slab.slice();
+      if (first == null) {
+        first = block;
+      } else {
+        pooledBytes.addAndGet(blockSize);
+        freeList.offer(block);
+      }
+    }
+    return first;
+  }
+
+  private static int sizeClass(int size) {
+    if (size <= MIN_BLOCK_SIZE) {
+      return 0;
+    }
+    return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_BLOCK_SHIFT;
+  }
+}
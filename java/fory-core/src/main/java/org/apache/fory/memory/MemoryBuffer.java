@@ -26,6 +26,8 @@ import java.util.Arrays;
 import org.apache.fory.annotation.CodegenInvoke;
 import org.apache.fory.io.AbstractStreamReader;
 import org.apache.fory.io.ForyStreamReader;
+import org.apache.fory.io.ForyStreamWriter;
+import org.apache.fory.metrics.ForyMetrics;
 import sun.misc.Unsafe;
 
 /**
@@ -88,6 +90,19 @@ public final class MemoryBuffer {
   private int readerIndex;
   private int writerIndex;
   private final ForyStreamReader streamReader;
+  // If not null, buffer growth is delegated to this writer, which flushes written data out to keep
+  // the buffer bounded instead of reallocating a larger array.
+  private final ForyStreamWriter streamWriter;
+  // Data at or after this index may still be patched by `putXXX`, streaming writers must keep it.
+  private int pinnedWriterIndex = Integer.MAX_VALUE;
+  // If not null, the memory is a block of this arena, and buffer grows by taking bigger blocks from
+  // this arena.
+  MemoryArena arena;
+  // Whether a view of the off-heap memory has been handed out, the arena won't reuse the memory
+  // when growing such a buffer.
+  boolean viewed;
+  // If not null, buffer growth will be recorded into it.
+  private ForyMetrics metrics;
 
   /**
    * Creates a new memory buffer that represents the memory of the byte array.
@@ -111,6 +126,25 @@ public final class MemoryBuffer {
    * @param streamReader a reader for reading from a stream.
    */
   private MemoryBuffer(byte[] buffer, int offset, int length, ForyStreamReader streamReader) {
+    this(buffer, offset, length, streamReader, null);
+  }
+
+  /**
+   * Creates a new memory buffer that represents the memory of the byte array.
+   *
+   * @param buffer The byte array whose memory is represented by this memory buffer.
+   * @param offset The offset of the sub array to be used; must be non-negative and no larger than
+   *     <tt>array.length</tt>.
+   * @param length buffer size
+   * @param streamReader a reader for reading from a stream.
+   * @param streamWriter a writer for flushing written data to a stream when buffer is full.
+   */
+  private MemoryBuffer(
+      byte[] buffer,
+      int offset,
+      int length,
+      ForyStreamReader streamReader,
+      ForyStreamWriter streamWriter) {
     checkArgument(offset >= 0 && length >= 0);
     if (offset + length > buffer.length) {
       throw new IllegalArgumentException(
@@ -122,6 +156,7 @@ public final class MemoryBuffer {
     } else {
       this.streamReader = new BoundChecker();
     }
+    this.streamWriter = streamWriter;
   }
 
   /**
@@ -151,12 +186,34 @@ public final class MemoryBuffer {
    */
   private MemoryBuffer(
       long offHeapAddress, int size, ByteBuffer offHeapBuffer, ForyStreamReader streamReader) {
+    this(offHeapAddress, size, offHeapBuffer, streamReader, null);
+  }
+
+  /**
+   * Creates a new memory buffer that represents the native memory at the absolute address given by
+   * the pointer.
+   *
+   * @param offHeapAddress The address of the memory represented by this memory buffer.
+   * @param size The size of this memory buffer.
+   * @param offHeapBuffer The byte buffer whose memory is represented by this memory buffer which
+   *     may be null if the memory is not allocated by `DirectByteBuffer`. Hold this buffer to avoid
+   *     the memory being released.
+   * @param streamReader a reader for reading from a stream.
+   * @param streamWriter a writer for flushing written data to a stream when buffer is full.
+   */
+  private MemoryBuffer(
+      long offHeapAddress,
+      int size,
+      ByteBuffer offHeapBuffer,
+      ForyStreamReader streamReader,
+      ForyStreamWriter streamWriter) {
     initDirectBuffer(offHeapAddress, size, offHeapBuffer);
     if (streamReader != null) {
       this.streamReader = streamReader;
     } else {
       this.streamReader = new BoundChecker();
     }
+    this.streamWriter = streamWriter;
   }
 
   public void initDirectBuffer(long offHeapAddress, int size, ByteBuffer offHeapBuffer) {
@@ -199,6 +256,7 @@ public final class MemoryBuffer {
       throw new NullPointerException("buffer");
     }
     this.heapMemory = buffer;
+    this.offHeapBuffer = null;
     this.heapOffset = offset;
     final long startPos = Platform.BYTE_ARRAY_OFFSET + offset;
     this.address = startPos;
@@ -251,6 +309,11 @@ public final class MemoryBuffer {
     return heapMemory;
   }
 
+  /** Gets the buffer that owns the off-heap memory without marking it as viewed. */
+  ByteBuffer offHeapBlock() {
+    return offHeapBuffer;
+  }
+
   /**
    * Gets the buffer that owns the memory of this memory buffer.
    *
@@ -258,6 +321,7 @@ public final class MemoryBuffer {
    */
   public ByteBuffer getOffHeapBuffer() {
     if (offHeapBuffer != null) {
+      viewed = true;
       return offHeapBuffer;
     } else {
       throw new IllegalStateException("Memory buffer does not represent off heap ByteBuffer");
@@ -1229,7 +1293,10 @@ public final class MemoryBuffer {
     writerIndex = newIdx;
   }
 
-  /** For off-heap buffer, this will make a heap buffer internally. */
+  /**
+   * For off-heap buffer, this will make a heap buffer internally, unless the buffer is allocated by
+   * a {@link MemoryArena}.
+   */
   public void grow(int neededSize) {
     int length = writerIndex + neededSize;
     if (length > size) {
@@ -1237,7 +1304,10 @@ public final class MemoryBuffer {
     }
   }
 
-  /** For off-heap buffer, this will make a heap buffer internally. */
+  /**
+   * For off-heap buffer, this will make a heap buffer internally, unless the buffer is allocated by
+   * a {@link MemoryArena}.
+   */
   public void ensure(int length) {
     if (length > size) {
       growBuffer(length);
@@ -1245,15 +1315,32 @@ public final class MemoryBuffer {
   }
 
   private void growBuffer(int length) {
+    if (streamWriter != null) {
+      streamWriter.flushBuffer(length);
+      return;
+    }
     int newSize =
         length < BUFFER_GROW_STEP_THRESHOLD
             ? length << 2
             : (int) Math.min(length * 1.5d, Integer.MAX_VALUE - 8);
+    if (metrics != null) {
+      metrics.onBufferGrow(size, newSize);
+    }
+    MemoryArena arena = this.arena;
+    if (arena != null) {
+      arena.reallocate(this, newSize);
+      return;
+    }
     byte[] data = new byte[newSize];
     copyToUnsafe(0, data, Platform.BYTE_ARRAY_OFFSET, size());
     initHeapBuffer(data, 0, data.length);
   }
 
+  /** Record growth of this buffer into <code>metrics</code>, null to disable recording. */
+  public void setMetrics(ForyMetrics metrics) {
+    this.metrics = metrics;
+  }
+
   // -------------------------------------------------------------------------
   //                          Read Methods
   // -------------------------------------------------------------------------
@@ -2075,7 +2162,7 @@ public final class MemoryBuffer {
   public int readAlignedVarUint() {
     int readerIdx = readerIndex;
     // use subtract to avoid overflow
-    if (readerIdx < size - 10) {
+    if (size - readerIdx < 10) {
       return slowReadAlignedVarUint();
     }
     long pos = address + readerIdx;
@@ -2531,6 +2618,7 @@ public final class MemoryBuffer {
     if (heapMemory != null) {
       return new MemoryBuffer(heapMemory, heapOffset + offset, length);
     } else {
+      viewed = true;
       return new MemoryBuffer(address + offset, length, offHeapBuffer);
     }
   }
@@ -2546,6 +2634,7 @@ public final class MemoryBuffer {
     if (heapMemory != null) {
       return ByteBuffer.wrap(heapMemory, heapOffset + offset, length).slice();
     } else {
+      viewed = true;
       ByteBuffer offHeapBuffer = this.offHeapBuffer;
       if (offHeapBuffer != null) {
         ByteBuffer duplicate = offHeapBuffer.duplicate();
@@ -2568,6 +2657,36 @@ public final class MemoryBuffer {
     return streamReader;
   }
 
+  /** Returns the stream writer of this buffer, or null if this buffer isn't a streaming buffer. */
+  public ForyStreamWriter getStreamWriter() {
+    return streamWriter;
+  }
+
+  /**
+   * Mark data starting from <code>index</code> as pending to be patched by later {@code putXXX}
+   * calls, so that a {@link ForyStreamWriter} won't flush it out before it's patched. This is a
+   * cheap field update for non-streaming buffers.
+   *
+   * @return previous pinned index which must be passed to {@link #unpinWriterIndex} after patched.
+   */
+  public int pinWriterIndex(int index) {
+    int pinned = pinnedWriterIndex;
+    if (index < pinned) {
+      pinnedWriterIndex = index;
+    }
+    return pinned;
+  }
+
+  /** Restore pinned index returned by {@link #pinWriterIndex}. */
+  public void unpinWriterIndex(int previousPinnedIndex) {
+    pinnedWriterIndex = previousPinnedIndex;
+  }
+
+  /** Returns the lowest index which may still be patched, data before it can be flushed out. */
+  public int getPinnedWriterIndex() {
+    return pinnedWriterIndex;
+  }
+
   /**
    * Equals two memory buffer regions.
    *
@@ -2612,6 +2731,28 @@ public final class MemoryBuffer {
     initHeapBuffer(buffer, offset, length);
   }
 
+  /**
+   * Point this buffer to a byte array which holds the data starting from buffer index <code>
+   * windowStart</code>. Indices before <code>windowStart</code> are not accessible anymore, but all
+   * later indices are kept unchanged, which is used by streaming writers to drop flushed data
+   * without breaking offsets recorded by serializers.
+   */
+  public void pointToWindow(byte[] window, int windowStart) {
+    initHeapBuffer(window, -windowStart, windowStart + window.length);
+  }
+
+  /**
+   * Point this buffer to a direct byte buffer which holds the data starting from buffer index
+   * <code>windowStart</code>. See {@link #pointToWindow(byte[], int)}.
+   */
+  public void pointToWindow(ByteBuffer directWindow, int windowStart) {
+    this.offHeapBuffer = directWindow;
+    this.heapMemory = null;
+    this.address = ByteBufferUtil.getAddress(directWindow) - windowStart;
+    this.size = windowStart + directWindow.capacity();
+    this.addressLimit = address + size;
+  }
+
   /** Creates a new memory buffer that targets to the given heap memory region. */
   public static MemoryBuffer fromByteArray(byte[] buffer, int offset, int length) {
     return new MemoryBuffer(buffer, offset, length, null);
@@ -2622,6 +2763,14 @@ public final class MemoryBuffer {
     return new MemoryBuffer(buffer, offset, length, streamReader);
   }
 
+  /**
+   * Creates a new memory buffer that targets to the given heap memory region, and flushes written
+   * data into <code>streamWriter</code> instead of growing when the buffer is full.
+   */
+  public static MemoryBuffer fromByteArray(byte[] buffer, ForyStreamWriter streamWriter) {
+    return new MemoryBuffer(buffer, 0, buffer.length, null, streamWriter);
+  }
+
   /** Creates a new memory buffer that targets to the given heap memory region. */
   public static MemoryBuffer fromByteArray(byte[] buffer) {
     return new MemoryBuffer(buffer, 0, buffer.length);
@@ -2650,6 +2799,17 @@ public final class MemoryBuffer {
     return new MemoryBuffer(offHeapAddress, size, buffer, streamReader);
   }
 
+  /**
+   * Creates a new memory buffer that represents the whole memory of the direct <code>buffer</code>,
+   * and flushes written data into <code>streamWriter</code> instead of growing when the buffer is
+   * full.
+   */
+  public static MemoryBuffer fromDirectByteBuffer(
+      ByteBuffer buffer, ForyStreamWriter streamWriter) {
+    long offHeapAddress = ByteBufferUtil.getAddress(buffer);
+    return new MemoryBuffer(offHeapAddress, buffer.capacity(), buffer, null, streamWriter);
+  }
+
   /**
    * Creates a new memory buffer that represents the provided native memory. The buffer will change
    * into a heap buffer automatically if not enough.
@@ -21,7 +21,11 @@ package org.apache.fory.memory;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import org.apache.fory.exception.ForyException;
 import org.apache.fory.util.Preconditions;
 
 /** Memory utils for fory. */
@@ -66,6 +70,29 @@ public class MemoryUtils {
     }
   }
 
+  /**
+   * Maps the file region [position, position + size) into memory read-only and wraps it without
+   * copying. Data sliced from the returned buffer, such as deserialized {@link ByteBuffer}s, are
+   * views onto the mapped region, and the mapping is kept alive as long as they are reachable.
+   *
+   * <p>The returned buffer must not be written, the mapped region is read-only.
+   */
+  public static MemoryBuffer map(FileChannel channel, long position, int size) {
+    Preconditions.checkArgument(position >= 0 && size >= 0, "Negative position or size");
+    try {
+      long fileSize = channel.size();
+      if (position + size > fileSize) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Region [%d, %d) exceeds file size %d", position, position + size, fileSize));
+      }
+      MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+      return MemoryBuffer.fromByteBuffer(mappedBuffer);
+    } catch (IOException e) {
+      throw new ForyException("Failed to map the provided file channel", e);
+    }
+  }
+
   // Lazy load offset and also follow graalvm offset auto replace pattern.
   private static class Offset {
     private static final long BAS_BUF_BUF;
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.metrics;
+
+/**
+ * Instrumentation callbacks of fory, configured by {@link
+ * org.apache.fory.config.ForyBuilder#withMetrics}. Metrics are disabled when not configured, and
+ * the hooks are guarded by final fields in that case, so the disabled path costs nearly nothing.
+ *
+ * <p>Implementations must be thread safe, since they are shared by all fory instances of a thread
+ * safe fory, and should be cheap because callbacks are invoked on the serialization path.
+ *
+ * @see ForyStats
+ */
+public interface ForyMetrics {
+
+  /**
+   * Invoked after a root object is serialized.
+   *
+   * @param cls class of the root object.
+   * @param bytes bytes written into the buffer, bytes flushed to a stream in the middle of the
+   *     serialization are not included.
+   * @param nanos elapsed time of the serialization.
+   */
+  default void onSerialize(Class<?> cls, int bytes, long nanos) {}
+
+  /**
+   * Invoked after a root object is deserialized.
+   *
+   * @param cls class of the root object.
+   * @param bytes bytes read from the buffer.
+   * @param nanos elapsed time of the deserialization.
+   */
+  default void onDeserialize(Class<?> cls, int bytes, long nanos) {}
+
+  /** Invoked after the serializer of <code>cls</code> is generated and compiled by jit. */
+  default void onJitCompile(Class<?> cls, long nanos) {}
+
+  /** Invoked when the internal buffer of a fory grows from <code>oldSize</code>. */
+  default void onBufferGrow(int oldSize, int newSize) {}
+
+  /**
+   * Invoked after an object graph is written with reference tracking enabled.
+   *
+   * @param trackedObjects number of distinct objects tracked by the reference resolver.
+   * @param refHits number of objects written as references to previously written objects.
+   */
+  default void onRefTracking(int trackedObjects, int refHits) {}
+}
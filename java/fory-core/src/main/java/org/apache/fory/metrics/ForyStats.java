@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link ForyMetrics} which aggregates callbacks into in-memory counters and latency histograms,
+ * which can be polled and exported to a monitoring system periodically.
+ */
+@ThreadSafe
+public class ForyStats implements ForyMetrics {
+  private final Map<Class<?>, ClassStats> classStats = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Long> jitCompileNanos = new ConcurrentHashMap<>();
+  private final LongAdder bufferGrowCount = new LongAdder();
+  private final LongAdder bufferGrowBytes = new LongAdder();
+  private final LongAdder trackedObjects = new LongAdder();
+  private final LongAdder refHits = new LongAdder();
+
+  @Override
+  public void onSerialize(Class<?> cls, int bytes, long nanos) {
+    ClassStats stats = getOrCreateClassStats(cls);
+    stats.serializeCount.increment();
+    stats.bytesWritten.add(bytes);
+    stats.serializeLatency.record(nanos);
+  }
+
+  @Override
+  public void onDeserialize(Class<?> cls, int bytes, long nanos) {
+    ClassStats stats = getOrCreateClassStats(cls);
+    stats.deserializeCount.increment();
+    stats.bytesRead.add(bytes);
+    stats.deserializeLatency.record(nanos);
+  }
+
+  @Override
+  public void onJitCompile(Class<?> cls, long nanos) {
+    jitCompileNanos.merge(cls, nanos, Long::sum);
+  }
+
+  @Override
+  public void onBufferGrow(int oldSize, int newSize) {
+    bufferGrowCount.increment();
+    bufferGrowBytes.add(newSize - oldSize);
+  }
+
+  @Override
+  public void onRefTracking(int trackedObjects, int refHits) {
+    this.trackedObjects.add(trackedObjects);
+    this.refHits.add(refHits);
+  }
+
+  private ClassStats getOrCreateClassStats(Class<?> cls) {
+    ClassStats stats = classStats.get(cls);
+    if (stats == null) {
+      stats = classStats.computeIfAbsent(cls, k -> new ClassStats());
+    }
+    return stats;
+  }
+
+  /** Returns stats of root object classes. */
+  public Map<Class<?>, ClassStats> getClassStats() {
+    return Collections.unmodifiableMap(classStats);
+  }
+
+  /** Returns stats of <code>cls</code>, or null if no object of <code>cls</code> is recorded. */
+  public ClassStats getClassStats(Class<?> cls) {
+    return classStats.get(cls);
+  }
+
+  /** Returns total jit compile time in nanoseconds of serializers keyed by bean class. */
+  public Map<Class<?>, Long> getJitCompileNanos() {
+    return Collections.unmodifiableMap(jitCompileNanos);
+  }
+
+  public long getBufferGrowCount() {
+    return bufferGrowCount.sum();
+  }
+
+  public long getBufferGrowBytes() {
+    return bufferGrowBytes.sum();
+  }
+
+  /**
+   * Returns the ratio of objects written as references among all objects checked by the reference
+   * resolver, or 0 if no objects are checked.
+   */
+  public double getRefHitRate() {
+    long hits = refHits.sum();
+    long total = trackedObjects.sum() + hits;
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  /** Reset all stats. */
+  public void reset() {
+    classStats.clear();
+    jitCompileNanos.clear();
+    bufferGrowCount.reset();
+    bufferGrowBytes.reset();
+    trackedObjects.reset();
+    refHits.reset();
+  }
+
+  /** Serialization stats of a root object class. */
+  public static final class ClassStats {
+    private final LongAdder serializeCount = new LongAdder();
+    private final LongAdder deserializeCount = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LatencyHistogram serializeLatency = new LatencyHistogram();
+    private final LatencyHistogram deserializeLatency = new LatencyHistogram();
+
+    public long getSerializeCount() {
+      return serializeCount.sum();
+    }
+
+    public long getDeserializeCount() {
+      return deserializeCount.sum();
+    }
+
+    public long getBytesWritten() {
+      return bytesWritten.sum();
+    }
+
+    public long getBytesRead() {
+      return bytesRead.sum();
+    }
+
+    public LatencyHistogram getSerializeLatency() {
+      return serializeLatency;
+    }
+
+    public LatencyHistogram getDeserializeLatency() {
+      return deserializeLatency;
+    }
+  }
+
+  /**
+   * A lock-free histogram of latencies in nanoseconds with power-of-two buckets, the relative error
+   * of percentiles is bounded by 2x, which is enough to spot slow classes.
+   */
+  public static final class LatencyHistogram {
+    private static final int NUM_BUCKETS = 64;
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+
+    void record(long nanos) {
+      if (nanos < 0) {
+        nanos = 0;
+      }
+      // bucket `i` holds latencies in [2^(i-1), 2^i).
+      buckets.incrementAndGet(NUM_BUCKETS - Long.numberOfLeadingZeros(nanos));
+      totalNanos.add(nanos);
+    }
+
+    public long getCount() {
+      long count = 0;
+      for (int i = 0; i < NUM_BUCKETS; i++) {
+        count += buckets.get(i);
+      }
+      return count;
+    }
+
+    public long getTotalNanos() {
+      return totalNanos.sum();
+    }
+
+    /**
+     * Returns the upper bound of the bucket where the <code>percentile</code> of latencies falls
+     * into, or 0 if no latencies are recorded.
+     *
+     * @param percentile percentile in [0, 1].
+     */
+    public long getPercentile(double percentile) {
+      long count = getCount();
+      if (count == 0) {
+        return 0;
+      }
+      long rank = (long) Math.ceil(percentile * count);
+      long seen = 0;
+      for (int i = 0; i < NUM_BUCKETS; i++) {
+        seen += buckets.get(i);
+        if (seen >= rank && seen > 0) {
+          // `(1L << 63) - 1` overflows to Long.MAX_VALUE, which is still the right bound.
+          return (1L << i) - 1;
+        }
+      }
+      return Long.MAX_VALUE;
+    }
+  }
+}
@@ -66,14 +66,30 @@ public class ClassLoaderForyPooled {
       Function<ClassLoader, Fory> foryFactory,
       int minPoolSize,
       int maxPoolSize) {
+    this(classLoader, foryFactory, maxPoolSize, new LinkedBlockingQueue<>(maxPoolSize));
+    while (idleCacheQueue.size() < minPoolSize) {
+      addFory(true);
+    }
+  }
+
+  /**
+   * Create a pool which keeps idle fory in <code>idleCacheQueue</code>. Subclasses which override
+   * {@link #getFory} and {@link #returnFory} to keep idle fory elsewhere can pass null.
+   */
+  ClassLoaderForyPooled(
+      ClassLoader classLoader,
+      Function<ClassLoader, Fory> foryFactory,
+      int maxPoolSize,
+      BlockingQueue<Fory> idleCacheQueue) {
     Objects.requireNonNull(foryFactory);
     this.maxPoolSize = maxPoolSize;
     this.foryFactory = foryFactory;
     this.classLoader = classLoader;
-    idleCacheQueue = new LinkedBlockingQueue<>(maxPoolSize);
-    while (idleCacheQueue.size() < minPoolSize) {
-      addFory(true);
-    }
+    this.idleCacheQueue = idleCacheQueue;
+  }
+
+  ClassLoader getClassLoader() {
+    return classLoader;
   }
 
   public Fory getFory() {
@@ -101,7 +117,12 @@ public class ClassLoaderForyPooled {
     idleCacheQueue.offer(fory);
   }
 
-  private Fory addFory(boolean addQueue) {
+  /** Whether the number of created fory is less than max pool size. */
+  boolean canAddFory() {
+    return activeCacheNumber.get() < maxPoolSize;
+  }
+
+  Fory addFory(boolean addQueue) {
     // only activeCacheNumber increment success, can lock and create new Fory, otherwise return
     // null, and block in getFory(), wait for other thread to release idleCacheQueue.
     int after = activeCacheNumber.incrementAndGet();
@@ -123,6 +144,24 @@ public class ClassLoaderForyPooled {
     }
   }
 
+  /**
+   * Remove a fory created by this pool from the pool, so that a new one can be created in its
+   * place. Returns false if <code>fory</code> wasn't created by this pool.
+   */
+  boolean removeFory(Fory fory) {
+    try {
+      lock.lock();
+      if (!allFory.containsKey(fory)) {
+        return false;
+      }
+      allFory.remove(fory);
+      activeCacheNumber.decrementAndGet();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
   void setFactoryCallback(Consumer<Fory> factoryCallback) {
     try {
       lock.lock();
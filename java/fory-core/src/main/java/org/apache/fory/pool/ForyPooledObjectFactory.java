@@ -22,6 +22,7 @@ package org.apache.fory.pool;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import org.apache.fory.Fory;
@@ -50,19 +51,14 @@ public class ForyPooledObjectFactory {
 
   private volatile ClassLoader classLoader = null;
 
+  /** Last used pooled cache, so that most calls don't need to lookup the cache. */
+  private volatile ClassLoaderForyPooled lastPooled;
+
   /** ThreadLocal: ClassLoader. */
   private final ThreadLocal<ClassLoader> classLoaderLocal =
-      ThreadLocal.withInitial(
-          () -> {
-            if (classLoader != null) {
-              return classLoader;
-            }
-            ClassLoader loader = Thread.currentThread().getContextClassLoader();
-            if (loader == null) {
-              loader = Fory.class.getClassLoader();
-            }
-            return loader;
-          });
+      ThreadLocal.withInitial(this::getDefaultClassLoader);
+
+  private final ReentrantLock lock = new ReentrantLock();
 
   /**
    * Dynamic capacity expansion and contraction The user sets the minimum number of object pools.
@@ -78,6 +74,15 @@ public class ForyPooledObjectFactory {
   /** factoryCallback will be set in every new classLoaderForyPooled so that can deal every fory. */
   private final Consumer<Fory> factoryCallback;
 
+  /** Whether use lock-free {@link StripedClassLoaderForyPooled} for every class loader. */
+  private final boolean striped;
+
+  /**
+   * Whether class loader is set per thread. If false, class loader is shared by all threads, which
+   * avoids a thread local entry for every thread, e.g. virtual threads.
+   */
+  private final boolean threadLocalClassLoader;
+
   public ForyPooledObjectFactory(
       Function<ClassLoader, Fory> foryFactory,
       int minPoolSize,
@@ -85,6 +90,39 @@ public class ForyPooledObjectFactory {
       long expireTime,
       TimeUnit timeUnit,
       Consumer<Fory> factoryCallback) {
+    this(foryFactory, minPoolSize, maxPoolSize, expireTime, timeUnit, factoryCallback, false);
+  }
+
+  public ForyPooledObjectFactory(
+      Function<ClassLoader, Fory> foryFactory,
+      int minPoolSize,
+      int maxPoolSize,
+      long expireTime,
+      TimeUnit timeUnit,
+      Consumer<Fory> factoryCallback,
+      boolean striped) {
+    this(
+        foryFactory,
+        minPoolSize,
+        maxPoolSize,
+        expireTime,
+        timeUnit,
+        factoryCallback,
+        striped,
+        true);
+  }
+
+  public ForyPooledObjectFactory(
+      Function<ClassLoader, Fory> foryFactory,
+      int minPoolSize,
+      int maxPoolSize,
+      long expireTime,
+      TimeUnit timeUnit,
+      Consumer<Fory> factoryCallback,
+      boolean striped,
+      boolean threadLocalClassLoader) {
+    this.striped = striped;
+    this.threadLocalClassLoader = threadLocalClassLoader;
     this.minPoolSize = minPoolSize;
     this.maxPoolSize = maxPoolSize;
     this.foryFactory = foryFactory;
@@ -95,14 +133,18 @@ public class ForyPooledObjectFactory {
 
   public ClassLoaderForyPooled getPooledCache() {
     try {
-      ClassLoader classLoader = classLoaderLocal.get();
+      ClassLoader classLoader = getClassLoader();
       assert classLoader != null;
-      ClassLoaderForyPooled classLoaderForyPooled =
-          classLoaderForyPooledCache.getIfPresent(classLoader);
+      ClassLoaderForyPooled classLoaderForyPooled = lastPooled;
+      if (classLoaderForyPooled != null && classLoaderForyPooled.getClassLoader() == classLoader) {
+        return classLoaderForyPooled;
+      }
+      classLoaderForyPooled = classLoaderForyPooledCache.getIfPresent(classLoader);
       if (classLoaderForyPooled == null) {
         // double check cache
-        return getOrAddCache(classLoader);
+        classLoaderForyPooled = getOrAddCache(classLoader);
       }
+      lastPooled = classLoaderForyPooled;
       return classLoaderForyPooled;
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
@@ -117,29 +159,64 @@ public class ForyPooledObjectFactory {
       classLoader = Fory.class.getClassLoader();
     }
     this.classLoader = classLoader;
-    classLoaderLocal.set(classLoader);
+    if (threadLocalClassLoader) {
+      classLoaderLocal.set(classLoader);
+    }
     getOrAddCache(classLoader);
   }
 
   public ClassLoader getClassLoader() {
-    return classLoaderLocal.get();
+    if (threadLocalClassLoader) {
+      return classLoaderLocal.get();
+    }
+    return getDefaultClassLoader();
+  }
+
+  private ClassLoader getDefaultClassLoader() {
+    if (classLoader != null) {
+      return classLoader;
+    }
+    ClassLoader loader = Thread.currentThread().getContextClassLoader();
+    if (loader == null) {
+      loader = Fory.class.getClassLoader();
+    }
+    return loader;
   }
 
   public void clearClassLoader(ClassLoader loader) {
     classLoaderForyPooledCache.invalidate(loader);
-    classLoaderLocal.remove();
+    ClassLoaderForyPooled pooled = lastPooled;
+    if (pooled != null && pooled.getClassLoader() == loader) {
+      lastPooled = null;
+    }
+    if (threadLocalClassLoader) {
+      classLoaderLocal.remove();
+    } else if (classLoader == loader) {
+      classLoader = null;
+    }
   }
 
-  /** Get cache or put new added pooledFory. */
-  private synchronized ClassLoaderForyPooled getOrAddCache(ClassLoader classLoader) {
-    ClassLoaderForyPooled classLoaderForyPooled =
-        classLoaderForyPooledCache.getIfPresent(classLoader);
-    if (classLoaderForyPooled == null) {
-      classLoaderForyPooled =
-          new ClassLoaderForyPooled(classLoader, foryFactory, minPoolSize, maxPoolSize);
-      classLoaderForyPooled.setFactoryCallback(factoryCallback);
-      classLoaderForyPooledCache.put(classLoader, classLoaderForyPooled);
+  /**
+   * Get cache or put new added pooledFory. A {@link ReentrantLock} is used instead of <code>
+   * synchronized</code> so that waiting virtual threads won't pin their carrier threads.
+   */
+  private ClassLoaderForyPooled getOrAddCache(ClassLoader classLoader) {
+    try {
+      lock.lock();
+      ClassLoaderForyPooled classLoaderForyPooled =
+          classLoaderForyPooledCache.getIfPresent(classLoader);
+      if (classLoaderForyPooled == null) {
+        classLoaderForyPooled =
+            striped
+                ? new StripedClassLoaderForyPooled(
+                    classLoader, foryFactory, minPoolSize, maxPoolSize)
+                : new ClassLoaderForyPooled(classLoader, foryFactory, minPoolSize, maxPoolSize);
+        classLoaderForyPooled.setFactoryCallback(factoryCallback);
+        classLoaderForyPooledCache.put(classLoader, classLoaderForyPooled);
+      }
+      return classLoaderForyPooled;
+    } finally {
+      lock.unlock();
     }
-    return classLoaderForyPooled;
   }
 }
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.pool;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.fory.Fory;
+import org.apache.fory.ThreadSafeFory;
+import org.apache.fory.exception.DeserializationException;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.util.Preconditions;
+
+/**
+ * Serialize large top-level collections, maps and object arrays in parallel. Elements are split
+ * into segments of at most <code>segmentSize</code> elements, every segment is serialized by a
+ * separate {@link Fory} of the wrapped {@link ThreadSafeFory} on a {@link ForkJoinPool}, then
+ * segments are concatenated into a segmented frame, which is deserialized in parallel too.
+ *
+ * <p>Frame format:
+ *
+ * <pre>
+ * | kind: byte | container class payload | number of elements: varuint32 |
+ * | number of segments: varuint32 | segment sizes: varuint32... | segments... |
+ * </pre>
+ *
+ * <p>Other objects, or containers with no more than <code>segmentSize</code> elements are written
+ * as <code>| kind: byte | payload |</code>. Segments are independent payloads, so reference
+ * tracking works only inside a segment: objects shared across segments are duplicated after
+ * deserialization, and the top-level container can't be referenced by its elements. Sorted
+ * containers and containers without a public no-arg constructor are not split, since they can't be
+ * rebuilt from elements. The container class of a frame is checked by the class registration and
+ * {@link org.apache.fory.resolver.ClassChecker} of the wrapped fory before it's instantiated.
+ */
+@ThreadSafe
+public class ParallelFory {
+  private static final byte OBJECT = 0;
+  private static final byte COLLECTION = 1;
+  private static final byte MAP = 2;
+  private static final byte ARRAY = 3;
+
+  private final ThreadSafeFory fory;
+  private final ForkJoinPool pool;
+  private final int segmentSize;
+
+  /**
+   * Create a parallel fory.
+   *
+   * @param fory thread safe fory which provides a {@link Fory} for every worker thread.
+   * @param pool pool to run segment tasks.
+   * @param segmentSize max number of elements or map entries in a segment.
+   */
+  public ParallelFory(ThreadSafeFory fory, ForkJoinPool pool, int segmentSize) {
+    Preconditions.checkArgument(segmentSize > 0, "Segment size must be positive: %s", segmentSize);
+    this.fory = fory;
+    this.pool = pool;
+    this.segmentSize = segmentSize;
+  }
+
+  public ThreadSafeFory getFory() {
+    return fory;
+  }
+
+  public byte[] serialize(Object obj) {
+    byte kind = splittableKind(obj);
+    MemoryBuffer buffer = MemoryBuffer.newHeapBuffer(64);
+    buffer.writeByte(kind);
+    if (kind == OBJECT) {
+      fory.serialize(buffer, obj);
+      return buffer.getBytes(0, buffer.writerIndex());
+    }
+    Object[][] segments;
+    Class<?> cls;
+    int numElements;
+    if (kind == COLLECTION) {
+      Collection<?> collection = (Collection<?>) obj;
+      numElements = collection.size();
+      segments = split(collection, numElements, 1);
+      cls = obj.getClass();
+    } else if (kind == MAP) {
+      Map<?, ?> map = (Map<?, ?>) obj;
+      numElements = map.size();
+      segments = split(map.entrySet(), numElements, 2);
+      cls = obj.getClass();
+    } else {
+      Object[] array = (Object[]) obj;
+      numElements = array.length;
+      segments = split(array);
+      cls = obj.getClass().getComponentType();
+    }
+    int numSegments = segments.length;
+    List<ForkJoinTask<byte[]>> tasks = new ArrayList<>(numSegments);
+    for (Object[] segment : segments) {
+      tasks.add(pool.submit(() -> fory.serialize(segment)));
+    }
+    fory.serialize(buffer, cls);
+    buffer.writeVarUint32(numElements);
+    buffer.writeVarUint32(numSegments);
+    List<byte[]> payloads = new ArrayList<>(numSegments);
+    for (ForkJoinTask<byte[]> task : tasks) {
+      byte[] payload = task.join();
+      buffer.writeVarUint32(payload.length);
+      payloads.add(payload);
+    }
+    for (byte[] segment : payloads) {
+      buffer.writeBytes(segment);
+    }
+    return buffer.getBytes(0, buffer.writerIndex());
+  }
+
+  @SuppressWarnings("unchecked")
+  public Object deserialize(byte[] bytes) {
+    MemoryBuffer buffer = MemoryBuffer.fromByteArray(bytes);
+    byte kind = buffer.readByte();
+    if (kind == OBJECT) {
+      return fory.deserialize(buffer);
+    }
+    if (kind != COLLECTION && kind != MAP && kind != ARRAY) {
+      throw new DeserializationException("Unknown parallel frame kind " + kind);
+    }
+    Class<?> cls = (Class<?>) fory.deserialize(buffer);
+    int numElements = buffer.readVarUint32();
+    int numSegments = buffer.readVarUint32();
+    // Every segment size takes at least one byte, don't trust the count before checking it.
+    if (numSegments < 0 || numSegments > buffer.remaining()) {
+      throw new DeserializationException("Invalid number of parallel segments " + numSegments);
+    }
+    int[] sizes = new int[numSegments];
+    for (int i = 0; i < numSegments; i++) {
+      sizes[i] = buffer.readVarUint32();
+    }
+    int offset = buffer.readerIndex();
+    for (int size : sizes) {
+      if (size < 0 || size > bytes.length - offset) {
+        throw new DeserializationException(
+            String.format(
+                "Parallel segment of %s bytes at offset %s exceeds frame of %s bytes",
+                size, offset, bytes.length));
+      }
+      offset += size;
+    }
+    Object container;
+    if (kind == ARRAY) {
+      if (cls.isPrimitive()) {
+        throw new DeserializationException("Invalid array component type " + cls);
+      }
+      checkClass(Array.newInstance(cls, 0).getClass());
+      container = null;
+    } else {
+      container = newContainer(cls, kind == COLLECTION ? Collection.class : Map.class);
+    }
+    List<ForkJoinTask<Object>> tasks = new ArrayList<>(numSegments);
+    offset = buffer.readerIndex();
+    for (int size : sizes) {
+      MemoryBuffer segment = MemoryBuffer.fromByteArray(bytes, offset, size);
+      tasks.add(pool.submit(() -> fory.deserialize(segment)));
+      offset += size;
+    }
+    Object[][] segments = new Object[numSegments][];
+    long count = 0;
+    for (int i = 0; i < numSegments; i++) {
+      segments[i] = (Object[]) tasks.get(i).join();
+      count += segments[i].length;
+    }
+    if (count != (kind == MAP ? numElements * 2L : numElements)) {
+      throw new DeserializationException(
+          String.format("Expected %s elements, but segments have %s", numElements, count));
+    }
+    if (kind == ARRAY) {
+      Object[] array = (Object[]) Array.newInstance(cls, numElements);
+      int index = 0;
+      for (Object[] segment : segments) {
+        System.arraycopy(segment, 0, array, index, segment.length);
+        index += segment.length;
+      }
+      return array;
+    }
+    for (Object[] segment : segments) {
+      if (kind == COLLECTION) {
+        ((Collection<Object>) container).addAll(Arrays.asList(segment));
+      } else {
+        Map<Object, Object> map = (Map<Object, Object>) container;
+        for (int i = 0; i < segment.length; i += 2) {
+          map.put(segment[i], segment[i + 1]);
+        }
+      }
+    }
+    return container;
+  }
+
+  private byte splittableKind(Object obj) {
+    if (obj instanceof Collection) {
+      if (((Collection<?>) obj).size() > segmentSize
+          && !(obj instanceof SortedSet)
+          && hasPublicNoArgConstructor(obj.getClass())) {
+        return COLLECTION;
+      }
+    } else if (obj instanceof Map) {
+      if (((Map<?, ?>) obj).size() > segmentSize
+          && !(obj instanceof SortedMap)
+          && hasPublicNoArgConstructor(obj.getClass())) {
+        return MAP;
+      }
+    } else if (obj instanceof Object[]) {
+      if (((Object[]) obj).length > segmentSize) {
+        return ARRAY;
+      }
+    }
+    return OBJECT;
+  }
+
+  private static boolean hasPublicNoArgConstructor(Class<?> cls) {
+    if (!Modifier.isPublic(cls.getModifiers())) {
+      return false;
+    }
+    try {
+      cls.getConstructor();
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Copy elements into segments in one pass, map entries take two slots for key and value. No
+   * intermediate array of all elements is created.
+   */
+  private Object[][] split(Collection<?> elements, int numElements, int step) {
+    Object[][] segments = new Object[(numElements + segmentSize - 1) / segmentSize][];
+    int index = 0;
+    for (Object element : elements) {
+      int segmentIndex = index / segmentSize;
+      int slot = (index % segmentSize) * step;
+      if (slot == 0) {
+        segments[segmentIndex] = new Object[Math.min(segmentSize, numElements - index) * step];
+      }
+      Object[] segment = segments[segmentIndex];
+      if (step == 2) {
+        Map.Entry<?, ?> entry = (Map.Entry<?, ?>) element;
+        segment[slot] = entry.getKey();
+        segment[slot + 1] = entry.getValue();
+      } else {
+        segment[slot] = element;
+      }
+      index++;
+    }
+    return segments;
+  }
+
+  private Object[][] split(Object[] array) {
+    Object[][] segments = new Object[(array.length + segmentSize - 1) / segmentSize][];
+    for (int i = 0; i < segments.length; i++) {
+      int from = i * segmentSize;
+      int to = Math.min(array.length, from + segmentSize);
+      segments[i] = Arrays.copyOfRange(array, from, to, Object[].class);
+    }
+    return segments;
+  }
+
+  /**
+   * Apply the class registration and {@link org.apache.fory.resolver.ClassChecker} checks of the
+   * wrapped fory, which would be applied if the class was read as a regular payload.
+   */
+  private void checkClass(Class<?> cls) {
+    fory.execute(f -> f.getClassResolver().getSerializer(cls));
+  }
+
+  private Object newContainer(Class<?> cls, Class<?> expectedType) {
+    if (!expectedType.isAssignableFrom(cls) || !hasPublicNoArgConstructor(cls)) {
+      throw new DeserializationException(
+          String.format("Class %s is not a splittable %s", cls, expectedType.getSimpleName()));
+    }
+    checkClass(cls);
+    try {
+      Constructor<?> constructor = cls.getConstructor();
+      return constructor.newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new DeserializationException(e);
+    }
+  }
+}
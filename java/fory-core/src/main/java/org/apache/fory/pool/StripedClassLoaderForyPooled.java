@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.pool;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import org.apache.fory.Fory;
+
+/**
+ * A lock-free object pool of {@link Fory}. Idle fory instances are kept in slots striped by thread,
+ * borrow and return are a single CAS on a slot in the common case. A thread starts probing from the
+ * slot derived from its id, so it tends to get back the fory it used last time, whose generated
+ * serializers and buffers are still hot in its caches.
+ *
+ * <p>When all fory are borrowed and the pool reaches its max size, borrowers spin for a while then
+ * wait on a {@link ReentrantLock} condition until a fory is returned. No <code>synchronized</code>
+ * is used, so waiting virtual threads are unmounted instead of pinning their carrier threads.
+ * Returning only touches the waiter lock when there are blocked borrowers.
+ */
+class StripedClassLoaderForyPooled extends ClassLoaderForyPooled {
+  // Slots are spaced by 16 references to avoid false sharing between adjacent slots.
+  private static final int SLOT_SHIFT = 4;
+  private static final int MAX_SPINS = 64;
+
+  private final AtomicReferenceArray<Fory> slots;
+  private final int mask;
+  private final AtomicInteger numWaiters = new AtomicInteger();
+  private final ReentrantLock waitLock = new ReentrantLock();
+  private final Condition returned = waitLock.newCondition();
+
+  StripedClassLoaderForyPooled(
+      ClassLoader classLoader,
+      Function<ClassLoader, Fory> foryFactory,
+      int minPoolSize,
+      int maxPoolSize) {
+    super(classLoader, foryFactory, maxPoolSize, null);
+    int numSlots = 1;
+    while (numSlots < maxPoolSize) {
+      numSlots <<= 1;
+    }
+    mask = numSlots - 1;
+    slots = new AtomicReferenceArray<>(numSlots << SLOT_SHIFT);
+    for (int i = 0; i < minPoolSize; i++) {
+      slots.set(i << SLOT_SHIFT, addFory(false));
+    }
+  }
+
+  @Override
+  public Fory getFory() {
+    int start = probe();
+    for (int spins = 0; spins < MAX_SPINS; spins++) {
+      Fory fory = tryBorrow(start);
+      if (fory != null) {
+        return fory;
+      }
+      Thread.yield();
+    }
+    // all fory are borrowed, wait for other threads to return.
+    numWaiters.incrementAndGet();
+    waitLock.lock();
+    try {
+      while (true) {
+        // Check slots after registered as a waiter, so that a fory returned concurrently is
+        // either seen here or followed by a signal.
+        Fory fory = tryBorrow(start);
+        if (fory != null) {
+          return fory;
+        }
+        returned.await();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      waitLock.unlock();
+      numWaiters.decrementAndGet();
+    }
+  }
+
+  private Fory tryBorrow(int start) {
+    AtomicReferenceArray<Fory> slots = this.slots;
+    int mask = this.mask;
+    for (int i = 0; i <= mask; i++) {
+      int index = ((start + i) & mask) << SLOT_SHIFT;
+      Fory fory = slots.get(index);
+      if (fory != null && slots.compareAndSet(index, fory, null)) {
+        return fory;
+      }
+    }
+    // Only create a new fory while the pool is below its max size, so that borrowers waiting for
+    // a full pool don't contend on the shared counter.
+    return canAddFory() ? addFory(false) : null;
+  }
+
+  @Override
+  public void returnFory(Fory fory) {
+    Objects.requireNonNull(fory);
+    AtomicReferenceArray<Fory> slots = this.slots;
+    int mask = this.mask;
+    int start = probe();
+    for (int i = 0; i <= mask; i++) {
+      int index = ((start + i) & mask) << SLOT_SHIFT;
+      if (slots.get(index) == null && slots.compareAndSet(index, null, fory)) {
+        if (numWaiters.get() > 0) {
+          waitLock.lock();
+          try {
+            returned.signal();
+          } finally {
+            waitLock.unlock();
+          }
+        }
+        return;
+      }
+    }
+    // There are more slots than fory created by this pool, slots are full only if a fory not
+    // borrowed from this pool is returned.
+    if (!removeFory(fory)) {
+      throw new IllegalArgumentException(fory + " isn't created by this pool");
+    }
+  }
+
+  private int probe() {
+    long id = Thread.currentThread().getId();
+    int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -21,6 +21,8 @@ package org.apache.fory.pool;
 
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -29,13 +31,17 @@ import org.apache.fory.AbstractThreadSafeFory;
 import org.apache.fory.Fory;
 import org.apache.fory.annotation.Internal;
 import org.apache.fory.io.ForyInputStream;
+import org.apache.fory.io.ForyOutputStream;
 import org.apache.fory.io.ForyReadableChannel;
+import org.apache.fory.io.ForyWritableChannel;
+import org.apache.fory.io.SegmentedBuffer;
 import org.apache.fory.logging.Logger;
 import org.apache.fory.logging.LoggerFactory;
 import org.apache.fory.memory.MemoryBuffer;
 import org.apache.fory.memory.MemoryUtils;
 import org.apache.fory.resolver.ClassChecker;
 import org.apache.fory.serializer.BufferCallback;
+import org.apache.fory.serializer.FieldProjection;
 import org.apache.fory.util.LoaderBinding;
 
 @ThreadSafe
@@ -52,6 +58,33 @@ public class ThreadPoolFory extends AbstractThreadSafeFory {
       int maxPoolSize,
       long expireTime,
       TimeUnit timeUnit) {
+    this(foryFactory, minPoolSize, maxPoolSize, expireTime, timeUnit, false);
+  }
+
+  /**
+   * Create a pooled thread safe fory.
+   *
+   * @param striped whether keep idle fory in lock-free slots striped by thread instead of a
+   *     blocking queue, which reduces contention when many threads use this fory concurrently.
+   */
+  public ThreadPoolFory(
+      Function<ClassLoader, Fory> foryFactory,
+      int minPoolSize,
+      int maxPoolSize,
+      long expireTime,
+      TimeUnit timeUnit,
+      boolean striped) {
+    this(foryFactory, minPoolSize, maxPoolSize, expireTime, timeUnit, striped, true);
+  }
+
+  protected ThreadPoolFory(
+      Function<ClassLoader, Fory> foryFactory,
+      int minPoolSize,
+      int maxPoolSize,
+      long expireTime,
+      TimeUnit timeUnit,
+      boolean striped,
+      boolean threadLocalClassLoader) {
     this.foryPooledObjectFactory =
         new ForyPooledObjectFactory(
             foryFactory,
@@ -59,7 +92,9 @@ public class ThreadPoolFory extends AbstractThreadSafeFory {
             maxPoolSize,
             expireTime,
             timeUnit,
-            fory -> factoryCallback.accept(fory));
+            fory -> factoryCallback.accept(fory),
+            striped,
+            threadLocalClassLoader);
   }
 
   @Internal
@@ -133,6 +168,60 @@ public class ThreadPoolFory extends AbstractThreadSafeFory {
         });
   }
 
+  @Override
+  public void serialize(ForyOutputStream outputStream, Object obj) {
+    execute(
+        fory -> {
+          fory.serialize(outputStream, obj);
+          return null;
+        });
+  }
+
+  @Override
+  public void serialize(ForyOutputStream outputStream, Object obj, BufferCallback callback) {
+    execute(
+        fory -> {
+          fory.serialize(outputStream, obj, callback);
+          return null;
+        });
+  }
+
+  @Override
+  public void serialize(ForyWritableChannel channel, Object obj) {
+    execute(
+        fory -> {
+          fory.serialize(channel, obj);
+          return null;
+        });
+  }
+
+  @Override
+  public void serialize(ForyWritableChannel channel, Object obj, BufferCallback callback) {
+    execute(
+        fory -> {
+          fory.serialize(channel, obj, callback);
+          return null;
+        });
+  }
+
+  @Override
+  public void serialize(SegmentedBuffer buffer, Object obj) {
+    execute(
+        fory -> {
+          fory.serialize(buffer, obj);
+          return null;
+        });
+  }
+
+  @Override
+  public void serialize(SegmentedBuffer buffer, Object obj, BufferCallback callback) {
+    execute(
+        fory -> {
+          fory.serialize(buffer, obj, callback);
+          return null;
+        });
+  }
+
   @Override
   public Object deserialize(byte[] bytes) {
     return execute(fory -> fory.deserialize(bytes));
@@ -143,6 +232,16 @@ public class ThreadPoolFory extends AbstractThreadSafeFory {
     return execute(fory -> fory.deserialize(bytes, type));
   }
 
+  @Override
+  public <T> T deserialize(byte[] bytes, Class<T> type, FieldProjection projection) {
+    return execute(fory -> fory.deserialize(bytes, type, projection));
+  }
+
+  @Override
+  public <T> T deserialize(MemoryBuffer buffer, Class<T> type, FieldProjection projection) {
+    return execute(fory -> fory.deserialize(buffer, type, projection));
+  }
+
   @Override
   public Object deserialize(byte[] bytes, Iterable<MemoryBuffer> outOfBandBuffers) {
     return execute(fory -> fory.deserialize(bytes, outOfBandBuffers));
@@ -188,6 +287,17 @@ public class ThreadPoolFory extends AbstractThreadSafeFory {
     return execute(fory -> fory.deserialize(channel, outOfBandBuffers));
   }
 
+  @Override
+  public Object deserialize(FileChannel channel, long position, int size) {
+    return execute(fory -> fory.deserialize(channel, position, size));
+  }
+
+  @Override
+  public Object deserialize(
+      FileChannel channel, long position, int size, Iterable<MemoryBuffer> outOfBandBuffers) {
+    return execute(fory -> fory.deserialize(channel, position, size, outOfBandBuffers));
+  }
+
   @Override
   public byte[] serializeJavaObject(Object obj) {
     return execute(fory -> fory.serializeJavaObject(obj));
@@ -274,6 +384,35 @@ public class ThreadPoolFory extends AbstractThreadSafeFory {
     return execute(fory -> fory.deserializeJavaObjectAndClass(channel));
   }
 
+  @Override
+  public <T> byte[] serializeBatch(Iterable<T> objects, Class<T> cls) {
+    return execute(fory -> fory.serializeBatch(objects, cls));
+  }
+
+  @Override
+  public <T> void serializeBatch(MemoryBuffer buffer, Iterable<T> objects, Class<T> cls) {
+    execute(
+        fory -> {
+          fory.serializeBatch(buffer, objects, cls);
+          return null;
+        });
+  }
+
+  @Override
+  public <T> List<T> deserializeBatch(byte[] bytes, Class<T> cls) {
+    return execute(fory -> fory.deserializeBatch(bytes, cls));
+  }
+
+  @Override
+  public <T> List<T> deserializeBatch(MemoryBuffer buffer, Class<T> cls) {
+    return execute(fory -> fory.deserializeBatch(buffer, cls));
+  }
+
+  @Override
+  public <T> T deserializeBatchElement(MemoryBuffer buffer, Class<T> cls, int index) {
+    return execute(fory -> fory.deserializeBatchElement(buffer, cls, index));
+  }
+
   @Override
   public <T> T copy(T obj) {
     return execute(fory -> fory.copy(obj));
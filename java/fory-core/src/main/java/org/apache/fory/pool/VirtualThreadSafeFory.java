@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.pool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.fory.Fory;
+import org.apache.fory.ThreadLocalFory;
+
+/**
+ * A thread safe fory for virtual threads. Unlike {@link ThreadLocalFory}, which creates a {@link
+ * Fory} for every thread, this fory keeps at most a fixed number of {@link Fory} instances, which
+ * is the number of carrier threads by default, so memory doesn't grow with the number of virtual
+ * threads:
+ *
+ * <ul>
+ *   <li>Fory instances are borrowed and returned by CAS on slots striped by thread, waiting for an
+ *       instance awaits a {@link java.util.concurrent.locks.ReentrantLock} condition, which parks
+ *       the virtual thread instead of blocking its carrier thread.
+ *   <li>No {@link ThreadLocal} is used, class loader is shared by all threads.
+ *   <li>No <code>synchronized</code> is used in the borrow and return path, so carrier threads
+ *       won't be pinned on JDK versions before 24.
+ * </ul>
+ */
+@ThreadSafe
+public class VirtualThreadSafeFory extends ThreadPoolFory {
+
+  public VirtualThreadSafeFory(Function<ClassLoader, Fory> foryFactory) {
+    this(foryFactory, defaultPoolSize());
+  }
+
+  public VirtualThreadSafeFory(Function<ClassLoader, Fory> foryFactory, int maxPoolSize) {
+    super(foryFactory, 0, maxPoolSize, 30L, TimeUnit.SECONDS, true, false);
+  }
+
+  /** Returns the number of carrier threads of virtual thread scheduler. */
+  public static int defaultPoolSize() {
+    return Integer.getInteger(
+        "jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+  }
+}
@@ -119,6 +119,7 @@ import org.apache.fory.serializer.CodegenSerializer.LazyInitBeanSerializer;
 import org.apache.fory.serializer.CompatibleSerializer;
 import org.apache.fory.serializer.EnumSerializer;
 import org.apache.fory.serializer.ExternalizableSerializer;
+import org.apache.fory.serializer.FieldProjection;
 import org.apache.fory.serializer.ForyCopyableSerializer;
 import org.apache.fory.serializer.JavaSerializer;
 import org.apache.fory.serializer.JdkProxySerializer;
@@ -134,6 +135,7 @@ import org.apache.fory.serializer.NonexistentClassSerializers.NonexistentClassSe
 import org.apache.fory.serializer.ObjectSerializer;
 import org.apache.fory.serializer.OptionalSerializers;
 import org.apache.fory.serializer.PrimitiveSerializers;
+import org.apache.fory.serializer.ProjectedObjectSerializer;
 import org.apache.fory.serializer.ReplaceResolveSerializer;
 import org.apache.fory.serializer.Serializer;
 import org.apache.fory.serializer.SerializerFactory;
@@ -258,6 +260,10 @@ public class ClassResolver implements TypeResolver {
     // ex. A->field1: B, B.field1: A
     private final Set<Class<?>> getClassCtx = new HashSet<>();
     private final Map<Class<?>, FieldResolver> fieldResolverMap = new HashMap<>();
+    private final Map<Tuple2<Class<?>, FieldProjection>, ProjectedObjectSerializer<?>>
+        projectedSerializers = new HashMap<>();
+    private final Map<Tuple2<ClassDef, FieldProjection>, ProjectedObjectSerializer<?>>
+        metaSharedProjectedSerializers = new HashMap<>();
     private final LongMap<Tuple2<ClassDef, ClassInfo>> classIdToDef = new LongMap<>();
     private final Map<Class<?>, ClassDef> currentLayerClassDef = new HashMap<>();
     // Tuple2<Class, Class>: Tuple2<From Class, To Class>
@@ -1102,6 +1108,11 @@ public class ClassResolver implements TypeResolver {
       boolean shareMeta,
       boolean codegen,
       JITContext.SerializerJITCallback<Class<? extends Serializer>> callback) {
+    if (codegen && fory.getConfig().isFieldOffsetTableEnabled()) {
+      // jit object codecs don't write field offset table, use `ObjectSerializer` for beans only,
+      // other jit serializers are still used.
+      codegen = false;
+    }
     if (codegen) {
       if (extRegistry.getClassCtx.contains(cls)) {
         // avoid potential recursive call for seq codec generation.
@@ -1189,6 +1200,48 @@ public class ClassResolver implements TypeResolver {
     return fieldResolver;
   }
 
+  /**
+   * Get serializer which reads only fields selected by <code>projection</code> of <code>cls</code>.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> ProjectedObjectSerializer<T> getProjectedSerializer(
+      Class<T> cls, FieldProjection projection) {
+    Tuple2<Class<?>, FieldProjection> key = Tuple2.of(cls, projection);
+    // can't use computeIfAbsent, since nested projected serializers are created recursively.
+    ProjectedObjectSerializer<?> serializer = extRegistry.projectedSerializers.get(key);
+    if (serializer == null) {
+      serializer = new ProjectedObjectSerializer<>(fory, cls, projection);
+      extRegistry.projectedSerializers.put(key, serializer);
+    }
+    return (ProjectedObjectSerializer<T>) serializer;
+  }
+
+  /**
+   * Get serializer which reads only fields selected by <code>projection</code> from data of <code>
+   * classInfo</code>. If the data is written with a class def shared by meta share mode, the
+   * serializer reads fields in the layout of that class def.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> ProjectedObjectSerializer<T> getProjectedSerializer(
+      ClassInfo classInfo, FieldProjection projection) {
+    Class<T> cls = (Class<T>) classInfo.getCls();
+    Serializer<?> serializer = classInfo.getSerializer();
+    if (classInfo.classDef == null
+        || !(serializer instanceof MetaSharedSerializer
+            || serializer instanceof Generated.GeneratedMetaSharedSerializer)) {
+      return getProjectedSerializer(cls, projection);
+    }
+    Tuple2<ClassDef, FieldProjection> key = Tuple2.of(classInfo.classDef, projection);
+    ProjectedObjectSerializer<?> projectedSerializer =
+        extRegistry.metaSharedProjectedSerializers.get(key);
+    if (projectedSerializer == null) {
+      projectedSerializer =
+          new ProjectedObjectSerializer<>(fory, cls, projection, classInfo.classDef);
+      extRegistry.metaSharedProjectedSerializers.put(key, projectedSerializer);
+    }
+    return (ProjectedObjectSerializer<T>) projectedSerializer;
+  }
+
   public List<Descriptor> getFieldDescriptors(Class<?> clz, boolean searchParent) {
     SortedMap<Member, Descriptor> allDescriptors = getAllDescriptorsMap(clz, searchParent);
     List<Descriptor> result = new ArrayList<>(allDescriptors.size());
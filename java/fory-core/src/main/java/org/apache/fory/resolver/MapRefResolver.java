@@ -30,6 +30,7 @@ import org.apache.fory.collection.IntArray;
 import org.apache.fory.collection.MapStatistics;
 import org.apache.fory.collection.ObjectArray;
 import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.metrics.ForyMetrics;
 import org.apache.fory.util.Preconditions;
 
 /** Resolving reference by tracking reference by an IdentityMap. */
@@ -59,8 +60,17 @@ public final class MapRefResolver implements RefResolver {
 
   // last read object which is not a reference
   private Object readObject;
+  private final ForyMetrics metrics;
+  // number of objects written as references in current write.
+  private int refHits;
 
-  public MapRefResolver() {}
+  public MapRefResolver() {
+    this(null);
+  }
+
+  public MapRefResolver(ForyMetrics metrics) {
+    this.metrics = metrics;
+  }
 
   @Override
   public boolean writeRefOrNull(MemoryBuffer buffer, Object obj) {
@@ -82,6 +92,7 @@ public final class MapRefResolver implements RefResolver {
         // The obj has been written previously.
         buffer._unsafeWriteByte(Fory.REF_FLAG);
         buffer._unsafeWriteVarUint32(writtenRefId);
+        refHits++;
         return true;
       } else {
         // The object is being written for the first time.
@@ -108,6 +119,7 @@ public final class MapRefResolver implements RefResolver {
       // The obj has been written previously.
       buffer._unsafeWriteByte(Fory.REF_FLAG);
       buffer._unsafeWriteVarUint32(writtenRefId);
+      refHits++;
       return false;
     } else {
       // The object is being written for the first time.
@@ -229,6 +241,10 @@ public final class MapRefResolver implements RefResolver {
   @Override
   public void resetWrite() {
     IdentityObjectIntMap<Object> writtenObjects = this.writtenObjects;
+    if (metrics != null && writtenObjects.size > 0) {
+      metrics.onRefTracking(writtenObjects.size, refHits);
+    }
+    refHits = 0;
     // TODO handle outlier big size.
     long writeTotalObjectSize = this.writeTotalObjectSize + writtenObjects.size;
     long writeCounter = this.writeCounter + 1;
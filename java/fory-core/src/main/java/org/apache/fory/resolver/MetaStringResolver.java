@@ -61,6 +61,11 @@ public final class MetaStringResolver {
     dynamicReadStringId = 0;
   }
 
+  /** Returns number of meta strings written with bytes in current serialization. */
+  public int getNumDynamicWrittenStrings() {
+    return dynamicWriteStringId;
+  }
+
   public MetaStringBytes getOrCreateMetaStringBytes(MetaString str) {
     MetaStringBytes metaStringBytes = metaString2BytesMap.get(str);
     if (metaStringBytes == null) {
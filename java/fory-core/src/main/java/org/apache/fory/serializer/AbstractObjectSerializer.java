@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 import org.apache.fory.Fory;
 import org.apache.fory.annotation.ForyField;
+import org.apache.fory.collection.IntArray;
 import org.apache.fory.collection.Tuple2;
 import org.apache.fory.collection.Tuple3;
 import org.apache.fory.memory.MemoryBuffer;
@@ -57,6 +58,14 @@ public abstract class AbstractObjectSerializer<T> extends Serializer<T> {
   protected final ClassResolver classResolver;
   protected final boolean isRecord;
   protected final MethodHandle constructor;
+
+  /** Size of the header of field offset table written before field values. */
+  public static final int FIELD_OFFSET_TABLE_HEADER_SIZE = 5;
+
+  static final int FIELD_OFFSET_WIDTH_MASK = 0b111;
+  // Set if the object can't be skipped by its size.
+  static final int SEQUENTIAL_READ_FLAG = 0b1000_0000;
+
   private InternalFieldInfo[] fieldInfos;
   private RecordInfo copyRecordInfo;
 
@@ -167,6 +176,74 @@ public abstract class AbstractObjectSerializer<T> extends Serializer<T> {
     return fieldValue;
   }
 
+  /**
+   * Reserve the header of field offset table: an int32 size of field values and offsets, and a byte
+   * of offset width and flags, which will be filled by {@link #writeFieldOffsetTable}.
+   *
+   * @return index of the header.
+   */
+  static int writeFieldOffsetTableHeader(MemoryBuffer buffer) {
+    int headerIndex = buffer.writerIndex();
+    buffer.writeInt32(0);
+    buffer.writeByte(0);
+    return headerIndex;
+  }
+
+  /**
+   * Write offsets of field values in <code>offsets[fromIndex, offsets.size)</code> relative to the
+   * start of field values, and fill the header at <code>headerIndex</code>. Offsets are written as
+   * 1, 2 or 4 bytes integers by the size of field values.
+   *
+   * @param sequential whether the object can only be read sequentially, since it contains ref or
+   *     meta string which may be referenced by following data.
+   */
+  static void writeFieldOffsetTable(
+      MemoryBuffer buffer, int headerIndex, IntArray offsets, int fromIndex, boolean sequential) {
+    int dataIndex = headerIndex + FIELD_OFFSET_TABLE_HEADER_SIZE;
+    int dataSize = buffer.writerIndex() - dataIndex;
+    int width = dataSize <= 0xFF ? 1 : dataSize <= 0xFFFF ? 2 : 4;
+    int[] elements = offsets.elementData;
+    for (int i = fromIndex; i < offsets.size; i++) {
+      int offset = elements[i] - dataIndex;
+      if (width == 1) {
+        buffer.writeByte(offset);
+      } else if (width == 2) {
+        buffer.writeInt16((short) offset);
+      } else {
+        buffer.writeInt32(offset);
+      }
+    }
+    buffer.putInt32(headerIndex, buffer.writerIndex() - dataIndex);
+    buffer.putByte(headerIndex + 4, sequential ? width | SEQUENTIAL_READ_FLAG : width);
+  }
+
+  /**
+   * Read the header of field offset table written by {@link #writeFieldOffsetTableHeader}, returns
+   * the width of offsets which must be skipped after field values are read.
+   */
+  static int readFieldOffsetTableHeader(MemoryBuffer buffer) {
+    buffer.readInt32();
+    return buffer.readByte() & FIELD_OFFSET_WIDTH_MASK;
+  }
+
+  /**
+   * Returns offset of field value <code>fieldIndex</code> relative to <code>dataIndex</code>, the
+   * whole object must be readable in the buffer.
+   */
+  static int getFieldOffset(
+      MemoryBuffer buffer, int dataIndex, int size, int flags, int numFields, int fieldIndex) {
+    int width = flags & FIELD_OFFSET_WIDTH_MASK;
+    int index = dataIndex + size - (numFields - fieldIndex) * width;
+    switch (width) {
+      case 1:
+        return buffer.getByte(index) & 0xFF;
+      case 2:
+        return buffer.getInt16(index) & 0xFFFF;
+      default:
+        return buffer.getInt32(index);
+    }
+  }
+
   static boolean writePrimitiveFieldValueFailed(
       Fory fory,
       MemoryBuffer buffer,
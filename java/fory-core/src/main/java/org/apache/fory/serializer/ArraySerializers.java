@@ -20,6 +20,7 @@
 package org.apache.fory.serializer;
 
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.IdentityHashMap;
 import org.apache.fory.Fory;
@@ -244,6 +245,20 @@ public class ArraySerializers {
       writeTo(buffer);
       return buffer.slice(0, buffer.writerIndex());
     }
+
+    /**
+     * Only byte array can be wrapped without copy. Heap arrays of other primitive types can't be
+     * viewed as a byte buffer, null is returned for them so that they are copied by {@link
+     * #writeTo} in chunks instead of being copied as a whole.
+     */
+    @Override
+    public ByteBuffer[] toByteBuffers() {
+      if (array instanceof byte[]) {
+        int start = offset - Platform.BYTE_ARRAY_OFFSET;
+        return new ByteBuffer[] {ByteBuffer.wrap((byte[]) array, start, length)};
+      }
+      return null;
+    }
   }
 
   // Implement all read/write methods in subclasses to avoid
@@ -444,14 +459,20 @@ public class ArraySerializers {
   }
 
   public static final class IntArraySerializer extends PrimitiveArraySerializer<int[]> {
+    private final boolean compressed;
 
     public IntArraySerializer(Fory fory) {
       super(fory, int[].class);
+      compressed = fory.getConfig().compressIntArray() && !fory.isCrossLanguage();
     }
 
     @Override
     public void write(MemoryBuffer buffer, int[] value) {
       if (fory.getBufferCallback() == null) {
+        if (compressed) {
+          PrimitiveArrayCompression.writeInt32s(buffer, value);
+          return;
+        }
         int size = Math.multiplyExact(value.length, elemSize);
         buffer.writePrimitiveArrayWithSize(value, offset, size);
       } else {
@@ -475,6 +496,9 @@ public class ArraySerializers {
         buf.copyToUnsafe(0, values, offset, size);
         return values;
       } else {
+        if (compressed) {
+          return PrimitiveArrayCompression.readInt32s(buffer);
+        }
         int size = buffer.readVarUint32Small7();
         int numElements = size / elemSize;
         int[] values = new int[numElements];
@@ -485,14 +509,20 @@ public class ArraySerializers {
   }
 
   public static final class LongArraySerializer extends PrimitiveArraySerializer<long[]> {
+    private final boolean compressed;
 
     public LongArraySerializer(Fory fory) {
       super(fory, long[].class);
+      compressed = fory.getConfig().compressLongArray() && !fory.isCrossLanguage();
     }
 
     @Override
     public void write(MemoryBuffer buffer, long[] value) {
       if (fory.getBufferCallback() == null) {
+        if (compressed) {
+          PrimitiveArrayCompression.writeInt64s(buffer, value);
+          return;
+        }
         int size = Math.multiplyExact(value.length, elemSize);
         buffer.writePrimitiveArrayWithSize(value, offset, size);
       } else {
@@ -516,6 +546,9 @@ public class ArraySerializers {
         buf.copyToUnsafe(0, values, offset, size);
         return values;
       } else {
+        if (compressed) {
+          return PrimitiveArrayCompression.readInt64s(buffer);
+        }
         int size = buffer.readVarUint32Small7();
         int numElements = size / elemSize;
         long[] values = new long[numElements];
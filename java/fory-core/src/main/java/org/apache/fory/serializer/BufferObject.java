@@ -42,6 +42,15 @@ public interface BufferObject {
   /** Write serialized data as Buffer. */
   MemoryBuffer toBuffer();
 
+  /**
+   * Returns serialized data as byte buffers which are views of the underlying data without copy, or
+   * null if the data can't be viewed without copy. This is used for gathering writes to channels,
+   * callers should fall back to {@link #writeTo} if null is returned.
+   */
+  default ByteBuffer[] toByteBuffers() {
+    return null;
+  }
+
   final class ByteBufferBufferObject implements BufferObject {
     private final ByteBuffer buffer;
 
@@ -68,5 +77,11 @@ public interface BufferObject {
       writeTo(buffer);
       return buffer.slice(0, buffer.writerIndex());
     }
+
+    @Override
+    public ByteBuffer[] toByteBuffers() {
+      byte order = this.buffer.order() == ByteOrder.BIG_ENDIAN ? (byte) 1 : 0;
+      return new ByteBuffer[] {this.buffer.duplicate(), ByteBuffer.wrap(new byte[] {order})};
+    }
   }
 }
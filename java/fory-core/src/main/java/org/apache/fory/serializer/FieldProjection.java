@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.serializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.fory.util.Preconditions;
+
+/**
+ * Fields to be deserialized by {@link org.apache.fory.Fory#deserialize(byte[], Class,
+ * FieldProjection)}, other fields will be skipped and left as default values. A nested field can be
+ * selected by a dotted path such as <code>address.city</code>, in which case only <code>city
+ * </code> of the <code>address</code> object is deserialized.
+ *
+ * <p>Example:
+ *
+ * <pre>{@code
+ * FieldProjection projection = FieldProjection.of("id", "name", "address.city");
+ * Order order = fory.deserialize(bytes, Order.class, projection);
+ * }</pre>
+ */
+public final class FieldProjection {
+  /** A projection which selects no fields. */
+  public static final FieldProjection EMPTY = new FieldProjection(Collections.emptyMap());
+
+  // field name -> nested projection, null value means the whole field is selected.
+  private final Map<String, FieldProjection> fields;
+
+  private FieldProjection(Map<String, FieldProjection> fields) {
+    this.fields = fields;
+  }
+
+  public static FieldProjection of(String... paths) {
+    return of(Arrays.asList(paths));
+  }
+
+  public static FieldProjection of(Collection<String> paths) {
+    Map<String, FieldProjection> fields = new HashMap<>();
+    Map<String, List<String>> nestedPaths = new HashMap<>();
+    for (String path : paths) {
+      Preconditions.checkArgument(
+          path != null && !path.isEmpty() && !path.startsWith(".") && !path.endsWith("."),
+          "Invalid field path %s",
+          path);
+      int index = path.indexOf('.');
+      if (index < 0) {
+        fields.put(path, null);
+      } else {
+        nestedPaths
+            .computeIfAbsent(path.substring(0, index), k -> new ArrayList<>())
+            .add(path.substring(index + 1));
+      }
+    }
+    // A field selected as a whole takes precedence over its nested paths.
+    nestedPaths.forEach(
+        (name, nested) -> {
+          if (!fields.containsKey(name)) {
+            fields.put(name, of(nested));
+          }
+        });
+    return new FieldProjection(Collections.unmodifiableMap(fields));
+  }
+
+  /** Returns names of selected fields. */
+  public Set<String> getFieldNames() {
+    return fields.keySet();
+  }
+
+  /** Whether field <code>name</code> is selected. */
+  public boolean isSelected(String name) {
+    return fields.containsKey(name);
+  }
+
+  /**
+   * Returns the projection of a nested field, or null if the whole field is selected or the field
+   * isn't selected.
+   */
+  public FieldProjection getNestedProjection(String name) {
+    return fields.get(name);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return fields.equals(((FieldProjection) o).fields);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(fields);
+  }
+
+  @Override
+  public String toString() {
+    return "FieldProjection" + fields;
+  }
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.apache.fory.Fory;
+import org.apache.fory.collection.IntArray;
 import org.apache.fory.collection.Tuple2;
 import org.apache.fory.collection.Tuple3;
 import org.apache.fory.exception.ForyException;
@@ -35,6 +36,7 @@ import org.apache.fory.reflect.FieldAccessor;
 import org.apache.fory.reflect.TypeRef;
 import org.apache.fory.resolver.ClassInfo;
 import org.apache.fory.resolver.ClassResolver;
+import org.apache.fory.resolver.MetaStringResolver;
 import org.apache.fory.resolver.RefResolver;
 import org.apache.fory.resolver.TypeResolver;
 import org.apache.fory.type.Descriptor;
@@ -77,6 +79,9 @@ public final class ObjectSerializer<T> extends AbstractObjectSerializer<T> {
   private final int classVersionHash;
   private final SerializationBinding binding;
   private final TypeResolver typeResolver;
+  private final boolean fieldOffsetTable;
+  // Start index of field values, shared by nested objects of same type.
+  private final IntArray fieldOffsets;
 
   public ObjectSerializer(Fory fory, Class<T> cls) {
     this(fory, cls, true);
@@ -120,6 +125,8 @@ public final class ObjectSerializer<T> extends AbstractObjectSerializer<T> {
     isFinal = infos.f0.f1;
     otherFields = infos.f1;
     containerFields = infos.f2;
+    fieldOffsetTable = fory.getConfig().isFieldOffsetTableEnabled();
+    fieldOffsets = fieldOffsetTable ? new IntArray(16) : null;
   }
 
   @Override
@@ -129,14 +136,44 @@ public final class ObjectSerializer<T> extends AbstractObjectSerializer<T> {
     if (fory.checkClassVersion()) {
       buffer.writeInt32(classVersionHash);
     }
+    if (fieldOffsetTable) {
+      writeWithFieldOffsetTable(buffer, value, fory, refResolver);
+      return;
+    }
     // write order: primitive,boxed,final,other,collection,map
-    writeFinalFields(buffer, value, fory, refResolver, typeResolver);
-    writeOtherFields(buffer, value);
-    writeContainerFields(buffer, value, fory, refResolver, typeResolver);
+    writeFinalFields(buffer, value, fory, refResolver, typeResolver, null);
+    writeOtherFields(buffer, value, null);
+    writeContainerFields(buffer, value, fory, refResolver, typeResolver, null);
+  }
+
+  private void writeWithFieldOffsetTable(
+      MemoryBuffer buffer, T value, Fory fory, RefResolver refResolver) {
+    MetaStringResolver metaStringResolver = fory.getMetaStringResolver();
+    int numMetaStrings = metaStringResolver.getNumDynamicWrittenStrings();
+    int headerIndex = writeFieldOffsetTableHeader(buffer);
+    // header will be filled after field values are written, keep it in buffer for streaming.
+    int pinnedIndex = buffer.pinWriterIndex(headerIndex);
+    IntArray offsets = fieldOffsets;
+    int fromIndex = offsets.size;
+    try {
+      writeFinalFields(buffer, value, fory, refResolver, typeResolver, offsets);
+      writeOtherFields(buffer, value, offsets);
+      writeContainerFields(buffer, value, fory, refResolver, typeResolver, offsets);
+      boolean sequential =
+          fory.trackingRef() || metaStringResolver.getNumDynamicWrittenStrings() != numMetaStrings;
+      writeFieldOffsetTable(buffer, headerIndex, offsets, fromIndex, sequential);
+    } finally {
+      // restore state even if a field serializer failed, so the serializer can be used again.
+      offsets.size = fromIndex;
+      buffer.unpinWriterIndex(pinnedIndex);
+    }
   }
 
-  private void writeOtherFields(MemoryBuffer buffer, T value) {
+  private void writeOtherFields(MemoryBuffer buffer, T value, IntArray offsets) {
     for (GenericTypeField fieldInfo : otherFields) {
+      if (offsets != null) {
+        offsets.add(buffer.writerIndex());
+      }
       FieldAccessor fieldAccessor = fieldInfo.fieldAccessor;
       Object fieldValue = fieldAccessor.getObject(value);
       if (fieldInfo.trackingRef) {
@@ -153,10 +190,18 @@ public final class ObjectSerializer<T> extends AbstractObjectSerializer<T> {
   }
 
   private void writeFinalFields(
-      MemoryBuffer buffer, T value, Fory fory, RefResolver refResolver, TypeResolver typeResolver) {
+      MemoryBuffer buffer,
+      T value,
+      Fory fory,
+      RefResolver refResolver,
+      TypeResolver typeResolver,
+      IntArray offsets) {
     FinalTypeField[] finalFields = this.finalFields;
     boolean metaShareEnabled = fory.getConfig().isMetaShareEnabled();
     for (int i = 0; i < finalFields.length; i++) {
+      if (offsets != null) {
+        offsets.add(buffer.writerIndex());
+      }
       FinalTypeField fieldInfo = finalFields[i];
       FieldAccessor fieldAccessor = fieldInfo.fieldAccessor;
       boolean nullable = fieldInfo.nullable;
@@ -194,9 +239,17 @@ public final class ObjectSerializer<T> extends AbstractObjectSerializer<T> {
   }
 
   private void writeContainerFields(
-      MemoryBuffer buffer, T value, Fory fory, RefResolver refResolver, TypeResolver typeResolver) {
+      MemoryBuffer buffer,
+      T value,
+      Fory fory,
+      RefResolver refResolver,
+      TypeResolver typeResolver,
+      IntArray offsets) {
     Generics generics = fory.getGenerics();
     for (GenericTypeField fieldInfo : containerFields) {
+      if (offsets != null) {
+        offsets.add(buffer.writerIndex());
+      }
       FieldAccessor fieldAccessor = fieldInfo.fieldAccessor;
       Object fieldValue = fieldAccessor.getObject(value);
       writeContainerFieldValue(
@@ -269,6 +322,7 @@ public final class ObjectSerializer<T> extends AbstractObjectSerializer<T> {
       int hash = buffer.readInt32();
       checkClassVersion(fory, hash, classVersionHash);
     }
+    int offsetWidth = fieldOffsetTable ? readFieldOffsetTableHeader(buffer) : 0;
     Object[] fieldValues =
         new Object[finalFields.length + otherFields.length + containerFields.length];
     int counter = 0;
@@ -298,6 +352,9 @@ public final class ObjectSerializer<T> extends AbstractObjectSerializer<T> {
       Object fieldValue = readContainerFieldValue(binding, generics, fieldInfo, buffer);
       fieldValues[counter++] = fieldValue;
     }
+    if (fieldOffsetTable) {
+      buffer.increaseReaderIndex(fieldValues.length * offsetWidth);
+    }
     return fieldValues;
   }
 
@@ -309,6 +366,7 @@ public final class ObjectSerializer<T> extends AbstractObjectSerializer<T> {
       int hash = buffer.readInt32();
       checkClassVersion(fory, hash, classVersionHash);
     }
+    int offsetWidth = fieldOffsetTable ? readFieldOffsetTableHeader(buffer) : 0;
     // read order: primitive,boxed,final,other,collection,map
     FinalTypeField[] finalFields = this.finalFields;
     boolean metaShareEnabled = fory.getConfig().isMetaShareEnabled();
@@ -339,6 +397,11 @@ public final class ObjectSerializer<T> extends AbstractObjectSerializer<T> {
       FieldAccessor fieldAccessor = fieldInfo.fieldAccessor;
       fieldAccessor.putObject(obj, fieldValue);
     }
+    if (fieldOffsetTable) {
+      int numFields = finalFields.length + otherFields.length + containerFields.length;
+      // skip offset table
+      buffer.increaseReaderIndex(numFields * offsetWidth);
+    }
     return obj;
   }
 
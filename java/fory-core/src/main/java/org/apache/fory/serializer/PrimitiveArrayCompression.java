@@ -0,0 +1,485 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.serializer;
+
+import java.util.Arrays;
+import org.apache.fory.exception.DeserializationException;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.memory.Platform;
+import org.apache.fory.util.VectorizedOps;
+
+/**
+ * Compressed encodings for int/long arrays, enabled by {@link
+ * org.apache.fory.config.ForyBuilder#withIntArrayCompressed} and {@link
+ * org.apache.fory.config.ForyBuilder#withLongArrayCompressed}.
+ *
+ * <p>Every array is written as an encoding flag byte followed by the encoded data:
+ *
+ * <ul>
+ *   <li>{@link #RAW}: size in bytes and raw little-endian bytes, same as the uncompressed format.
+ *   <li>{@link #DELTA}: number of elements and zigzag varint of the difference between every
+ *       element and its previous element, suitable for sorted arrays.
+ *   <li>{@link #BIT_PACKED}: number of elements, zigzag varint of the min element, bit width, and
+ *       the differences between elements and the min packed by the bit width, suitable for arrays
+ *       of values in a small range.
+ *   <li>{@link #RLE}: number of elements, and pairs of zigzag varint value and varint run length,
+ *       suitable for arrays with many repeated values.
+ * </ul>
+ *
+ * <p>Encoded sizes of all encodings are computed exactly by a single pass over the array, and the
+ * smallest one is used. Raw encoding is used if no encoding is smaller, so the size is never bigger
+ * than the uncompressed format plus one byte.
+ */
+public final class PrimitiveArrayCompression {
+  public static final byte RAW = 0;
+  public static final byte DELTA = 1;
+  public static final byte BIT_PACKED = 2;
+  public static final byte RLE = 3;
+  // Bits of a packed value must fit into one word together with the unconsumed bits of a byte.
+  private static final int MAX_PACKED_BITS = 56;
+  private static final VectorizedOps VECTORIZED_OPS = VectorizedOps.get();
+
+  public static void writeInt32s(MemoryBuffer buffer, int[] values) {
+    int length = values.length;
+    if (length == 0) {
+      buffer.writeByte(RAW);
+      buffer.writeVarUint32Small7(0);
+      return;
+    }
+    long min = values[0];
+    long max = values[0];
+    long deltaBytes = 0;
+    long rleBytes = 0;
+    int prev = 0;
+    int runLength = 0;
+    for (int i = 0; i < length; i++) {
+      int v = values[i];
+      if (v < min) {
+        min = v;
+      } else if (v > max) {
+        max = v;
+      }
+      deltaBytes += varUint32Size(zigzag32(v - prev));
+      if (i > 0 && v == prev) {
+        runLength++;
+      } else {
+        if (runLength > 0) {
+          rleBytes += varUint32Size(runLength);
+        }
+        rleBytes += varUint32Size(zigzag32(v));
+        runLength = 1;
+      }
+      prev = v;
+    }
+    rleBytes += varUint32Size(runLength);
+    int bitWidth = 64 - Long.numberOfLeadingZeros(max - min);
+    long packedBytes = (((long) length * bitWidth + 7) >>> 3) + 1 + varUint64Size(zigzag64(min));
+    long rawBytes = (long) length * 4;
+    byte encoding = chooseEncoding(rawBytes, deltaBytes, packedBytes, rleBytes);
+    buffer.writeByte(encoding);
+    switch (encoding) {
+      case RAW:
+        buffer.writePrimitiveArrayWithSize(values, Platform.INT_ARRAY_OFFSET, length * 4);
+        break;
+      case DELTA:
+        {
+          buffer.writeVarUint32(length);
+          buffer.ensure(buffer.writerIndex() + (int) deltaBytes + 8);
+          prev = 0;
+          for (int v : values) {
+            buffer._unsafeWriteVarInt32(v - prev);
+            prev = v;
+          }
+          break;
+        }
+      case BIT_PACKED:
+        {
+          buffer.writeVarUint32(length);
+          buffer.writeVarInt64(min);
+          buffer.writeByte(bitWidth);
+          long acc = 0;
+          int bits = 0;
+          for (int v : values) {
+            long d = v - min;
+            acc |= d << bits;
+            bits += bitWidth;
+            if (bits >= 64) {
+              buffer.writeInt64(acc);
+              bits -= 64;
+              acc = bits == 0 ? 0 : d >>> (bitWidth - bits);
+            }
+          }
+          writeTailBits(buffer, acc, bits);
+          break;
+        }
+      case RLE:
+        {
+          buffer.writeVarUint32(length);
+          buffer.ensure(buffer.writerIndex() + (int) rleBytes + 8);
+          int start = 0;
+          while (start < length) {
+            int v = values[start];
+            int end = start + 1;
+            while (end < length && values[end] == v) {
+              end++;
+            }
+            buffer._unsafeWriteVarInt32(v);
+            buffer._unsafeWriteVarUint32(end - start);
+            start = end;
+          }
+          break;
+        }
+      default:
+        throw new IllegalStateException("Unreachable");
+    }
+  }
+
+  public static int[] readInt32s(MemoryBuffer buffer) {
+    byte encoding = buffer.readByte();
+    switch (encoding) {
+      case RAW:
+        {
+          int size = buffer.readVarUint32Small7();
+          int[] values = new int[size / 4];
+          buffer.readToUnsafe(values, Platform.INT_ARRAY_OFFSET, size);
+          return values;
+        }
+      case DELTA:
+        {
+          int[] values = new int[buffer.readVarUint32()];
+          int prev = 0;
+          for (int i = 0; i < values.length; ) {
+            byte[] heapMemory;
+            if (VECTORIZED_OPS != null && (heapMemory = buffer.getHeapMemory()) != null) {
+              // decode small deltas in bulk, then accumulate them.
+              int count = Math.min(values.length - i, buffer.remaining());
+              int n =
+                  VECTORIZED_OPS.decodeSmallVarInt32s(
+                      heapMemory, buffer._unsafeHeapReaderIndex(), values, i, count);
+              if (n > 0) {
+                buffer._increaseReaderIndexUnsafe(n);
+                for (int end = i + n; i < end; i++) {
+                  prev += values[i];
+                  values[i] = prev;
+                }
+                continue;
+              }
+            }
+            prev += buffer.readVarInt32();
+            values[i++] = prev;
+          }
+          return values;
+        }
+      case BIT_PACKED:
+        {
+          int[] values = new int[buffer.readVarUint32()];
+          long min = buffer.readVarInt64();
+          int bitWidth = readBitWidth(buffer);
+          if (bitWidth == 0) {
+            Arrays.fill(values, (int) min);
+            return values;
+          }
+          long mask = (1L << bitWidth) - 1;
+          long remainingBytes = ((long) values.length * bitWidth + 7) >>> 3;
+          long acc = 0;
+          int bits = 0;
+          for (int i = 0; i < values.length; i++) {
+            long d;
+            if (bits >= bitWidth) {
+              d = acc & mask;
+              acc >>>= bitWidth;
+              bits -= bitWidth;
+            } else {
+              long next;
+              int nextBits;
+              if (remainingBytes >= 8) {
+                next = buffer.readInt64();
+                nextBits = 64;
+                remainingBytes -= 8;
+              } else {
+                next = buffer.readBytesAsInt64((int) remainingBytes);
+                nextBits = (int) remainingBytes * 8;
+                remainingBytes = 0;
+              }
+              d = (acc | (next << bits)) & mask;
+              int used = bitWidth - bits;
+              acc = next >>> used;
+              bits = nextBits - used;
+            }
+            values[i] = (int) (min + d);
+          }
+          return values;
+        }
+      case RLE:
+        {
+          int[] values = new int[buffer.readVarUint32()];
+          int start = 0;
+          while (start < values.length) {
+            int v = buffer.readVarInt32();
+            int end = start + buffer.readVarUint32();
+            checkRun(start, end, values.length);
+            Arrays.fill(values, start, end, v);
+            start = end;
+          }
+          return values;
+        }
+      default:
+        throw new DeserializationException("Unknown int array encoding " + encoding);
+    }
+  }
+
+  public static void writeInt64s(MemoryBuffer buffer, long[] values) {
+    int length = values.length;
+    if (length == 0) {
+      buffer.writeByte(RAW);
+      buffer.writeVarUint32Small7(0);
+      return;
+    }
+    long min = values[0];
+    long max = values[0];
+    long deltaBytes = 0;
+    long rleBytes = 0;
+    long prev = 0;
+    int runLength = 0;
+    for (int i = 0; i < length; i++) {
+      long v = values[i];
+      if (v < min) {
+        min = v;
+      } else if (v > max) {
+        max = v;
+      }
+      deltaBytes += varUint64Size(zigzag64(v - prev));
+      if (i > 0 && v == prev) {
+        runLength++;
+      } else {
+        if (runLength > 0) {
+          rleBytes += varUint32Size(runLength);
+        }
+        rleBytes += varUint64Size(zigzag64(v));
+        runLength = 1;
+      }
+      prev = v;
+    }
+    rleBytes += varUint32Size(runLength);
+    long range = max - min;
+    // range overflows if it needs 64 bits.
+    int bitWidth = range < 0 ? 64 : 64 - Long.numberOfLeadingZeros(range);
+    long packedBytes =
+        bitWidth > MAX_PACKED_BITS
+            ? Long.MAX_VALUE
+            : (((long) length * bitWidth + 7) >>> 3) + 1 + varUint64Size(zigzag64(min));
+    long rawBytes = (long) length * 8;
+    byte encoding = chooseEncoding(rawBytes, deltaBytes, packedBytes, rleBytes);
+    buffer.writeByte(encoding);
+    switch (encoding) {
+      case RAW:
+        buffer.writePrimitiveArrayWithSize(values, Platform.LONG_ARRAY_OFFSET, length * 8);
+        break;
+      case DELTA:
+        {
+          buffer.writeVarUint32(length);
+          buffer.ensure(buffer.writerIndex() + (int) deltaBytes + 16);
+          prev = 0;
+          for (long v : values) {
+            buffer._unsafeWriteVarInt64(v - prev);
+            prev = v;
+          }
+          break;
+        }
+      case BIT_PACKED:
+        {
+          buffer.writeVarUint32(length);
+          buffer.writeVarInt64(min);
+          buffer.writeByte(bitWidth);
+          long acc = 0;
+          int bits = 0;
+          for (long v : values) {
+            long d = v - min;
+            acc |= d << bits;
+            bits += bitWidth;
+            if (bits >= 64) {
+              buffer.writeInt64(acc);
+              bits -= 64;
+              acc = bits == 0 ? 0 : d >>> (bitWidth - bits);
+            }
+          }
+          writeTailBits(buffer, acc, bits);
+          break;
+        }
+      case RLE:
+        {
+          buffer.writeVarUint32(length);
+          buffer.ensure(buffer.writerIndex() + (int) rleBytes + 16);
+          int start = 0;
+          while (start < length) {
+            long v = values[start];
+            int end = start + 1;
+            while (end < length && values[end] == v) {
+              end++;
+            }
+            buffer._unsafeWriteVarInt64(v);
+            buffer._unsafeWriteVarUint32(end - start);
+            start = end;
+          }
+          break;
+        }
+      default:
+        throw new IllegalStateException("Unreachable");
+    }
+  }
+
+  public static long[] readInt64s(MemoryBuffer buffer) {
+    byte encoding = buffer.readByte();
+    switch (encoding) {
+      case RAW:
+        {
+          int size = buffer.readVarUint32Small7();
+          long[] values = new long[size / 8];
+          buffer.readToUnsafe(values, Platform.LONG_ARRAY_OFFSET, size);
+          return values;
+        }
+      case DELTA:
+        {
+          long[] values = new long[buffer.readVarUint32()];
+          long prev = 0;
+          for (int i = 0; i < values.length; i++) {
+            prev += buffer.readVarInt64();
+            values[i] = prev;
+          }
+          return values;
+        }
+      case BIT_PACKED:
+        {
+          long[] values = new long[buffer.readVarUint32()];
+          long min = buffer.readVarInt64();
+          int bitWidth = readBitWidth(buffer);
+          if (bitWidth == 0) {
+            Arrays.fill(values, min);
+            return values;
+          }
+          long mask = (1L << bitWidth) - 1;
+          long remainingBytes = ((long) values.length * bitWidth + 7) >>> 3;
+          long acc = 0;
+          int bits = 0;
+          for (int i = 0; i < values.length; i++) {
+            long d;
+            if (bits >= bitWidth) {
+              d = acc & mask;
+              acc >>>= bitWidth;
+              bits -= bitWidth;
+            } else {
+              long next;
+              int nextBits;
+              if (remainingBytes >= 8) {
+                next = buffer.readInt64();
+                nextBits = 64;
+                remainingBytes -= 8;
+              } else {
+                next = buffer.readBytesAsInt64((int) remainingBytes);
+                nextBits = (int) remainingBytes * 8;
+                remainingBytes = 0;
+              }
+              d = (acc | (next << bits)) & mask;
+              int used = bitWidth - bits;
+              acc = next >>> used;
+              bits = nextBits - used;
+            }
+            values[i] = min + d;
+          }
+          return values;
+        }
+      case RLE:
+        {
+          long[] values = new long[buffer.readVarUint32()];
+          int start = 0;
+          while (start < values.length) {
+            long v = buffer.readVarInt64();
+            int end = start + buffer.readVarUint32();
+            checkRun(start, end, values.length);
+            Arrays.fill(values, start, end, v);
+            start = end;
+          }
+          return values;
+        }
+      default:
+        throw new DeserializationException("Unknown long array encoding " + encoding);
+    }
+  }
+
+  /** Prefer encodings which are faster to decode when sizes are equal. */
+  private static byte chooseEncoding(
+      long rawBytes, long deltaBytes, long packedBytes, long rleBytes) {
+    byte encoding = RAW;
+    long size = rawBytes;
+    if (packedBytes < size) {
+      encoding = BIT_PACKED;
+      size = packedBytes;
+    }
+    if (rleBytes < size) {
+      encoding = RLE;
+      size = rleBytes;
+    }
+    if (deltaBytes < size) {
+      encoding = DELTA;
+    }
+    return encoding;
+  }
+
+  private static void writeTailBits(MemoryBuffer buffer, long acc, int bits) {
+    int numBytes = (bits + 7) >>> 3;
+    for (int i = 0; i < numBytes; i++) {
+      buffer.writeByte((byte) (acc >>> (i << 3)));
+    }
+  }
+
+  private static int readBitWidth(MemoryBuffer buffer) {
+    int bitWidth = buffer.readByte();
+    if (bitWidth < 0 || bitWidth > MAX_PACKED_BITS) {
+      throw new DeserializationException("Invalid bit width " + bitWidth);
+    }
+    return bitWidth;
+  }
+
+  private static void checkRun(int start, int end, int length) {
+    if (end <= start || end > length) {
+      throw new DeserializationException(
+          String.format("Invalid run [%d, %d) for array of length %d", start, end, length));
+    }
+  }
+
+  private static int zigzag32(int v) {
+    return (v << 1) ^ (v >> 31);
+  }
+
+  private static long zigzag64(long v) {
+    return (v << 1) ^ (v >> 63);
+  }
+
+  private static int varUint32Size(int v) {
+    int bits = 32 - Integer.numberOfLeadingZeros(v | 1);
+    return (bits + 6) / 7;
+  }
+
+  private static int varUint64Size(long v) {
+    int bits = 64 - Long.numberOfLeadingZeros(v | 1);
+    // the 9th byte of var uint64 holds 8 bits.
+    return bits > 56 ? 9 : (bits + 6) / 7;
+  }
+}
@@ -0,0 +1,684 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.serializer;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.fory.Fory;
+import org.apache.fory.builder.Generated;
+import org.apache.fory.collection.Tuple2;
+import org.apache.fory.collection.Tuple3;
+import org.apache.fory.config.CompatibleMode;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.memory.Platform;
+import org.apache.fory.meta.ClassDef;
+import org.apache.fory.reflect.FieldAccessor;
+import org.apache.fory.resolver.ClassInfoHolder;
+import org.apache.fory.resolver.ClassResolver;
+import org.apache.fory.resolver.FieldResolver;
+import org.apache.fory.serializer.CodegenSerializer.LazyInitBeanSerializer;
+import org.apache.fory.serializer.collection.AbstractCollectionSerializer;
+import org.apache.fory.serializer.collection.AbstractMapSerializer;
+import org.apache.fory.type.Descriptor;
+import org.apache.fory.type.DescriptorGrouper;
+import org.apache.fory.type.Generics;
+import org.apache.fory.util.Preconditions;
+import org.apache.fory.util.record.RecordInfo;
+import org.apache.fory.util.record.RecordUtils;
+
+/**
+ * A serializer which reads only fields selected by a {@link FieldProjection}, other fields are
+ * skipped and left as default values. Primitive, boxed and string fields are skipped without
+ * decoding, fields of schema-consistent bean types are skipped field by field recursively, elements
+ * of collection and map fields are skipped one by one without being added to a container, see
+ * {@link #skipData}. Other fields, and all fields if reference tracking is enabled, are read and
+ * discarded. If field offset table is enabled by {@link
+ * org.apache.fory.config.ForyBuilder#withFieldOffsetTable}, selected fields are read by their
+ * offsets and nested objects are skipped by their size directly.
+ *
+ * <p>The read order is consistent with {@link ObjectSerializer} and jit serializers, or with {@link
+ * MetaSharedSerializer} for a class def shared by meta share mode. In compatible mode without meta
+ * share, data is read by a {@link CompatibleSerializer} which knows only selected fields, so other
+ * fields are skipped by their field metadata. When none of these applies, e.g. a record in
+ * compatible mode, the object will be read fully, then unselected fields will be cleared by {@link
+ * #clearUnselectedFields}.
+ *
+ * <p>This serializer is only created by {@link ClassResolver#getProjectedSerializer} and never
+ * registered for a class, {@link #write} is delegated to the serializer of the class.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public final class ProjectedObjectSerializer<T> extends AbstractObjectSerializer<T> {
+  private final FieldProjection projection;
+  // Whether fields are read in the order of `ObjectSerializer` or `MetaSharedSerializer`.
+  private final boolean skipSupported;
+  private final boolean checkClassVersion;
+  private final int classVersionHash;
+  private final SerializationBinding binding;
+  private final FinalTypeField[] finalFields;
+  private final boolean[] isFinal;
+  private final boolean[] finalSelected;
+  private final boolean[] finalSkippable;
+  private final ProjectedObjectSerializer[] finalSerializers;
+  private final ProjectedObjectSerializer[] skipSerializers;
+  private final GenericTypeField[] otherFields;
+  private final boolean[] otherSelected;
+  private final GenericTypeField[] containerFields;
+  private final boolean[] containerSelected;
+  private final int numFields;
+  private final boolean fieldOffsetTable;
+  // Values which are skipped by `skipData` can't be referenced when reference tracking is disabled.
+  private final boolean valueSkippable;
+  private final ClassInfoHolder classInfoHolder;
+  private final RecordInfo recordInfo;
+  // default values of fields in read order, used as record components of unselected fields.
+  private final Object[] fieldDefaultValues;
+  private final CompatibleSerializer<T> compatibleSerializer;
+  // fields cleared after a full read.
+  private final FieldAccessor[] unselectedFields;
+  private final Object[] defaultValues;
+  private final FieldAccessor[] nestedFields;
+  private final FieldProjection[] nestedProjections;
+
+  public ProjectedObjectSerializer(Fory fory, Class<T> cls, FieldProjection projection) {
+    this(fory, cls, projection, null);
+  }
+
+  /**
+   * Create a serializer which reads fields in the layout of <code>classDef</code> if it's not null,
+   * the <code>classDef</code> must be shared by meta share mode.
+   */
+  public ProjectedObjectSerializer(
+      Fory fory, Class<T> cls, FieldProjection projection, ClassDef classDef) {
+    super(fory, cls);
+    this.projection = projection;
+    binding = SerializationBinding.createBinding(fory);
+    Set<String> fieldNames = new HashSet<>();
+    for (Descriptor descriptor : classResolver.getFieldDescriptors(cls, true)) {
+      fieldNames.add(descriptor.getName());
+    }
+    for (String name : projection.getFieldNames()) {
+      Preconditions.checkArgument(
+          fieldNames.contains(name), "Field %s doesn't exist in %s", name, cls);
+    }
+    boolean metaShare = fory.getConfig().isMetaShareEnabled();
+    Collection<Descriptor> descriptors =
+        classDef == null
+            ? classResolver.getFieldDescriptors(cls, true)
+            : MetaSharedSerializer.consolidateFields(classResolver, cls, classDef);
+    DescriptorGrouper grouper = classResolver.createDescriptorGrouper(descriptors, false);
+    descriptors = grouper.getSortedDescriptors();
+    if (classDef != null) {
+      skipSupported = !fory.isCrossLanguage() && metaShare;
+    } else {
+      skipSupported =
+          !fory.isCrossLanguage()
+              && !metaShare
+              && fory.getCompatibleMode() == CompatibleMode.SCHEMA_CONSISTENT
+              && isStructSerializer(classResolver.getSerializer(cls));
+    }
+    checkClassVersion = skipSupported && classDef == null && fory.checkClassVersion();
+    classVersionHash =
+        checkClassVersion ? ObjectSerializer.computeStructHash(fory, descriptors) : 0;
+    Tuple3<Tuple2<FinalTypeField[], boolean[]>, GenericTypeField[], GenericTypeField[]> infos =
+        buildFieldInfos(fory, grouper);
+    finalFields = infos.f0.f0;
+    otherFields = infos.f1;
+    containerFields = infos.f2;
+    valueSkippable = !fory.trackingRef();
+    isFinal = new boolean[finalFields.length];
+    finalSelected = new boolean[finalFields.length];
+    finalSkippable = new boolean[finalFields.length];
+    finalSerializers = new ProjectedObjectSerializer[finalFields.length];
+    skipSerializers = new ProjectedObjectSerializer[finalFields.length];
+    for (int i = 0; i < finalFields.length; i++) {
+      FinalTypeField fieldInfo = finalFields[i];
+      String name = getFieldName(fieldInfo);
+      // see `ObjectSerializer#readFields`, class info is written for non-final types only when
+      // meta share is enabled.
+      isFinal[i] = !metaShare || infos.f0.f1[i];
+      finalSelected[i] = isSelected(projection, fieldInfo);
+      // nested beans are skipped field by field only when no object is referenced by ref id.
+      finalSkippable[i] =
+          valueSkippable
+              && isFinal[i]
+              && fieldInfo.classInfo != null
+              && isStructSerializer(fieldInfo.classInfo.getSerializer());
+      FieldProjection nested = projection.getNestedProjection(name);
+      if (finalSelected[i] && nested != null && fieldInfo.classInfo != null) {
+        // Created eagerly to validate nested fields.
+        finalSerializers[i] =
+            classResolver.getProjectedSerializer(fieldInfo.classInfo.getCls(), nested);
+      }
+    }
+    otherSelected = getSelected(otherFields, projection);
+    containerSelected = getSelected(containerFields, projection);
+    numFields = finalFields.length + otherFields.length + containerFields.length;
+    fieldOffsetTable = classDef == null && fory.getConfig().isFieldOffsetTableEnabled();
+    classInfoHolder = classResolver.nilClassInfoHolder();
+    List<FieldAccessor> unselected = new ArrayList<>();
+    List<Object> defaults = new ArrayList<>();
+    List<FieldAccessor> nestedFields = new ArrayList<>();
+    List<FieldProjection> nestedProjections = new ArrayList<>();
+    List<String> sortedFieldNames = new ArrayList<>();
+    fieldDefaultValues = new Object[numFields];
+    int index = 0;
+    for (Descriptor descriptor : descriptors) {
+      String name = descriptor.getName();
+      sortedFieldNames.add(name);
+      fieldDefaultValues[index++] = getDefaultValue(descriptor.getRawType());
+      Field field = descriptor.getField();
+      if (field == null) {
+        continue;
+      }
+      FieldAccessor accessor = FieldAccessor.createAccessor(field);
+      if (!projection.isSelected(name)) {
+        unselected.add(accessor);
+        defaults.add(getDefaultValue(field.getType()));
+      } else if (projection.getNestedProjection(name) != null) {
+        nestedFields.add(accessor);
+        nestedProjections.add(projection.getNestedProjection(name));
+      }
+    }
+    unselectedFields = unselected.toArray(new FieldAccessor[0]);
+    defaultValues = defaults.toArray();
+    this.nestedFields = nestedFields.toArray(new FieldAccessor[0]);
+    this.nestedProjections = nestedProjections.toArray(new FieldProjection[0]);
+    recordInfo = isRecord ? new RecordInfo(cls, sortedFieldNames) : null;
+    if (classDef == null
+        && !skipSupported
+        && !isRecord
+        && !fory.isCrossLanguage()
+        && !metaShare
+        && fory.getCompatibleMode() == CompatibleMode.COMPATIBLE
+        && isCompatibleSerializer(classResolver.getSerializer(cls))) {
+      compatibleSerializer =
+          new CompatibleSerializer<>(fory, cls, buildFieldResolver(fory, cls, projection));
+    } else {
+      compatibleSerializer = null;
+    }
+  }
+
+  private static boolean isSelected(FieldProjection projection, InternalFieldInfo fieldInfo) {
+    // field may not exist in this class when reading by a class def.
+    return fieldInfo.fieldAccessor != null && projection.isSelected(getFieldName(fieldInfo));
+  }
+
+  private static boolean[] getSelected(GenericTypeField[] fields, FieldProjection projection) {
+    boolean[] selected = new boolean[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      selected[i] = isSelected(projection, fields[i]);
+    }
+    return selected;
+  }
+
+  private static String getFieldName(InternalFieldInfo fieldInfo) {
+    String name = fieldInfo.qualifiedFieldName;
+    return name.substring(name.lastIndexOf('.') + 1);
+  }
+
+  private static Object getDefaultValue(Class<?> type) {
+    return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+  }
+
+  private static boolean isStructSerializer(Serializer<?> serializer) {
+    return serializer instanceof ObjectSerializer
+        || serializer instanceof Generated.GeneratedObjectSerializer
+        || serializer instanceof LazyInitBeanSerializer;
+  }
+
+  private static boolean isCompatibleSerializer(Serializer<?> serializer) {
+    return serializer instanceof CompatibleSerializer
+        || serializer instanceof Generated.GeneratedCompatibleSerializer
+        || serializer instanceof LazyInitBeanSerializer;
+  }
+
+  /** Build a field resolver which knows only selected fields, other fields will be skipped. */
+  private static FieldResolver buildFieldResolver(
+      Fory fory, Class<?> cls, FieldProjection projection) {
+    List<FieldResolver.ClassField> fields = new ArrayList<>();
+    for (Member member : fory.getClassResolver().getAllDescriptorsMap(cls, true).keySet()) {
+      if (member instanceof Field && projection.isSelected(member.getName())) {
+        fields.add(new FieldResolver.ClassField((Field) member));
+      }
+    }
+    // duplicated field names are encoded with declaring class, keep consistent with all fields.
+    Set<String> duplicatedFields = Descriptor.getSortedDuplicatedMembers(cls).keySet();
+    return new FieldResolver(fory, cls, false, fields, duplicatedFields);
+  }
+
+  public FieldProjection getProjection() {
+    return projection;
+  }
+
+  /**
+   * Whether unselected fields can be skipped when reading, if not, the object must be read by its
+   * class serializer, then cleared by {@link #clearUnselectedFields}.
+   */
+  public boolean isSkipSupported() {
+    return skipSupported || compatibleSerializer != null;
+  }
+
+  /** Projection only applies to reading, the object is written fully by its class serializer. */
+  @Override
+  public void write(MemoryBuffer buffer, T value) {
+    classResolver.getSerializer(type).write(buffer, value);
+  }
+
+  @Override
+  public T read(MemoryBuffer buffer) {
+    Preconditions.checkArgument(isSkipSupported(), "Skip fields of %s isn't supported", type);
+    if (compatibleSerializer != null) {
+      T obj = compatibleSerializer.read(buffer);
+      applyNestedProjections(obj);
+      return obj;
+    }
+    if (isRecord) {
+      Object[] fieldValues = fieldDefaultValues.clone();
+      readFields(buffer, null, fieldValues);
+      fieldValues = RecordUtils.remapping(recordInfo, fieldValues);
+      try {
+        T obj = (T) constructor.invokeWithArguments(fieldValues);
+        Arrays.fill(recordInfo.getRecordComponents(), null);
+        return obj;
+      } catch (Throwable e) {
+        Platform.throwException(e);
+      }
+    }
+    T obj = newBean();
+    refResolver.reference(obj);
+    readFields(buffer, obj, null);
+    return obj;
+  }
+
+  /** Skip an object written by the class serializer without creating it. */
+  public void skip(MemoryBuffer buffer) {
+    Preconditions.checkArgument(skipSupported, "Skip fields of %s isn't supported", type);
+    readFields(buffer, null, null);
+  }
+
+  // Selected fields are set to `obj`, or `fieldValues` for a record, all fields are skipped if
+  // both are null.
+  private void readFields(MemoryBuffer buffer, T obj, Object[] fieldValues) {
+    Fory fory = this.fory;
+    if (checkClassVersion) {
+      int hash = buffer.readInt32();
+      ObjectSerializer.checkClassVersion(fory, hash, classVersionHash);
+    }
+    boolean skip = obj == null && fieldValues == null;
+    if (!fieldOffsetTable) {
+      readAllFields(buffer, obj, fieldValues);
+      return;
+    }
+    int size = buffer.readInt32();
+    int flags = buffer.readByte();
+    if ((flags & SEQUENTIAL_READ_FLAG) == 0) {
+      if (skip) {
+        buffer.increaseReaderIndex(size);
+      } else {
+        readSelectedFields(buffer, obj, fieldValues, size, flags);
+      }
+    } else {
+      readAllFields(buffer, obj, fieldValues);
+      buffer.increaseReaderIndex(numFields * (flags & FIELD_OFFSET_WIDTH_MASK));
+    }
+  }
+
+  private void readAllFields(MemoryBuffer buffer, T obj, Object[] fieldValues) {
+    // read order: primitive,boxed,final,other,collection,map
+    for (int i = 0; i < finalFields.length; i++) {
+      readFinalField(buffer, obj, fieldValues, i);
+    }
+    for (int i = 0; i < otherFields.length; i++) {
+      readOtherField(buffer, obj, fieldValues, i);
+    }
+    Generics generics = fory.getGenerics();
+    for (int i = 0; i < containerFields.length; i++) {
+      readContainerField(buffer, obj, fieldValues, i, generics);
+    }
+  }
+
+  /** Jump to selected fields by field offset table, other fields are not read. */
+  private void readSelectedFields(
+      MemoryBuffer buffer, T obj, Object[] fieldValues, int size, int flags) {
+    buffer.checkReadableBytes(size);
+    int dataIndex = buffer.readerIndex();
+    int numFields = this.numFields;
+    for (int i = 0; i < finalFields.length; i++) {
+      if (finalSelected[i]) {
+        int offset = getFieldOffset(buffer, dataIndex, size, flags, numFields, i);
+        buffer.readerIndex(dataIndex + offset);
+        readFinalField(buffer, obj, fieldValues, i);
+      }
+    }
+    int fieldIndex = finalFields.length;
+    for (int i = 0; i < otherFields.length; i++, fieldIndex++) {
+      if (otherSelected[i]) {
+        int offset = getFieldOffset(buffer, dataIndex, size, flags, numFields, fieldIndex);
+        buffer.readerIndex(dataIndex + offset);
+        readOtherField(buffer, obj, fieldValues, i);
+      }
+    }
+    Generics generics = fory.getGenerics();
+    for (int i = 0; i < containerFields.length; i++, fieldIndex++) {
+      if (containerSelected[i]) {
+        int offset = getFieldOffset(buffer, dataIndex, size, flags, numFields, fieldIndex);
+        buffer.readerIndex(dataIndex + offset);
+        readContainerField(buffer, obj, fieldValues, i, generics);
+      }
+    }
+    buffer.readerIndex(dataIndex + size);
+  }
+
+  private void readFinalField(MemoryBuffer buffer, T obj, Object[] fieldValues, int index) {
+    Fory fory = this.fory;
+    FinalTypeField fieldInfo = finalFields[index];
+    FieldAccessor fieldAccessor = fieldInfo.fieldAccessor;
+    boolean nullable = fieldInfo.nullable;
+    short classId = fieldInfo.classId;
+    if ((obj == null && fieldValues == null) || !finalSelected[index]) {
+      if (skipPrimitiveFailed(fory, buffer, classId)
+          && skipBasicObjectFailed(fory, buffer, classId, nullable)) {
+        skipFinalField(buffer, index, fieldInfo);
+      }
+    } else if (fieldValues != null) {
+      if (classId >= ClassResolver.PRIMITIVE_BOOLEAN_CLASS_ID
+          && classId <= ClassResolver.PRIMITIVE_DOUBLE_CLASS_ID) {
+        fieldValues[index] = Serializers.readPrimitiveValue(fory, buffer, classId);
+      } else {
+        fieldValues[index] = readFinalFieldValue(buffer, index, fieldInfo);
+      }
+    } else if (readPrimitiveFieldValueFailed(fory, buffer, obj, fieldAccessor, classId)
+        && (nullable
+            ? readBasicNullableObjectFieldValueFailed(fory, buffer, obj, fieldAccessor, classId)
+            : readBasicObjectFieldValueFailed(fory, buffer, obj, fieldAccessor, classId))) {
+      fieldAccessor.putObject(obj, readFinalFieldValue(buffer, index, fieldInfo));
+    }
+  }
+
+  private Object readFinalFieldValue(MemoryBuffer buffer, int index, FinalTypeField fieldInfo) {
+    ProjectedObjectSerializer serializer = finalSerializers[index];
+    if (serializer != null && serializer.skipSupported && isFinal[index]) {
+      return fieldInfo.trackingRef
+          ? binding.readRef(buffer, serializer)
+          : binding.readNullable(buffer, serializer, fieldInfo.nullable);
+    }
+    Object fieldValue =
+        readFinalObjectFieldValue(
+            binding, refResolver, classResolver, fieldInfo, isFinal[index], buffer);
+    clearNestedFields(fieldValue, serializer);
+    return fieldValue;
+  }
+
+  private void readOtherField(MemoryBuffer buffer, T obj, Object[] fieldValues, int index) {
+    GenericTypeField fieldInfo = otherFields[index];
+    if ((obj == null && fieldValues == null) || !otherSelected[index]) {
+      if (!valueSkippable || fieldInfo.trackingRef) {
+        readOtherFieldValue(binding, fieldInfo, buffer);
+      } else if (!fieldInfo.nullable || buffer.readByte() != Fory.NULL_FLAG) {
+        skipFieldValue(buffer, fieldInfo);
+      }
+    } else {
+      Object fieldValue = readOtherFieldValue(binding, fieldInfo, buffer);
+      setFieldValue(obj, fieldValues, finalFields.length + index, fieldInfo, fieldValue);
+    }
+  }
+
+  private void readContainerField(
+      MemoryBuffer buffer, T obj, Object[] fieldValues, int index, Generics generics) {
+    GenericTypeField fieldInfo = containerFields[index];
+    if ((obj == null && fieldValues == null) || !containerSelected[index]) {
+      if (!valueSkippable || fieldInfo.trackingRef) {
+        readContainerFieldValue(binding, generics, fieldInfo, buffer);
+      } else if (!fieldInfo.nullable || buffer.readByte() != Fory.NULL_FLAG) {
+        generics.pushGenericType(fieldInfo.genericType);
+        skipFieldValue(buffer, fieldInfo);
+        generics.popGenericType();
+      }
+    } else {
+      Object fieldValue = readContainerFieldValue(binding, generics, fieldInfo, buffer);
+      int fieldIndex = finalFields.length + otherFields.length + index;
+      setFieldValue(obj, fieldValues, fieldIndex, fieldInfo, fieldValue);
+    }
+  }
+
+  /** Skip a non-null field value written with its class info, see {@link Fory#readNonRef}. */
+  private void skipFieldValue(MemoryBuffer buffer, GenericTypeField fieldInfo) {
+    Serializer serializer =
+        classResolver.readClassInfo(buffer, fieldInfo.classInfoHolder).getSerializer();
+    fory.incDepth(1);
+    skipData(fory, buffer, serializer);
+    fory.incDepth(-1);
+  }
+
+  private void setFieldValue(
+      T obj, Object[] fieldValues, int fieldIndex, GenericTypeField fieldInfo, Object fieldValue) {
+    FieldProjection nested = projection.getNestedProjection(getFieldName(fieldInfo));
+    if (nested != null && fieldValue != null) {
+      clearNestedFields(
+          fieldValue, classResolver.getProjectedSerializer(fieldValue.getClass(), nested));
+    }
+    if (fieldValues != null) {
+      fieldValues[fieldIndex] = fieldValue;
+    } else {
+      fieldInfo.fieldAccessor.putObject(obj, fieldValue);
+    }
+  }
+
+  private void skipFinalField(MemoryBuffer buffer, int index, FinalTypeField fieldInfo) {
+    if (finalSkippable[index] && !fieldInfo.trackingRef) {
+      ProjectedObjectSerializer serializer = skipSerializers[index];
+      if (serializer == null) {
+        // Created lazily to avoid infinite recursion for recursive types.
+        serializer =
+            classResolver.getProjectedSerializer(
+                fieldInfo.classInfo.getCls(), FieldProjection.EMPTY);
+        skipSerializers[index] = serializer;
+      }
+      if (serializer.skipSupported) {
+        if (!fieldInfo.nullable || buffer.readByte() != Fory.NULL_FLAG) {
+          serializer.skip(buffer);
+        }
+        return;
+      }
+    }
+    if (fieldInfo.classInfo == null) {
+      // see `MetaSharedSerializer#read`, type of the field doesn't exist in this process.
+      fory.readRef(buffer, classInfoHolder);
+    } else {
+      readFinalObjectFieldValue(
+          binding, refResolver, classResolver, fieldInfo, isFinal[index], buffer);
+    }
+  }
+
+  private static void clearNestedFields(Object fieldValue, ProjectedObjectSerializer serializer) {
+    if (fieldValue != null && serializer != null && fieldValue.getClass() == serializer.type) {
+      serializer.clearUnselectedFields(fieldValue);
+    }
+  }
+
+  /**
+   * Set unselected fields of <code>obj</code> which is read fully to default values, nested
+   * projections are applied to selected field values recursively.
+   */
+  public void clearUnselectedFields(Object obj) {
+    if (isRecord) {
+      // record fields are immutable.
+      return;
+    }
+    FieldAccessor[] unselectedFields = this.unselectedFields;
+    for (int i = 0; i < unselectedFields.length; i++) {
+      FieldAccessor fieldAccessor = unselectedFields[i];
+      if (defaultValues[i] != null) {
+        fieldAccessor.set(obj, defaultValues[i]);
+      } else {
+        fieldAccessor.putObject(obj, null);
+      }
+    }
+    applyNestedProjections(obj);
+  }
+
+  private void applyNestedProjections(Object obj) {
+    ClassResolver classResolver = this.classResolver;
+    for (int i = 0; i < nestedFields.length; i++) {
+      Object value = nestedFields[i].getObject(obj);
+      if (value != null) {
+        classResolver
+            .getProjectedSerializer(value.getClass(), nestedProjections[i])
+            .clearUnselectedFields(value);
+      }
+    }
+  }
+
+  /**
+   * Skip a value written by <code>serializer</code> without ref and null flags. Strings and boxed
+   * values are skipped by their encoded size, schema-consistent beans are skipped field by field,
+   * elements of collections and maps are skipped one by one without being created, other values are
+   * read and discarded. This must only be called when reference tracking is disabled, so that no
+   * skipped object can be referenced by later data.
+   */
+  public static void skipData(Fory fory, MemoryBuffer buffer, Serializer serializer) {
+    if (serializer instanceof StringSerializer) {
+      ((StringSerializer) serializer).skipJavaString(buffer);
+      return;
+    }
+    if (!skipPrimitiveFailed(fory, buffer, getPrimitiveClassId(serializer))) {
+      return;
+    }
+    if (isStructSerializer(serializer)) {
+      ProjectedObjectSerializer projectedSerializer =
+          fory.getClassResolver()
+              .getProjectedSerializer(serializer.getType(), FieldProjection.EMPTY);
+      if (projectedSerializer.skipSupported) {
+        projectedSerializer.skip(buffer);
+      } else {
+        serializer.read(buffer);
+      }
+    } else if (serializer instanceof AbstractCollectionSerializer
+        && ((AbstractCollectionSerializer) serializer).supportCodegenHook()) {
+      ((AbstractCollectionSerializer) serializer).skip(buffer);
+    } else if (serializer instanceof AbstractMapSerializer
+        && ((AbstractMapSerializer) serializer).supportCodegenHook()) {
+      ((AbstractMapSerializer) serializer).skip(buffer);
+    } else {
+      serializer.read(buffer);
+    }
+  }
+
+  /** Returns primitive class id of values written by <code>serializer</code>. */
+  private static short getPrimitiveClassId(Serializer serializer) {
+    Class<?> cls = serializer.getClass();
+    if (cls == PrimitiveSerializers.IntSerializer.class) {
+      return ClassResolver.PRIMITIVE_INT_CLASS_ID;
+    } else if (cls == PrimitiveSerializers.LongSerializer.class) {
+      return ClassResolver.PRIMITIVE_LONG_CLASS_ID;
+    } else if (cls == PrimitiveSerializers.DoubleSerializer.class) {
+      return ClassResolver.PRIMITIVE_DOUBLE_CLASS_ID;
+    } else if (cls == PrimitiveSerializers.FloatSerializer.class) {
+      return ClassResolver.PRIMITIVE_FLOAT_CLASS_ID;
+    } else if (cls == PrimitiveSerializers.ShortSerializer.class) {
+      return ClassResolver.PRIMITIVE_SHORT_CLASS_ID;
+    } else if (cls == PrimitiveSerializers.ByteSerializer.class) {
+      return ClassResolver.PRIMITIVE_BYTE_CLASS_ID;
+    } else if (cls == PrimitiveSerializers.BooleanSerializer.class) {
+      return ClassResolver.PRIMITIVE_BOOLEAN_CLASS_ID;
+    } else if (cls == PrimitiveSerializers.CharSerializer.class) {
+      return ClassResolver.PRIMITIVE_CHAR_CLASS_ID;
+    }
+    return ClassResolver.NO_CLASS_ID;
+  }
+
+  private static boolean skipPrimitiveFailed(Fory fory, MemoryBuffer buffer, short classId) {
+    switch (classId) {
+      case ClassResolver.PRIMITIVE_BOOLEAN_CLASS_ID:
+      case ClassResolver.PRIMITIVE_BYTE_CLASS_ID:
+        buffer.increaseReaderIndex(1);
+        return false;
+      case ClassResolver.PRIMITIVE_CHAR_CLASS_ID:
+      case ClassResolver.PRIMITIVE_SHORT_CLASS_ID:
+        buffer.increaseReaderIndex(2);
+        return false;
+      case ClassResolver.PRIMITIVE_INT_CLASS_ID:
+        if (fory.compressInt()) {
+          buffer.readVarInt32();
+        } else {
+          buffer.increaseReaderIndex(4);
+        }
+        return false;
+      case ClassResolver.PRIMITIVE_FLOAT_CLASS_ID:
+        buffer.increaseReaderIndex(4);
+        return false;
+      case ClassResolver.PRIMITIVE_LONG_CLASS_ID:
+        fory.readInt64(buffer);
+        return false;
+      case ClassResolver.PRIMITIVE_DOUBLE_CLASS_ID:
+        buffer.increaseReaderIndex(8);
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Skip a boxed or string field value, the format is consistent with {@link
+   * #readBasicObjectFieldValueFailed} and {@link #readBasicNullableObjectFieldValueFailed}.
+   */
+  private static boolean skipBasicObjectFailed(
+      Fory fory, MemoryBuffer buffer, short classId, boolean nullable) {
+    if (!fory.isBasicTypesRefIgnored()) {
+      return true;
+    }
+    switch (classId) {
+      case ClassResolver.STRING_CLASS_ID:
+        StringSerializer stringSerializer = fory.getStringSerializer();
+        if (stringSerializer.needToWriteRef()) {
+          fory.readJavaStringRef(buffer);
+        } else if (!nullable || buffer.readByte() != Fory.NULL_FLAG) {
+          stringSerializer.skipJavaString(buffer);
+        }
+        return false;
+      case ClassResolver.BOOLEAN_CLASS_ID:
+      case ClassResolver.BYTE_CLASS_ID:
+      case ClassResolver.CHAR_CLASS_ID:
+      case ClassResolver.SHORT_CLASS_ID:
+      case ClassResolver.INTEGER_CLASS_ID:
+      case ClassResolver.FLOAT_CLASS_ID:
+      case ClassResolver.LONG_CLASS_ID:
+      case ClassResolver.DOUBLE_CLASS_ID:
+        if (!nullable || buffer.readByte() != Fory.NULL_FLAG) {
+          short primitiveClassId =
+              (short)
+                  (classId
+                      - ClassResolver.BOOLEAN_CLASS_ID
+                      + ClassResolver.PRIMITIVE_BOOLEAN_CLASS_ID);
+          skipPrimitiveFailed(fory, buffer, primitiveClassId);
+        }
+        return false;
+      default:
+        return true;
+    }
+  }
+}
@@ -46,6 +46,7 @@ import org.apache.fory.util.MathUtils;
 import org.apache.fory.util.Preconditions;
 import org.apache.fory.util.StringEncodingUtils;
 import org.apache.fory.util.StringUtils;
+import org.apache.fory.util.VectorizedOps;
 import org.apache.fory.util.unsafe._JDKAccess;
 
 /**
@@ -66,6 +67,7 @@ public final class StringSerializer extends ImmutableSerializer<String> {
   private static final Byte UTF16_BOXED = UTF16;
   private static final byte UTF8 = 2;
   private static final int DEFAULT_BUFFER_SIZE = 1024;
+  private static final VectorizedOps VECTORIZED_OPS = VectorizedOps.get();
 
   // Make offset compatible with graalvm native image.
   private static final long STRING_VALUE_FIELD_OFFSET;
@@ -291,6 +293,17 @@ public final class StringSerializer extends ImmutableSerializer<String> {
     }
   }
 
+  /** Skip a string written by {@link #writeJavaString} without decoding it. */
+  public void skipJavaString(MemoryBuffer buffer) {
+    long header = buffer.readVarUint36Small();
+    int numBytes = (int) (header >>> 2);
+    if (compressString && (header & 0b11) == UTF8 && writeNumUtf16BytesForUtf8Encoding) {
+      // `numBytes` is number of utf16 bytes, followed by number of utf8 bytes.
+      numBytes = buffer.readInt32();
+    }
+    buffer.increaseReaderIndex(numBytes);
+  }
+
   @CodegenInvoke
   public void writeCompressedBytesString(MemoryBuffer buffer, String value) {
     final byte[] bytes = (byte[]) Platform.getObject(value, STRING_VALUE_FIELD_OFFSET);
@@ -926,6 +939,9 @@ public final class StringSerializer extends ImmutableSerializer<String> {
     int numBytes = bytes.length;
     // sample 64 chars
     int sampleNum = Math.min(64 << 1, numBytes);
+    if (VECTORIZED_OPS != null) {
+      return VECTORIZED_OPS.countAsciiUTF16(bytes, 0, sampleNum) >= sampleNum * 0.5 ? UTF8 : UTF16;
+    }
     int vectorizedLen = sampleNum >> 3;
     int vectorizedBytes = vectorizedLen << 3;
     int endOffset = Platform.BYTE_ARRAY_OFFSET + vectorizedBytes;
@@ -944,7 +960,7 @@ public final class StringSerializer extends ImmutableSerializer<String> {
         }
       }
     }
-    for (int i = vectorizedBytes; vectorizedBytes < sampleNum; vectorizedBytes += 2) {
+    for (int i = vectorizedBytes; i < sampleNum; i += 2) {
       if (Platform.getChar(bytes, Platform.BYTE_ARRAY_OFFSET + i) < 0x80) {
         asciiCount++;
       }
@@ -31,6 +31,7 @@ import org.apache.fory.resolver.ClassResolver;
 import org.apache.fory.resolver.RefResolver;
 import org.apache.fory.resolver.TypeResolver;
 import org.apache.fory.serializer.CompatibleSerializer;
+import org.apache.fory.serializer.ProjectedObjectSerializer;
 import org.apache.fory.serializer.Serializer;
 import org.apache.fory.type.GenericType;
 import org.apache.fory.util.Preconditions;
@@ -415,8 +416,13 @@ public abstract class AbstractCollectionSerializer<T> extends Serializer<T> {
       }
     } else {
       if ((flags & CollectionFlags.HAS_NULL) != CollectionFlags.HAS_NULL) {
-        for (Object elem : collection) {
-          binding.write(buffer, serializer, elem);
+        int primitiveType = PrimitiveElements.getPrimitiveType(fory, serializer);
+        if (primitiveType != PrimitiveElements.NONE) {
+          PrimitiveElements.write(fory, buffer, primitiveType, collection);
+        } else {
+          for (Object elem : collection) {
+            binding.write(buffer, serializer, elem);
+          }
         }
       } else {
         for (Object elem : collection) {
@@ -669,8 +675,13 @@ public abstract class AbstractCollectionSerializer<T> extends Serializer<T> {
       }
     } else {
       if ((flags & CollectionFlags.HAS_NULL) != CollectionFlags.HAS_NULL) {
-        for (int i = 0; i < numElements; i++) {
-          collection.add(binding.read(buffer, serializer));
+        int primitiveType = PrimitiveElements.getPrimitiveType(fory, serializer);
+        if (primitiveType != PrimitiveElements.NONE) {
+          PrimitiveElements.read(fory, buffer, primitiveType, collection, numElements);
+        } else {
+          for (int i = 0; i < numElements; i++) {
+            collection.add(binding.read(buffer, serializer));
+          }
         }
       } else {
         for (int i = 0; i < numElements; i++) {
@@ -710,6 +721,101 @@ public abstract class AbstractCollectionSerializer<T> extends Serializer<T> {
     }
   }
 
+  /**
+   * Skip a collection written by {@link #write} without adding its elements to a collection,
+   * elements are skipped by {@link ProjectedObjectSerializer#skipData}. Only an empty collection is
+   * created by {@link #newCollection(MemoryBuffer)} to read the collection header. This must only
+   * be called if {@link #supportCodegenHook} is true and reference tracking is disabled.
+   */
+  public void skip(MemoryBuffer buffer) {
+    Preconditions.checkArgument(supportCodegenHook, "Skip %s isn't supported", type);
+    newCollection(buffer);
+    int numElements = getAndClearNumElements();
+    if (numElements != 0) {
+      skipElements(fory, buffer, numElements);
+    }
+  }
+
+  private void skipElements(Fory fory, MemoryBuffer buffer, int numElements) {
+    int flags = buffer.readByte();
+    Serializer serializer = this.elemSerializer;
+    this.elemSerializer = null;
+    if (serializer != null) {
+      // Code path for `CompatibleSerializer`, see `compatibleRead`.
+      if (serializer.needToWriteRef()) {
+        for (int i = 0; i < numElements; i++) {
+          binding.readRef(buffer, serializer);
+        }
+      } else {
+        skipSameTypeElements(
+            fory, buffer, serializer, flags & CollectionFlags.HAS_NULL, numElements);
+      }
+      return;
+    }
+    GenericType elemGenericType = getElementGenericType(fory);
+    boolean hasGenericParameters =
+        elemGenericType != null && elemGenericType.hasGenericParameters();
+    if (hasGenericParameters) {
+      fory.getGenerics().pushGenericType(elemGenericType);
+    }
+    if (elemGenericType != null && elemGenericType.isMonomorphic()) {
+      serializer = elemGenericType.getSerializer(typeResolver);
+    } else if ((flags & CollectionFlags.NOT_SAME_TYPE) != CollectionFlags.NOT_SAME_TYPE) {
+      if ((flags & CollectionFlags.NOT_DECL_ELEMENT_TYPE)
+          == CollectionFlags.NOT_DECL_ELEMENT_TYPE) {
+        serializer = typeResolver.readClassInfo(buffer, elementClassInfoHolder).getSerializer();
+      } else {
+        serializer = elemGenericType.getSerializer(typeResolver);
+      }
+    }
+    if (serializer != null) {
+      skipSameTypeElements(fory, buffer, serializer, flags, numElements);
+    } else {
+      skipDifferentTypeElements(fory, buffer, flags, numElements);
+    }
+    if (hasGenericParameters) {
+      fory.getGenerics().popGenericType();
+    }
+  }
+
+  private void skipSameTypeElements(
+      Fory fory, MemoryBuffer buffer, Serializer serializer, int flags, int numElements) {
+    fory.incDepth(1);
+    if ((flags & CollectionFlags.TRACKING_REF) == CollectionFlags.TRACKING_REF) {
+      for (int i = 0; i < numElements; i++) {
+        binding.readRef(buffer, serializer);
+      }
+    } else {
+      boolean hasNull = (flags & CollectionFlags.HAS_NULL) == CollectionFlags.HAS_NULL;
+      for (int i = 0; i < numElements; i++) {
+        if (!hasNull || buffer.readByte() != Fory.NULL_FLAG) {
+          ProjectedObjectSerializer.skipData(fory, buffer, serializer);
+        }
+      }
+    }
+    fory.incDepth(-1);
+  }
+
+  private void skipDifferentTypeElements(
+      Fory fory, MemoryBuffer buffer, int flags, int numElements) {
+    if ((flags & CollectionFlags.TRACKING_REF) == CollectionFlags.TRACKING_REF) {
+      for (int i = 0; i < numElements; i++) {
+        binding.readRef(buffer);
+      }
+    } else {
+      boolean hasNull = (flags & CollectionFlags.HAS_NULL) == CollectionFlags.HAS_NULL;
+      for (int i = 0; i < numElements; i++) {
+        if (!hasNull || buffer.readByte() != Fory.NULL_FLAG) {
+          Serializer serializer =
+              typeResolver.readClassInfo(buffer, elementClassInfoHolder).getSerializer();
+          fory.incDepth(1);
+          ProjectedObjectSerializer.skipData(fory, buffer, serializer);
+          fory.incDepth(-1);
+        }
+      }
+    }
+  }
+
   @Override
   public T xread(MemoryBuffer buffer) {
     return read(buffer);
@@ -48,10 +48,12 @@ import org.apache.fory.resolver.ClassInfo;
 import org.apache.fory.resolver.ClassInfoHolder;
 import org.apache.fory.resolver.RefResolver;
 import org.apache.fory.resolver.TypeResolver;
+import org.apache.fory.serializer.ProjectedObjectSerializer;
 import org.apache.fory.serializer.Serializer;
 import org.apache.fory.type.GenericType;
 import org.apache.fory.type.Generics;
 import org.apache.fory.type.TypeUtils;
+import org.apache.fory.util.Preconditions;
 
 /** Serializer for all map-like objects. */
 @SuppressWarnings({"unchecked", "rawtypes"})
@@ -359,6 +361,9 @@ public abstract class AbstractMapSerializer<T> extends Serializer<T> {
     // place holder for chunk header and size.
     buffer.writeInt16((short) -1);
     int chunkSizeOffset = buffer.writerIndex() - 1;
+    // keep chunk header in buffer until patched for streaming writer.
+    int pinnedIndex =
+        buffer.getStreamWriter() == null ? -1 : buffer.pinWriterIndex(chunkSizeOffset - 1);
     int chunkHeader = 0;
     if (keySerializer != null) {
       chunkHeader |= KEY_DECL_TYPE;
@@ -411,6 +416,9 @@ public abstract class AbstractMapSerializer<T> extends Serializer<T> {
       }
     }
     buffer.putByte(chunkSizeOffset, (byte) chunkSize);
+    if (pinnedIndex >= 0) {
+      buffer.unpinWriterIndex(pinnedIndex);
+    }
     return entry;
   }
 
@@ -470,6 +478,9 @@ public abstract class AbstractMapSerializer<T> extends Serializer<T> {
     // place holder for chunk header and size.
     buffer.writeInt16((short) -1);
     int chunkSizeOffset = buffer.writerIndex() - 1;
+    // keep chunk header in buffer until patched for streaming writer.
+    int pinnedIndex =
+        buffer.getStreamWriter() == null ? -1 : buffer.pinWriterIndex(chunkSizeOffset - 1);
     int chunkHeader = 0;
     // noinspection Duplicates
     if (keyGenericTypeFinal) {
@@ -532,6 +543,9 @@ public abstract class AbstractMapSerializer<T> extends Serializer<T> {
       }
     }
     buffer.putByte(chunkSizeOffset, (byte) chunkSize);
+    if (pinnedIndex >= 0) {
+      buffer.unpinWriterIndex(pinnedIndex);
+    }
     return entry;
   }
 
@@ -905,6 +919,164 @@ public abstract class AbstractMapSerializer<T> extends Serializer<T> {
     return size > 0 ? (size << 8) | buffer.readUnsignedByte() : 0;
   }
 
+  /**
+   * Skip a map written by {@link #write} without putting its entries to a map, keys and values are
+   * skipped by {@link ProjectedObjectSerializer#skipData}. Only an empty map is created by {@link
+   * #newMap(MemoryBuffer)} to read the map header. This must only be called if {@link
+   * #supportCodegenHook} is true and reference tracking is disabled.
+   */
+  public void skip(MemoryBuffer buffer) {
+    Preconditions.checkArgument(supportCodegenHook, "Skip %s isn't supported", type);
+    newMap(buffer);
+    long size = getAndClearNumElements();
+    Serializer keySerializer = this.keySerializer;
+    Serializer valueSerializer = this.valueSerializer;
+    this.keySerializer = null;
+    this.valueSerializer = null;
+    int chunkHeader = 0;
+    if (size != 0) {
+      chunkHeader = buffer.readUnsignedByte();
+    }
+    while (size > 0) {
+      long sizeAndHeader = skipNullChunk(buffer, chunkHeader, size, keySerializer, valueSerializer);
+      chunkHeader = (int) (sizeAndHeader & 0xff);
+      size = sizeAndHeader >>> 8;
+      if (size == 0) {
+        break;
+      }
+      GenericType genericType = null;
+      if (keySerializer == null && valueSerializer == null) {
+        genericType = fory.getGenerics().nextGenericType();
+        if (genericType != null && genericType.getTypeParametersCount() < 2) {
+          genericType = getKVGenericType(genericType);
+        }
+      }
+      sizeAndHeader =
+          skipChunk(buffer, size, chunkHeader, keySerializer, valueSerializer, genericType);
+      chunkHeader = (int) (sizeAndHeader & 0xff);
+      size = sizeAndHeader >>> 8;
+    }
+  }
+
+  private long skipNullChunk(
+      MemoryBuffer buffer,
+      int chunkHeader,
+      long size,
+      Serializer keySerializer,
+      Serializer valueSerializer) {
+    while (true) {
+      boolean keyHasNull = (chunkHeader & KEY_HAS_NULL) != 0;
+      boolean valueHasNull = (chunkHeader & VALUE_HAS_NULL) != 0;
+      if (!keyHasNull) {
+        if (!valueHasNull) {
+          return (size << 8) | chunkHeader;
+        }
+        if ((chunkHeader & KEY_DECL_TYPE) != 0) {
+          skipDeclaredValue(buffer, keySerializer, (chunkHeader & TRACKING_KEY_REF) != 0, true);
+        } else {
+          binding.readRef(buffer, keyClassInfoReadCache);
+        }
+      } else if (!valueHasNull) {
+        if ((chunkHeader & VALUE_DECL_TYPE) != 0) {
+          skipDeclaredValue(
+              buffer, valueSerializer, (chunkHeader & TRACKING_VALUE_REF) != 0, false);
+        } else {
+          binding.readRef(buffer, valueClassInfoReadCache);
+        }
+      }
+      if (--size == 0) {
+        return 0;
+      } else {
+        chunkHeader = buffer.readUnsignedByte();
+      }
+    }
+  }
+
+  /** Skip a key or value of a null chunk, see {@link #readNonEmptyValueFromNullChunk}. */
+  private void skipDeclaredValue(
+      MemoryBuffer buffer, Serializer serializer, boolean trackRef, boolean isKey) {
+    if (serializer != null) {
+      skipValue(buffer, serializer, trackRef, null);
+      return;
+    }
+    GenericType genericType = fory.getGenerics().nextGenericType();
+    if (genericType.getTypeParametersCount() < 2) {
+      genericType = getKVGenericType(genericType);
+    }
+    GenericType type = isKey ? genericType.getTypeParameter0() : genericType.getTypeParameter1();
+    skipValue(buffer, type.getSerializer(typeResolver), trackRef, type);
+  }
+
+  private long skipChunk(
+      MemoryBuffer buffer,
+      long size,
+      int chunkHeader,
+      Serializer keySerializer,
+      Serializer valueSerializer,
+      GenericType genericType) {
+    boolean trackKeyRef = (chunkHeader & TRACKING_KEY_REF) != 0;
+    boolean trackValueRef = (chunkHeader & TRACKING_VALUE_REF) != 0;
+    int chunkSize = buffer.readUnsignedByte();
+    GenericType keyGenericType = null;
+    GenericType valueGenericType = null;
+    if (genericType != null) {
+      keyGenericType = genericType.getTypeParameter0();
+      valueGenericType = genericType.getTypeParameter1();
+    }
+    if ((chunkHeader & KEY_DECL_TYPE) == 0) {
+      keySerializer = typeResolver.readClassInfo(buffer, keyClassInfoReadCache).getSerializer();
+    } else if (keyGenericType != null) {
+      keySerializer = keyGenericType.getSerializer(typeResolver);
+    }
+    if ((chunkHeader & VALUE_DECL_TYPE) == 0) {
+      valueSerializer = typeResolver.readClassInfo(buffer, valueClassInfoReadCache).getSerializer();
+    } else if (valueGenericType != null) {
+      valueSerializer = valueGenericType.getSerializer(typeResolver);
+    }
+    // see `readJavaChunkGeneric`, generics are pushed only if key or value is generic, otherwise
+    // depth is increased to avoid reading wrong outer generic type.
+    boolean increaseDepth = false;
+    if (genericType != null
+        && !keyGenericType.hasGenericParameters()
+        && !valueGenericType.hasGenericParameters()) {
+      keyGenericType = null;
+      valueGenericType = null;
+      increaseDepth = true;
+      fory.incDepth(1);
+    }
+    for (int i = 0; i < chunkSize; i++) {
+      skipValue(buffer, keySerializer, trackKeyRef, keyGenericType);
+      skipValue(buffer, valueSerializer, trackValueRef, valueGenericType);
+    }
+    if (increaseDepth) {
+      fory.incDepth(-1);
+    }
+    size -= chunkSize;
+    return size > 0 ? (size << 8) | buffer.readUnsignedByte() : 0;
+  }
+
+  private void skipValue(
+      MemoryBuffer buffer, Serializer serializer, boolean trackRef, GenericType genericType) {
+    if (genericType == null) {
+      if (trackRef) {
+        binding.readRef(buffer, serializer);
+      } else {
+        ProjectedObjectSerializer.skipData(fory, buffer, serializer);
+      }
+      return;
+    }
+    Generics generics = fory.getGenerics();
+    generics.pushGenericType(genericType);
+    fory.incDepth(1);
+    if (trackRef) {
+      binding.readRef(buffer, serializer);
+    } else {
+      ProjectedObjectSerializer.skipData(fory, buffer, serializer);
+    }
+    fory.incDepth(-1);
+    generics.popGenericType();
+  }
+
   /**
    * Hook for java serialization codegen, read/write key/value by entrySet.
    *
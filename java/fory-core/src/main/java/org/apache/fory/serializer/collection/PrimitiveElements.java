@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.serializer.collection;
+
+import java.util.Collection;
+import org.apache.fory.Fory;
+import org.apache.fory.config.LongEncoding;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.serializer.PrimitiveSerializers;
+import org.apache.fory.serializer.PrimitiveSerializers.LongSerializer;
+import org.apache.fory.serializer.Serializer;
+
+/**
+ * Read/write boxed primitive elements of a collection without null and ref flags in a tight loop,
+ * instead of dispatching every element to its serializer. Elements are written in the same format
+ * as the serializers of boxed types, so the data is a packed primitive array: fixed-width types are
+ * written as little-endian values, and int/long are written by the configured number compression.
+ */
+final class PrimitiveElements {
+  static final int NONE = 0;
+  static final int BOOLEAN = 1;
+  static final int BYTE = 2;
+  static final int CHAR = 3;
+  static final int SHORT = 4;
+  static final int INT = 5;
+  static final int LONG = 6;
+  static final int FLOAT = 7;
+  static final int DOUBLE = 8;
+
+  /**
+   * Returns the primitive type of elements written by <code>serializer</code>, or {@link #NONE}.
+   */
+  static int getPrimitiveType(Fory fory, Serializer serializer) {
+    if (fory.isCrossLanguage()) {
+      return NONE;
+    }
+    Class<?> cls = serializer.getClass();
+    if (cls == PrimitiveSerializers.IntSerializer.class) {
+      return INT;
+    } else if (cls == PrimitiveSerializers.LongSerializer.class) {
+      return LONG;
+    } else if (cls == PrimitiveSerializers.DoubleSerializer.class) {
+      return DOUBLE;
+    } else if (cls == PrimitiveSerializers.FloatSerializer.class) {
+      return FLOAT;
+    } else if (cls == PrimitiveSerializers.ShortSerializer.class) {
+      return SHORT;
+    } else if (cls == PrimitiveSerializers.ByteSerializer.class) {
+      return BYTE;
+    } else if (cls == PrimitiveSerializers.BooleanSerializer.class) {
+      return BOOLEAN;
+    } else if (cls == PrimitiveSerializers.CharSerializer.class) {
+      return CHAR;
+    }
+    return NONE;
+  }
+
+  /** Write non-null elements of <code>primitiveType</code>. */
+  static void write(Fory fory, MemoryBuffer buffer, int primitiveType, Collection<?> collection) {
+    switch (primitiveType) {
+      case INT:
+        if (fory.compressInt()) {
+          for (Object elem : collection) {
+            buffer.writeVarInt32((Integer) elem);
+          }
+        } else {
+          for (Object elem : collection) {
+            buffer.writeInt32((Integer) elem);
+          }
+        }
+        break;
+      case LONG:
+        LongEncoding longEncoding = fory.longEncoding();
+        for (Object elem : collection) {
+          LongSerializer.writeInt64(buffer, (Long) elem, longEncoding);
+        }
+        break;
+      case DOUBLE:
+        for (Object elem : collection) {
+          buffer.writeFloat64((Double) elem);
+        }
+        break;
+      case FLOAT:
+        for (Object elem : collection) {
+          buffer.writeFloat32((Float) elem);
+        }
+        break;
+      case SHORT:
+        for (Object elem : collection) {
+          buffer.writeInt16((Short) elem);
+        }
+        break;
+      case BYTE:
+        for (Object elem : collection) {
+          buffer.writeByte((Byte) elem);
+        }
+        break;
+      case BOOLEAN:
+        for (Object elem : collection) {
+          buffer.writeBoolean((Boolean) elem);
+        }
+        break;
+      case CHAR:
+        for (Object elem : collection) {
+          buffer.writeChar((Character) elem);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported primitive type " + primitiveType);
+    }
+  }
+
+  /** Read <code>numElements</code> non-null elements of <code>primitiveType</code>. */
+  static void read(
+      Fory fory,
+      MemoryBuffer buffer,
+      int primitiveType,
+      Collection<Object> collection,
+      int numElements) {
+    switch (primitiveType) {
+      case INT:
+        if (fory.compressInt()) {
+          for (int i = 0; i < numElements; i++) {
+            collection.add(buffer.readVarInt32());
+          }
+        } else {
+          for (int i = 0; i < numElements; i++) {
+            collection.add(buffer.readInt32());
+          }
+        }
+        break;
+      case LONG:
+        LongEncoding longEncoding = fory.longEncoding();
+        for (int i = 0; i < numElements; i++) {
+          collection.add(LongSerializer.readInt64(buffer, longEncoding));
+        }
+        break;
+      case DOUBLE:
+        for (int i = 0; i < numElements; i++) {
+          collection.add(buffer.readFloat64());
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < numElements; i++) {
+          collection.add(buffer.readFloat32());
+        }
+        break;
+      case SHORT:
+        for (int i = 0; i < numElements; i++) {
+          collection.add(buffer.readInt16());
+        }
+        break;
+      case BYTE:
+        for (int i = 0; i < numElements; i++) {
+          collection.add(buffer.readByte());
+        }
+        break;
+      case BOOLEAN:
+        for (int i = 0; i < numElements; i++) {
+          collection.add(buffer.readBoolean());
+        }
+        break;
+      case CHAR:
+        for (int i = 0; i < numElements; i++) {
+          collection.add(buffer.readChar());
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported primitive type " + primitiveType);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.zip.Checksum;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.memory.Platform;
+
+/**
+ * CRC32C (Castagnoli) checksum. `java.util.zip.CRC32C` is used on JDK 9+, which is intrinsified by
+ * the jvm with hardware instructions such as SSE4.2 `crc32` and ARMv8 `crc32c`. A table based java
+ * implementation is used on JDK 8, which produces the same checksum.
+ */
+public final class Crc32C {
+  private static final int POLY = 0x82F63B78;
+  private static final int[] TABLE = new int[256];
+  private static final MethodHandle JDK_CRC32C_CTR;
+  private static final int COPY_BUFFER_SIZE = 8192;
+
+  static {
+    for (int i = 0; i < 256; i++) {
+      int crc = i;
+      for (int j = 0; j < 8; j++) {
+        crc = (crc & 1) != 0 ? (crc >>> 1) ^ POLY : crc >>> 1;
+      }
+      TABLE[i] = crc;
+    }
+    MethodHandle ctr = null;
+    if (Platform.JAVA_VERSION >= 9) {
+      try {
+        Class<?> cls = Class.forName("java.util.zip.CRC32C");
+        ctr =
+            MethodHandles.publicLookup()
+                .findConstructor(cls, MethodType.methodType(void.class))
+                .asType(MethodType.methodType(Checksum.class));
+      } catch (ReflectiveOperationException e) {
+        ExceptionUtils.ignore(e);
+      }
+    }
+    JDK_CRC32C_CTR = ctr;
+  }
+
+  /** Returns CRC32C of <code>bytes[offset, offset + length)</code>. */
+  public static int compute(byte[] bytes, int offset, int length) {
+    if (JDK_CRC32C_CTR != null) {
+      Checksum checksum = newJdkChecksum();
+      checksum.update(bytes, offset, length);
+      return (int) checksum.getValue();
+    }
+    return ~update(~0, bytes, offset, length);
+  }
+
+  /** Returns CRC32C of <code>length</code> bytes in <code>buffer</code> starting from index. */
+  public static int compute(MemoryBuffer buffer, int index, int length) {
+    byte[] heapMemory = buffer.getHeapMemory();
+    if (heapMemory != null) {
+      int heapOffset = buffer._unsafeHeapReaderIndex() - buffer.readerIndex();
+      return compute(heapMemory, heapOffset + index, length);
+    }
+    // Off-heap data is copied in chunks since `Checksum.update(ByteBuffer)` requires JDK 9+.
+    byte[] chunk = new byte[Math.min(length, COPY_BUFFER_SIZE)];
+    Checksum checksum = JDK_CRC32C_CTR != null ? newJdkChecksum() : null;
+    int crc = ~0;
+    for (int end = index + length; index < end; ) {
+      int len = Math.min(chunk.length, end - index);
+      buffer.get(index, chunk, 0, len);
+      if (checksum != null) {
+        checksum.update(chunk, 0, len);
+      } else {
+        crc = update(crc, chunk, 0, len);
+      }
+      index += len;
+    }
+    return checksum != null ? (int) checksum.getValue() : ~crc;
+  }
+
+  private static Checksum newJdkChecksum() {
+    try {
+      return (Checksum) JDK_CRC32C_CTR.invokeExact();
+    } catch (Throwable t) {
+      throw new IllegalStateException(t);
+    }
+  }
+
+  private static int update(int crc, byte[] bytes, int offset, int length) {
+    int[] table = TABLE;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      crc = (crc >>> 8) ^ table[(crc ^ bytes[i]) & 0xff];
+    }
+    return crc;
+  }
+}
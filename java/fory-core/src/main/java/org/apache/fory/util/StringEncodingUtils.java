@@ -25,6 +25,7 @@ import org.apache.fory.memory.Platform;
 
 /** String Encoding Utils. */
 public class StringEncodingUtils {
+  private static final VectorizedOps VECTORIZED_OPS = VectorizedOps.get();
 
   /** A fast convert algorithm to convert an utf16 char array into an utf8 byte array. */
   public static int convertUTF16ToUTF8(char[] src, byte[] dst, int dp) {
@@ -73,6 +74,15 @@ public class StringEncodingUtils {
           && (Platform.getLong(src, Platform.BYTE_ARRAY_OFFSET + offset)
                   & MULTI_CHARS_NON_ASCII_MASK)
               == 0) {
+        if (VECTORIZED_OPS != null) {
+          int numChars =
+              VECTORIZED_OPS.compressAsciiUTF16(src, offset, dst, dp, (numBytes - offset) >> 1);
+          if (numChars > 0) {
+            dp += numChars;
+            offset += numChars << 1;
+            continue;
+          }
+        }
         // ascii only
         if (Platform.IS_LITTLE_ENDIAN) {
           dst[dp] = src[offset];
@@ -128,6 +138,14 @@ public class StringEncodingUtils {
       if (offset + 8 <= end
           && (Platform.getLong(src, Platform.BYTE_ARRAY_OFFSET + offset) & 0x8080808080808080L)
               == 0) {
+        if (VECTORIZED_OPS != null) {
+          int numBytes = VECTORIZED_OPS.inflateAsciiUTF16(src, offset, dst, dp, end - offset);
+          if (numBytes > 0) {
+            dp += numBytes << 1;
+            offset += numBytes;
+            continue;
+          }
+        }
         // ascii only
         if (Platform.IS_LITTLE_ENDIAN) {
           dst[dp] = src[offset];
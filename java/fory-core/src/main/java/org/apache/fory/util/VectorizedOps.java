@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.util;
+
+import org.apache.fory.annotation.Internal;
+import org.apache.fory.logging.Logger;
+import org.apache.fory.logging.LoggerFactory;
+import org.apache.fory.memory.Platform;
+
+/**
+ * Bulk operations accelerated by SIMD instructions. The implementation is provided by the
+ * `fory-simd` module based on the incubating JDK vector api, which is used only when the module is
+ * in classpath, jvm runs on JDK 17+ with `--add-modules jdk.incubator.vector`, and system property
+ * `fory.vectorized_ops` is not `false`. Otherwise {@link #get} returns null and callers keep using
+ * their scalar code.
+ *
+ * <p>Operations only process the leading elements of the input which can be handled in a vectorized
+ * way, and return the number of processed elements, callers must process the left elements by
+ * scalar code. Operations never write the destination array out of the processed range.
+ */
+@Internal
+public interface VectorizedOps {
+
+  /**
+   * Returns the number of ascii chars in a utf16 byte array.
+   *
+   * @param numBytes number of bytes to check, must be even.
+   */
+  int countAsciiUTF16(byte[] src, int offset, int numBytes);
+
+  /**
+   * Compresses the leading ascii chars in a little-endian utf16 byte array into <code>dst</code>.
+   *
+   * @param numChars max number of chars to compress.
+   * @return number of chars compressed.
+   */
+  int compressAsciiUTF16(byte[] src, int srcOffset, byte[] dst, int dstOffset, int numChars);
+
+  /**
+   * Inflates the leading ascii bytes in <code>src</code> into a little-endian utf16 byte array.
+   *
+   * @param numBytes max number of bytes to inflate.
+   * @return number of bytes inflated.
+   */
+  int inflateAsciiUTF16(byte[] src, int srcOffset, byte[] dst, int dstOffset, int numBytes);
+
+  /**
+   * Decodes the leading single byte zigzag varints written by {@link
+   * org.apache.fory.memory.MemoryBuffer#writeVarInt32} into <code>dst</code>.
+   *
+   * @param count max number of varints to decode, <code>src</code> must have at least <code>count
+   *     </code> bytes readable.
+   * @return number of varints decoded, which is also the number of bytes consumed.
+   */
+  int decodeSmallVarInt32s(byte[] src, int srcOffset, int[] dst, int dstOffset, int count);
+
+  /** Returns the vectorized ops if available, or null otherwise. */
+  static VectorizedOps get() {
+    return Holder.INSTANCE;
+  }
+
+  /** Lazy loader of vectorized ops. */
+  final class Holder {
+    private static final Logger LOG = LoggerFactory.getLogger(VectorizedOps.class);
+    private static final String IMPL_CLASS = "org.apache.fory.simd.VectorApiOps";
+    private static final VectorizedOps INSTANCE = load();
+
+    private static VectorizedOps load() {
+      if (Platform.JAVA_VERSION < 17
+          || GraalvmSupport.IN_GRAALVM_NATIVE_IMAGE
+          || !Platform.IS_LITTLE_ENDIAN
+          || "false".equalsIgnoreCase(System.getProperty("fory.vectorized_ops"))) {
+        return null;
+      }
+      Class<?> cls;
+      try {
+        cls = Class.forName(IMPL_CLASS, true, VectorizedOps.class.getClassLoader());
+      } catch (ClassNotFoundException e) {
+        return null;
+      } catch (Throwable t) {
+        // `jdk.incubator.vector` is not added into module graph.
+        LOG.info("Vector api is not available, fallback to scalar ops: {}", t.toString());
+        return null;
+      }
+      try {
+        return (VectorizedOps) cls.getDeclaredConstructor().newInstance();
+      } catch (Throwable t) {
+        LOG.warn("Create {} failed, fallback to scalar ops: {}", IMPL_CLASS, t.toString());
+        return null;
+      }
+    }
+  }
+}
@@ -35,6 +35,7 @@ import java.nio.ByteBuffer;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
@@ -523,6 +524,44 @@ public class ForyTest extends ForyTestBase {
         beanA);
   }
 
+  @Test(dataProvider = "twoBoolOptions")
+  public void testSerializeBatch(boolean refTracking, boolean scopedMetaShare) {
+    Fory fory =
+        builder()
+            .withRefTracking(refTracking)
+            .withCompatibleMode(
+                scopedMetaShare ? CompatibleMode.COMPATIBLE : CompatibleMode.SCHEMA_CONSISTENT)
+            .withScopedMetaShare(scopedMetaShare)
+            .build();
+    List<BeanA> beans = new ArrayList<>();
+    int separateSize = 0;
+    for (int i = 0; i < 20; i++) {
+      BeanA beanA = i == 5 ? null : BeanA.createBeanA(i % 3);
+      beans.add(beanA);
+      separateSize += fory.serialize(beanA).length;
+    }
+    byte[] bytes = fory.serializeBatch(beans, BeanA.class);
+    assertTrue(bytes.length < separateSize);
+    assertEquals(fory.deserializeBatch(bytes, BeanA.class), beans);
+    MemoryBuffer buffer = MemoryBuffer.newHeapBuffer(32);
+    fory.serializeBatch(buffer, beans, BeanA.class);
+    fory.serializeBatch(buffer, beans.subList(0, 3), BeanA.class);
+    for (int i = 0; i < beans.size(); i++) {
+      buffer.readerIndex(0);
+      assertEquals(fory.deserializeBatchElement(buffer, BeanA.class, i), beans.get(i));
+    }
+    // reader index should be moved to the end of batch.
+    assertEquals(fory.deserializeBatchElement(buffer, BeanA.class, 2), beans.get(2));
+    assertEquals(buffer.readerIndex(), buffer.writerIndex());
+    buffer.readerIndex(0);
+    assertThrows(
+        IndexOutOfBoundsException.class,
+        () -> fory.deserializeBatchElement(buffer, BeanA.class, beans.size()));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> fory.serializeBatch(ImmutableList.of("a"), Object.class));
+  }
+
   @Data
   static class DomainObject {
     UUID id;
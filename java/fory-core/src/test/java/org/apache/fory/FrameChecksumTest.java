@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.apache.fory.exception.CorruptedDataException;
+import org.apache.fory.io.ForyInputStream;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.memory.MemoryUtils;
+import org.apache.fory.test.bean.BeanA;
+import org.apache.fory.util.Crc32C;
+import org.testng.annotations.Test;
+
+public class FrameChecksumTest extends ForyTestBase {
+
+  @Test
+  public void testCrc32C() {
+    byte[] bytes = "123456789".getBytes(StandardCharsets.US_ASCII);
+    assertEquals(Crc32C.compute(bytes, 0, bytes.length), 0xE3069283);
+    assertEquals(Crc32C.compute(new byte[0], 0, 0), 0);
+    MemoryBuffer buffer = MemoryUtils.wrap(ByteBuffer.allocateDirect(20000));
+    byte[] data = new byte[20000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i * 31);
+    }
+    buffer.put(0, data, 0, data.length);
+    assertEquals(Crc32C.compute(buffer, 3, 19990), Crc32C.compute(data, 3, 19990));
+    MemoryBuffer heapBuffer = MemoryBuffer.fromByteArray(data);
+    assertEquals(Crc32C.compute(heapBuffer, 3, 19990), Crc32C.compute(data, 3, 19990));
+  }
+
+  @Test
+  public void testFrameChecksum() {
+    Fory fory = builder().withFrameChecksum(true).build();
+    BeanA beanA = BeanA.createBeanA(2);
+    serDeCheck(fory, beanA);
+    byte[] bytes = fory.serialize(beanA);
+    assertEquals(bytes.length, builder().build().serialize(beanA).length + 8);
+
+    byte[] corrupted = bytes.clone();
+    corrupted[bytes.length / 2] ^= 0x10;
+    assertThrows(CorruptedDataException.class, () -> fory.deserialize(corrupted));
+    byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+    assertThrows(CorruptedDataException.class, () -> fory.deserialize(truncated));
+  }
+
+  @Test
+  public void testStreamFrameChecksum() {
+    Fory fory = builder().withFrameChecksum(true).build();
+    BeanA beanA = BeanA.createBeanA(2);
+    ByteArrayOutputStream bas = new ByteArrayOutputStream();
+    fory.serialize(bas, beanA);
+    fory.serialize(bas, "abc");
+    byte[] bytes = bas.toByteArray();
+    ForyInputStream stream = new ForyInputStream(new ByteArrayInputStream(bytes), 16);
+    assertEquals(fory.deserialize(stream), beanA);
+    assertEquals(fory.deserialize(stream), "abc");
+
+    bytes[10] ^= 0x01;
+    ForyInputStream corrupted = new ForyInputStream(new ByteArrayInputStream(bytes), 16);
+    assertThrows(CorruptedDataException.class, () -> fory.deserialize(corrupted));
+    ForyInputStream truncated =
+        new ForyInputStream(new ByteArrayInputStream(Arrays.copyOf(bytes, 20)), 16);
+    assertThrows(CorruptedDataException.class, () -> fory.deserialize(truncated));
+  }
+
+  @Test
+  public void testMaxFrameBytes() {
+    BeanA beanA = BeanA.createBeanA(2);
+    byte[] bytes = builder().withFrameChecksum(true).build().serialize(beanA);
+    Fory fory = builder().withFrameChecksum(true).withMaxFrameBytes(bytes.length - 9).build();
+    assertThrows(CorruptedDataException.class, () -> fory.deserialize(bytes));
+    Fory fory2 = builder().withFrameChecksum(true).withMaxFrameBytes(bytes.length - 8).build();
+    assertEquals(fory2.deserialize(bytes), beanA);
+    // a huge body length must be rejected before the body is read from the stream.
+    MemoryBuffer header = MemoryBuffer.newHeapBuffer(8);
+    header.writeInt32(Integer.MAX_VALUE - 8);
+    header.writeInt32(0);
+    ForyInputStream stream =
+        new ForyInputStream(new ByteArrayInputStream(header.getBytes(0, 8)), 16);
+    assertThrows(CorruptedDataException.class, () -> fory.deserialize(stream));
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.fory.exception.CorruptedDataException;
+import org.apache.fory.exception.DeserializationException;
+import org.apache.fory.io.DeflaterPayloadCompressor;
+import org.apache.fory.io.ForyInputStream;
+import org.apache.fory.io.ForyOutputStream;
+import org.apache.fory.io.PayloadCompressor;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.memory.MemoryUtils;
+import org.apache.fory.test.bean.BeanA;
+import org.testng.annotations.Test;
+
+public class PayloadCompressionTest extends ForyTestBase {
+
+  private static List<BeanA> createBeans(int num) {
+    List<BeanA> beans = new ArrayList<>();
+    for (int i = 0; i < num; i++) {
+      beans.add(BeanA.createBeanA(2));
+    }
+    return beans;
+  }
+
+  @Test
+  public void testDeflaterPayloadCompressor() {
+    PayloadCompressor compressor = new DeflaterPayloadCompressor();
+    byte[] data = new byte[10000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i % 100);
+    }
+    MemoryBuffer[] srcBuffers = {
+      MemoryBuffer.fromByteArray(data), MemoryUtils.wrap(ByteBuffer.allocateDirect(data.length))
+    };
+    srcBuffers[1].put(0, data, 0, data.length);
+    int maxLength = compressor.maxCompressedLength(data.length);
+    for (MemoryBuffer src : srcBuffers) {
+      MemoryBuffer[] dstBuffers = {
+        MemoryBuffer.newHeapBuffer(maxLength + 10),
+        MemoryUtils.wrap(ByteBuffer.allocateDirect(maxLength + 10))
+      };
+      for (MemoryBuffer dst : dstBuffers) {
+        int size = compressor.compress(src, 5, 9000, dst, 10);
+        assertTrue(size < 1000, "size " + size);
+        MemoryBuffer out = MemoryUtils.wrap(ByteBuffer.allocateDirect(9000));
+        compressor.decompress(dst, 10, size, out, 0, 9000);
+        assertEquals(out.getBytes(0, 9000), Arrays.copyOfRange(data, 5, 9005));
+        MemoryBuffer heapOut = MemoryBuffer.newHeapBuffer(9000);
+        compressor.decompress(dst, 10, size, heapOut, 0, 9000);
+        assertEquals(heapOut.getBytes(0, 9000), Arrays.copyOfRange(data, 5, 9005));
+        assertThrows(
+            DeserializationException.class,
+            () -> compressor.decompress(dst, 10, size, MemoryBuffer.newHeapBuffer(9001), 0, 9001));
+        // data which decompresses to more bytes than expected is rejected too.
+        assertThrows(
+            DeserializationException.class,
+            () -> compressor.decompress(dst, 10, size, MemoryBuffer.newHeapBuffer(8999), 0, 8999));
+      }
+    }
+  }
+
+  @Test
+  public void testPayloadCompression() {
+    Fory fory = builder().withPayloadCompressor(new DeflaterPayloadCompressor()).build();
+    List<BeanA> beans = createBeans(20);
+    byte[] bytes = fory.serialize(beans);
+    byte[] rawBytes = builder().build().serialize(beans);
+    assertTrue(bytes.length * 2 < rawBytes.length, bytes.length + " " + rawBytes.length);
+    serDeCheck(fory, beans);
+    // small payload is not compressed.
+    assertEquals(fory.serialize("abc").length, builder().build().serialize("abc").length + 1);
+    assertEquals(fory.deserialize(fory.serialize("abc")), "abc");
+
+    byte[] truncated = Arrays.copyOf(bytes, bytes.length - 10);
+    assertThrows(CorruptedDataException.class, () -> fory.deserialize(truncated));
+  }
+
+  @Test
+  public void testMaxDecompressedBytes() {
+    List<BeanA> beans = createBeans(20);
+    PayloadCompressor compressor = new DeflaterPayloadCompressor();
+    byte[] bytes = builder().withPayloadCompressor(compressor).build().serialize(beans);
+    int length = builder().build().serialize(beans).length;
+    Fory fory =
+        builder().withPayloadCompressor(compressor).withMaxDecompressedBytes(length - 1).build();
+    assertThrows(CorruptedDataException.class, () -> fory.deserialize(bytes));
+    Fory fory2 =
+        builder().withPayloadCompressor(compressor).withMaxDecompressedBytes(length).build();
+    assertEquals(fory2.deserialize(bytes), beans);
+  }
+
+  @Test
+  public void testStreamPayloadCompression() {
+    Fory fory =
+        builder()
+            .withPayloadCompressor(new DeflaterPayloadCompressor())
+            .withPayloadCompressionThreshold(100)
+            .withFrameChecksum(true)
+            .build();
+    List<BeanA> beans = createBeans(20);
+    ByteArrayOutputStream bas = new ByteArrayOutputStream();
+    ForyOutputStream outputStream = new ForyOutputStream(bas, 64);
+    fory.serialize(outputStream, beans);
+    fory.serialize(outputStream, "abc");
+    fory.serialize(outputStream, beans);
+    ForyInputStream stream = new ForyInputStream(new ByteArrayInputStream(bas.toByteArray()), 16);
+    assertEquals(fory.deserialize(stream), beans);
+    assertEquals(fory.deserialize(stream), "abc");
+    assertEquals(fory.deserialize(stream), beans);
+  }
+}
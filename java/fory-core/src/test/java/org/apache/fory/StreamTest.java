@@ -21,26 +21,41 @@ package org.apache.fory;
 
 import static org.apache.fory.io.ForyStreamReader.of;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 import com.google.common.collect.Lists;
+import com.google.common.primitives.Bytes;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.fory.config.CompatibleMode;
 import org.apache.fory.io.ForyInputStream;
+import org.apache.fory.io.ForyOutputStream;
 import org.apache.fory.io.ForyReadableChannel;
 import org.apache.fory.io.ForyStreamReader;
+import org.apache.fory.io.ForyStreamWriter;
+import org.apache.fory.io.ForyWritableChannel;
+import org.apache.fory.io.SegmentedBuffer;
 import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.memory.MemoryUtils;
 import org.apache.fory.reflect.ReflectionUtils;
+import org.apache.fory.serializer.BufferCallback;
 import org.apache.fory.test.bean.BeanA;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -380,6 +395,227 @@ public class StreamTest extends ForyTestBase {
     assertEquals(fory.deserialize(stream), new int[5000]);
   }
 
+  @Test
+  public void testForyOutputStream() {
+    for (boolean scopedMetaShare : new boolean[] {false, true}) {
+      Fory fory =
+          builder()
+              .withRefTracking(true)
+              .withCompatibleMode(CompatibleMode.COMPATIBLE)
+              .withScopedMetaShare(scopedMetaShare)
+              .build();
+      Map<String, Object> map = new HashMap<>();
+      for (int i = 0; i < 5000; i++) {
+        map.put("key" + i, Lists.newArrayList(i, "value" + i, BeanA.createBeanA(1)));
+      }
+      byte[] expected = fory.serialize(map);
+      List<Integer> writeSizes = new ArrayList<>();
+      ByteArrayOutputStream bas =
+          new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+              writeSizes.add(len);
+              super.write(b, off, len);
+            }
+          };
+      ForyOutputStream stream = ForyStreamWriter.of(bas);
+      fory.serialize(stream, map);
+      fory.serialize(stream, "abc");
+      byte[] bytes = bas.toByteArray();
+      assertEquals(Arrays.copyOf(bytes, expected.length), expected);
+      if (!scopedMetaShare) {
+        // data should be flushed in chunks instead of being buffered as a whole.
+        assertTrue(writeSizes.size() > 1);
+        assertTrue(writeSizes.stream().allMatch(size -> size < expected.length / 2));
+      }
+      // buffer should be shrunk after serialization finished.
+      assertEquals(stream.getBuffer().getHeapMemory().length, 8192);
+      ForyInputStream input = of(new ByteArrayInputStream(bytes));
+      assertEquals(fory.deserialize(input), map);
+      assertEquals(fory.deserialize(input), "abc");
+    }
+  }
+
+  @Test
+  public void testForyOutputStreamSmallBuffer() {
+    Fory fory = builder().withRefTracking(true).build();
+    BeanA beanA = BeanA.createBeanA(2);
+    ByteArrayOutputStream bas = new ByteArrayOutputStream();
+    // Passed as `OutputStream` should be streamed too.
+    OutputStream stream = new ForyOutputStream(bas, 16);
+    fory.serialize(stream, beanA);
+    fory.serialize(stream, beanA);
+    ForyInputStream input = of(new ByteArrayInputStream(bas.toByteArray()));
+    assertEquals(fory.deserialize(input), beanA);
+    assertEquals(fory.deserialize(input), beanA);
+  }
+
+  @Test
+  public void testForyWritableChannel() throws IOException {
+    Fory fory = builder().withRefTracking(true).build();
+    byte[] bytesValue = new byte[100000];
+    long[] longsValue = new long[20000];
+    for (int i = 0; i < longsValue.length; i++) {
+      bytesValue[i] = (byte) i;
+      longsValue[i] = i;
+    }
+    ByteBuffer bufferValue = ByteBuffer.allocateDirect(50000);
+    bufferValue.putInt(0, 100);
+    List<Object> list =
+        Lists.newArrayList(bytesValue, BeanA.createBeanA(2), longsValue, bufferValue, "abc");
+    // write buffer objects in band.
+    BufferCallback callback = o -> true;
+    byte[] expected = fory.serialize(list, callback);
+    // non-gathering channel
+    List<Integer> writeSizes = new ArrayList<>();
+    ByteArrayOutputStream bas = new ByteArrayOutputStream();
+    WritableByteChannel byteChannel =
+        new WritableByteChannel() {
+          private final WritableByteChannel channel = Channels.newChannel(bas);
+
+          @Override
+          public int write(ByteBuffer src) throws IOException {
+            writeSizes.add(src.remaining());
+            return channel.write(src);
+          }
+
+          @Override
+          public boolean isOpen() {
+            return channel.isOpen();
+          }
+
+          @Override
+          public void close() throws IOException {
+            channel.close();
+          }
+        };
+    ForyWritableChannel channel = ForyStreamWriter.of(byteChannel);
+    fory.serialize(channel, list, callback);
+    fory.serialize(channel, list, callback);
+    byte[] bytes = bas.toByteArray();
+    assertEquals(Arrays.copyOf(bytes, expected.length), expected);
+    // large buffers should be written to the channel directly.
+    assertTrue(writeSizes.contains(bytesValue.length));
+    // long array can't be viewed as a byte buffer, it's copied through the buffer in chunks.
+    assertFalse(writeSizes.contains(longsValue.length * 8));
+    assertEquals(channel.getBuffer().size(), 8192);
+    ForyInputStream input = of(new ByteArrayInputStream(bytes));
+    assertListEquals(fory.deserialize(input, new ArrayList<>()), list);
+    assertListEquals(fory.deserialize(input, new ArrayList<>()), list);
+    // gathering channel
+    Path tempFile = Files.createTempFile("writable_channel_test", "data");
+    try (ForyWritableChannel fileChannel =
+        ForyStreamWriter.of(Files.newByteChannel(tempFile, StandardOpenOption.WRITE))) {
+      fory.serialize(fileChannel, list, callback);
+      fory.serialize(fileChannel, "abc");
+    }
+    try (ForyReadableChannel readableChannel = of(Files.newByteChannel(tempFile))) {
+      assertListEquals(fory.deserialize(readableChannel, new ArrayList<>()), list);
+      assertEquals(fory.deserialize(readableChannel), "abc");
+    } finally {
+      Files.delete(tempFile);
+    }
+  }
+
+  @Test
+  public void testSegmentedBuffer() throws IOException {
+    for (boolean scopedMetaShare : new boolean[] {false, true}) {
+      Fory fory =
+          builder()
+              .withRefTracking(true)
+              .withCompatibleMode(CompatibleMode.COMPATIBLE)
+              .withScopedMetaShare(scopedMetaShare)
+              .build();
+      Map<String, Object> map = new HashMap<>();
+      for (int i = 0; i < 5000; i++) {
+        map.put("key" + i, Lists.newArrayList(i, "value" + i, BeanA.createBeanA(1)));
+      }
+      byte[] expected = fory.serialize(map);
+      SegmentedBuffer buffer = new SegmentedBuffer(4096);
+      fory.serialize(buffer, map);
+      fory.serialize(buffer, new long[10000], o -> true);
+      fory.serialize(buffer, "abc");
+      byte[] bytes = buffer.toByteArray();
+      assertEquals(buffer.size(), bytes.length);
+      assertEquals(Arrays.copyOf(bytes, expected.length), expected);
+      if (!scopedMetaShare) {
+        // data should be kept in segments instead of a contiguous buffer.
+        assertTrue(buffer.getSegments().length > 1);
+        for (ByteBuffer segment : buffer.getSegments()) {
+          assertTrue(segment.remaining() < expected.length / 2);
+        }
+      }
+      ByteArrayOutputStream bas = new ByteArrayOutputStream();
+      buffer.writeTo(bas);
+      assertEquals(bas.toByteArray(), bytes);
+      Path tempFile = Files.createTempFile("segmented_buffer_test", "data");
+      try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+        buffer.writeTo(channel);
+      }
+      try {
+        assertEquals(Files.readAllBytes(tempFile), bytes);
+      } finally {
+        Files.delete(tempFile);
+      }
+      ForyInputStream input = new ForyInputStream(buffer.newInputStream());
+      assertEquals(fory.deserialize(input), map);
+      assertEquals(fory.deserialize(input, new ArrayList<>()), new long[10000]);
+      assertEquals(fory.deserialize(input), "abc");
+      buffer.reset();
+      assertEquals(buffer.size(), 0);
+      fory.serialize(buffer, "abc");
+      assertEquals(fory.deserialize(buffer.toByteArray()), "abc");
+    }
+  }
+
+  @Test
+  public void testMappedFile() throws IOException {
+    Fory fory = builder().withRefTracking(true).build();
+    long[] longsValue = new long[20000];
+    for (int i = 0; i < longsValue.length; i++) {
+      longsValue[i] = i;
+    }
+    ByteBuffer bufferValue = ByteBuffer.allocate(50000);
+    bufferValue.putInt(0, 100);
+    List<Object> list = Lists.newArrayList(BeanA.createBeanA(2), longsValue, bufferValue, "abc");
+    byte[] bytes1 = fory.serialize(list, o -> true);
+    byte[] bytes2 = fory.serializeBatch(Arrays.asList("a", "b", "c"), String.class);
+    Path tempFile = Files.createTempFile("mapped_file_test", "data");
+    try {
+      Files.write(tempFile, Bytes.concat(bytes1, bytes2));
+      try (FileChannel channel = FileChannel.open(tempFile)) {
+        List<?> newList = (List<?>) fory.deserialize(channel, 0, bytes1.length, new ArrayList<>());
+        assertListEquals(newList, list);
+        ByteBuffer newBufferValue = (ByteBuffer) newList.get(2);
+        // buffer is a view onto the mapped file.
+        assertTrue(newBufferValue.isDirect());
+        assertTrue(newBufferValue.isReadOnly());
+        MemoryBuffer buffer = MemoryUtils.map(channel, bytes1.length, bytes2.length);
+        assertTrue(buffer.isOffHeap());
+        assertEquals(fory.deserializeBatchElement(buffer, String.class, 2), "c");
+        Assert.assertThrows(
+            IllegalArgumentException.class,
+            () -> fory.deserialize(channel, bytes1.length, bytes2.length + 1));
+      }
+    } finally {
+      Files.delete(tempFile);
+    }
+  }
+
+  private static void assertListEquals(Object actual, List<Object> expected) {
+    List<?> list = (List<?>) actual;
+    assertEquals(list.size(), expected.size());
+    for (int i = 0; i < list.size(); i++) {
+      if (expected.get(i) instanceof byte[]) {
+        assertEquals((byte[]) list.get(i), (byte[]) expected.get(i));
+      } else if (expected.get(i) instanceof long[]) {
+        assertEquals((long[]) list.get(i), (long[]) expected.get(i));
+      } else {
+        assertEquals(list.get(i), expected.get(i));
+      }
+    }
+  }
+
   @Test
   public void testReadNullChunkMapOnFillBound() {
     Fory fory = builder().build();
@@ -23,16 +23,21 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.WeakHashMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import lombok.Data;
 import org.apache.fory.config.Language;
 import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.pool.ThreadPoolFory;
 import org.apache.fory.resolver.MetaContext;
 import org.apache.fory.serializer.Serializer;
 import org.apache.fory.test.bean.BeanA;
@@ -74,6 +79,66 @@ public class ThreadSafeForyTest extends ForyTestBase {
     assertFalse(hasException);
   }
 
+  @Test
+  public void testStripedPoolSerialize() throws Exception {
+    BeanA beanA = BeanA.createBeanA(2);
+    ThreadSafeFory fory =
+        Fory.builder()
+            .withRefTracking(true)
+            .requireClassRegistration(false)
+            .buildThreadSafeForyPool(2, 4, true);
+    AtomicInteger numFory = new AtomicInteger();
+    ((ThreadPoolFory) fory).registerCallback(f -> numFory.incrementAndGet());
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 64; i++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                for (int j = 0; j < 100; j++) {
+                  assertEquals(fory.deserialize(fory.serialize(beanA)), beanA);
+                }
+              }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+    assertTrue(numFory.get() <= 4);
+  }
+
+  @Test
+  public void testVirtualThreadSafeFory() throws Exception {
+    BeanA beanA = BeanA.createBeanA(2);
+    ThreadSafeFory fory =
+        Fory.builder()
+            .withRefTracking(true)
+            .requireClassRegistration(false)
+            .buildVirtualThreadSafeFory(2);
+    AtomicInteger numFory = new AtomicInteger();
+    ((ThreadPoolFory) fory).registerCallback(f -> numFory.incrementAndGet());
+    CustomClassLoader loader = new CustomClassLoader(getClass().getClassLoader());
+    fory.setClassLoader(loader);
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 64; i++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                // class loader is shared by all threads.
+                assertEquals(fory.getClassLoader(), loader);
+                for (int j = 0; j < 100; j++) {
+                  assertEquals(fory.deserialize(fory.serialize(beanA)), beanA);
+                }
+              }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+    assertTrue(numFory.get() <= 2);
+  }
+
   @Test
   public void testRegistration() throws Exception {
     BeanB bean = BeanB.createBeanB(2);
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.codegen;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.apache.fory.Fory;
+import org.apache.fory.test.bean.BeanA;
+import org.codehaus.commons.compiler.util.reflect.ByteArrayClassLoader;
+import org.testng.annotations.Test;
+
+public class CodegenCacheTest {
+
+  private static CompileUnit unit(String className, String value) {
+    return new CompileUnit(
+        "demo.pkg1",
+        className,
+        ""
+            + "package demo.pkg1;\n"
+            + "public class "
+            + className
+            + " {\n"
+            + "  public static class Inner {}\n"
+            + "  public static String hello() { return \""
+            + value
+            + "\" + "
+            + className
+            + ".class.getSimpleName() + new Inner().getClass().getName(); }\n"
+            + "}");
+  }
+
+  @Test
+  public void testCache() throws Exception {
+    Path dir = Files.createTempDirectory("codegen_cache_test");
+    CodegenCache cache = CodegenCache.getSharedCache(dir.toString());
+    CompileUnit unit1 = unit("A_1", "HELLO");
+    assertNull(cache.get(unit1));
+    ClassLoader loader = getClass().getClassLoader();
+    Map<String, byte[]> classes = JaninoUtils.toBytecode(loader, unit1);
+    cache.put(classes, unit1);
+    // same code but with a different class name.
+    CompileUnit unit2 = unit("A_12", "HELLO");
+    Map<String, byte[]> cachedClasses = cache.get(unit2);
+    assertNotNull(cachedClasses);
+    assertTrue(cachedClasses.containsKey("demo/pkg1/A_12.class"));
+    assertTrue(cachedClasses.containsKey("demo/pkg1/A_12$Inner.class"));
+    ClassLoader classLoader = new ByteArrayClassLoader(cachedClasses, loader);
+    assertEquals(
+        classLoader.loadClass("demo.pkg1.A_12").getMethod("hello").invoke(null),
+        "HELLOA_12demo.pkg1.A_12$Inner");
+    // code changed.
+    assertNull(cache.get(unit("A_1", "HELLO2")));
+  }
+
+  @Test
+  public void testForyCodegenCache() throws Exception {
+    Path dir = Files.createTempDirectory("codegen_cache_test");
+    BeanA beanA = BeanA.createBeanA(2);
+    // serializer may be generated by a fory without cache first.
+    Fory fory = Fory.builder().requireClassRegistration(false).build();
+    assertEquals(fory.deserialize(fory.serialize(beanA)), beanA);
+    fory =
+        Fory.builder().requireClassRegistration(false).withCodegenCacheDir(dir.toString()).build();
+    assertEquals(fory.deserialize(fory.serialize(beanA)), beanA);
+    try (Stream<Path> files = Files.list(dir)) {
+      assertTrue(files.anyMatch(p -> p.toString().endsWith(".bin")));
+    }
+    assertEquals(fory.getJITContext().getCodegenCache().getDir(), dir.toAbsolutePath());
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.memory;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.fory.Fory;
+import org.apache.fory.ThreadSafeFory;
+import org.apache.fory.io.BlockedStreamUtils;
+import org.testng.annotations.Test;
+
+public class MemoryArenaTest {
+
+  @Test
+  public void testAllocateBlock() {
+    MemoryArena arena = new MemoryArena(1 << 16, 1 << 20);
+    ByteBuffer block = arena.allocateBlock(100);
+    assertTrue(block.isDirect());
+    assertEquals(block.capacity(), MemoryArena.MIN_BLOCK_SIZE);
+    // other blocks of the slab are pooled.
+    assertEquals(arena.pooledBytes(), (1 << 16) - MemoryArena.MIN_BLOCK_SIZE);
+    arena.releaseBlock(block);
+    assertEquals(arena.pooledBytes(), 1 << 16);
+    assertEquals(arena.allocateBlock(5000).capacity(), 8192);
+    ByteBuffer bigBlock = arena.allocateBlock((1 << 16) + 1);
+    assertEquals(bigBlock.capacity(), 1 << 17);
+    arena.releaseBlock(bigBlock);
+    assertSame(arena.allocateBlock(1 << 17), bigBlock);
+    // non-arena blocks are ignored.
+    long pooledBytes = arena.pooledBytes();
+    arena.releaseBlock(ByteBuffer.allocateDirect(100));
+    arena.releaseBlock(ByteBuffer.allocate(4096));
+    assertEquals(arena.pooledBytes(), pooledBytes);
+  }
+
+  @Test
+  public void testMaxPooledBytes() {
+    MemoryArena arena = new MemoryArena(MemoryArena.MIN_BLOCK_SIZE, 8192);
+    List<ByteBuffer> blocks = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      blocks.add(arena.allocateBlock(8192));
+    }
+    blocks.forEach(arena::releaseBlock);
+    assertEquals(arena.pooledBytes(), 8192);
+  }
+
+  @Test
+  public void testBufferGrow() {
+    MemoryArena arena = new MemoryArena();
+    MemoryBuffer buffer = arena.allocate(16);
+    assertTrue(buffer.isOffHeap());
+    for (int i = 0; i < 100000; i++) {
+      buffer.writeInt64(i);
+    }
+    assertTrue(buffer.isOffHeap());
+    assertTrue(buffer.size() >= 800000);
+    for (int i = 0; i < 100000; i++) {
+      assertEquals(buffer.readInt64(), i);
+    }
+    long pooledBytes = arena.pooledBytes();
+    ByteBuffer block = buffer.getOffHeapBuffer();
+    arena.release(buffer);
+    assertEquals(arena.pooledBytes(), pooledBytes + block.capacity());
+    assertFalse(buffer.isOffHeap());
+    assertEquals(buffer.size(), 0);
+    buffer.writeInt32(1);
+    assertFalse(buffer.isOffHeap());
+  }
+
+  @Test
+  public void testSliceAcrossGrow() {
+    MemoryArena arena = new MemoryArena(MemoryArena.MIN_BLOCK_SIZE, 1 << 20);
+    byte[] bytes = new byte[100];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+    MemoryBuffer buffer = arena.allocate(16);
+    buffer.writeBytes(bytes);
+    MemoryBuffer slice = buffer.slice(0, bytes.length);
+    ByteBuffer view = buffer.sliceAsByteBuffer(0, bytes.length);
+    long pooledBytes = arena.pooledBytes();
+    buffer.writeBytes(new byte[MemoryArena.MIN_BLOCK_SIZE]);
+    // old block is referenced by views, it must not be handed out by the arena again.
+    assertEquals(arena.pooledBytes(), pooledBytes);
+    arena.allocate(16).writeBytes(new byte[MemoryArena.MIN_BLOCK_SIZE / 2]);
+    assertEquals(slice.getBytes(0, bytes.length), bytes);
+    byte[] viewBytes = new byte[bytes.length];
+    view.get(viewBytes);
+    assertEquals(viewBytes, bytes);
+    // no views of current block, it's returned to the arena when growing.
+    int capacity = buffer.size();
+    buffer.writeBytes(new byte[capacity]);
+    assertEquals(arena.pooledBytes(), pooledBytes + capacity);
+  }
+
+  @Test
+  public void testForyArena() {
+    MemoryArena arena = new MemoryArena();
+    Fory fory =
+        Fory.builder()
+            .requireClassRegistration(false)
+            .withBufferSizeLimitBytes(1024)
+            .withMemoryArena(arena)
+            .build();
+    List<String> list = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      list.add("str" + i);
+    }
+    assertEquals(fory.deserialize(fory.serialize(list)), list);
+    assertTrue(fory.getBuffer().isOffHeap());
+    assertTrue(fory.getBuffer().size() < 8192);
+    assertTrue(arena.pooledBytes() > 0);
+    ByteArrayOutputStream bas = new ByteArrayOutputStream();
+    fory.serialize(bas, list);
+    assertEquals(fory.deserialize(bas.toByteArray()), list);
+    bas.reset();
+    BlockedStreamUtils.serialize(fory, bas, list);
+    assertEquals(
+        BlockedStreamUtils.deserialize(fory, new ByteArrayInputStream(bas.toByteArray())), list);
+    MemoryBuffer buffer = arena.allocate(16);
+    fory.serialize(buffer, list);
+    assertTrue(buffer.isOffHeap());
+    assertEquals(fory.deserialize(buffer), list);
+    arena.release(buffer);
+
+    ThreadSafeFory threadSafeFory =
+        Fory.builder()
+            .requireClassRegistration(false)
+            .withMemoryArena(arena)
+            .buildThreadSafeForyPool(1, 4);
+    assertEquals(threadSafeFory.deserialize(threadSafeFory.serialize(list)), list);
+  }
+
+  @Test
+  public void testSliceAcrossResetBuffer() {
+    MemoryArena arena = new MemoryArena();
+    Fory fory =
+        Fory.builder()
+            .requireClassRegistration(false)
+            .withBufferSizeLimitBytes(1024)
+            .withMemoryArena(arena)
+            .build();
+    MemoryBuffer buffer = fory.getBuffer();
+    byte[] bytes = new byte[8192];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+    buffer.writeBytes(bytes);
+    MemoryBuffer slice = buffer.slice(0, bytes.length);
+    fory.resetBuffer();
+    assertNotSame(fory.getBuffer(), buffer);
+    // the block is still referenced by the slice, it must not be handed out by the arena again.
+    for (int i = 0; i < 4; i++) {
+      arena.allocate(bytes.length).writeBytes(new byte[bytes.length]);
+    }
+    assertEquals(slice.getBytes(0, bytes.length), bytes);
+    assertEquals(buffer.getBytes(0, bytes.length), bytes);
+  }
+}
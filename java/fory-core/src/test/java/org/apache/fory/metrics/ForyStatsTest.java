@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.metrics;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.fory.Fory;
+import org.apache.fory.test.bean.BeanA;
+import org.testng.annotations.Test;
+
+public class ForyStatsTest {
+
+  @Test
+  public void testLatencyHistogram() {
+    ForyStats.LatencyHistogram histogram = new ForyStats.LatencyHistogram();
+    assertEquals(histogram.getPercentile(0.5), 0);
+    for (int i = 0; i < 90; i++) {
+      histogram.record(100);
+    }
+    for (int i = 0; i < 10; i++) {
+      histogram.record(5000);
+    }
+    assertEquals(histogram.getCount(), 100);
+    assertEquals(histogram.getTotalNanos(), 90 * 100 + 10 * 5000);
+    assertEquals(histogram.getPercentile(0.5), 127);
+    assertEquals(histogram.getPercentile(0.99), 8191);
+    histogram.record(0);
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(histogram.getPercentile(0), 0);
+    assertEquals(histogram.getPercentile(1), Long.MAX_VALUE);
+  }
+
+  @Test
+  public void testForyStats() {
+    ForyStats stats = new ForyStats();
+    Fory fory =
+        Fory.builder()
+            .requireClassRegistration(false)
+            .withRefTracking(true)
+            .withMetrics(stats)
+            .build();
+    BeanA beanA = BeanA.createBeanA(2);
+    byte[] bytes = fory.serialize(beanA);
+    assertEquals(fory.deserialize(bytes), beanA);
+    ForyStats.ClassStats classStats = stats.getClassStats(BeanA.class);
+    assertEquals(classStats.getSerializeCount(), 1);
+    assertEquals(classStats.getDeserializeCount(), 1);
+    assertEquals(classStats.getBytesWritten(), bytes.length);
+    assertEquals(classStats.getBytesRead(), bytes.length);
+    assertEquals(classStats.getSerializeLatency().getCount(), 1);
+    assertTrue(stats.getJitCompileNanos().containsKey(BeanA.class));
+    assertTrue(stats.getBufferGrowCount() > 0);
+
+    stats.reset();
+    String str = "abc";
+    List<Object> list = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      list.add(new StringBuilder(str));
+    }
+    list.add(list.get(0));
+    fory.serialize(list);
+    // list, 3 string builders and a reference.
+    assertEquals(stats.getRefHitRate(), 1 / 5.0, 0.0001);
+    assertNull(stats.getClassStats(BeanA.class));
+  }
+}
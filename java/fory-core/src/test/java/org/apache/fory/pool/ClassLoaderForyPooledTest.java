@@ -128,6 +128,83 @@ public class ClassLoaderForyPooledTest {
     thread.join();
   }
 
+  @Test
+  public void testStripedPooled() throws InterruptedException {
+    ClassLoaderForyPooled pooled =
+        new StripedClassLoaderForyPooled(getClass().getClassLoader(), getForyFactory(), 1, 2);
+    Fory fory1 = pooled.getFory();
+    pooled.returnFory(fory1);
+    // same thread should get same fory back.
+    Assert.assertSame(pooled.getFory(), fory1);
+    Fory fory2 = pooled.getFory();
+    Assert.assertNotSame(fory2, fory1);
+    // pool is exhausted, borrow should wait until a fory is returned.
+    Fory[] borrowed = new Fory[1];
+    Thread thread = new Thread(() -> borrowed[0] = pooled.getFory());
+    thread.start();
+    thread.join(100);
+    Assert.assertTrue(thread.isAlive());
+    pooled.returnFory(fory2);
+    thread.join();
+    Assert.assertSame(borrowed[0], fory2);
+  }
+
+  @Test
+  public void testStripedPooledWaiters() throws InterruptedException {
+    ClassLoaderForyPooled pooled =
+        new StripedClassLoaderForyPooled(getClass().getClassLoader(), getForyFactory(), 1, 2);
+    Thread[] threads = new Thread[8];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] =
+          new Thread(
+              () -> {
+                for (int j = 0; j < 1000; j++) {
+                  Fory fory = pooled.getFory();
+                  pooled.returnFory(fory);
+                }
+              });
+      threads[i].start();
+    }
+    // every waiter must be woken up by returned fory.
+    for (Thread thread : threads) {
+      thread.join(10000);
+      Assert.assertFalse(thread.isAlive());
+    }
+  }
+
+  @Test
+  public void testStripedPooledInterrupted() throws InterruptedException {
+    ClassLoaderForyPooled pooled =
+        new StripedClassLoaderForyPooled(getClass().getClassLoader(), getForyFactory(), 1, 1);
+    Fory fory = pooled.getFory();
+    boolean[] interrupted = new boolean[1];
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                pooled.getFory();
+              } catch (RuntimeException e) {
+                interrupted[0] = Thread.currentThread().isInterrupted();
+              }
+            });
+    thread.start();
+    thread.join(100);
+    thread.interrupt();
+    thread.join();
+    // interrupt status must be kept for callers.
+    Assert.assertTrue(interrupted[0]);
+    pooled.returnFory(fory);
+    Assert.assertSame(pooled.getFory(), fory);
+  }
+
+  @Test
+  public void testStripedPooledReturnForeign() {
+    ClassLoaderForyPooled pooled =
+        new StripedClassLoaderForyPooled(getClass().getClassLoader(), getForyFactory(), 1, 1);
+    Fory foreign = getForyFactory().apply(getClass().getClassLoader());
+    Assert.assertThrows(IllegalArgumentException.class, () -> pooled.returnFory(foreign));
+  }
+
   @Test
   public void testReturnFory() {
     Function<ClassLoader, Fory> foryFactory = getForyFactory();
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.pool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.fory.Fory;
+import org.apache.fory.exception.DeserializationException;
+import org.apache.fory.exception.InsecureException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+public class ParallelForyTest {
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  @AfterClass
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  private ParallelFory newParallelFory(int segmentSize) {
+    return Fory.builder().requireClassRegistration(false).buildParallelFory(pool, segmentSize);
+  }
+
+  private static void serDeCheck(ParallelFory fory, Object obj) {
+    Assert.assertEquals(fory.deserialize(fory.serialize(obj)), obj);
+  }
+
+  @Test
+  public void testSegmented() {
+    ParallelFory fory = newParallelFory(100);
+    List<Object> list = new ArrayList<>();
+    Map<Object, Object> map = new HashMap<>();
+    for (int i = 0; i < 1050; i++) {
+      list.add(i % 3 == 0 ? null : "str" + i);
+      map.put(i, Arrays.asList(i, "v" + i));
+    }
+    byte[] bytes = fory.serialize(list);
+    // every segment is a standalone payload with its own header.
+    Assert.assertTrue(bytes.length > fory.getFory().serialize(list).length);
+    Assert.assertEquals(fory.deserialize(bytes), list);
+    serDeCheck(fory, new LinkedHashSet<>(list));
+    serDeCheck(fory, map);
+    String[] array = list.toArray(new String[0]);
+    Assert.assertEquals((String[]) fory.deserialize(fory.serialize(array)), array);
+    // boundaries
+    serDeCheck(fory, new ArrayList<>(list.subList(0, 100)));
+    serDeCheck(fory, new ArrayList<>(list.subList(0, 101)));
+    serDeCheck(fory, new ArrayList<>(list.subList(0, 200)));
+  }
+
+  @Test
+  public void testNotSplittable() {
+    ParallelFory fory = newParallelFory(10);
+    TreeMap<Integer, Integer> sortedMap = new TreeMap<>(Collections.reverseOrder());
+    List<Integer> list = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      sortedMap.put(i, i);
+      list.add(i);
+    }
+    TreeMap<Integer, Integer> newMap =
+        (TreeMap<Integer, Integer>) fory.deserialize(fory.serialize(sortedMap));
+    Assert.assertEquals(newMap, sortedMap);
+    Assert.assertEquals(newMap.firstKey(), Integer.valueOf(99));
+    serDeCheck(fory, Collections.unmodifiableList(list));
+    serDeCheck(fory, Arrays.asList(1, 2, 3));
+    serDeCheck(fory, "str");
+    serDeCheck(fory, new int[100]);
+  }
+
+  @Test
+  public void testCorrupted() {
+    ParallelFory fory = newParallelFory(10);
+    byte[] bytes = fory.serialize(new ArrayList<>(Collections.nCopies(100, 1)));
+    bytes[0] = 9;
+    Assert.assertThrows(DeserializationException.class, () -> fory.deserialize(bytes));
+  }
+
+  @Test
+  public void testSegmentOutOfBounds() {
+    ParallelFory fory = newParallelFory(10);
+    byte[] bytes = fory.serialize(new ArrayList<>(Collections.nCopies(100, 1)));
+    byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+    Assert.assertThrows(DeserializationException.class, () -> fory.deserialize(truncated));
+  }
+
+  public static class CustomList extends ArrayList<Object> {}
+
+  @Test
+  public void testUnregisteredContainer() {
+    CustomList list = new CustomList();
+    list.addAll(Collections.nCopies(100, 1));
+    byte[] bytes = newParallelFory(10).serialize(list);
+    ParallelFory fory = Fory.builder().requireClassRegistration(true).buildParallelFory(pool, 10);
+    Assert.assertThrows(InsecureException.class, () -> fory.deserialize(bytes));
+  }
+}
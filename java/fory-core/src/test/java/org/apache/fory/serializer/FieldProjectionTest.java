@@ -0,0 +1,381 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.serializer;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Data;
+import org.apache.fory.Fory;
+import org.apache.fory.ForyTestBase;
+import org.apache.fory.config.CompatibleMode;
+import org.apache.fory.io.ForyInputStream;
+import org.apache.fory.memory.MemoryBuffer;
+import org.testng.annotations.Test;
+
+public class FieldProjectionTest extends ForyTestBase {
+
+  @Data
+  public static class Address {
+    public String city;
+    public String street;
+    public int zip;
+  }
+
+  @Data
+  public static class Order {
+    public long id;
+    public int quantity;
+    public boolean paid;
+    public String name;
+    public Double price;
+    public Integer discount;
+    public Address address;
+    public Address billing;
+    public List<String> tags;
+    public Map<String, Integer> attributes;
+    public Object extra;
+  }
+
+  @Data
+  public static class Node {
+    public int value;
+    public String name;
+    public Node next;
+  }
+
+  public static class Item {
+    static int created;
+
+    public String name;
+    public int count;
+
+    public Item() {
+      created++;
+    }
+
+    public Item(String name, int count) {
+      this();
+      this.name = name;
+      this.count = count;
+    }
+  }
+
+  @Data
+  public static class Catalog {
+    public int id;
+    public List<Item> items;
+    public Map<String, List<Item>> groups;
+    public Map<Item, Integer> counts;
+    public Set<String> names;
+    public List<Object> mixed;
+    public Collection<Long> numbers;
+    public String title;
+  }
+
+  private static Address createAddress(String city) {
+    Address address = new Address();
+    address.city = city;
+    address.street = city + " street";
+    address.zip = 100;
+    return address;
+  }
+
+  private static Order createOrder() {
+    Order order = new Order();
+    order.id = 1234567890123L;
+    order.quantity = 100;
+    order.paid = true;
+    order.name = "order中";
+    order.price = 99.5;
+    order.address = createAddress("Hangzhou");
+    order.billing = createAddress("Beijing");
+    order.tags = new ArrayList<>(Arrays.asList("a", "b"));
+    order.attributes = new HashMap<>(ImmutableMap.of("k", 1));
+    order.extra = createAddress("Shanghai");
+    return order;
+  }
+
+  private static void checkProjected(Order order, Order projected) {
+    assertEquals(projected.id, order.id);
+    assertEquals(projected.name, order.name);
+    assertEquals(projected.tags, order.tags);
+    assertEquals(projected.address.city, order.address.city);
+    assertNull(projected.address.street);
+    assertEquals(projected.address.zip, 0);
+    assertEquals(projected.quantity, 0);
+    assertEquals(projected.paid, false);
+    assertNull(projected.price);
+    assertNull(projected.discount);
+    assertNull(projected.billing);
+    assertNull(projected.attributes);
+    assertNull(projected.extra);
+  }
+
+  @Test
+  public void testFieldProjection() {
+    FieldProjection projection = FieldProjection.of("id", "address.city", "address.zip", "name");
+    assertEquals(projection.getFieldNames().size(), 3);
+    assertNull(projection.getNestedProjection("id"));
+    assertEquals(projection.getNestedProjection("address"), FieldProjection.of("zip", "city"));
+    // a field selected as a whole takes precedence over nested paths.
+    assertNull(FieldProjection.of("address.city", "address").getNestedProjection("address"));
+    assertEquals(projection, FieldProjection.of("name", "address.zip", "address.city", "id"));
+    assertThrows(IllegalArgumentException.class, () -> FieldProjection.of("address."));
+  }
+
+  @Test(dataProvider = "compressNumberAndCodeGen")
+  public void testProjectedDeserialization(boolean compressNumber, boolean codegen) {
+    Fory fory =
+        builder()
+            .withNumberCompressed(compressNumber)
+            .withCodegen(codegen)
+            .withStringCompressed(compressNumber)
+            .build();
+    Order order = createOrder();
+    byte[] bytes = fory.serialize(order);
+    FieldProjection projection = FieldProjection.of("id", "name", "address.city", "tags");
+    checkProjected(order, fory.deserialize(bytes, Order.class, projection));
+    Order projected = fory.deserialize(bytes, Order.class, FieldProjection.of("extra.zip"));
+    Address extra = new Address();
+    extra.zip = 100;
+    assertEquals(projected.extra, extra);
+    assertNull(projected.name);
+    FieldProjection all =
+        FieldProjection.of(
+            "id",
+            "quantity",
+            "paid",
+            "name",
+            "price",
+            "discount",
+            "address",
+            "billing",
+            "tags",
+            "attributes",
+            "extra");
+    assertEquals(fory.deserialize(bytes, Order.class, all), order);
+    assertEquals(fory.deserialize(bytes), order);
+  }
+
+  @Test(dataProvider = "enableCodegen")
+  public void testSkipContainers(boolean codegen) {
+    Fory fory = builder().withCodegen(codegen).build();
+    Catalog catalog = new Catalog();
+    catalog.id = 1;
+    catalog.items = new ArrayList<>(Arrays.asList(new Item("a", 1), null, new Item("b", 2)));
+    catalog.groups = new HashMap<>();
+    catalog.groups.put("g", new ArrayList<>(Arrays.asList(new Item("c", 3))));
+    catalog.groups.put(null, new ArrayList<>());
+    catalog.groups.put("empty", null);
+    catalog.counts = new HashMap<>();
+    catalog.counts.put(new Item("d", 4), 4);
+    catalog.names = new HashSet<>(Arrays.asList("x", "y"));
+    catalog.mixed = new ArrayList<>(Arrays.asList(1, "s", null, new Item("e", 5), 2.0));
+    catalog.numbers = new ArrayList<>(Arrays.asList(1L, Long.MAX_VALUE));
+    catalog.title = "catalog";
+    MemoryBuffer buffer = MemoryBuffer.newHeapBuffer(64);
+    fory.serialize(buffer, catalog);
+    fory.serialize(buffer, catalog);
+    Item.created = 0;
+    Catalog projected =
+        fory.deserialize(buffer, Catalog.class, FieldProjection.of("id", "title", "numbers"));
+    // unselected elements are skipped without being created.
+    assertEquals(Item.created, 0);
+    assertEquals(projected.id, 1);
+    assertEquals(projected.title, "catalog");
+    assertEquals(projected.numbers, catalog.numbers);
+    assertNull(projected.items);
+    assertNull(projected.groups);
+    assertNull(projected.counts);
+    assertNull(projected.names);
+    assertNull(projected.mixed);
+    // the second object is read from where the skipped fields end.
+    Catalog catalog2 = (Catalog) fory.deserialize(buffer);
+    assertEquals(catalog2.title, catalog.title);
+    assertEquals(catalog2.mixed.size(), catalog.mixed.size());
+    assertEquals(catalog2.groups.keySet(), catalog.groups.keySet());
+    assertEquals(catalog2.counts.size(), catalog.counts.size());
+    assertEquals(buffer.readerIndex(), buffer.writerIndex());
+  }
+
+  @Test(dataProvider = "referenceTrackingConfig")
+  public void testRecursiveType(boolean referenceTracking) {
+    Fory fory = builder().withRefTracking(referenceTracking).build();
+    Node node = new Node();
+    for (int i = 0; i < 10; i++) {
+      Node head = new Node();
+      head.value = i;
+      head.name = "node" + i;
+      head.next = node;
+      node = head;
+    }
+    byte[] bytes = fory.serialize(node);
+    Node projected = fory.deserialize(bytes, Node.class, FieldProjection.of("value"));
+    assertEquals(projected.value, 9);
+    assertNull(projected.name);
+    assertNull(projected.next);
+    projected = fory.deserialize(bytes, Node.class, FieldProjection.of("next.next.name"));
+    assertEquals(projected.next.next.name, "node7");
+    assertNull(projected.next.next.next);
+    assertEquals(projected.next.value, 0);
+    assertEquals(fory.deserialize(bytes), node);
+  }
+
+  @Test(dataProvider = "scopedMetaShare")
+  public void testCompatibleMode(boolean scopedMetaShare) {
+    Fory fory =
+        builder()
+            .withCompatibleMode(CompatibleMode.COMPATIBLE)
+            .withScopedMetaShare(scopedMetaShare)
+            .build();
+    Order order = createOrder();
+    byte[] bytes = fory.serialize(order);
+    FieldProjection projection = FieldProjection.of("id", "name", "address.city", "tags");
+    checkProjected(order, fory.deserialize(bytes, Order.class, projection));
+    assertEquals(fory.deserialize(bytes), order);
+  }
+
+  @Test(dataProvider = "scopedMetaShare")
+  public void testCompatibleModeSkip(boolean scopedMetaShare) {
+    Fory fory =
+        builder()
+            .withCompatibleMode(CompatibleMode.COMPATIBLE)
+            .withScopedMetaShare(scopedMetaShare)
+            .withCodegen(false)
+            .build();
+    Order order = createOrder();
+    byte[] bytes = fory.serialize(order);
+    FieldProjection projection = FieldProjection.of("id", "name", "address.city", "tags");
+    ProjectedObjectSerializer<Order> serializer =
+        fory.getClassResolver().getProjectedSerializer(Order.class, projection);
+    // fields are skipped by compatible field metadata or by the shared class def.
+    assertEquals(serializer.isSkipSupported(), !scopedMetaShare);
+    checkProjected(order, fory.deserialize(bytes, Order.class, projection));
+    checkProjected(order, fory.deserialize(bytes, Order.class, projection));
+    assertEquals(fory.deserialize(bytes), order);
+  }
+
+  @Test
+  public void testProjectedSerializerWrite() {
+    Fory fory = builder().build();
+    Order order = createOrder();
+    ProjectedObjectSerializer<Order> serializer =
+        fory.getClassResolver().getProjectedSerializer(Order.class, FieldProjection.of("id"));
+    MemoryBuffer buffer = MemoryBuffer.newHeapBuffer(64);
+    // projection only applies to reading, objects are written fully.
+    serializer.write(buffer, order);
+    assertEquals(fory.getClassResolver().getSerializer(Order.class).read(buffer), order);
+  }
+
+  @Test(dataProvider = "twoBoolOptions")
+  public void testFieldOffsetTable(boolean referenceTracking, boolean registered) {
+    Fory fory =
+        builder()
+            .withRefTracking(referenceTracking)
+            .withFieldOffsetTable(true)
+            .requireClassRegistration(registered)
+            .build();
+    if (registered) {
+      fory.register(Order.class);
+      fory.register(Address.class);
+      fory.register(Node.class);
+    }
+    Order order = createOrder();
+    byte[] bytes = fory.serialize(order);
+    assertEquals(fory.deserialize(bytes), order);
+    FieldProjection projection = FieldProjection.of("id", "name", "address.city", "tags");
+    checkProjected(order, fory.deserialize(bytes, Order.class, projection));
+    ByteArrayOutputStream bas = new ByteArrayOutputStream();
+    fory.serialize(bas, order);
+    ForyInputStream stream = new ForyInputStream(new ByteArrayInputStream(bas.toByteArray()), 8);
+    assertEquals(fory.deserialize(stream), order);
+    Node node = new Node();
+    for (int i = 0; i < 100; i++) {
+      Node head = new Node();
+      head.value = i;
+      head.name = "node" + i;
+      head.next = node;
+      node = head;
+    }
+    bytes = fory.serialize(node);
+    assertEquals(fory.deserialize(bytes), node);
+    Node projected = fory.deserialize(bytes, Node.class, FieldProjection.of("next.next.name"));
+    assertEquals(projected.next.next.name, "node97");
+    assertNull(projected.next.next.next);
+    assertNull(projected.name);
+  }
+
+  @Test
+  public void testFieldOffsetTableConfig() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            builder()
+                .withFieldOffsetTable(true)
+                .withCompatibleMode(CompatibleMode.COMPATIBLE)
+                .build());
+    Fory fory = builder().withFieldOffsetTable(true).withCodegen(true).build();
+    assertTrue(fory.getConfig().isCodeGenEnabled());
+    assertEquals(fory.getClassResolver().getSerializerClass(Order.class), ObjectSerializer.class);
+  }
+
+  @Test
+  public void testInvalidField() {
+    Fory fory = builder().build();
+    byte[] bytes = fory.serialize(createOrder());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> fory.deserialize(bytes, Order.class, FieldProjection.of("id", "notExist")));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> fory.deserialize(bytes, Order.class, FieldProjection.of("address.notExist")));
+    assertEquals(fory.deserialize(bytes), createOrder());
+  }
+
+  @Test
+  public void testFieldOffsetTableWriteFailure() {
+    Fory fory = builder().withFieldOffsetTable(true).requireClassRegistration(true).build();
+    fory.register(Order.class);
+    fory.register(Address.class);
+    Order order = createOrder();
+    // unregistered class in a nested field fails the write in the middle of the offset table.
+    order.extra = new Object() {};
+    assertThrows(Exception.class, () -> fory.serialize(order));
+    order.extra = createAddress("Shanghai");
+    byte[] bytes = fory.serialize(order);
+    assertEquals(fory.deserialize(bytes), order);
+    FieldProjection projection = FieldProjection.of("id", "name", "address.city", "tags");
+    checkProjected(order, fory.deserialize(bytes, Order.class, projection));
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.serializer;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import org.apache.fory.Fory;
+import org.apache.fory.ForyTestBase;
+import org.apache.fory.io.ForyInputStream;
+import org.apache.fory.memory.MemoryBuffer;
+import org.testng.annotations.Test;
+
+public class PrimitiveArrayCompressionTest extends ForyTestBase {
+
+  // `expectedEncoding` -1 means any encoding.
+  private static int[] checkInts(int[] values, int expectedEncoding) {
+    MemoryBuffer buffer = MemoryBuffer.newHeapBuffer(8);
+    PrimitiveArrayCompression.writeInt32s(buffer, values);
+    if (expectedEncoding >= 0) {
+      assertEquals(buffer.getByte(0), expectedEncoding);
+    }
+    assertEquals(PrimitiveArrayCompression.readInt32s(buffer), values);
+    assertEquals(buffer.readerIndex(), buffer.writerIndex());
+    return values;
+  }
+
+  private static long[] checkLongs(long[] values, int expectedEncoding) {
+    MemoryBuffer buffer = MemoryBuffer.newHeapBuffer(8);
+    PrimitiveArrayCompression.writeInt64s(buffer, values);
+    if (expectedEncoding >= 0) {
+      assertEquals(buffer.getByte(0), expectedEncoding);
+    }
+    assertEquals(PrimitiveArrayCompression.readInt64s(buffer), values);
+    assertEquals(buffer.readerIndex(), buffer.writerIndex());
+    return values;
+  }
+
+  @Test
+  public void testIntEncodings() {
+    checkInts(new int[0], PrimitiveArrayCompression.RAW);
+    int[] sorted = new int[1000];
+    for (int i = 0; i < sorted.length; i++) {
+      sorted[i] = 1_000_000_000 + i * 3;
+    }
+    checkInts(sorted, PrimitiveArrayCompression.DELTA);
+    Random random = new Random(7);
+    int[] small = new int[1001];
+    for (int i = 0; i < small.length; i++) {
+      small[i] = -1000 + random.nextInt(16);
+    }
+    checkInts(small, PrimitiveArrayCompression.BIT_PACKED);
+    int[] runs = new int[1000];
+    for (int i = 0; i < runs.length; i++) {
+      runs[i] = i / 100 * 123456789;
+    }
+    checkInts(runs, PrimitiveArrayCompression.RLE);
+    // all same values are packed with 0 bits.
+    checkInts(new int[100], PrimitiveArrayCompression.BIT_PACKED);
+    int[] randoms = new int[100];
+    for (int i = 0; i < randoms.length; i++) {
+      randoms[i] = random.nextInt();
+    }
+    checkInts(randoms, PrimitiveArrayCompression.RAW);
+    checkInts(new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1, 1}, -1);
+    for (int bits = 1; bits <= 31; bits++) {
+      int[] values = new int[67];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = random.nextInt() >>> (32 - bits);
+      }
+      checkInts(values, -1);
+    }
+  }
+
+  @Test
+  public void testLongEncodings() {
+    checkLongs(new long[0], PrimitiveArrayCompression.RAW);
+    long[] sorted = new long[1000];
+    for (int i = 0; i < sorted.length; i++) {
+      sorted[i] = System.currentTimeMillis() * 1000 + i * 17L;
+    }
+    checkLongs(sorted, PrimitiveArrayCompression.DELTA);
+    Random random = new Random(17);
+    long[] small = new long[999];
+    for (int i = 0; i < small.length; i++) {
+      small[i] = Long.MIN_VALUE + random.nextInt(1000);
+    }
+    checkLongs(small, PrimitiveArrayCompression.BIT_PACKED);
+    long[] runs = new long[1000];
+    for (int i = 0; i < runs.length; i++) {
+      runs[i] = (i / 250) * (Long.MAX_VALUE / 5);
+    }
+    checkLongs(runs, PrimitiveArrayCompression.RLE);
+    long[] randoms = new long[100];
+    for (int i = 0; i < randoms.length; i++) {
+      randoms[i] = random.nextLong();
+    }
+    checkLongs(randoms, PrimitiveArrayCompression.RAW);
+    checkLongs(new long[] {Long.MIN_VALUE, Long.MAX_VALUE, 0, -1, 1}, -1);
+    for (int bits = 1; bits <= 63; bits++) {
+      long[] values = new long[67];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = random.nextLong() >>> (64 - bits);
+      }
+      checkLongs(values, -1);
+    }
+  }
+
+  @Test
+  public void testForyArrayCompressed() {
+    Fory fory = builder().withIntArrayCompressed(true).withLongArrayCompressed(true).build();
+    int[] ints = new int[10000];
+    long[] longs = new long[10000];
+    for (int i = 0; i < ints.length; i++) {
+      ints[i] = i * 2;
+      longs[i] = i % 7;
+    }
+    Object[] arrays = {ints, longs};
+    byte[] bytes = fory.serialize(arrays);
+    assertTrue(bytes.length < 10000 * 3, "size " + bytes.length);
+    serDeCheck(fory, arrays);
+    ByteArrayOutputStream bas = new ByteArrayOutputStream();
+    fory.serialize(bas, arrays);
+    ForyInputStream stream = new ForyInputStream(new ByteArrayInputStream(bas.toByteArray()), 16);
+    Object[] newArrays = (Object[]) fory.deserialize(stream);
+    assertEquals(newArrays[0], ints);
+    assertEquals(newArrays[1], longs);
+  }
+}
@@ -100,6 +100,30 @@ public class CollectionSerializersTest extends ForyTestBase {
     copyCheck(fory, new LinkedHashSet<>(data));
   }
 
+  @Test(dataProvider = "referenceTrackingConfig")
+  public void testBoxedPrimitiveList(boolean referenceTrackingConfig) {
+    for (boolean numberCompressed : new boolean[] {false, true}) {
+      Fory fory =
+          Fory.builder()
+              .withLanguage(Language.JAVA)
+              .withRefTracking(referenceTrackingConfig)
+              .withNumberCompressed(numberCompressed)
+              .requireClassRegistration(false)
+              .build();
+      serDeCheck(fory, new ArrayList<>(Arrays.asList(1, -2, Integer.MAX_VALUE, Integer.MIN_VALUE)));
+      serDeCheck(fory, new ArrayList<>(Arrays.asList(1L, -2L, Long.MAX_VALUE, Long.MIN_VALUE)));
+      serDeCheck(fory, new ArrayList<>(Arrays.asList(1.5, -2.5, Double.NaN)));
+      serDeCheck(fory, new ArrayList<>(Arrays.asList(1.5f, -2.5f)));
+      serDeCheck(fory, new ArrayList<>(Arrays.asList((short) 1, Short.MIN_VALUE)));
+      serDeCheck(fory, new ArrayList<>(Arrays.asList((byte) 1, Byte.MIN_VALUE)));
+      serDeCheck(fory, new ArrayList<>(Arrays.asList(true, false)));
+      serDeCheck(fory, new ArrayList<>(Arrays.asList('a', Character.MAX_VALUE)));
+      serDeCheck(fory, new HashSet<>(Arrays.asList(1L, 2L, 3L)));
+      // nulls take the generic path.
+      serDeCheck(fory, new ArrayList<>(Arrays.asList(1, null, 3)));
+    }
+  }
+
   @Test(dataProvider = "referenceTrackingConfig")
   public void testBasicListNested(boolean referenceTrackingConfig) {
     Fory fory =
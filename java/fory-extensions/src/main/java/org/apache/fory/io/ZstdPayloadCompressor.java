@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.io;
+
+import com.github.luben.zstd.Zstd;
+import java.nio.ByteBuffer;
+import org.apache.fory.exception.DeserializationException;
+import org.apache.fory.memory.MemoryBuffer;
+
+/**
+ * A payload compressor based on `zstd`, which has a better compression rate than `lz4`. Heap
+ * buffers and off-heap buffers are compressed without copy, data will be copied only if one of
+ * `src` and `dst` is on heap while the other one is off heap.
+ */
+public class ZstdPayloadCompressor implements PayloadCompressor {
+  private final int level;
+
+  public ZstdPayloadCompressor() {
+    this(Zstd.defaultCompressionLevel());
+  }
+
+  public ZstdPayloadCompressor(int level) {
+    this.level = level;
+  }
+
+  @Override
+  public int maxCompressedLength(int length) {
+    return (int) Zstd.compressBound(length);
+  }
+
+  @Override
+  public int compress(MemoryBuffer src, int srcIndex, int length, MemoryBuffer dst, int dstIndex) {
+    int maxLength = maxCompressedLength(length);
+    ByteBuffer input = src.sliceAsByteBuffer(srcIndex, length);
+    ByteBuffer output = dst.sliceAsByteBuffer(dstIndex, maxLength);
+    long size;
+    if (input.isDirect() && output.isDirect()) {
+      size = Zstd.compressDirectByteBuffer(output, 0, maxLength, input, 0, length, level);
+    } else {
+      byte[] outputArray = output.hasArray() ? output.array() : new byte[maxLength];
+      int outputOffset = output.hasArray() ? output.arrayOffset() : 0;
+      size =
+          Zstd.compressByteArray(
+              outputArray,
+              outputOffset,
+              maxLength,
+              toArray(src, srcIndex, input),
+              input.hasArray() ? input.arrayOffset() : 0,
+              length,
+              level);
+      if (!output.hasArray() && !Zstd.isError(size)) {
+        dst.put(dstIndex, outputArray, 0, (int) size);
+      }
+    }
+    if (Zstd.isError(size)) {
+      throw new IllegalStateException("Zstd compression failed: " + Zstd.getErrorName(size));
+    }
+    return (int) size;
+  }
+
+  @Override
+  public void decompress(
+      MemoryBuffer src,
+      int srcIndex,
+      int compressedLength,
+      MemoryBuffer dst,
+      int dstIndex,
+      int length) {
+    ByteBuffer input = src.sliceAsByteBuffer(srcIndex, compressedLength);
+    ByteBuffer output = dst.sliceAsByteBuffer(dstIndex, length);
+    long size;
+    if (input.isDirect() && output.isDirect()) {
+      size = Zstd.decompressDirectByteBuffer(output, 0, length, input, 0, compressedLength);
+    } else {
+      byte[] outputArray = output.hasArray() ? output.array() : new byte[length];
+      int outputOffset = output.hasArray() ? output.arrayOffset() : 0;
+      size =
+          Zstd.decompressByteArray(
+              outputArray,
+              outputOffset,
+              length,
+              toArray(src, srcIndex, input),
+              input.hasArray() ? input.arrayOffset() : 0,
+              compressedLength);
+      if (!output.hasArray() && !Zstd.isError(size)) {
+        dst.put(dstIndex, outputArray, 0, (int) size);
+      }
+    }
+    if (Zstd.isError(size)) {
+      throw new DeserializationException("Zstd decompression failed: " + Zstd.getErrorName(size));
+    }
+    if (size != length) {
+      throw new DeserializationException(
+          String.format("Decompressed %d bytes, but expect %d bytes", size, length));
+    }
+  }
+
+  private static byte[] toArray(MemoryBuffer buffer, int index, ByteBuffer view) {
+    if (view.hasArray()) {
+      return view.array();
+    }
+    byte[] bytes = new byte[view.remaining()];
+    buffer.get(index, bytes, 0, bytes.length);
+    return bytes;
+  }
+
+  @Override
+  public int hashCode() {
+    return ZstdPayloadCompressor.class.hashCode() * 31 + level;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o != null && getClass() == o.getClass() && level == ((ZstdPayloadCompressor) o).level;
+  }
+}
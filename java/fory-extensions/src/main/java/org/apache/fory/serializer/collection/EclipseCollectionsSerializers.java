@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.serializer.collection;
+
+import org.apache.fory.Fory;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.resolver.ClassResolver;
+import org.apache.fory.serializer.PrimitiveSerializers.LongSerializer;
+import org.apache.fory.serializer.Serializer;
+import org.eclipse.collections.impl.list.mutable.primitive.DoubleArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+/**
+ * Serializers for <a href="https://eclipse.dev/collections">Eclipse Collections</a> primitive
+ * collections, which use the same format as {@link FastutilSerializers}. Serializers are not
+ * registered by default, call {@link #registerDefaultSerializers} to register them.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class EclipseCollectionsSerializers {
+
+  public static final class IntArrayListSerializer extends Serializer<IntArrayList> {
+    public IntArrayListSerializer(Fory fory) {
+      super(fory, IntArrayList.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, IntArrayList value) {
+      int[] elements = value.toArray();
+      PackedArrays.writeInts(buffer, elements, elements.length);
+    }
+
+    @Override
+    public IntArrayList read(MemoryBuffer buffer) {
+      // The varargs constructor wraps the array without copy.
+      return new IntArrayList(PackedArrays.readInts(buffer));
+    }
+
+    @Override
+    public IntArrayList copy(IntArrayList value) {
+      return new IntArrayList(value.toArray());
+    }
+  }
+
+  public static final class LongArrayListSerializer extends Serializer<LongArrayList> {
+    public LongArrayListSerializer(Fory fory) {
+      super(fory, LongArrayList.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, LongArrayList value) {
+      long[] elements = value.toArray();
+      PackedArrays.writeLongs(buffer, elements, elements.length);
+    }
+
+    @Override
+    public LongArrayList read(MemoryBuffer buffer) {
+      return new LongArrayList(PackedArrays.readLongs(buffer));
+    }
+
+    @Override
+    public LongArrayList copy(LongArrayList value) {
+      return new LongArrayList(value.toArray());
+    }
+  }
+
+  public static final class DoubleArrayListSerializer extends Serializer<DoubleArrayList> {
+    public DoubleArrayListSerializer(Fory fory) {
+      super(fory, DoubleArrayList.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, DoubleArrayList value) {
+      double[] elements = value.toArray();
+      PackedArrays.writeDoubles(buffer, elements, elements.length);
+    }
+
+    @Override
+    public DoubleArrayList read(MemoryBuffer buffer) {
+      return new DoubleArrayList(PackedArrays.readDoubles(buffer));
+    }
+
+    @Override
+    public DoubleArrayList copy(DoubleArrayList value) {
+      return new DoubleArrayList(value.toArray());
+    }
+  }
+
+  public static final class IntHashSetSerializer extends Serializer<IntHashSet> {
+    public IntHashSetSerializer(Fory fory) {
+      super(fory, IntHashSet.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, IntHashSet value) {
+      int[] elements = value.toArray();
+      PackedArrays.writeInts(buffer, elements, elements.length);
+    }
+
+    @Override
+    public IntHashSet read(MemoryBuffer buffer) {
+      return IntHashSet.newSetWith(PackedArrays.readInts(buffer));
+    }
+
+    @Override
+    public IntHashSet copy(IntHashSet value) {
+      return IntHashSet.newSet(value);
+    }
+  }
+
+  public static final class LongHashSetSerializer extends Serializer<LongHashSet> {
+    public LongHashSetSerializer(Fory fory) {
+      super(fory, LongHashSet.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, LongHashSet value) {
+      long[] elements = value.toArray();
+      PackedArrays.writeLongs(buffer, elements, elements.length);
+    }
+
+    @Override
+    public LongHashSet read(MemoryBuffer buffer) {
+      return LongHashSet.newSetWith(PackedArrays.readLongs(buffer));
+    }
+
+    @Override
+    public LongHashSet copy(LongHashSet value) {
+      return LongHashSet.newSet(value);
+    }
+  }
+
+  public static final class IntObjectHashMapSerializer extends Serializer<IntObjectHashMap> {
+    public IntObjectHashMapSerializer(Fory fory) {
+      super(fory, IntObjectHashMap.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, IntObjectHashMap value) {
+      buffer.writeVarUint32Small7(value.size());
+      value.forEachKeyValue(
+          (key, v) -> {
+            buffer.writeVarInt32(key);
+            fory.writeRef(buffer, v);
+          });
+    }
+
+    @Override
+    public IntObjectHashMap read(MemoryBuffer buffer) {
+      int size = buffer.readVarUint32Small7();
+      IntObjectHashMap map = new IntObjectHashMap(size);
+      fory.getRefResolver().reference(map);
+      for (int i = 0; i < size; i++) {
+        int key = buffer.readVarInt32();
+        map.put(key, fory.readRef(buffer));
+      }
+      return map;
+    }
+
+    @Override
+    public IntObjectHashMap copy(IntObjectHashMap value) {
+      IntObjectHashMap map = new IntObjectHashMap(value.size());
+      if (needToCopyRef) {
+        fory.reference(value, map);
+      }
+      value.forEachKeyValue((key, v) -> map.put(key, fory.copyObject(v)));
+      return map;
+    }
+  }
+
+  public static final class LongObjectHashMapSerializer extends Serializer<LongObjectHashMap> {
+    public LongObjectHashMapSerializer(Fory fory) {
+      super(fory, LongObjectHashMap.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, LongObjectHashMap value) {
+      buffer.writeVarUint32Small7(value.size());
+      value.forEachKeyValue(
+          (key, v) -> {
+            LongSerializer.writeInt64(buffer, key, fory.longEncoding());
+            fory.writeRef(buffer, v);
+          });
+    }
+
+    @Override
+    public LongObjectHashMap read(MemoryBuffer buffer) {
+      int size = buffer.readVarUint32Small7();
+      LongObjectHashMap map = new LongObjectHashMap(size);
+      fory.getRefResolver().reference(map);
+      for (int i = 0; i < size; i++) {
+        long key = LongSerializer.readInt64(buffer, fory.longEncoding());
+        map.put(key, fory.readRef(buffer));
+      }
+      return map;
+    }
+
+    @Override
+    public LongObjectHashMap copy(LongObjectHashMap value) {
+      LongObjectHashMap map = new LongObjectHashMap(value.size());
+      if (needToCopyRef) {
+        fory.reference(value, map);
+      }
+      value.forEachKeyValue((key, v) -> map.put(key, fory.copyObject(v)));
+      return map;
+    }
+  }
+
+  public static void registerDefaultSerializers(Fory fory) {
+    ClassResolver resolver = fory.getClassResolver();
+    resolver.registerSerializer(IntArrayList.class, new IntArrayListSerializer(fory));
+    resolver.registerSerializer(LongArrayList.class, new LongArrayListSerializer(fory));
+    resolver.registerSerializer(DoubleArrayList.class, new DoubleArrayListSerializer(fory));
+    resolver.registerSerializer(IntHashSet.class, new IntHashSetSerializer(fory));
+    resolver.registerSerializer(LongHashSet.class, new LongHashSetSerializer(fory));
+    resolver.registerSerializer(IntObjectHashMap.class, new IntObjectHashMapSerializer(fory));
+    resolver.registerSerializer(LongObjectHashMap.class, new LongObjectHashMapSerializer(fory));
+  }
+}
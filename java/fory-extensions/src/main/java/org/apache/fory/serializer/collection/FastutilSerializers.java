@@ -0,0 +1,367 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.serializer.collection;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMaps;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.apache.fory.Fory;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.memory.Platform;
+import org.apache.fory.reflect.ReflectionUtils;
+import org.apache.fory.resolver.ClassResolver;
+import org.apache.fory.serializer.PrimitiveSerializers.LongSerializer;
+import org.apache.fory.serializer.Serializer;
+
+/**
+ * Serializers for <a href="https://fastutil.di.unimi.it">fastutil</a> primitive collections. Lists
+ * and sets are written as packed primitive arrays, primitive map keys and values are written
+ * inline, so no elements are boxed in both serialization and deserialization. The load factor and
+ * default return value of maps are kept too. Serializers are not registered by default, call {@link
+ * #registerDefaultSerializers} to register them.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class FastutilSerializers {
+  // fastutil doesn't expose the load factor of hash maps.
+  private static final long INT2OBJECT_LOAD_FACTOR_OFFSET =
+      ReflectionUtils.getFieldOffset(Int2ObjectOpenHashMap.class, "f");
+  private static final long LONG2OBJECT_LOAD_FACTOR_OFFSET =
+      ReflectionUtils.getFieldOffset(Long2ObjectOpenHashMap.class, "f");
+  private static final long OBJECT2INT_LOAD_FACTOR_OFFSET =
+      ReflectionUtils.getFieldOffset(Object2IntOpenHashMap.class, "f");
+
+  private static void writeInt32(MemoryBuffer buffer, int value, boolean compressInt) {
+    if (compressInt) {
+      buffer.writeVarInt32(value);
+    } else {
+      buffer.writeInt32(value);
+    }
+  }
+
+  private static int readInt32(MemoryBuffer buffer, boolean compressInt) {
+    return compressInt ? buffer.readVarInt32() : buffer.readInt32();
+  }
+
+  public static final class IntArrayListSerializer extends Serializer<IntArrayList> {
+    public IntArrayListSerializer(Fory fory) {
+      super(fory, IntArrayList.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, IntArrayList value) {
+      PackedArrays.writeInts(buffer, value.elements(), value.size());
+    }
+
+    @Override
+    public IntArrayList read(MemoryBuffer buffer) {
+      return IntArrayList.wrap(PackedArrays.readInts(buffer));
+    }
+
+    @Override
+    public IntArrayList copy(IntArrayList value) {
+      return value.clone();
+    }
+  }
+
+  public static final class LongArrayListSerializer extends Serializer<LongArrayList> {
+    public LongArrayListSerializer(Fory fory) {
+      super(fory, LongArrayList.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, LongArrayList value) {
+      PackedArrays.writeLongs(buffer, value.elements(), value.size());
+    }
+
+    @Override
+    public LongArrayList read(MemoryBuffer buffer) {
+      return LongArrayList.wrap(PackedArrays.readLongs(buffer));
+    }
+
+    @Override
+    public LongArrayList copy(LongArrayList value) {
+      return value.clone();
+    }
+  }
+
+  public static final class FloatArrayListSerializer extends Serializer<FloatArrayList> {
+    public FloatArrayListSerializer(Fory fory) {
+      super(fory, FloatArrayList.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, FloatArrayList value) {
+      PackedArrays.writeFloats(buffer, value.elements(), value.size());
+    }
+
+    @Override
+    public FloatArrayList read(MemoryBuffer buffer) {
+      return FloatArrayList.wrap(PackedArrays.readFloats(buffer));
+    }
+
+    @Override
+    public FloatArrayList copy(FloatArrayList value) {
+      return value.clone();
+    }
+  }
+
+  public static final class DoubleArrayListSerializer extends Serializer<DoubleArrayList> {
+    public DoubleArrayListSerializer(Fory fory) {
+      super(fory, DoubleArrayList.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, DoubleArrayList value) {
+      PackedArrays.writeDoubles(buffer, value.elements(), value.size());
+    }
+
+    @Override
+    public DoubleArrayList read(MemoryBuffer buffer) {
+      return DoubleArrayList.wrap(PackedArrays.readDoubles(buffer));
+    }
+
+    @Override
+    public DoubleArrayList copy(DoubleArrayList value) {
+      return value.clone();
+    }
+  }
+
+  public static final class IntOpenHashSetSerializer extends Serializer<IntOpenHashSet> {
+    public IntOpenHashSetSerializer(Fory fory) {
+      super(fory, IntOpenHashSet.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, IntOpenHashSet value) {
+      int[] elements = value.toIntArray();
+      PackedArrays.writeInts(buffer, elements, elements.length);
+    }
+
+    @Override
+    public IntOpenHashSet read(MemoryBuffer buffer) {
+      return new IntOpenHashSet(PackedArrays.readInts(buffer));
+    }
+
+    @Override
+    public IntOpenHashSet copy(IntOpenHashSet value) {
+      return value.clone();
+    }
+  }
+
+  public static final class LongOpenHashSetSerializer extends Serializer<LongOpenHashSet> {
+    public LongOpenHashSetSerializer(Fory fory) {
+      super(fory, LongOpenHashSet.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, LongOpenHashSet value) {
+      long[] elements = value.toLongArray();
+      PackedArrays.writeLongs(buffer, elements, elements.length);
+    }
+
+    @Override
+    public LongOpenHashSet read(MemoryBuffer buffer) {
+      return new LongOpenHashSet(PackedArrays.readLongs(buffer));
+    }
+
+    @Override
+    public LongOpenHashSet copy(LongOpenHashSet value) {
+      return value.clone();
+    }
+  }
+
+  public static final class Int2ObjectOpenHashMapSerializer
+      extends Serializer<Int2ObjectOpenHashMap> {
+    private final boolean compressInt;
+
+    public Int2ObjectOpenHashMapSerializer(Fory fory) {
+      super(fory, Int2ObjectOpenHashMap.class);
+      compressInt = fory.compressInt();
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, Int2ObjectOpenHashMap value) {
+      buffer.writeVarUint32Small7(value.size());
+      buffer.writeFloat32(Platform.getFloat(value, INT2OBJECT_LOAD_FACTOR_OFFSET));
+      fory.writeRef(buffer, value.defaultReturnValue());
+      for (Object o : Int2ObjectMaps.fastIterable(value)) {
+        Int2ObjectMap.Entry entry = (Int2ObjectMap.Entry) o;
+        writeInt32(buffer, entry.getIntKey(), compressInt);
+        fory.writeRef(buffer, entry.getValue());
+      }
+    }
+
+    @Override
+    public Int2ObjectOpenHashMap read(MemoryBuffer buffer) {
+      int size = buffer.readVarUint32Small7();
+      Int2ObjectOpenHashMap map = new Int2ObjectOpenHashMap(size, buffer.readFloat32());
+      fory.getRefResolver().reference(map);
+      map.defaultReturnValue(fory.readRef(buffer));
+      for (int i = 0; i < size; i++) {
+        int key = readInt32(buffer, compressInt);
+        map.put(key, fory.readRef(buffer));
+      }
+      return map;
+    }
+
+    @Override
+    public Int2ObjectOpenHashMap copy(Int2ObjectOpenHashMap value) {
+      Int2ObjectOpenHashMap map =
+          new Int2ObjectOpenHashMap(
+              value.size(), Platform.getFloat(value, INT2OBJECT_LOAD_FACTOR_OFFSET));
+      if (needToCopyRef) {
+        fory.reference(value, map);
+      }
+      map.defaultReturnValue(fory.copyObject(value.defaultReturnValue()));
+      for (Object o : Int2ObjectMaps.fastIterable(value)) {
+        Int2ObjectMap.Entry entry = (Int2ObjectMap.Entry) o;
+        map.put(entry.getIntKey(), fory.copyObject(entry.getValue()));
+      }
+      return map;
+    }
+  }
+
+  public static final class Long2ObjectOpenHashMapSerializer
+      extends Serializer<Long2ObjectOpenHashMap> {
+    public Long2ObjectOpenHashMapSerializer(Fory fory) {
+      super(fory, Long2ObjectOpenHashMap.class);
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, Long2ObjectOpenHashMap value) {
+      buffer.writeVarUint32Small7(value.size());
+      buffer.writeFloat32(Platform.getFloat(value, LONG2OBJECT_LOAD_FACTOR_OFFSET));
+      fory.writeRef(buffer, value.defaultReturnValue());
+      for (Object o : Long2ObjectMaps.fastIterable(value)) {
+        Long2ObjectMap.Entry entry = (Long2ObjectMap.Entry) o;
+        LongSerializer.writeInt64(buffer, entry.getLongKey(), fory.longEncoding());
+        fory.writeRef(buffer, entry.getValue());
+      }
+    }
+
+    @Override
+    public Long2ObjectOpenHashMap read(MemoryBuffer buffer) {
+      int size = buffer.readVarUint32Small7();
+      Long2ObjectOpenHashMap map = new Long2ObjectOpenHashMap(size, buffer.readFloat32());
+      fory.getRefResolver().reference(map);
+      map.defaultReturnValue(fory.readRef(buffer));
+      for (int i = 0; i < size; i++) {
+        long key = LongSerializer.readInt64(buffer, fory.longEncoding());
+        map.put(key, fory.readRef(buffer));
+      }
+      return map;
+    }
+
+    @Override
+    public Long2ObjectOpenHashMap copy(Long2ObjectOpenHashMap value) {
+      Long2ObjectOpenHashMap map =
+          new Long2ObjectOpenHashMap(
+              value.size(), Platform.getFloat(value, LONG2OBJECT_LOAD_FACTOR_OFFSET));
+      if (needToCopyRef) {
+        fory.reference(value, map);
+      }
+      map.defaultReturnValue(fory.copyObject(value.defaultReturnValue()));
+      for (Object o : Long2ObjectMaps.fastIterable(value)) {
+        Long2ObjectMap.Entry entry = (Long2ObjectMap.Entry) o;
+        map.put(entry.getLongKey(), fory.copyObject(entry.getValue()));
+      }
+      return map;
+    }
+  }
+
+  public static final class Object2IntOpenHashMapSerializer
+      extends Serializer<Object2IntOpenHashMap> {
+    private final boolean compressInt;
+
+    public Object2IntOpenHashMapSerializer(Fory fory) {
+      super(fory, Object2IntOpenHashMap.class);
+      compressInt = fory.compressInt();
+    }
+
+    @Override
+    public void write(MemoryBuffer buffer, Object2IntOpenHashMap value) {
+      buffer.writeVarUint32Small7(value.size());
+      buffer.writeFloat32(Platform.getFloat(value, OBJECT2INT_LOAD_FACTOR_OFFSET));
+      writeInt32(buffer, value.defaultReturnValue(), compressInt);
+      for (Object o : Object2IntMaps.fastIterable(value)) {
+        Object2IntMap.Entry entry = (Object2IntMap.Entry) o;
+        fory.writeRef(buffer, entry.getKey());
+        writeInt32(buffer, entry.getIntValue(), compressInt);
+      }
+    }
+
+    @Override
+    public Object2IntOpenHashMap read(MemoryBuffer buffer) {
+      int size = buffer.readVarUint32Small7();
+      Object2IntOpenHashMap map = new Object2IntOpenHashMap(size, buffer.readFloat32());
+      fory.getRefResolver().reference(map);
+      map.defaultReturnValue(readInt32(buffer, compressInt));
+      for (int i = 0; i < size; i++) {
+        Object key = fory.readRef(buffer);
+        map.put(key, readInt32(buffer, compressInt));
+      }
+      return map;
+    }
+
+    @Override
+    public Object2IntOpenHashMap copy(Object2IntOpenHashMap value) {
+      Object2IntOpenHashMap map =
+          new Object2IntOpenHashMap(
+              value.size(), Platform.getFloat(value, OBJECT2INT_LOAD_FACTOR_OFFSET));
+      if (needToCopyRef) {
+        fory.reference(value, map);
+      }
+      map.defaultReturnValue(value.defaultReturnValue());
+      for (Object o : Object2IntMaps.fastIterable(value)) {
+        Object2IntMap.Entry entry = (Object2IntMap.Entry) o;
+        map.put(fory.copyObject(entry.getKey()), entry.getIntValue());
+      }
+      return map;
+    }
+  }
+
+  public static void registerDefaultSerializers(Fory fory) {
+    ClassResolver resolver = fory.getClassResolver();
+    resolver.registerSerializer(IntArrayList.class, new IntArrayListSerializer(fory));
+    resolver.registerSerializer(LongArrayList.class, new LongArrayListSerializer(fory));
+    resolver.registerSerializer(FloatArrayList.class, new FloatArrayListSerializer(fory));
+    resolver.registerSerializer(DoubleArrayList.class, new DoubleArrayListSerializer(fory));
+    resolver.registerSerializer(IntOpenHashSet.class, new IntOpenHashSetSerializer(fory));
+    resolver.registerSerializer(LongOpenHashSet.class, new LongOpenHashSetSerializer(fory));
+    resolver.registerSerializer(
+        Int2ObjectOpenHashMap.class, new Int2ObjectOpenHashMapSerializer(fory));
+    resolver.registerSerializer(
+        Long2ObjectOpenHashMap.class, new Long2ObjectOpenHashMapSerializer(fory));
+    resolver.registerSerializer(
+        Object2IntOpenHashMap.class, new Object2IntOpenHashMapSerializer(fory));
+  }
+}
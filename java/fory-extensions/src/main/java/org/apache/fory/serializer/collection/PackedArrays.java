@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.serializer.collection;
+
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.memory.Platform;
+
+/**
+ * Packed encoding of primitive collection elements: a varuint32 byte size followed by the raw
+ * little-endian element bytes, which is the same layout as uncompressed primitive arrays, so both
+ * sides are a single memory copy.
+ */
+final class PackedArrays {
+
+  static void writeInts(MemoryBuffer buffer, int[] values, int size) {
+    buffer.writePrimitiveArrayWithSize(values, Platform.INT_ARRAY_OFFSET, size << 2);
+  }
+
+  static int[] readInts(MemoryBuffer buffer) {
+    int numBytes = buffer.readVarUint32Small7();
+    int[] values = new int[numBytes >> 2];
+    buffer.readToUnsafe(values, Platform.INT_ARRAY_OFFSET, numBytes);
+    return values;
+  }
+
+  static void writeLongs(MemoryBuffer buffer, long[] values, int size) {
+    buffer.writePrimitiveArrayWithSize(values, Platform.LONG_ARRAY_OFFSET, size << 3);
+  }
+
+  static long[] readLongs(MemoryBuffer buffer) {
+    int numBytes = buffer.readVarUint32Small7();
+    long[] values = new long[numBytes >> 3];
+    buffer.readToUnsafe(values, Platform.LONG_ARRAY_OFFSET, numBytes);
+    return values;
+  }
+
+  static void writeFloats(MemoryBuffer buffer, float[] values, int size) {
+    buffer.writePrimitiveArrayWithSize(values, Platform.FLOAT_ARRAY_OFFSET, size << 2);
+  }
+
+  static float[] readFloats(MemoryBuffer buffer) {
+    int numBytes = buffer.readVarUint32Small7();
+    float[] values = new float[numBytes >> 2];
+    buffer.readToUnsafe(values, Platform.FLOAT_ARRAY_OFFSET, numBytes);
+    return values;
+  }
+
+  static void writeDoubles(MemoryBuffer buffer, double[] values, int size) {
+    buffer.writePrimitiveArrayWithSize(values, Platform.DOUBLE_ARRAY_OFFSET, size << 3);
+  }
+
+  static double[] readDoubles(MemoryBuffer buffer) {
+    int numBytes = buffer.readVarUint32Small7();
+    double[] values = new double[numBytes >> 3];
+    buffer.readToUnsafe(values, Platform.DOUBLE_ARRAY_OFFSET, numBytes);
+    return values;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.fory.Fory;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.memory.MemoryUtils;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class PayloadCompressorTest {
+
+  @DataProvider
+  public static Object[][] compressors() {
+    return new Object[][] {
+      {new Lz4PayloadCompressor()}, {new Lz4PayloadCompressor(true)}, {new ZstdPayloadCompressor()},
+    };
+  }
+
+  @Test(dataProvider = "compressors")
+  public void testCompress(PayloadCompressor compressor) {
+    byte[] data = new byte[10000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i % 100);
+    }
+    int maxLength = compressor.maxCompressedLength(data.length);
+    MemoryBuffer directSrc = MemoryUtils.wrap(ByteBuffer.allocateDirect(data.length));
+    directSrc.put(0, data, 0, data.length);
+    for (MemoryBuffer src : new MemoryBuffer[] {MemoryBuffer.fromByteArray(data), directSrc}) {
+      MemoryBuffer[] dstBuffers = {
+        MemoryBuffer.newHeapBuffer(maxLength + 10),
+        MemoryUtils.wrap(ByteBuffer.allocateDirect(maxLength + 10))
+      };
+      for (MemoryBuffer dst : dstBuffers) {
+        int size = compressor.compress(src, 5, 9000, dst, 10);
+        Assert.assertTrue(size < 1000, "size " + size);
+        MemoryBuffer[] outBuffers = {
+          MemoryBuffer.newHeapBuffer(9000), MemoryUtils.wrap(ByteBuffer.allocateDirect(9000))
+        };
+        for (MemoryBuffer out : outBuffers) {
+          compressor.decompress(dst, 10, size, out, 0, 9000);
+          Assert.assertEquals(out.getBytes(0, 9000), Arrays.copyOfRange(data, 5, 9005));
+        }
+      }
+    }
+  }
+
+  @Test(dataProvider = "compressors")
+  public void testPayloadCompression(PayloadCompressor compressor) {
+    Fory fory =
+        Fory.builder()
+            .requireClassRegistration(false)
+            .withPayloadCompressor(compressor)
+            .withPayloadCompressionThreshold(64)
+            .build();
+    List<String> list = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      list.add("str" + i % 10);
+    }
+    byte[] bytes = fory.serialize(list);
+    Assert.assertTrue(bytes.length < 1000, "size " + bytes.length);
+    Assert.assertEquals(fory.deserialize(bytes), list);
+    ByteArrayOutputStream bas = new ByteArrayOutputStream();
+    fory.serialize(bas, list);
+    fory.serialize(bas, list);
+    ForyInputStream stream = new ForyInputStream(new ByteArrayInputStream(bas.toByteArray()), 16);
+    Assert.assertEquals(fory.deserialize(stream), list);
+    Assert.assertEquals(fory.deserialize(stream), list);
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.serializer.collection;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.fory.Fory;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class PrimitiveCollectionSerializersTest {
+
+  @DataProvider
+  public static Object[][] refTracking() {
+    return new Object[][] {{false}, {true}};
+  }
+
+  private static Fory newFory(boolean refTracking) {
+    Fory fory = Fory.builder().requireClassRegistration(false).withRefTracking(refTracking).build();
+    FastutilSerializers.registerDefaultSerializers(fory);
+    EclipseCollectionsSerializers.registerDefaultSerializers(fory);
+    return fory;
+  }
+
+  private static void serDeCheck(Fory fory, Object obj) {
+    Assert.assertEquals(fory.deserialize(fory.serialize(obj)), obj);
+    Assert.assertEquals(fory.copy(obj), obj);
+  }
+
+  @Test(dataProvider = "refTracking")
+  public void testFastutil(boolean refTracking) {
+    Fory fory = newFory(refTracking);
+    IntArrayList ints = new IntArrayList(100);
+    LongArrayList longs = new LongArrayList();
+    FloatArrayList floats = new FloatArrayList();
+    DoubleArrayList doubles = new DoubleArrayList();
+    IntOpenHashSet intSet = new IntOpenHashSet();
+    LongOpenHashSet longSet = new LongOpenHashSet();
+    Int2ObjectOpenHashMap<String> intMap = new Int2ObjectOpenHashMap<>();
+    Long2ObjectOpenHashMap<List<String>> longMap = new Long2ObjectOpenHashMap<>();
+    Object2IntOpenHashMap<String> objMap = new Object2IntOpenHashMap<>();
+    for (int i = 0; i < 10; i++) {
+      ints.add(i - 5);
+      longs.add(Long.MAX_VALUE - i);
+      floats.add(i / 3.0f);
+      doubles.add(i / 7.0);
+      intSet.add(i * 31);
+      longSet.add(-i * 1000_000_000_000L);
+      intMap.put(i - 5, i % 3 == 0 ? null : "v" + i);
+      List<String> list = new ArrayList<>();
+      list.add("v" + i);
+      longMap.put(Long.MIN_VALUE + i, list);
+      objMap.put("k" + i, i * 100_000);
+    }
+    Object[] objects = {ints, longs, floats, doubles, intSet, longSet, intMap, longMap, objMap};
+    for (Object obj : objects) {
+      serDeCheck(fory, obj);
+    }
+    serDeCheck(fory, new IntArrayList());
+    serDeCheck(fory, new Int2ObjectOpenHashMap<>());
+    List<Object> list = new ArrayList<>();
+    for (Object obj : objects) {
+      list.add(obj);
+      list.add(obj);
+    }
+    List<Object> newList = (List<Object>) fory.deserialize(fory.serialize(list));
+    Assert.assertEquals(newList, list);
+    if (refTracking) {
+      Assert.assertSame(newList.get(0), newList.get(1));
+    }
+  }
+
+  @Test
+  public void testFastutilMapDefaultReturnValue() {
+    for (boolean compressInt : new boolean[] {false, true}) {
+      Fory fory =
+          Fory.builder().requireClassRegistration(false).withIntCompressed(compressInt).build();
+      FastutilSerializers.registerDefaultSerializers(fory);
+      Int2ObjectOpenHashMap<String> intMap = new Int2ObjectOpenHashMap<>(16, 0.5f);
+      intMap.defaultReturnValue("none");
+      intMap.put(Integer.MIN_VALUE, "min");
+      intMap.put(Integer.MAX_VALUE, "max");
+      Long2ObjectOpenHashMap<String> longMap = new Long2ObjectOpenHashMap<>();
+      longMap.defaultReturnValue("none");
+      longMap.put(1L, "one");
+      Object2IntOpenHashMap<String> objMap = new Object2IntOpenHashMap<>(16, 0.5f);
+      objMap.defaultReturnValue(-1);
+      objMap.put("min", Integer.MIN_VALUE);
+      for (Object obj : new Object[] {intMap, longMap, objMap}) {
+        serDeCheck(fory, obj);
+      }
+      Int2ObjectOpenHashMap<String> newIntMap =
+          (Int2ObjectOpenHashMap<String>) fory.deserialize(fory.serialize(intMap));
+      Assert.assertEquals(newIntMap.get(0), "none");
+      Assert.assertEquals(fory.copy(intMap).get(0), "none");
+      Long2ObjectOpenHashMap<String> newLongMap =
+          (Long2ObjectOpenHashMap<String>) fory.deserialize(fory.serialize(longMap));
+      Assert.assertEquals(newLongMap.get(0L), "none");
+      Assert.assertEquals(fory.copy(longMap).get(0L), "none");
+      Object2IntOpenHashMap<String> newObjMap =
+          (Object2IntOpenHashMap<String>) fory.deserialize(fory.serialize(objMap));
+      Assert.assertEquals(newObjMap.getInt("k"), -1);
+      Assert.assertEquals(fory.copy(objMap).getInt("k"), -1);
+    }
+  }
+
+  @Test(dataProvider = "refTracking")
+  public void testEclipseCollections(boolean refTracking) {
+    Fory fory = newFory(refTracking);
+    org.eclipse.collections.impl.list.mutable.primitive.IntArrayList ints =
+        new org.eclipse.collections.impl.list.mutable.primitive.IntArrayList();
+    org.eclipse.collections.impl.list.mutable.primitive.LongArrayList longs =
+        new org.eclipse.collections.impl.list.mutable.primitive.LongArrayList();
+    org.eclipse.collections.impl.list.mutable.primitive.DoubleArrayList doubles =
+        new org.eclipse.collections.impl.list.mutable.primitive.DoubleArrayList();
+    IntHashSet intSet = new IntHashSet();
+    LongHashSet longSet = new LongHashSet();
+    IntObjectHashMap<String> intMap = new IntObjectHashMap<>();
+    LongObjectHashMap<String> longMap = new LongObjectHashMap<>();
+    for (int i = 0; i < 10; i++) {
+      ints.add(i - 5);
+      longs.add(Long.MAX_VALUE - i);
+      doubles.add(i / 7.0);
+      intSet.add(i * 31);
+      longSet.add(-i * 1000_000_000_000L);
+      intMap.put(i - 5, "v" + i);
+      longMap.put(Long.MIN_VALUE + i, i % 3 == 0 ? null : "v" + i);
+    }
+    for (Object obj : new Object[] {ints, longs, doubles, intSet, longSet, intMap, longMap}) {
+      serDeCheck(fory, obj);
+    }
+  }
+}
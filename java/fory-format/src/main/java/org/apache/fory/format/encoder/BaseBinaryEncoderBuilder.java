@@ -393,7 +393,9 @@ public abstract class BaseBinaryEncoderBuilder extends CodecBuilder {
     Invoke preserve = new Invoke(writer, "writeDirectly", Literal.ofInt(-1));
     expressions.add(offset, preserve);
 
-    Invoke keySet = new Invoke(inputObject, "keySet", keySetType);
+    // keys are sorted if enabled by `BinaryWriter#setSortMapKeys`.
+    Invoke map = new Invoke(writer, "orderMapKeys", "map", supertype, false, inputObject);
+    Invoke keySet = new Invoke(map, "keySet", keySetType);
     Expression keySerializationExpr = serializeForArray(keySet, writer, keySetType, keyArrayField);
     expressions.add(keySet, keySerializationExpr);
 
@@ -404,7 +406,7 @@ public abstract class BaseBinaryEncoderBuilder extends CodecBuilder {
             offset,
             Expression.Invoke.inlineInvoke(keySerializationExpr, "size", PRIMITIVE_INT_TYPE)));
 
-    Invoke values = new Invoke(inputObject, "values", valuesType);
+    Invoke values = new Invoke(map, "values", valuesType);
     Expression valueSerializationExpr =
         serializeForArray(values, writer, valuesType, valueArrayField);
     expressions.add(values, valueSerializationExpr);
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.encoder;
+
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * Encoder to encode/decode object to/from columns of an arrow {@link VectorSchemaRoot}. Objects are
+ * written into vectors of the root row by row, and can be read back by row index after the root is
+ * finished or loaded from an ipc stream.
+ */
+public interface ColumnarEncoder<T> {
+  Schema schema();
+
+  /** Returns the root which objects are written into and read from. */
+  VectorSchemaRoot root();
+
+  /** Append object to vectors of the root as next row. */
+  void write(T obj);
+
+  /** Set value count of vectors and returns the root which contains all written rows. */
+  VectorSchemaRoot finish();
+
+  /** Clear written rows, buffers of vectors will be reused by next writes. */
+  void reset();
+
+  /** Read row at <code>index</code> of the root as an object. */
+  T read(int index);
+}
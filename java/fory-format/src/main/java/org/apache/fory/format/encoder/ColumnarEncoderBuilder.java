@@ -0,0 +1,369 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.encoder;
+
+import static org.apache.fory.type.TypeUtils.CLASS_TYPE;
+import static org.apache.fory.type.TypeUtils.PRIMITIVE_INT_TYPE;
+
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.fory.builder.CodecBuilder;
+import org.apache.fory.codegen.CodeGenerator;
+import org.apache.fory.codegen.CodegenContext;
+import org.apache.fory.codegen.Expression;
+import org.apache.fory.codegen.Expression.Invoke;
+import org.apache.fory.codegen.Expression.Literal;
+import org.apache.fory.codegen.Expression.Reference;
+import org.apache.fory.codegen.Expression.StaticInvoke;
+import org.apache.fory.codegen.ExpressionUtils;
+import org.apache.fory.format.type.CustomTypeEncoderRegistry;
+import org.apache.fory.format.type.CustomTypeHandler;
+import org.apache.fory.format.type.TypeInference;
+import org.apache.fory.logging.Logger;
+import org.apache.fory.logging.LoggerFactory;
+import org.apache.fory.reflect.TypeRef;
+import org.apache.fory.type.Descriptor;
+import org.apache.fory.type.TypeUtils;
+import org.apache.fory.util.DateTimeUtils;
+import org.apache.fory.util.GraalvmSupport;
+import org.apache.fory.util.Preconditions;
+import org.apache.fory.util.StringUtils;
+import org.apache.fory.util.record.RecordUtils;
+
+/**
+ * Expression builder for building jit {@link ColumnarEncoder} class. Rows built by {@link
+ * RowEncoderBuilder} have to be copied into arrow vectors again, while this builder writes bean
+ * fields into arrow vectors directly, and reads bean fields from arrow vectors directly.
+ *
+ * <p>Only beans whose fields are primitives, boxed primitives, string, enum, decimal, date or
+ * timestamp are supported, see {@link #isSupported}.
+ */
+public class ColumnarEncoderBuilder extends BaseBinaryEncoderBuilder {
+  private static final Logger LOG = LoggerFactory.getLogger(ColumnarEncoderBuilder.class);
+  static final String ROOT_NAME = "root";
+  static final String INDEX_NAME = "index";
+  static final String BEAN_CLASS_NAME = "beanClass";
+  private static final Map<Class<?>, Class<?>> VECTOR_CLASSES = new HashMap<>();
+
+  static {
+    VECTOR_CLASSES.put(boolean.class, BitVector.class);
+    VECTOR_CLASSES.put(Boolean.class, BitVector.class);
+    VECTOR_CLASSES.put(byte.class, TinyIntVector.class);
+    VECTOR_CLASSES.put(Byte.class, TinyIntVector.class);
+    VECTOR_CLASSES.put(short.class, SmallIntVector.class);
+    VECTOR_CLASSES.put(Short.class, SmallIntVector.class);
+    VECTOR_CLASSES.put(int.class, IntVector.class);
+    VECTOR_CLASSES.put(Integer.class, IntVector.class);
+    VECTOR_CLASSES.put(long.class, BigIntVector.class);
+    VECTOR_CLASSES.put(Long.class, BigIntVector.class);
+    VECTOR_CLASSES.put(float.class, Float4Vector.class);
+    VECTOR_CLASSES.put(Float.class, Float4Vector.class);
+    VECTOR_CLASSES.put(double.class, Float8Vector.class);
+    VECTOR_CLASSES.put(Double.class, Float8Vector.class);
+    VECTOR_CLASSES.put(BigDecimal.class, DecimalVector.class);
+    VECTOR_CLASSES.put(java.time.LocalDate.class, DateDayVector.class);
+    VECTOR_CLASSES.put(java.sql.Date.class, DateDayVector.class);
+    VECTOR_CLASSES.put(java.time.Instant.class, TimeStampVector.class);
+    VECTOR_CLASSES.put(java.sql.Timestamp.class, TimeStampVector.class);
+    VECTOR_CLASSES.put(String.class, VarCharVector.class);
+  }
+
+  private final String className;
+  private final Schema schema;
+  private final Descriptor[] descriptors;
+  private final Reference beanClassRef = new Reference(BEAN_CLASS_NAME, CLASS_TYPE);
+  private final Reference index = new Reference(INDEX_NAME, PRIMITIVE_INT_TYPE, false);
+  private final Reference utf8;
+
+  public ColumnarEncoderBuilder(Class<?> beanClass) {
+    super(new CodegenContext(), beanClass);
+    Preconditions.checkArgument(isSupported(beanClass), "Unsupported bean class %s", beanClass);
+    className = codecClassName(beanClass);
+    schema = TypeInference.inferSchema(beanClass);
+    SortedMap<String, Descriptor> descriptorsMap = Descriptor.getDescriptorsMap(beanClass);
+    descriptors =
+        schema.getFields().stream()
+            .map(f -> descriptorsMap.get(StringUtils.lowerUnderscoreToLowerCamelCase(f.getName())))
+            .toArray(Descriptor[]::new);
+    ctx.reserveName(ROOT_NAME);
+    ctx.reserveName(INDEX_NAME);
+    ctx.reserveName(BEAN_CLASS_NAME);
+    Expression clsExpr;
+    if (Modifier.isPublic(beanClass.getModifiers())) {
+      clsExpr = Literal.ofClass(beanClass);
+    } else {
+      // non-public class is not accessible in other class.
+      clsExpr =
+          new StaticInvoke(
+              Class.class, "forName", CLASS_TYPE, false, Literal.ofString(beanClass.getName()));
+    }
+    ctx.addField(Class.class, BEAN_CLASS_NAME, clsExpr);
+    utf8 = new Reference(ctx.type(StandardCharsets.class) + ".UTF_8", TypeRef.of(Charset.class));
+  }
+
+  /** Returns whether all fields of the bean can be written into arrow vectors directly. */
+  public static boolean isSupported(Class<?> beanClass) {
+    CustomTypeHandler customTypeHandler = CustomTypeEncoderRegistry.customTypeHandler();
+    if (beanClass.isInterface() || !TypeUtils.isBean(beanClass, customTypeHandler)) {
+      return false;
+    }
+    for (Descriptor descriptor : Descriptor.getDescriptors(beanClass)) {
+      Class<?> rawType = descriptor.getRawType();
+      if (customTypeHandler.findCodec(beanClass, rawType) != null) {
+        return false;
+      }
+      if (!rawType.isEnum() && !VECTOR_CLASSES.containsKey(rawType)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  protected String codecSuffix() {
+    return "ColumnarCodec";
+  }
+
+  @Override
+  public String genCode() {
+    ctx.setPackage(CodeGenerator.getPackage(beanClass));
+    ctx.setClassName(className);
+    // don't addImport(beanClass), because user class may name collide.
+    ctx.implementsInterfaces(ctx.type(GeneratedColumnarEncoder.class));
+    String rootType = ctx.type(VectorSchemaRoot.class);
+    StringBuilder constructorCode =
+        new StringBuilder(
+            StringUtils.format(
+                "${rootType} ${root} = (${rootType})${references}[0];\n",
+                "rootType",
+                rootType,
+                "root",
+                ROOT_NAME,
+                "references",
+                REFERENCES_NAME));
+    for (int i = 0; i < descriptors.length; i++) {
+      String vectorType = ctx.type(vectorClass(descriptors[i].getRawType()));
+      ctx.addField(vectorType, vectorName(i));
+      constructorCode.append(
+          StringUtils.format(
+              "${vector} = (${vectorType})${root}.getVector(${i});\n",
+              "vector",
+              vectorName(i),
+              "vectorType",
+              vectorType,
+              "root",
+              ROOT_NAME,
+              "i",
+              i));
+    }
+    ctx.addConstructor(constructorCode.toString(), Object[].class, REFERENCES_NAME);
+    String encodeCode = buildEncodeExpression().genCode(ctx).code();
+    String decodeCode = buildDecodeExpression().genCode(ctx).code();
+    ctx.overrideMethod(
+        "write", encodeCode, void.class, Object.class, ROOT_OBJECT_NAME, int.class, INDEX_NAME);
+    ctx.overrideMethod("read", decodeCode, Object.class, int.class, INDEX_NAME);
+
+    long startTime = System.nanoTime();
+    String code = ctx.genCode();
+    long durationMs = (System.nanoTime() - startTime) / 1000;
+    LOG.info("Generate columnar codec for class {} take {} us", beanClass, durationMs);
+    return code;
+  }
+
+  /**
+   * Returns an expression that writes fields of java bean of type {@link CodecBuilder#beanClass}
+   * into vectors at position <code>index</code>.
+   */
+  @Override
+  public Expression buildEncodeExpression() {
+    Reference inputObject = new Reference(ROOT_OBJECT_NAME, TypeUtils.OBJECT_TYPE, false);
+    Expression.ListExpression expressions = new Expression.ListExpression();
+    Expression bean = new Expression.Cast(inputObject, beanType, ctx.newName(beanClass));
+    for (int i = 0; i < descriptors.length; i++) {
+      Descriptor d = descriptors[i];
+      Reference vector = vectorRef(i, d);
+      Expression fieldValue = getFieldValue(bean, d);
+      ArrowType type = schema.getFields().get(i).getType();
+      Expression write = new Invoke(vector, "setSafe", index, encodeValue(fieldValue, d, type));
+      if (!d.getRawType().isPrimitive()) {
+        write =
+            new Expression.If(
+                ExpressionUtils.eqNull(fieldValue), new Invoke(vector, "setNull", index), write);
+      }
+      expressions.add(write);
+    }
+    return expressions;
+  }
+
+  /**
+   * Returns an expression that reads row at <code>index</code> of vectors as a java bean of type
+   * {@link CodecBuilder#beanClass}.
+   */
+  @Override
+  public Expression buildDecodeExpression() {
+    int numFields = descriptors.length;
+    List<String> fieldNames = new ArrayList<>(numFields);
+    Expression[] values = new Expression[numFields];
+    Expression.ListExpression expressions = new Expression.ListExpression();
+    for (int i = 0; i < numFields; i++) {
+      Descriptor d = descriptors[i];
+      fieldNames.add(d.getName());
+      TypeRef<?> fieldType = d.getTypeRef();
+      Reference vector = vectorRef(i, d);
+      Expression decoded = decodeValue(vector, d);
+      Expression.Variable value;
+      if (fieldType.isPrimitive()) {
+        value = new Expression.Variable(d.getName(), decoded);
+        expressions.add(value);
+      } else {
+        value = new Expression.Variable(d.getName(), new Expression.Null(fieldType, true));
+        Expression isNull = new Invoke(vector, "isNull", TypeUtils.PRIMITIVE_BOOLEAN_TYPE, index);
+        expressions.add(value);
+        expressions.add(
+            new Expression.If(ExpressionUtils.not(isNull), new Expression.Assign(value, decoded)));
+      }
+      values[i] = value;
+    }
+    Expression bean;
+    if (RecordUtils.isRecord(beanClass)) {
+      int[] map = RecordUtils.buildRecordComponentMapping(beanClass, fieldNames);
+      Expression[] args = new Expression[numFields];
+      for (int i = 0; i < numFields; i++) {
+        args[i] = values[map[i]];
+      }
+      bean = new Expression.NewInstance(beanType, beanType.getRawType().getName(), args);
+    } else {
+      bean = newBean();
+      expressions.add(bean);
+      for (int i = 0; i < numFields; i++) {
+        expressions.add(setFieldValue(bean, descriptors[i], values[i]));
+      }
+    }
+    expressions.add(new Expression.Return(bean));
+    return expressions;
+  }
+
+  private Expression encodeValue(Expression value, Descriptor d, ArrowType type) {
+    Class<?> rawType = d.getRawType();
+    if (rawType == boolean.class || rawType == Boolean.class) {
+      return new Expression.If(value, Literal.ofInt(1), Literal.ofInt(0));
+    } else if (TypeUtils.isBoxed(rawType)) {
+      // unbox explicitly, so that the primitive `setSafe` overload is chosen.
+      Class<?> primitiveType = TypeUtils.unwrap(rawType);
+      return Invoke.inlineInvoke(
+          value, primitiveType.getName() + "Value", TypeRef.of(primitiveType));
+    } else if (rawType == BigDecimal.class) {
+      // vector requires same scale, `setScale` without rounding mode throws `ArithmeticException`
+      // if the value can't be represented in the scale of vector, instead of rounding silently.
+      int scale = ((ArrowType.Decimal) type).getScale();
+      return Invoke.inlineInvoke(
+          value, "setScale", TypeUtils.BIG_DECIMAL_TYPE, Literal.ofInt(scale));
+    } else if (rawType == java.time.LocalDate.class) {
+      return new StaticInvoke(
+          DateTimeUtils.class, "localDateToDays", PRIMITIVE_INT_TYPE, false, value);
+    } else if (rawType == java.sql.Date.class) {
+      return new StaticInvoke(
+          DateTimeUtils.class, "fromJavaDate", PRIMITIVE_INT_TYPE, false, value);
+    } else if (rawType == java.time.Instant.class) {
+      return new StaticInvoke(
+          DateTimeUtils.class, "instantToMicros", TypeUtils.PRIMITIVE_LONG_TYPE, false, value);
+    } else if (rawType == java.sql.Timestamp.class) {
+      return new StaticInvoke(
+          DateTimeUtils.class, "fromJavaTimestamp", TypeUtils.PRIMITIVE_LONG_TYPE, false, value);
+    } else if (rawType == String.class) {
+      return Invoke.inlineInvoke(value, "getBytes", TypeUtils.BINARY_TYPE, utf8);
+    } else if (rawType.isEnum()) {
+      Expression name = Invoke.inlineInvoke(value, "name", TypeUtils.STRING_TYPE);
+      return Invoke.inlineInvoke(name, "getBytes", TypeUtils.BINARY_TYPE, utf8);
+    }
+    // primitives
+    return value;
+  }
+
+  private Expression decodeValue(Reference vector, Descriptor d) {
+    TypeRef<?> fieldType = d.getTypeRef();
+    Class<?> rawType = d.getRawType();
+    if (rawType == boolean.class || rawType == Boolean.class) {
+      Expression bit = Invoke.inlineInvoke(vector, "get", PRIMITIVE_INT_TYPE, index);
+      return new Expression.Comparator("!=", bit, Literal.ofInt(0), true);
+    } else if (TypeUtils.isPrimitive(rawType) || TypeUtils.isBoxed(rawType)) {
+      return Invoke.inlineInvoke(vector, "get", TypeRef.of(TypeUtils.unwrap(rawType)), index);
+    } else if (rawType == BigDecimal.class) {
+      return Invoke.inlineInvoke(vector, "getObject", TypeUtils.BIG_DECIMAL_TYPE, index);
+    } else if (rawType == java.time.LocalDate.class || rawType == java.sql.Date.class) {
+      Expression days = Invoke.inlineInvoke(vector, "get", PRIMITIVE_INT_TYPE, index);
+      return rawType == java.sql.Date.class
+          ? new StaticInvoke(DateTimeUtils.class, "toJavaDate", fieldType, false, days)
+          : new StaticInvoke(DateTimeUtils.class, "daysToLocalDate", fieldType, false, days);
+    } else if (rawType == java.time.Instant.class || rawType == java.sql.Timestamp.class) {
+      Expression micros = Invoke.inlineInvoke(vector, "get", TypeUtils.PRIMITIVE_LONG_TYPE, index);
+      return rawType == java.sql.Timestamp.class
+          ? new StaticInvoke(DateTimeUtils.class, "toJavaTimestamp", fieldType, false, micros)
+          : new StaticInvoke(DateTimeUtils.class, "microsToInstant", fieldType, false, micros);
+    }
+    Expression bytes = Invoke.inlineInvoke(vector, "get", TypeUtils.BINARY_TYPE, index);
+    Expression str = new Expression.NewInstance(TypeUtils.STRING_TYPE, bytes, utf8);
+    if (rawType.isEnum()) {
+      return ExpressionUtils.valueOf(fieldType, str);
+    }
+    return str;
+  }
+
+  private static Class<?> vectorClass(Class<?> rawType) {
+    return rawType.isEnum() ? VarCharVector.class : VECTOR_CLASSES.get(rawType);
+  }
+
+  private static String vectorName(int ordinal) {
+    return "vector" + ordinal;
+  }
+
+  private static Reference vectorRef(int ordinal, Descriptor d) {
+    return Reference.fieldRef(vectorName(ordinal), TypeRef.of(vectorClass(d.getRawType())));
+  }
+
+  @Override
+  protected Expression beanClassExpr() {
+    if (GraalvmSupport.isGraalBuildtime()) {
+      return staticBeanClassExpr();
+    }
+    return beanClassRef;
+  }
+}
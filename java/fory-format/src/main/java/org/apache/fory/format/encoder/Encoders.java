@@ -22,12 +22,17 @@ package org.apache.fory.format.encoder;
 import static org.apache.fory.type.TypeUtils.OBJECT_TYPE;
 import static org.apache.fory.type.TypeUtils.getRawType;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.fory.Fory;
@@ -44,6 +49,9 @@ import org.apache.fory.format.type.CustomTypeEncoderRegistry;
 import org.apache.fory.format.type.CustomTypeRegistration;
 import org.apache.fory.format.type.DataTypes;
 import org.apache.fory.format.type.TypeInference;
+import org.apache.fory.format.vectorized.ArrowRowReader;
+import org.apache.fory.format.vectorized.ArrowUtils;
+import org.apache.fory.format.vectorized.ArrowWriter;
 import org.apache.fory.logging.Logger;
 import org.apache.fory.logging.LoggerFactory;
 import org.apache.fory.memory.MemoryBuffer;
@@ -187,10 +195,7 @@ public class Encoders {
                         + "Please check writer schema.",
                     schema, schemaHash, peerSchemaHash));
           }
-          BinaryRow row = new BinaryRow(schema);
-          row.pointTo(buffer, buffer.readerIndex(), size);
-          buffer.increaseReaderIndex(size - 8);
-          return fromRow(row);
+          return fromRow(readRow(buffer, size, schema));
         }
 
         @Override
@@ -229,6 +234,282 @@ public class Encoders {
     }
   }
 
+  /**
+   * Creates an encoder for Java Bean of type T which can decode rows written with schemas of older
+   * or newer versions of the bean. Rows are encoded with current schema, rows of other schemas are
+   * adapted to current schema by {@link RowSchemaAdapter} before decoding.
+   *
+   * <p>{@link RowEncoder#fromRow} adapts rows by {@link BinaryRow#getSchema}, while {@link
+   * Encoder#decode} only carries a schema hash, so schemas of encoded bytes must be passed as
+   * <code>writerSchemas</code>. The schema hash only covers field types, so {@link Encoder#decode}
+   * can't distinguish schemas which differ in field names only, while {@link RowEncoder#fromRow}
+   * compares fields of schemas.
+   */
+  public static <T> RowEncoder<T> compatibleBean(Class<T> beanClass, Schema... writerSchemas) {
+    RowEncoder<T> encoder = bean(beanClass);
+    Schema schema = encoder.schema();
+    long schemaHash = DataTypes.computeSchemaHash(schema);
+    Map<Long, RowSchemaAdapter> adapters = new HashMap<>();
+    for (Schema writerSchema : writerSchemas) {
+      long hash = DataTypes.computeSchemaHash(writerSchema);
+      RowSchemaAdapter prev = adapters.get(hash);
+      Schema prevSchema = prev == null ? null : prev.getWriterSchema();
+      if (hash == schemaHash) {
+        prevSchema = schema;
+      }
+      if (prevSchema != null && !prevSchema.getFields().equals(writerSchema.getFields())) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Schema hash of %s and %s are both %s, bytes can't be distinguished",
+                prevSchema, writerSchema, hash));
+      }
+      if (hash != schemaHash && prev == null) {
+        adapters.put(hash, new RowSchemaAdapter(writerSchema, schema));
+      }
+    }
+    return new RowEncoder<T>() {
+      // Rows passed to `fromRow` usually share a schema instance, cache the adapter of last one
+      // to avoid comparing the schema for every row. A null adapter means current schema.
+      private Schema lastSchema = schema;
+      private RowSchemaAdapter lastAdapter;
+      // schema hash is only a pre-filter, adapters of same hash are distinguished by fields.
+      private final Map<Long, List<RowSchemaAdapter>> rowAdapters = new HashMap<>();
+
+      @Override
+      public Schema schema() {
+        return schema;
+      }
+
+      @Override
+      public T fromRow(BinaryRow row) {
+        Schema rowSchema = row.getSchema();
+        if (rowSchema != lastSchema) {
+          lastAdapter = getAdapter(rowSchema);
+          lastSchema = rowSchema;
+        }
+        return lastAdapter == null ? encoder.fromRow(row) : encoder.fromRow(lastAdapter.adapt(row));
+      }
+
+      private RowSchemaAdapter getAdapter(Schema rowSchema) {
+        long hash = DataTypes.computeSchemaHash(rowSchema);
+        List<Field> fields = rowSchema.getFields();
+        if (hash == schemaHash && fields.equals(schema.getFields())) {
+          return null;
+        }
+        List<RowSchemaAdapter> sameHashAdapters =
+            rowAdapters.computeIfAbsent(hash, h -> new ArrayList<>());
+        for (RowSchemaAdapter adapter : sameHashAdapters) {
+          if (adapter.getWriterSchema().getFields().equals(fields)) {
+            return adapter;
+          }
+        }
+        RowSchemaAdapter adapter = new RowSchemaAdapter(rowSchema, schema);
+        sameHashAdapters.add(adapter);
+        return adapter;
+      }
+
+      @Override
+      public BinaryRow toRow(T obj) {
+        return encoder.toRow(obj);
+      }
+
+      @Override
+      public T decode(MemoryBuffer buffer) {
+        return decode(buffer, buffer.readInt32());
+      }
+
+      public T decode(MemoryBuffer buffer, int size) {
+        long peerSchemaHash = buffer.readInt64();
+        if (peerSchemaHash == schemaHash) {
+          return encoder.fromRow(readRow(buffer, size, schema));
+        }
+        RowSchemaAdapter adapter = adapters.get(peerSchemaHash);
+        if (adapter == null) {
+          throw new ClassNotCompatibleException(
+              String.format(
+                  "Unknown writer schema, encoder schema is %s. "
+                      + "self/peer schema hash are %s/%s. "
+                      + "Please pass writer schema to `Encoders.compatibleBean`.",
+                  schema, schemaHash, peerSchemaHash));
+        }
+        BinaryRow row = readRow(buffer, size, adapter.getWriterSchema());
+        return encoder.fromRow(adapter.adapt(row));
+      }
+
+      @Override
+      public T decode(byte[] bytes) {
+        return decode(MemoryUtils.wrap(bytes), bytes.length);
+      }
+
+      @Override
+      public byte[] encode(T obj) {
+        return encoder.encode(obj);
+      }
+
+      @Override
+      public void encode(MemoryBuffer buffer, T obj) {
+        encoder.encode(buffer, obj);
+      }
+    };
+  }
+
+  /**
+   * Point a row of <code>schema</code> to the encoded row at reader index of <code>buffer</code>,
+   * <code>size</code> includes the schema hash which has been read already.
+   */
+  private static BinaryRow readRow(MemoryBuffer buffer, int size, Schema schema) {
+    BinaryRow row = new BinaryRow(schema);
+    row.pointTo(buffer, buffer.readerIndex(), size);
+    buffer.increaseReaderIndex(size - 8);
+    return row;
+  }
+
+  /**
+   * Creates a columnar encoder which writes Java Bean of type T into a new {@link VectorSchemaRoot}
+   * of the inferred schema.
+   *
+   * @see #columnarEncoder(Class, VectorSchemaRoot)
+   */
+  public static <T> ColumnarEncoder<T> columnarEncoder(Class<T> beanClass) {
+    Schema schema = TypeInference.inferSchema(beanClass);
+    return columnarEncoder(beanClass, ArrowUtils.createVectorSchemaRoot(schema));
+  }
+
+  /**
+   * Creates a columnar encoder which writes Java Bean of type T into arrow vectors of <code>root
+   * </code> directly, and reads beans from vectors directly, without building intermediate rows.
+   *
+   * <p>Only beans whose fields are all primitives, boxed primitives, String, Enum,
+   * java.math.BigDecimal or time related types are encoded directly, see {@link
+   * ColumnarEncoderBuilder#isSupported}. Other beans are encoded into rows by {@link #bean(Class)}
+   * first, then copied into arrow vectors by {@link ArrowWriter}.
+   */
+  public static <T> ColumnarEncoder<T> columnarEncoder(Class<T> beanClass, VectorSchemaRoot root) {
+    Schema schema = TypeInference.inferSchema(beanClass);
+    Preconditions.checkArgument(
+        schema.getFields().equals(root.getSchema().getFields()),
+        "Schema of root %s doesn't match schema of bean %s",
+        root.getSchema(),
+        schema);
+    if (!ColumnarEncoderBuilder.isSupported(beanClass)) {
+      return rowBasedColumnarEncoder(beanClass, root);
+    }
+    try {
+      ColumnarEncoderBuilder codecBuilder = new ColumnarEncoderBuilder(beanClass);
+      Class<?> codecClass =
+          loadCls(
+              new CompileUnit(
+                  CodeGenerator.getPackage(beanClass),
+                  codecBuilder.codecClassName(beanClass),
+                  codecBuilder::genCode));
+      Object references = new Object[] {root};
+      GeneratedColumnarEncoder codec =
+          codecClass
+              .asSubclass(GeneratedColumnarEncoder.class)
+              .getConstructor(Object[].class)
+              .newInstance(references);
+      return new ColumnarEncoder<T>() {
+        private int rowCount;
+
+        @Override
+        public Schema schema() {
+          return root.getSchema();
+        }
+
+        @Override
+        public VectorSchemaRoot root() {
+          return root;
+        }
+
+        @Override
+        public void write(T obj) {
+          codec.write(obj, rowCount);
+          // don't count the row if a field failed to be written.
+          rowCount++;
+        }
+
+        @Override
+        public VectorSchemaRoot finish() {
+          // Set child vector count before root count, see `ArrowWriter.finish`.
+          for (FieldVector vector : root.getFieldVectors()) {
+            vector.setValueCount(rowCount);
+          }
+          root.setRowCount(rowCount);
+          return root;
+        }
+
+        @Override
+        public void reset() {
+          for (FieldVector vector : root.getFieldVectors()) {
+            vector.reset();
+          }
+          root.setRowCount(0);
+          rowCount = 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T read(int index) {
+          return (T) codec.read(index);
+        }
+      };
+    } catch (Exception e) {
+      String msg = String.format("Create columnar encoder failed, \nbeanClass: %s", beanClass);
+      throw new EncoderException(msg, e);
+    }
+  }
+
+  private static <T> ColumnarEncoder<T> rowBasedColumnarEncoder(
+      Class<T> beanClass, VectorSchemaRoot root) {
+    RowEncoder<T> encoder = bean(beanClass);
+    return new ColumnarEncoder<T>() {
+      // `ArrowWriter` allocates vectors, create it lazily to keep loaded vectors readable.
+      private ArrowWriter writer;
+      private ArrowRowReader reader;
+
+      @Override
+      public Schema schema() {
+        return root.getSchema();
+      }
+
+      @Override
+      public VectorSchemaRoot root() {
+        return root;
+      }
+
+      @Override
+      public void write(T obj) {
+        if (writer == null) {
+          writer = new ArrowWriter(root);
+        }
+        writer.write(encoder.toRow(obj));
+      }
+
+      @Override
+      public VectorSchemaRoot finish() {
+        return writer == null ? root : writer.finish();
+      }
+
+      @Override
+      public void reset() {
+        if (writer != null) {
+          writer.reset();
+        } else {
+          root.getFieldVectors().forEach(FieldVector::reset);
+          root.setRowCount(0);
+        }
+      }
+
+      @Override
+      public T read(int index) {
+        if (reader == null) {
+          reader = new ArrowRowReader(root);
+        }
+        return encoder.fromRow(reader.read(index));
+      }
+    };
+  }
+
   /**
    * Register a custom codec handling a given type, when it is enclosed in the given beanType.
    *
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.encoder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.fory.exception.ClassNotCompatibleException;
+import org.apache.fory.format.row.binary.BinaryRow;
+import org.apache.fory.format.row.binary.writer.BinaryRowWriter;
+import org.apache.fory.format.type.DataTypes;
+
+/**
+ * Adapts rows written with a writer schema to a reader schema, so that rows written by an older or
+ * newer version of a bean can be decoded by current {@link RowEncoder}. Fields are matched by name:
+ *
+ * <ul>
+ *   <li>Fields only in writer schema are dropped.
+ *   <li>Fields only in reader schema are set to null, which will be decoded as null or default
+ *       value of primitive type.
+ *   <li>Fields in both schemas must have same type, otherwise {@link ClassNotCompatibleException}
+ *       will be thrown. Field bytes are copied without deserialization, see {@link
+ *       BinaryRowWriter#copyField}.
+ * </ul>
+ *
+ * <p>The returned row is backed by the buffer of an internal writer, which will be overwritten by
+ * next adaption. This class is not thread safe.
+ */
+public class RowSchemaAdapter {
+  private final Schema writerSchema;
+  private final Schema readerSchema;
+  // writer ordinal of every reader field, -1 if absent in writer schema.
+  private final int[] ordinals;
+  private final boolean[] varLength;
+  private final BinaryRowWriter writer;
+
+  public RowSchemaAdapter(Schema writerSchema, Schema readerSchema) {
+    this.writerSchema = writerSchema;
+    this.readerSchema = readerSchema;
+    List<Field> writerFields = writerSchema.getFields();
+    Map<String, Integer> writerOrdinals = new HashMap<>();
+    for (int i = 0; i < writerFields.size(); i++) {
+      writerOrdinals.put(writerFields.get(i).getName(), i);
+    }
+    List<Field> readerFields = readerSchema.getFields();
+    ordinals = new int[readerFields.size()];
+    varLength = new boolean[readerFields.size()];
+    for (int i = 0; i < readerFields.size(); i++) {
+      Field field = readerFields.get(i);
+      Integer ordinal = writerOrdinals.get(field.getName());
+      if (ordinal == null) {
+        ordinals[i] = -1;
+        continue;
+      }
+      Field writerField = writerFields.get(ordinal);
+      if (!field.getType().equals(writerField.getType())
+          || !Objects.equals(field.getChildren(), writerField.getChildren())) {
+        throw new ClassNotCompatibleException(
+            String.format(
+                "Field %s is not compatible, reader type is %s, writer type is %s",
+                field.getName(), field, writerField));
+      }
+      ordinals[i] = ordinal;
+      varLength[i] = DataTypes.getTypeWidth(field.getType()) < 0;
+    }
+    writer = new BinaryRowWriter(readerSchema);
+  }
+
+  public Schema getWriterSchema() {
+    return writerSchema;
+  }
+
+  public Schema getReaderSchema() {
+    return readerSchema;
+  }
+
+  /** Returns a row of reader schema from a row of writer schema. */
+  public BinaryRow adapt(BinaryRow row) {
+    BinaryRowWriter writer = this.writer;
+    writer.getBuffer().writerIndex(0);
+    writer.reset();
+    for (int i = 0; i < ordinals.length; i++) {
+      writer.copyField(i, row, ordinals[i], varLength[i]);
+    }
+    return writer.getRow();
+  }
+}
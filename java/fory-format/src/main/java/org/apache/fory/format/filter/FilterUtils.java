@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.filter;
+
+import org.apache.fory.annotation.Internal;
+import org.apache.fory.memory.MemoryBuffer;
+
+/**
+ * Utils invoked by generated {@link RowFilter} to evaluate string and binary fields, which are
+ * compared in place with constants by unsigned bytes. A field is located by its 8-byte slot at
+ * <code>offset + fieldOffset</code>, which holds the relative offset and size of its data.
+ */
+@Internal
+public class FilterUtils {
+
+  public static boolean equalTo(
+      MemoryBuffer buffer, int offset, int fieldOffset, MemoryBuffer value) {
+    long offsetAndSize = buffer.getInt64(offset + fieldOffset);
+    int size = (int) offsetAndSize;
+    return size == value.size()
+        && (size == 0 || buffer.equalTo(value, offset + (int) (offsetAndSize >> 32), 0, size));
+  }
+
+  public static boolean startsWith(
+      MemoryBuffer buffer, int offset, int fieldOffset, MemoryBuffer prefix) {
+    long offsetAndSize = buffer.getInt64(offset + fieldOffset);
+    int size = prefix.size();
+    return (int) offsetAndSize >= size
+        && (size == 0 || buffer.equalTo(prefix, offset + (int) (offsetAndSize >> 32), 0, size));
+  }
+
+  public static int compare(MemoryBuffer buffer, int offset, int fieldOffset, MemoryBuffer value) {
+    long offsetAndSize = buffer.getInt64(offset + fieldOffset);
+    return compareBytes(buffer, offset + (int) (offsetAndSize >> 32), (int) offsetAndSize, value);
+  }
+
+  /** Returns whether the field equals to one of <code>values</code> sorted by {@link #compare}. */
+  public static boolean contains(
+      MemoryBuffer buffer, int offset, int fieldOffset, MemoryBuffer[] values) {
+    long offsetAndSize = buffer.getInt64(offset + fieldOffset);
+    int index = offset + (int) (offsetAndSize >> 32);
+    int size = (int) offsetAndSize;
+    int low = 0;
+    int high = values.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = compareBytes(buffer, index, size, values[mid]);
+      if (cmp > 0) {
+        low = mid + 1;
+      } else if (cmp < 0) {
+        high = mid - 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  static int compare(MemoryBuffer buffer1, MemoryBuffer buffer2) {
+    return compareBytes(buffer1, 0, buffer1.size(), buffer2);
+  }
+
+  private static int compareBytes(MemoryBuffer buffer, int index, int size, MemoryBuffer value) {
+    int len = Math.min(size, value.size());
+    int i = 0;
+    // compare 8 bytes at a time, bytes are reversed to be compared in big-endian order.
+    for (; i + 8 <= len; i += 8) {
+      long v1 = buffer.getInt64(index + i);
+      long v2 = value.getInt64(i);
+      if (v1 != v2) {
+        return Long.compareUnsigned(Long.reverseBytes(v1), Long.reverseBytes(v2));
+      }
+    }
+    for (; i < len; i++) {
+      int cmp = (buffer.getByte(index + i) & 0xFF) - (value.getByte(i) & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return size - value.size();
+  }
+}
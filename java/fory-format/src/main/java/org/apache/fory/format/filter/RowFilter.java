@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.filter;
+
+import org.apache.fory.format.row.binary.BinaryArray;
+import org.apache.fory.format.row.binary.BinaryRow;
+import org.apache.fory.memory.MemoryBuffer;
+
+/**
+ * A generated filter which evaluates a {@link RowPredicate} against binary rows in place, without
+ * deserializing rows into objects. Rows must have the schema which the filter is compiled for.
+ *
+ * @see RowPredicates#compile
+ */
+public interface RowFilter {
+
+  /** Returns whether the row starting at <code>offset</code> of <code>buffer</code> matches. */
+  boolean test(MemoryBuffer buffer, int offset);
+
+  boolean test(BinaryRow row);
+
+  /**
+   * Evaluates <code>rows[0, numRows)</code> and writes indexes of matched rows into <code>selection
+   * </code>.
+   *
+   * @return number of matched rows.
+   */
+  int filter(BinaryRow[] rows, int numRows, int[] selection);
+
+  /**
+   * Evaluates structs in <code>array</code> and writes indexes of matched structs into <code>
+   * selection</code>. Null elements never match.
+   *
+   * @return number of matched structs.
+   */
+  int filter(BinaryArray array, int[] selection);
+}
@@ -0,0 +1,482 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.filter;
+
+import static org.apache.fory.type.TypeUtils.PRIMITIVE_BOOLEAN_TYPE;
+import static org.apache.fory.type.TypeUtils.PRIMITIVE_BYTE_TYPE;
+import static org.apache.fory.type.TypeUtils.PRIMITIVE_DOUBLE_TYPE;
+import static org.apache.fory.type.TypeUtils.PRIMITIVE_FLOAT_TYPE;
+import static org.apache.fory.type.TypeUtils.PRIMITIVE_INT_TYPE;
+import static org.apache.fory.type.TypeUtils.PRIMITIVE_LONG_TYPE;
+import static org.apache.fory.type.TypeUtils.PRIMITIVE_SHORT_TYPE;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.fory.builder.Generated;
+import org.apache.fory.codegen.Code.ExprCode;
+import org.apache.fory.codegen.CodegenContext;
+import org.apache.fory.codegen.Expression;
+import org.apache.fory.codegen.Expression.Literal;
+import org.apache.fory.codegen.Expression.Reference;
+import org.apache.fory.codegen.Expression.StaticInvoke;
+import org.apache.fory.codegen.ExpressionUtils;
+import org.apache.fory.format.row.binary.BinaryArray;
+import org.apache.fory.format.row.binary.BinaryRow;
+import org.apache.fory.memory.BitUtils;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.reflect.TypeRef;
+import org.apache.fory.util.MurmurHash3;
+import org.apache.fory.util.Preconditions;
+import org.apache.fory.util.StringUtils;
+
+/**
+ * Expression builder for building jit {@link RowFilter} class. The predicate is compiled into a
+ * single boolean expression which reads fields from the buffer by constant offsets, integer and
+ * floating point constants are inlined as literals, and other constants are passed as references.
+ */
+final class RowFilterBuilder {
+  private static final String BUFFER_NAME = "buffer";
+  private static final String OFFSET_NAME = "offset";
+  private static final String REFERENCES_NAME = "references";
+  private static final String FILTER_ROWS_CODE =
+      ""
+          + "int n = 0;\n"
+          + "for (int i = 0; i < numRows; i++) {\n"
+          + "  BinaryRow row = rows[i];\n"
+          + "  if (test(row.getBuffer(), row.getBaseOffset())) {\n"
+          + "    selection[n++] = i;\n"
+          + "  }\n"
+          + "}\n"
+          + "return n;";
+  private static final String FILTER_ARRAY_CODE =
+      ""
+          + "MemoryBuffer buffer = array.getBuffer();\n"
+          + "int baseOffset = array.getBaseOffset();\n"
+          + "int numElements = array.numElements();\n"
+          + "int n = 0;\n"
+          + "for (int i = 0; i < numElements; i++) {\n"
+          + "  if (!array.isNullAt(i)\n"
+          + "      && test(buffer, baseOffset + (int) (array.getInt64(i) >> 32))) {\n"
+          + "    selection[n++] = i;\n"
+          + "  }\n"
+          + "}\n"
+          + "return n;";
+
+  private final Schema schema;
+  private final int bitmapWidthInBytes;
+  private final Reference buffer = new Reference(BUFFER_NAME, TypeRef.of(MemoryBuffer.class));
+  private final Reference offset = new Reference(OFFSET_NAME, PRIMITIVE_INT_TYPE);
+  private final List<Object> references = new ArrayList<>();
+  private final List<Reference> referenceFields = new ArrayList<>();
+  private final Expression expression;
+  private final String className;
+
+  RowFilterBuilder(Schema schema, RowPredicate predicate) {
+    this.schema = schema;
+    bitmapWidthInBytes = BitUtils.calculateBitmapWidthInBytes(schema.getFields().size());
+    expression = buildExpression(predicate);
+    // Constants except references are part of generated code, so they are part of class name too.
+    byte[] key = (schema + "|" + predicate).getBytes(StandardCharsets.UTF_8);
+    long hash = MurmurHash3.murmurhash3_x64_128(key, 0, key.length, 47)[0];
+    className = "RowFilter_" + Long.toHexString(hash);
+  }
+
+  String getPackage() {
+    return RowFilterBuilder.class.getPackage().getName();
+  }
+
+  String getClassName() {
+    return className;
+  }
+
+  Object[] getReferences() {
+    return references.toArray();
+  }
+
+  String genCode() {
+    CodegenContext ctx = new CodegenContext();
+    ctx.setPackage(getPackage());
+    ctx.setClassName(className);
+    ctx.reserveName(BUFFER_NAME);
+    ctx.reserveName(OFFSET_NAME);
+    ctx.reserveName(REFERENCES_NAME);
+    ctx.addImports(MemoryBuffer.class, BinaryRow.class, BinaryArray.class);
+    ctx.implementsInterfaces(ctx.type(RowFilter.class), ctx.type(Generated.class));
+    StringBuilder constructorCode = new StringBuilder();
+    for (int i = 0; i < referenceFields.size(); i++) {
+      Reference field = referenceFields.get(i);
+      String type = ctx.type(field.type());
+      ctx.reserveName(field.name());
+      ctx.addField(type, field.name());
+      constructorCode.append(
+          StringUtils.format(
+              "${name} = (${type})${references}[${index}];\n",
+              "name",
+              field.name(),
+              "type",
+              type,
+              "references",
+              REFERENCES_NAME,
+              "index",
+              i));
+    }
+    ctx.addConstructor(constructorCode.toString(), Object[].class, REFERENCES_NAME);
+    ExprCode exprCode = expression.genCode(ctx);
+    String testCode = "return " + exprCode.value() + ";";
+    if (StringUtils.isNotBlank(exprCode.code())) {
+      testCode = exprCode.code() + "\n" + testCode;
+    }
+    ctx.overrideMethod(
+        "test", testCode, boolean.class, MemoryBuffer.class, BUFFER_NAME, int.class, OFFSET_NAME);
+    ctx.overrideMethod(
+        "test",
+        "return test(row.getBuffer(), row.getBaseOffset());",
+        boolean.class,
+        BinaryRow.class,
+        "row");
+    ctx.overrideMethod(
+        "filter",
+        FILTER_ROWS_CODE,
+        int.class,
+        BinaryRow[].class,
+        "rows",
+        int.class,
+        "numRows",
+        int[].class,
+        "selection");
+    ctx.overrideMethod(
+        "filter",
+        FILTER_ARRAY_CODE,
+        int.class,
+        BinaryArray.class,
+        "array",
+        int[].class,
+        "selection");
+    return ctx.genCode();
+  }
+
+  private Expression buildExpression(RowPredicate predicate) {
+    if (predicate instanceof RowPredicate.And || predicate instanceof RowPredicate.Or) {
+      boolean isAnd = predicate instanceof RowPredicate.And;
+      List<RowPredicate> children =
+          isAnd ? ((RowPredicate.And) predicate).children : ((RowPredicate.Or) predicate).children;
+      Expression expr = buildExpression(children.get(0));
+      for (int i = 1; i < children.size(); i++) {
+        Expression child = buildExpression(children.get(i));
+        expr =
+            isAnd ? ExpressionUtils.and(expr, child) : new Expression.LogicalOr(true, expr, child);
+      }
+      return expr;
+    }
+    if (predicate instanceof RowPredicate.Not) {
+      return ExpressionUtils.not(buildExpression(((RowPredicate.Not) predicate).child));
+    }
+    if (predicate instanceof RowPredicate.IsNull) {
+      return isNullAt(ordinal(((RowPredicate.IsNull) predicate).field));
+    }
+    int ordinal;
+    Expression expr;
+    if (predicate instanceof RowPredicate.Compare) {
+      RowPredicate.Compare compare = (RowPredicate.Compare) predicate;
+      ordinal = ordinal(compare.field);
+      expr = buildCompare(ordinal, compare.op, compare.value);
+    } else if (predicate instanceof RowPredicate.In) {
+      RowPredicate.In in = (RowPredicate.In) predicate;
+      ordinal = ordinal(in.field);
+      expr = buildIn(ordinal, in.values);
+    } else if (predicate instanceof RowPredicate.StartsWith) {
+      RowPredicate.StartsWith startsWith = (RowPredicate.StartsWith) predicate;
+      ordinal = ordinal(startsWith.field);
+      checkVarLength(ordinal);
+      Reference prefix = addReference(MemoryBuffer.class, toBuffer(ordinal, startsWith.prefix));
+      expr = invokeUtils("startsWith", PRIMITIVE_BOOLEAN_TYPE, ordinal, prefix);
+    } else {
+      throw new UnsupportedOperationException("Unsupported predicate " + predicate);
+    }
+    if (schema.getFields().get(ordinal).isNullable()) {
+      expr = ExpressionUtils.and(ExpressionUtils.not(isNullAt(ordinal)), expr);
+    }
+    return expr;
+  }
+
+  private Expression buildCompare(int ordinal, String op, Object value) {
+    Field field = schema.getFields().get(ordinal);
+    if (isVarLength(field.getType())) {
+      Reference ref = addReference(MemoryBuffer.class, toBuffer(ordinal, value));
+      switch (op) {
+        case "==":
+          return invokeUtils("equalTo", PRIMITIVE_BOOLEAN_TYPE, ordinal, ref);
+        case "!=":
+          return ExpressionUtils.not(invokeUtils("equalTo", PRIMITIVE_BOOLEAN_TYPE, ordinal, ref));
+        default:
+          return new Expression.Comparator(
+              op, invokeUtils("compare", PRIMITIVE_INT_TYPE, ordinal, ref), Literal.ofInt(0), true);
+      }
+    }
+    if (field.getType() instanceof ArrowType.Bool) {
+      Preconditions.checkArgument(
+          op.equals("==") || op.equals("!="),
+          "Boolean field %s can't be compared by %s",
+          field,
+          op);
+    }
+    return new Expression.Comparator(op, readField(ordinal), literal(ordinal, value), true);
+  }
+
+  private Expression buildIn(int ordinal, List<Object> values) {
+    ArrowType type = schema.getFields().get(ordinal).getType();
+    if (isVarLength(type)) {
+      MemoryBuffer[] buffers =
+          values.stream().map(v -> toBuffer(ordinal, v)).toArray(MemoryBuffer[]::new);
+      Arrays.sort(buffers, FilterUtils::compare);
+      Reference ref = addReference(MemoryBuffer[].class, buffers);
+      return invokeUtils("contains", PRIMITIVE_BOOLEAN_TYPE, ordinal, ref);
+    }
+    if (type instanceof ArrowType.Bool || values.isEmpty()) {
+      Expression expr = Literal.False;
+      for (Object value : values) {
+        expr = new Expression.LogicalOr(true, expr, buildCompare(ordinal, "==", value));
+      }
+      return expr;
+    }
+    Reference ref;
+    if (type instanceof ArrowType.FloatingPoint) {
+      double[] array = new double[values.size()];
+      for (int i = 0; i < array.length; i++) {
+        Number number = toNumber(ordinal, values.get(i));
+        array[i] = isFloat32(type) ? number.floatValue() : number.doubleValue();
+      }
+      Arrays.sort(array);
+      ref = addReference(double[].class, array);
+    } else {
+      long[] array = new long[values.size()];
+      for (int i = 0; i < array.length; i++) {
+        array[i] = toIntegral(ordinal, values.get(i));
+      }
+      Arrays.sort(array);
+      ref = addReference(long[].class, array);
+    }
+    Expression index =
+        new StaticInvoke(
+            Arrays.class,
+            "binarySearch",
+            "",
+            PRIMITIVE_INT_TYPE,
+            false,
+            true,
+            ref,
+            readField(ordinal));
+    return new Expression.Comparator(">=", index, Literal.ofInt(0), true);
+  }
+
+  private Expression isNullAt(int ordinal) {
+    return new StaticInvoke(
+        BitUtils.class,
+        "isSet",
+        "",
+        PRIMITIVE_BOOLEAN_TYPE,
+        false,
+        true,
+        buffer,
+        offset,
+        Literal.ofInt(ordinal));
+  }
+
+  private Expression readField(int ordinal) {
+    ArrowType type = schema.getFields().get(ordinal).getType();
+    String getter;
+    TypeRef<?> returnType;
+    switch (type.getTypeID()) {
+      case Bool:
+        getter = "getBoolean";
+        returnType = PRIMITIVE_BOOLEAN_TYPE;
+        break;
+      case Int:
+        switch (((ArrowType.Int) type).getBitWidth()) {
+          case 8:
+            getter = "getByte";
+            returnType = PRIMITIVE_BYTE_TYPE;
+            break;
+          case 16:
+            getter = "getInt16";
+            returnType = PRIMITIVE_SHORT_TYPE;
+            break;
+          case 32:
+            getter = "getInt32";
+            returnType = PRIMITIVE_INT_TYPE;
+            break;
+          default:
+            getter = "getInt64";
+            returnType = PRIMITIVE_LONG_TYPE;
+        }
+        break;
+      case FloatingPoint:
+        if (isFloat32(type)) {
+          getter = "getFloat32";
+          returnType = PRIMITIVE_FLOAT_TYPE;
+        } else {
+          getter = "getFloat64";
+          returnType = PRIMITIVE_DOUBLE_TYPE;
+        }
+        break;
+      case Date:
+        if (((ArrowType.Date) type).getUnit() == DateUnit.DAY) {
+          getter = "getInt32";
+          returnType = PRIMITIVE_INT_TYPE;
+        } else {
+          getter = "getInt64";
+          returnType = PRIMITIVE_LONG_TYPE;
+        }
+        break;
+      case Timestamp:
+        getter = "getInt64";
+        returnType = PRIMITIVE_LONG_TYPE;
+        break;
+      default:
+        throw new UnsupportedOperationException(
+            "Unsupported field " + schema.getFields().get(ordinal));
+    }
+    return Expression.Invoke.inlineInvoke(buffer, getter, returnType, fieldOffset(ordinal));
+  }
+
+  private Expression literal(int ordinal, Object value) {
+    ArrowType type = schema.getFields().get(ordinal).getType();
+    if (type instanceof ArrowType.Bool) {
+      Preconditions.checkArgument(
+          value instanceof Boolean, "Value %s doesn't match boolean field", value);
+      return Literal.ofBoolean((Boolean) value);
+    }
+    if (type instanceof ArrowType.FloatingPoint) {
+      Number number = toNumber(ordinal, value);
+      // use bits to keep the exact value, which may be lost by decimal literal.
+      if (isFloat32(type)) {
+        return new StaticInvoke(
+            Float.class,
+            "intBitsToFloat",
+            "",
+            PRIMITIVE_FLOAT_TYPE,
+            false,
+            true,
+            Literal.ofInt(Float.floatToIntBits(number.floatValue())));
+      }
+      return new StaticInvoke(
+          Double.class,
+          "longBitsToDouble",
+          "",
+          PRIMITIVE_DOUBLE_TYPE,
+          false,
+          true,
+          Literal.ofLong(Double.doubleToLongBits(number.doubleValue())));
+    }
+    readField(ordinal); // check type is supported.
+    return Literal.ofLong(toIntegral(ordinal, value));
+  }
+
+  private Expression fieldOffset(int ordinal) {
+    // offset of field slot from the start of the row: bitmap + ordinal * 8
+    return new Expression.Add(true, offset, Literal.ofInt(bitmapWidthInBytes + (ordinal << 3)));
+  }
+
+  private Expression invokeUtils(
+      String methodName, TypeRef<?> returnType, int ordinal, Expression value) {
+    return new StaticInvoke(
+        FilterUtils.class,
+        methodName,
+        "",
+        returnType,
+        false,
+        true,
+        buffer,
+        offset,
+        Literal.ofInt(bitmapWidthInBytes + (ordinal << 3)),
+        value);
+  }
+
+  private Reference addReference(Class<?> type, Object value) {
+    Reference ref = Reference.fieldRef("value" + references.size(), TypeRef.of(type));
+    references.add(value);
+    referenceFields.add(ref);
+    return ref;
+  }
+
+  private int ordinal(String name) {
+    List<Field> fields = schema.getFields();
+    for (int i = 0; i < fields.size(); i++) {
+      if (fields.get(i).getName().equals(name)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException(String.format("Field %s not found in %s", name, schema));
+  }
+
+  private void checkVarLength(int ordinal) {
+    Field field = schema.getFields().get(ordinal);
+    if (!isVarLength(field.getType())) {
+      throw new UnsupportedOperationException("Field " + field + " is not string or binary");
+    }
+  }
+
+  private MemoryBuffer toBuffer(int ordinal, Object value) {
+    byte[] bytes;
+    if (value instanceof String) {
+      bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+    } else if (value instanceof byte[]) {
+      bytes = ((byte[]) value).clone();
+    } else {
+      throw new IllegalArgumentException(
+          String.format("Value %s doesn't match field %s", value, schema.getFields().get(ordinal)));
+    }
+    return MemoryBuffer.fromByteArray(bytes);
+  }
+
+  private Number toNumber(int ordinal, Object value) {
+    if (!(value instanceof Number)) {
+      throw new IllegalArgumentException(
+          String.format("Value %s doesn't match field %s", value, schema.getFields().get(ordinal)));
+    }
+    return (Number) value;
+  }
+
+  private long toIntegral(int ordinal, Object value) {
+    if (!(value instanceof Long
+        || value instanceof Integer
+        || value instanceof Short
+        || value instanceof Byte)) {
+      throw new IllegalArgumentException(
+          String.format("Value %s doesn't match field %s", value, schema.getFields().get(ordinal)));
+    }
+    return ((Number) value).longValue();
+  }
+
+  private static boolean isVarLength(ArrowType type) {
+    return type instanceof ArrowType.Utf8 || type instanceof ArrowType.Binary;
+  }
+
+  private static boolean isFloat32(ArrowType type) {
+    return ((ArrowType.FloatingPoint) type).getPrecision() == FloatingPointPrecision.SINGLE;
+  }
+}
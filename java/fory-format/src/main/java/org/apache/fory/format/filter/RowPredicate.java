@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.filter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A predicate on top-level fields of a row, which is created by {@link RowPredicates} and evaluated
+ * by a {@link RowFilter} against binary rows directly.
+ */
+public abstract class RowPredicate {
+
+  RowPredicate() {}
+
+  /** Compare a field with a constant value by one of `==`, `!=`, `<`, `<=`, `>`, `>=`. */
+  static final class Compare extends RowPredicate {
+    final String field;
+    final String op;
+    final Object value;
+
+    Compare(String field, String op, Object value) {
+      this.field = field;
+      this.op = op;
+      this.value = value;
+    }
+
+    @Override
+    public String toString() {
+      return field + " " + op + " " + valueToString(value);
+    }
+  }
+
+  static final class IsNull extends RowPredicate {
+    final String field;
+
+    IsNull(String field) {
+      this.field = field;
+    }
+
+    @Override
+    public String toString() {
+      return field + " IS NULL";
+    }
+  }
+
+  static final class In extends RowPredicate {
+    final String field;
+    final List<Object> values;
+
+    In(String field, List<Object> values) {
+      this.field = field;
+      this.values = values;
+    }
+
+    @Override
+    public String toString() {
+      return values.stream()
+          .map(RowPredicate::valueToString)
+          .collect(Collectors.joining(", ", field + " IN (", ")"));
+    }
+  }
+
+  static final class StartsWith extends RowPredicate {
+    final String field;
+    final Object prefix;
+
+    StartsWith(String field, Object prefix) {
+      this.field = field;
+      this.prefix = prefix;
+    }
+
+    @Override
+    public String toString() {
+      return field + " STARTS WITH " + valueToString(prefix);
+    }
+  }
+
+  static final class And extends RowPredicate {
+    final List<RowPredicate> children;
+
+    And(List<RowPredicate> children) {
+      this.children = children;
+    }
+
+    @Override
+    public String toString() {
+      return children.stream()
+          .map(RowPredicate::toString)
+          .collect(Collectors.joining(" AND ", "(", ")"));
+    }
+  }
+
+  static final class Or extends RowPredicate {
+    final List<RowPredicate> children;
+
+    Or(List<RowPredicate> children) {
+      this.children = children;
+    }
+
+    @Override
+    public String toString() {
+      return children.stream()
+          .map(RowPredicate::toString)
+          .collect(Collectors.joining(" OR ", "(", ")"));
+    }
+  }
+
+  static final class Not extends RowPredicate {
+    final RowPredicate child;
+
+    Not(RowPredicate child) {
+      this.child = child;
+    }
+
+    @Override
+    public String toString() {
+      return "NOT " + child;
+    }
+  }
+
+  private static String valueToString(Object value) {
+    if (value instanceof String) {
+      return "'" + ((String) value).replace("\\", "\\\\").replace("'", "\\'") + "'";
+    } else if (value instanceof byte[]) {
+      return "X" + Arrays.toString((byte[]) value);
+    } else if (value instanceof Float) {
+      return value + "F";
+    } else if (value instanceof Double) {
+      return value + "D";
+    }
+    return String.valueOf(value);
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.fory.codegen.CodeGenerator;
+import org.apache.fory.codegen.CompileUnit;
+import org.apache.fory.util.Preconditions;
+
+/**
+ * Factory to create {@link RowPredicate} and compile it into a {@link RowFilter}.
+ *
+ * <p>Supported field types are integers, floating points, boolean, date, timestamp, string and
+ * binary. Integers, dates and timestamps are compared with a {@link Number}, which is the encoded
+ * value of date and timestamp. Strings are compared by utf8 bytes, which is the order of unicode
+ * code points. A null field doesn't satisfy any comparison, {@link #in} or {@link #startsWith}.
+ *
+ * <pre>{@code
+ * RowPredicate predicate =
+ *     RowPredicates.and(RowPredicates.gt("age", 18), RowPredicates.startsWith("name", "A"));
+ * RowFilter filter = RowPredicates.compile(schema, predicate);
+ * int numSelected = filter.filter(rows, rows.length, selection);
+ * }</pre>
+ */
+public class RowPredicates {
+
+  public static RowPredicate isNull(String field) {
+    return new RowPredicate.IsNull(field);
+  }
+
+  public static RowPredicate isNotNull(String field) {
+    return not(isNull(field));
+  }
+
+  public static RowPredicate eq(String field, Object value) {
+    return compare(field, "==", value);
+  }
+
+  public static RowPredicate notEq(String field, Object value) {
+    return compare(field, "!=", value);
+  }
+
+  public static RowPredicate lt(String field, Object value) {
+    return compare(field, "<", value);
+  }
+
+  public static RowPredicate ltEq(String field, Object value) {
+    return compare(field, "<=", value);
+  }
+
+  public static RowPredicate gt(String field, Object value) {
+    return compare(field, ">", value);
+  }
+
+  public static RowPredicate gtEq(String field, Object value) {
+    return compare(field, ">=", value);
+  }
+
+  private static RowPredicate compare(String field, String op, Object value) {
+    Preconditions.checkNotNull(value, "Use isNull/isNotNull to compare with null");
+    return new RowPredicate.Compare(field, op, value);
+  }
+
+  public static RowPredicate in(String field, Object... values) {
+    return in(field, Arrays.asList(values));
+  }
+
+  public static RowPredicate in(String field, List<?> values) {
+    Preconditions.checkArgument(!values.contains(null), "In values can't contain null");
+    return new RowPredicate.In(field, Collections.unmodifiableList(new ArrayList<>(values)));
+  }
+
+  /** Matches a string or binary field which starts with <code>prefix</code>. */
+  public static RowPredicate startsWith(String field, String prefix) {
+    return new RowPredicate.StartsWith(field, Preconditions.checkNotNull(prefix));
+  }
+
+  public static RowPredicate startsWith(String field, byte[] prefix) {
+    return new RowPredicate.StartsWith(field, Preconditions.checkNotNull(prefix).clone());
+  }
+
+  public static RowPredicate and(RowPredicate... predicates) {
+    Preconditions.checkArgument(predicates.length > 0);
+    return new RowPredicate.And(Collections.unmodifiableList(Arrays.asList(predicates.clone())));
+  }
+
+  public static RowPredicate or(RowPredicate... predicates) {
+    Preconditions.checkArgument(predicates.length > 0);
+    return new RowPredicate.Or(Collections.unmodifiableList(Arrays.asList(predicates.clone())));
+  }
+
+  /** Negates <code>predicate</code>, note that `not(eq(f, v))` matches rows whose `f` is null. */
+  public static RowPredicate not(RowPredicate predicate) {
+    return new RowPredicate.Not(Preconditions.checkNotNull(predicate));
+  }
+
+  /**
+   * Compiles <code>predicate</code> into a filter for rows of <code>schema</code>. Filters of same
+   * schema and predicate share the generated class.
+   */
+  public static RowFilter compile(Schema schema, RowPredicate predicate) {
+    RowFilterBuilder builder = new RowFilterBuilder(schema, predicate);
+    CompileUnit compileUnit =
+        new CompileUnit(builder.getPackage(), builder.getClassName(), builder::genCode);
+    CodeGenerator codeGenerator =
+        CodeGenerator.getSharedCodeGenerator(RowPredicates.class.getClassLoader());
+    ClassLoader classLoader = codeGenerator.compile(compileUnit);
+    try {
+      Class<?> cls = classLoader.loadClass(compileUnit.getQualifiedClassName());
+      return (RowFilter)
+          cls.getConstructor(Object[].class).newInstance((Object) builder.getReferences());
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Create filter failed for " + predicate, e);
+    }
+  }
+}
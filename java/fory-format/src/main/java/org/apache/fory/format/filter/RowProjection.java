@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.fory.format.row.binary.BinaryRow;
+import org.apache.fory.format.row.binary.writer.BinaryRowWriter;
+import org.apache.fory.format.type.DataTypes;
+
+/**
+ * Projects selected fields of a {@link BinaryRow} into a new row, which copies field bytes directly
+ * without deserializing them, see {@link BinaryRowWriter#copyField}.
+ *
+ * <p>The returned row is backed by the buffer of an internal writer, which will be overwritten by
+ * next projection. Use {@link BinaryRow#copy} to keep it. This class is not thread safe.
+ */
+public class RowProjection {
+  private final Schema schema;
+  private final int[] ordinals;
+  private final boolean[] varLength;
+  private final BinaryRowWriter writer;
+
+  public RowProjection(Schema schema, String... fields) {
+    List<Field> projectedFields = new ArrayList<>(fields.length);
+    ordinals = new int[fields.length];
+    varLength = new boolean[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      Field field = schema.findField(fields[i]);
+      ordinals[i] = schema.getFields().indexOf(field);
+      varLength[i] = DataTypes.getTypeWidth(field.getType()) < 0;
+      projectedFields.add(field);
+    }
+    this.schema = new Schema(projectedFields, schema.getCustomMetadata());
+    writer = new BinaryRowWriter(this.schema);
+  }
+
+  /** Returns schema of projected rows. */
+  public Schema getSchema() {
+    return schema;
+  }
+
+  public BinaryRow project(BinaryRow row) {
+    BinaryRowWriter writer = this.writer;
+    writer.getBuffer().writerIndex(0);
+    writer.reset();
+    for (int i = 0; i < ordinals.length; i++) {
+      writer.copyField(i, row, ordinals[i], varLength[i]);
+    }
+    return writer.getRow();
+  }
+}
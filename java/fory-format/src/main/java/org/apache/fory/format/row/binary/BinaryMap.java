@@ -20,6 +20,12 @@
 package org.apache.fory.format.row.binary;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.fory.format.row.MapData;
 import org.apache.fory.format.type.DataTypes;
@@ -34,25 +40,49 @@ import org.apache.fory.memory.Platform;
  *
  * <p>Note that, user is responsible to guarantee that the key array does not have duplicated
  * elements otherwise the behavior is undefined.
+ *
+ * <p>A key can be looked up by {@link #get} without deserializing the map. Integer and string keys
+ * are compared in place by their binary data, and can be looked up by {@link #binarySearch} if the
+ * map is written by a writer with {@link
+ * org.apache.fory.format.row.binary.writer.BinaryWriter#setSortMapKeys} enabled.
  */
 public class BinaryMap implements MapData {
+  /** Order of utf8 bytes, which is the order of unicode code points. */
+  public static final Comparator<String> UTF8_ORDER = BinaryMap::compareUTF8;
+
+  private static final int KEY_OTHER = 0;
+  private static final int KEY_INTEGER = 1;
+  private static final int KEY_STRING = 2;
+
   private final BinaryArray keys;
   private final BinaryArray values;
   private final Field field;
+  private final Field keyField;
+  private final Field valueField;
+  private final int keyKind;
   private MemoryBuffer buf;
   private int baseOffset;
   private int sizeInBytes;
+  // whether keys of current data are checked by `isSorted`, reset by `pointTo`.
+  private boolean sortedChecked;
+  private boolean sorted;
 
   public BinaryMap(Field field) {
     this.field = field;
     this.keys = new BinaryArray(DataTypes.keyArrayFieldForMap(field));
     this.values = new BinaryArray(DataTypes.itemArrayFieldForMap(field));
+    this.keyField = keys.getField().getChildren().get(0);
+    this.valueField = values.getField().getChildren().get(0);
+    this.keyKind = keyKind(keyField);
   }
 
   public BinaryMap(BinaryArray keys, BinaryArray values, Field field) {
     this.keys = keys;
     this.values = values;
     this.field = field;
+    this.keyField = keys.getField().getChildren().get(0);
+    this.valueField = values.getField().getChildren().get(0);
+    this.keyKind = keyKind(keyField);
     this.buf = keys.getBuffer();
     this.baseOffset = keys.getBaseOffset() - 8;
     // memory of keys and values must be continuous.
@@ -73,6 +103,7 @@ public class BinaryMap implements MapData {
     if (keys.numElements() != values.numElements()) {
       throw new UnsupportedOperationException();
     }
+    sortedChecked = false;
     // assert keys.numElements() == values.numElements();
   }
 
@@ -107,6 +138,289 @@ public class BinaryMap implements MapData {
     return values;
   }
 
+  /**
+   * Returns the value of <code>key</code>, or null if the map doesn't contain the key. Keys are
+   * compared without being deserialized if they are integers or strings. The key is found by {@link
+   * #binarySearch} if {@link #isSorted} returned true for current data, otherwise by a linear scan.
+   */
+  public Object get(Object key) {
+    return valueAt(sortedChecked && sorted ? binarySearch(key) : indexOf(key));
+  }
+
+  /**
+   * Like {@link #get}, but the key is always found by {@link #binarySearch}, the caller must know
+   * that keys are sorted, e.g. by {@link #isSorted}.
+   */
+  public Object getSorted(Object key) {
+    return valueAt(binarySearch(key));
+  }
+
+  private Object valueAt(int index) {
+    if (index < 0 || values.isNullAt(index)) {
+      return null;
+    }
+    return values.get(index, valueField);
+  }
+
+  /** Returns index of <code>key</code> in {@link #keyArray}, or -1 if not found. */
+  public int indexOf(Object key) {
+    BinaryArray keys = this.keys;
+    int numElements = keys.numElements();
+    switch (keyKind) {
+      case KEY_INTEGER:
+        if (!isIntegral(key)) {
+          return -1;
+        }
+        long value = ((Number) key).longValue();
+        for (int i = 0; i < numElements; i++) {
+          if (!keys.isNullAt(i) && getIntegerKey(i) == value) {
+            return i;
+          }
+        }
+        return -1;
+      case KEY_STRING:
+        if (!(key instanceof String)) {
+          return -1;
+        }
+        MemoryBuffer bytes = MemoryBuffer.fromByteArray(encodeUTF8((String) key));
+        MemoryBuffer buf = keys.getBuffer();
+        for (int i = 0; i < numElements; i++) {
+          if (!keys.isNullAt(i)) {
+            long offsetAndSize = keys.getInt64(i);
+            if ((int) offsetAndSize == bytes.size()
+                && (bytes.size() == 0
+                    || buf.equalTo(
+                        bytes,
+                        keys.getBaseOffset() + (int) (offsetAndSize >> 32),
+                        0,
+                        bytes.size()))) {
+              return i;
+            }
+          }
+        }
+        return -1;
+      default:
+        for (int i = 0; i < numElements; i++) {
+          if (!keys.isNullAt(i) && keys.get(i, keyField).equals(key)) {
+            return i;
+          }
+        }
+        return -1;
+    }
+  }
+
+  /**
+   * Returns whether keys are non-null integers or strings in strictly ascending order of {@link
+   * #sortKeys}, which is the case if the map is written with {@link
+   * org.apache.fory.format.row.binary.writer.BinaryWriter#setSortMapKeys} enabled. Keys are checked
+   * in place once for the data this map points to, then {@link #get} uses binary search.
+   */
+  public boolean isSorted() {
+    if (!sortedChecked) {
+      sorted = checkSorted();
+      sortedChecked = true;
+    }
+    return sorted;
+  }
+
+  private boolean checkSorted() {
+    BinaryArray keys = this.keys;
+    int numElements = keys.numElements();
+    if (keyKind == KEY_OTHER) {
+      return false;
+    }
+    for (int i = 0; i < numElements; i++) {
+      if (keys.isNullAt(i)) {
+        return false;
+      }
+      if (i > 0) {
+        int cmp =
+            keyKind == KEY_INTEGER
+                ? Long.compare(getIntegerKey(i - 1), getIntegerKey(i))
+                : compareStringKeys(i - 1, i);
+        if (cmp >= 0) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns index of <code>key</code> in {@link #keyArray} by binary search, or -1 if not found.
+   * Keys must be integers or strings and written in the order of {@link #sortKeys}, otherwise the
+   * result is undefined.
+   */
+  public int binarySearch(Object key) {
+    BinaryArray keys = this.keys;
+    int low = 0;
+    int high = keys.numElements() - 1;
+    switch (keyKind) {
+      case KEY_INTEGER:
+        if (!isIntegral(key)) {
+          return -1;
+        }
+        long value = ((Number) key).longValue();
+        while (low <= high) {
+          int mid = (low + high) >>> 1;
+          long midValue = getIntegerKey(mid);
+          if (midValue < value) {
+            low = mid + 1;
+          } else if (midValue > value) {
+            high = mid - 1;
+          } else {
+            return mid;
+          }
+        }
+        return -1;
+      case KEY_STRING:
+        if (!(key instanceof String)) {
+          return -1;
+        }
+        byte[] bytes = encodeUTF8((String) key);
+        while (low <= high) {
+          int mid = (low + high) >>> 1;
+          int cmp = compareStringKey(mid, bytes);
+          if (cmp < 0) {
+            low = mid + 1;
+          } else if (cmp > 0) {
+            high = mid - 1;
+          } else {
+            return mid;
+          }
+        }
+        return -1;
+      default:
+        throw new UnsupportedOperationException("Unsupported key type " + keyField.getType());
+    }
+  }
+
+  private long getIntegerKey(int index) {
+    switch (((ArrowType.Int) keyField.getType()).getBitWidth()) {
+      case 8:
+        return keys.getByte(index);
+      case 16:
+        return keys.getInt16(index);
+      case 32:
+        return keys.getInt32(index);
+      default:
+        return keys.getInt64(index);
+    }
+  }
+
+  private int compareStringKey(int index, byte[] bytes) {
+    long offsetAndSize = keys.getInt64(index);
+    int offset = keys.getBaseOffset() + (int) (offsetAndSize >> 32);
+    int size = (int) offsetAndSize;
+    MemoryBuffer buf = keys.getBuffer();
+    int len = Math.min(size, bytes.length);
+    for (int i = 0; i < len; i++) {
+      int cmp = (buf.getByte(offset + i) & 0xFF) - (bytes[i] & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return size - bytes.length;
+  }
+
+  private int compareStringKeys(int index1, int index2) {
+    long offsetAndSize1 = keys.getInt64(index1);
+    long offsetAndSize2 = keys.getInt64(index2);
+    int offset1 = keys.getBaseOffset() + (int) (offsetAndSize1 >> 32);
+    int offset2 = keys.getBaseOffset() + (int) (offsetAndSize2 >> 32);
+    int size1 = (int) offsetAndSize1;
+    int size2 = (int) offsetAndSize2;
+    MemoryBuffer buf = keys.getBuffer();
+    int len = Math.min(size1, size2);
+    for (int i = 0; i < len; i++) {
+      int cmp = (buf.getByte(offset1 + i) & 0xFF) - (buf.getByte(offset2 + i) & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return size1 - size2;
+  }
+
+  private static byte[] encodeUTF8(String str) {
+    return str.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static boolean isIntegral(Object key) {
+    return key instanceof Integer
+        || key instanceof Long
+        || key instanceof Short
+        || key instanceof Byte;
+  }
+
+  private static int keyKind(Field keyField) {
+    ArrowType type = keyField.getType();
+    if (type instanceof ArrowType.Int && ((ArrowType.Int) type).getIsSigned()) {
+      return KEY_INTEGER;
+    }
+    if (type instanceof ArrowType.Utf8) {
+      return KEY_STRING;
+    }
+    return KEY_OTHER;
+  }
+
+  /**
+   * Returns a map sorted by keys in the order used by {@link #binarySearch}: integers by value and
+   * strings by utf8 bytes.
+   *
+   * @throws IllegalArgumentException if the map can't be sorted: it has a null key, keys of
+   *     different types, or keys which are neither integers nor strings.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public static Map<?, ?> sortKeys(Map<?, ?> map) {
+    Class<?> keyType = null;
+    for (Object key : map.keySet()) {
+      if (key == null) {
+        throw new IllegalArgumentException("Can't sort map keys since the map has a null key");
+      }
+      if (keyType == null) {
+        keyType = key.getClass();
+        if (keyType != String.class && !isIntegral(key)) {
+          throw new IllegalArgumentException(
+              String.format(
+                  "Can't sort map keys of type %s, only integer and string keys are supported",
+                  keyType));
+        }
+      } else if (key.getClass() != keyType) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Can't sort map keys of different types %s and %s", keyType, key.getClass()));
+      }
+    }
+    if (map.size() < 2) {
+      return map;
+    }
+    boolean isString = keyType == String.class;
+    if (!isString && map instanceof SortedMap && ((SortedMap<?, ?>) map).comparator() == null) {
+      return map;
+    }
+    TreeMap sortedMap = isString ? new TreeMap<>(UTF8_ORDER) : new TreeMap<>();
+    sortedMap.putAll(map);
+    return sortedMap;
+  }
+
+  private static int compareUTF8(String s1, String s2) {
+    int len = Math.min(s1.length(), s2.length());
+    for (int i = 0; i < len; i++) {
+      char c1 = s1.charAt(i);
+      char c2 = s2.charAt(i);
+      if (c1 != c2) {
+        boolean surrogate1 = Character.isSurrogate(c1);
+        if (surrogate1 != Character.isSurrogate(c2)) {
+          // supplementary code points are encoded as surrogate pairs in utf16, but they are
+          // greater than all chars in the basic plane.
+          return surrogate1 ? 1 : -1;
+        }
+        return c1 - c2;
+      }
+    }
+    return s1.length() - s2.length();
+  }
+
   @Override
   public MapData copy() {
     MemoryBuffer copyBuf = MemoryUtils.buffer(sizeInBytes);
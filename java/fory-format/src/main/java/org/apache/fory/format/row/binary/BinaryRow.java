@@ -22,12 +22,16 @@ package org.apache.fory.format.row.binary;
 import static org.apache.fory.util.Preconditions.checkArgument;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.fory.format.row.ArrayData;
+import org.apache.fory.format.row.MapData;
 import org.apache.fory.format.row.Row;
+import org.apache.fory.format.row.binary.writer.BinaryWriter;
 import org.apache.fory.format.type.DataTypes;
 import org.apache.fory.memory.BitUtils;
 import org.apache.fory.memory.MemoryBuffer;
@@ -59,6 +63,13 @@ import org.apache.fory.util.Preconditions;
  *   <li>The implementation support java/C++/python/etc..
  *   <li>Support adding fields without breaking compatibility
  * </ul>
+ *
+ * <p>Variable-length fields can be updated in place by {@link #setString}, {@link #setBinary},
+ * {@link #setStruct}, {@link #setArray} and {@link #setMap}. A new value is written over the old
+ * value if it fits into the old 8-byte aligned region, otherwise it is appended to the slack region
+ * after {@link #getSizeInBytes} and the offset of field is repointed to it. The slack region must
+ * be reserved by {@link #pointTo(MemoryBuffer, int, int, int)} or {@link #copyWithSlack}. Bytes of
+ * old values are left in the row until it is encoded again.
  */
 public class BinaryRow extends UnsafeTrait implements Row {
   private final Schema schema;
@@ -67,6 +78,7 @@ public class BinaryRow extends UnsafeTrait implements Row {
   private MemoryBuffer buffer;
   private int baseOffset;
   private int sizeInBytes;
+  private int capacityInBytes;
 
   public BinaryRow(Schema schema) {
     this.schema = schema;
@@ -77,9 +89,24 @@ public class BinaryRow extends UnsafeTrait implements Row {
   }
 
   public void pointTo(MemoryBuffer buffer, int offset, int sizeInBytes) {
+    pointTo(buffer, offset, sizeInBytes, sizeInBytes);
+  }
+
+  /**
+   * Points this row to <code>buffer[offset, offset + sizeInBytes)</code>, and reserves <code>
+   * buffer[offset + sizeInBytes, offset + capacityInBytes)</code> as slack region for updating
+   * variable-length fields in place.
+   */
+  public void pointTo(MemoryBuffer buffer, int offset, int sizeInBytes, int capacityInBytes) {
+    checkArgument(
+        capacityInBytes >= sizeInBytes,
+        "capacity %s should >= size %s",
+        capacityInBytes,
+        sizeInBytes);
     this.buffer = buffer;
     this.baseOffset = offset;
     this.sizeInBytes = sizeInBytes;
+    this.capacityInBytes = capacityInBytes;
   }
 
   @Override
@@ -96,6 +123,11 @@ public class BinaryRow extends UnsafeTrait implements Row {
     return sizeInBytes;
   }
 
+  /** Returns size of this row plus the slack region which is not used yet. */
+  public int getCapacityInBytes() {
+    return capacityInBytes;
+  }
+
   @Override
   public int getBaseOffset() {
     return baseOffset;
@@ -131,16 +163,8 @@ public class BinaryRow extends UnsafeTrait implements Row {
   public void setNullAt(int ordinal) {
     assertIndexIsValid(ordinal);
     BitUtils.set(buffer, baseOffset, ordinal);
-    assert DataTypes.getTypeWidth(schema.getFields().get(ordinal).getType()) > 0
-        : "field[ "
-            + ordinal
-            + " "
-            + schema.getFields().get(ordinal).getType()
-            + " ] "
-            + "must be fixed-width";
     // To preserve row equality, zero out the value when setting the column to null.
-    // Since this row does not currently support updates to variable-length values, we don't
-    // have to worry about zeroing out that data.
+    // Data of variable-length value is left in variable-length region and won't be referenced.
     buffer.putInt64(getOffset(ordinal), 0);
   }
 
@@ -149,6 +173,93 @@ public class BinaryRow extends UnsafeTrait implements Row {
     BitUtils.unset(buffer, baseOffset, ordinal);
   }
 
+  @Override
+  public void setString(int ordinal, String value) {
+    setBinary(ordinal, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public void setBinary(int ordinal, byte[] value) {
+    if (value == null) {
+      setNullAt(ordinal);
+      return;
+    }
+    int offset = allocateVarLength(ordinal, value.length);
+    buffer.put(offset, value, 0, value.length);
+  }
+
+  @Override
+  public void setStruct(int ordinal, Row value) {
+    if (value == null) {
+      setNullAt(ordinal);
+      return;
+    }
+    BinaryRow row = (BinaryRow) value;
+    setAligned(ordinal, row.getBuffer(), row.getBaseOffset(), row.getSizeInBytes());
+  }
+
+  @Override
+  public void setArray(int ordinal, ArrayData value) {
+    if (value == null) {
+      setNullAt(ordinal);
+      return;
+    }
+    BinaryArray array = (BinaryArray) value;
+    setAligned(ordinal, array.getBuffer(), array.getBaseOffset(), array.getSizeInBytes());
+  }
+
+  @Override
+  public void setMap(int ordinal, MapData value) {
+    if (value == null) {
+      setNullAt(ordinal);
+      return;
+    }
+    BinaryMap map = (BinaryMap) value;
+    setAligned(ordinal, map.getBuf(), map.getBaseOffset(), map.getSizeInBytes());
+  }
+
+  private void setAligned(int ordinal, MemoryBuffer src, int srcOffset, int numBytes) {
+    int offset = allocateVarLength(ordinal, numBytes);
+    src.copyTo(srcOffset, buffer, offset, numBytes);
+  }
+
+  /**
+   * Allocates an 8-byte aligned region for variable-length value of field <code>ordinal</code>,
+   * points the field to it and returns the absolute offset of the region. The old region is reused
+   * if the new value fits into it.
+   */
+  private int allocateVarLength(int ordinal, int numBytes) {
+    assertIndexIsValid(ordinal);
+    assert !isFixedLength(schema.getFields().get(ordinal).getType());
+    int roundedSize = BinaryWriter.roundNumberOfBytesToNearestWord(numBytes);
+    int relativeOffset;
+    int regionSize;
+    long oldOffsetAndSize = buffer.getInt64(getOffset(ordinal));
+    if (!isNullAt(ordinal)
+        && roundedSize <= BinaryWriter.roundNumberOfBytesToNearestWord((int) oldOffsetAndSize)) {
+      relativeOffset = (int) (oldOffsetAndSize >> 32);
+      regionSize = BinaryWriter.roundNumberOfBytesToNearestWord((int) oldOffsetAndSize);
+    } else {
+      relativeOffset = BinaryWriter.roundNumberOfBytesToNearestWord(sizeInBytes);
+      regionSize = roundedSize;
+      if (relativeOffset + regionSize > capacityInBytes) {
+        throw new IllegalStateException(
+            String.format(
+                "No slack space for field %s of %s bytes, row size %s, capacity %s",
+                schema.getFields().get(ordinal).getName(), numBytes, sizeInBytes, capacityInBytes));
+      }
+      sizeInBytes = relativeOffset + regionSize;
+    }
+    int offset = baseOffset + relativeOffset;
+    // zero out padding and bytes of old value to preserve row equality.
+    for (int i = (numBytes >> 3) << 3; i < regionSize; i += 8) {
+      buffer.putInt64(offset + i, 0L);
+    }
+    BitUtils.unset(buffer, baseOffset, ordinal);
+    buffer.putInt64(getOffset(ordinal), ((long) relativeOffset << 32) | (long) numBytes);
+    return offset;
+  }
+
   @Override
   public BigDecimal getDecimal(int ordinal) {
     return getDecimal(ordinal, (ArrowType.Decimal) schema.getFields().get(ordinal).getType());
@@ -230,10 +341,22 @@ public class BinaryRow extends UnsafeTrait implements Row {
     return buffer.getBytes(baseOffset, sizeInBytes);
   }
 
+  /**
+   * Copies this row into a new buffer with <code>slackInBytes</code> bytes reserved after the row,
+   * so that variable-length fields of the returned row can be updated in place.
+   */
+  public BinaryRow copyWithSlack(int slackInBytes) {
+    MemoryBuffer copyBuf = MemoryUtils.buffer(sizeInBytes + slackInBytes);
+    buffer.copyTo(baseOffset, copyBuf, 0, sizeInBytes);
+    BinaryRow copyRow = new BinaryRow(schema);
+    copyRow.pointTo(copyBuf, 0, sizeInBytes, sizeInBytes + slackInBytes);
+    return copyRow;
+  }
+
   /**
    * If it is a fixed-length field, we can call this BinaryRow's setXX method for in-place updates.
-   * If it is variable-length field, can't use this method, because the underlying data is stored
-   * continuously.
+   * If it is variable-length field, the value may need to be appended to the slack region of this
+   * row, because the underlying data is stored continuously.
    */
   public static boolean isFixedLength(ArrowType type) {
     return DataTypes.getTypeWidth(type) > 0;
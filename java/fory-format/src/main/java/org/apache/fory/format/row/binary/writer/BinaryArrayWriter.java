@@ -68,6 +68,7 @@ public class BinaryArrayWriter extends BinaryWriter {
   public BinaryArrayWriter(Field field, BinaryWriter writer) {
     this(field, writer.buffer);
     writer.children.add(this);
+    sortMapKeys = writer.sortMapKeys;
     // Since we must call reset before use this writer,
     // there's no need to set `super.startIndex = writer.writerIndex();`
   }
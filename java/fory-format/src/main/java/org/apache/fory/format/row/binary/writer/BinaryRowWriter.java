@@ -54,6 +54,7 @@ public class BinaryRowWriter extends BinaryWriter {
   public BinaryRowWriter(Schema schema, BinaryWriter writer) {
     super(writer.getBuffer(), 0);
     writer.children.add(this);
+    sortMapKeys = writer.sortMapKeys;
     // Since we must call reset before use this writer,
     // there's no need to set `super.startIndex = writer.writerIndex();`
     this.schema = schema;
@@ -128,6 +129,30 @@ public class BinaryRowWriter extends BinaryWriter {
     writeDecimal(ordinal, value, (ArrowType.Decimal) schema.getFields().get(ordinal).getType());
   }
 
+  /**
+   * Copy field <code>fromOrdinal</code> of <code>row</code> to field <code>ordinal</code> without
+   * deserialization, or set the field to null if <code>fromOrdinal</code> is negative. Fixed-width
+   * fields are copied by their 8-byte slot, and variable-length fields such as string, binary,
+   * array, map and struct are copied as a whole since their nested offsets are relative to their
+   * own start.
+   */
+  public void copyField(int ordinal, BinaryRow row, int fromOrdinal, boolean varLength) {
+    if (fromOrdinal < 0 || row.isNullAt(fromOrdinal)) {
+      // zero out the value to preserve row equality.
+      write(ordinal, 0L);
+      setNullAt(ordinal);
+    } else if (varLength) {
+      long offsetAndSize = row.getInt64(fromOrdinal);
+      writeUnaligned(
+          ordinal,
+          row.getBuffer(),
+          row.getBaseOffset() + (int) (offsetAndSize >> 32),
+          (int) offsetAndSize);
+    } else {
+      write(ordinal, row.getInt64(fromOrdinal));
+    }
+  }
+
   public BinaryRow getRow() {
     BinaryRow row = new BinaryRow(schema);
     int size = size();
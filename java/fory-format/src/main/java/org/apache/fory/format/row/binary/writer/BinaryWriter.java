@@ -23,6 +23,7 @@ import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.util.DecimalUtility;
@@ -55,6 +56,7 @@ public abstract class BinaryWriter {
   // array use 8 byte for numElements
   private final int bytesBeforeBitMap;
   protected final List<BinaryWriter> children;
+  protected boolean sortMapKeys;
 
   protected BinaryWriter(MemoryBuffer buffer, int bytesBeforeBitMap) {
     this.buffer = buffer;
@@ -244,6 +246,30 @@ public abstract class BinaryWriter {
     writer.writeAlignedBytes(ordinal, buffer, startIndex, buffer.writerIndex());
   }
 
+  /**
+   * Write keys of maps in sorted order, so that keys can be looked up by {@link
+   * BinaryMap#binarySearch}. The setting is applied to all nested writers too. Writing a map fails
+   * with {@link IllegalArgumentException} if its keys can't be sorted, see {@link
+   * BinaryMap#sortKeys}.
+   *
+   * @see BinaryMap#sortKeys
+   */
+  public final void setSortMapKeys(boolean sortMapKeys) {
+    this.sortMapKeys = sortMapKeys;
+    for (BinaryWriter child : children) {
+      child.setSortMapKeys(sortMapKeys);
+    }
+  }
+
+  public final boolean isSortMapKeys() {
+    return sortMapKeys;
+  }
+
+  /** Returns the map whose entries should be written, which is sorted if enabled. */
+  public final Map<?, ?> orderMapKeys(Map<?, ?> map) {
+    return sortMapKeys ? BinaryMap.sortKeys(map) : map;
+  }
+
   public final void setBuffer(MemoryBuffer buffer) {
     this.buffer = buffer;
     for (BinaryWriter child : children) {
@@ -0,0 +1,517 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.vectorized;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.MapVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.fory.format.row.binary.BinaryRow;
+import org.apache.fory.format.row.binary.writer.BinaryArrayWriter;
+import org.apache.fory.format.row.binary.writer.BinaryRowWriter;
+import org.apache.fory.format.row.binary.writer.BinaryWriter;
+import org.apache.fory.format.type.DataTypes;
+import org.apache.fory.format.type.DefaultTypeVisitor;
+import org.apache.fory.memory.MemoryBuffer;
+import org.apache.fory.memory.MemoryUtils;
+
+/**
+ * Converter from rows of arrow {@link VectorSchemaRoot} to fory {@link BinaryRow}, which is the
+ * reverse of {@link ArrowWriter}. Vectors of the root are bound when this reader is created, so it
+ * can be reused after the root loads a new record batch.
+ */
+public class ArrowRowReader {
+  private final BinaryRowWriter writer;
+  private final ArrowFieldReader[] fieldReaders;
+
+  public ArrowRowReader(VectorSchemaRoot root) {
+    writer = new BinaryRowWriter(root.getSchema());
+    fieldReaders =
+        root.getFieldVectors().stream()
+            .map(vector -> createFieldReader(vector, writer))
+            .toArray(ArrowFieldReader[]::new);
+  }
+
+  /**
+   * Returns row at <code>rowIndex</code> of the root. The returned row is backed by the buffer of
+   * an internal writer, which will be overwritten by next read.
+   */
+  public BinaryRow read(int rowIndex) {
+    BinaryRowWriter writer = this.writer;
+    writer.getBuffer().writerIndex(0);
+    writer.reset();
+    for (int i = 0; i < fieldReaders.length; i++) {
+      fieldReaders[i].read(writer, i, rowIndex);
+    }
+    return writer.getRow();
+  }
+
+  private static ArrowFieldReader createFieldReader(ValueVector vector, BinaryWriter writer) {
+    DefaultTypeVisitor<ArrowFieldReader> typeVisitor =
+        new DefaultTypeVisitor<ArrowFieldReader>() {
+
+          @Override
+          public ArrowFieldReader visit(ArrowType.Bool type) {
+            return new BooleanReader((BitVector) vector);
+          }
+
+          @Override
+          public ArrowFieldReader visit(ArrowType.Int type) {
+            if (type.getIsSigned()) {
+              int byteWidth = type.getBitWidth() / 8;
+              switch (byteWidth) {
+                case 1:
+                  return new ByteReader((TinyIntVector) vector);
+                case 2:
+                  return new ShortReader((SmallIntVector) vector);
+                case 4:
+                  return new IntReader((IntVector) vector);
+                case 8:
+                  return new LongReader((BigIntVector) vector);
+                default:
+                  return unsupported(type);
+              }
+            }
+            return unsupported(type);
+          }
+
+          @Override
+          public ArrowFieldReader visit(ArrowType.FloatingPoint type) {
+            switch (type.getPrecision()) {
+              case SINGLE:
+                return new FloatReader((Float4Vector) vector);
+              case DOUBLE:
+                return new DoubleReader((Float8Vector) vector);
+              default:
+                return unsupported(type);
+            }
+          }
+
+          @Override
+          public ArrowFieldReader visit(ArrowType.Date type) {
+            if (type.getUnit() == DateUnit.DAY) {
+              return new DateReader((DateDayVector) vector);
+            }
+            return unsupported(type);
+          }
+
+          @Override
+          public ArrowFieldReader visit(ArrowType.Timestamp type) {
+            return new TimestampReader((TimeStampVector) vector);
+          }
+
+          @Override
+          public ArrowFieldReader visit(ArrowType.Binary type) {
+            return new VarWidthReader((BaseVariableWidthVector) vector);
+          }
+
+          @Override
+          public ArrowFieldReader visit(ArrowType.Decimal type) {
+            return new DecimalReader((DecimalVector) vector);
+          }
+
+          @Override
+          public ArrowFieldReader visit(ArrowType.Utf8 type) {
+            return new VarWidthReader((BaseVariableWidthVector) vector);
+          }
+
+          @Override
+          public ArrowFieldReader visit(ArrowType.Struct type) {
+            StructVector structVector = (StructVector) vector;
+            Field field = structVector.getField();
+            BinaryRowWriter childWriter =
+                new BinaryRowWriter(DataTypes.createSchema(field), writer);
+            ArrowFieldReader[] childReaders = new ArrowFieldReader[structVector.size()];
+            for (int i = 0; i < childReaders.length; i++) {
+              childReaders[i] = createFieldReader(structVector.getChildByOrdinal(i), childWriter);
+            }
+            return new StructReader(structVector, childWriter, childReaders);
+          }
+
+          @Override
+          public ArrowFieldReader visit(ArrowType.List type) {
+            ListVector listVector = (ListVector) vector;
+            BinaryArrayWriter arrayWriter = new BinaryArrayWriter(listVector.getField(), writer);
+            ArrowFieldReader elementReader =
+                createFieldReader(listVector.getDataVector(), arrayWriter);
+            return new ListReader(listVector, arrayWriter, elementReader);
+          }
+
+          @Override
+          public ArrowFieldReader visit(ArrowType.Map type) {
+            MapVector mapVector = (MapVector) vector;
+            Field field = mapVector.getField();
+            StructVector structVector = (StructVector) mapVector.getDataVector();
+            BinaryArrayWriter keyWriter =
+                new BinaryArrayWriter(DataTypes.keyArrayFieldForMap(field), writer);
+            BinaryArrayWriter valueWriter =
+                new BinaryArrayWriter(DataTypes.itemArrayFieldForMap(field), writer);
+            ArrowFieldReader keyReader =
+                createFieldReader(structVector.getChild(MapVector.KEY_NAME), keyWriter);
+            ArrowFieldReader valueReader =
+                createFieldReader(structVector.getChild(MapVector.VALUE_NAME), valueWriter);
+            return new MapReader(mapVector, keyWriter, keyReader, valueWriter, valueReader);
+          }
+        };
+    return vector.getField().getType().accept(typeVisitor);
+  }
+}
+
+abstract class ArrowFieldReader {
+
+  void read(BinaryWriter writer, int ordinal, int index) {
+    if (valueVector().isNull(index)) {
+      writer.setNullAt(ordinal);
+    } else {
+      readValue(writer, ordinal, index);
+    }
+  }
+
+  abstract void readValue(BinaryWriter writer, int ordinal, int index);
+
+  abstract ValueVector valueVector();
+}
+
+class BooleanReader extends ArrowFieldReader {
+  private final BitVector valueVector;
+
+  BooleanReader(BitVector valueVector) {
+    this.valueVector = valueVector;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    writer.write(ordinal, valueVector.get(index) != 0);
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
+
+class ByteReader extends ArrowFieldReader {
+  private final TinyIntVector valueVector;
+
+  ByteReader(TinyIntVector valueVector) {
+    this.valueVector = valueVector;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    writer.write(ordinal, valueVector.get(index));
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
+
+class ShortReader extends ArrowFieldReader {
+  private final SmallIntVector valueVector;
+
+  ShortReader(SmallIntVector valueVector) {
+    this.valueVector = valueVector;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    writer.write(ordinal, valueVector.get(index));
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
+
+class IntReader extends ArrowFieldReader {
+  private final IntVector valueVector;
+
+  IntReader(IntVector valueVector) {
+    this.valueVector = valueVector;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    writer.write(ordinal, valueVector.get(index));
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
+
+class LongReader extends ArrowFieldReader {
+  private final BigIntVector valueVector;
+
+  LongReader(BigIntVector valueVector) {
+    this.valueVector = valueVector;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    writer.write(ordinal, valueVector.get(index));
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
+
+class FloatReader extends ArrowFieldReader {
+  private final Float4Vector valueVector;
+
+  FloatReader(Float4Vector valueVector) {
+    this.valueVector = valueVector;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    writer.write(ordinal, valueVector.get(index));
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
+
+class DoubleReader extends ArrowFieldReader {
+  private final Float8Vector valueVector;
+
+  DoubleReader(Float8Vector valueVector) {
+    this.valueVector = valueVector;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    writer.write(ordinal, valueVector.get(index));
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
+
+class DecimalReader extends ArrowFieldReader {
+  private final DecimalVector valueVector;
+
+  DecimalReader(DecimalVector valueVector) {
+    this.valueVector = valueVector;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    writer.write(ordinal, valueVector.getObject(index));
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
+
+class DateReader extends ArrowFieldReader {
+  private final DateDayVector valueVector;
+
+  DateReader(DateDayVector valueVector) {
+    this.valueVector = valueVector;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    writer.write(ordinal, valueVector.get(index));
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
+
+class TimestampReader extends ArrowFieldReader {
+  private final TimeStampVector valueVector;
+
+  TimestampReader(TimeStampVector valueVector) {
+    this.valueVector = valueVector;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    writer.write(ordinal, valueVector.get(index));
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
+
+/** Reader for string and binary, which copies bytes from arrow buffer directly. */
+class VarWidthReader extends ArrowFieldReader {
+  private final BaseVariableWidthVector valueVector;
+  private ArrowBuf dataBuffer;
+  private MemoryBuffer buffer;
+
+  VarWidthReader(BaseVariableWidthVector valueVector) {
+    this.valueVector = valueVector;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    ArrowBuf dataBuffer = valueVector.getDataBuffer();
+    if (dataBuffer != this.dataBuffer) {
+      // data buffer is replaced when next record batch is loaded.
+      this.dataBuffer = dataBuffer;
+      buffer = MemoryUtils.buffer(dataBuffer.memoryAddress(), (int) dataBuffer.capacity());
+    }
+    writer.writeUnaligned(
+        ordinal, buffer, valueVector.getStartOffset(index), valueVector.getValueLength(index));
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
+
+class StructReader extends ArrowFieldReader {
+  private final StructVector valueVector;
+  private final BinaryRowWriter rowWriter;
+  private final ArrowFieldReader[] childReaders;
+
+  StructReader(
+      StructVector valueVector, BinaryRowWriter rowWriter, ArrowFieldReader[] childReaders) {
+    this.valueVector = valueVector;
+    this.rowWriter = rowWriter;
+    this.childReaders = childReaders;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    int offset = writer.writerIndex();
+    rowWriter.reset();
+    for (int i = 0; i < childReaders.length; i++) {
+      childReaders[i].read(rowWriter, i, index);
+    }
+    writer.setOffsetAndSize(ordinal, offset, writer.writerIndex() - offset);
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
+
+class ListReader extends ArrowFieldReader {
+  private final ListVector valueVector;
+  private final BinaryArrayWriter arrayWriter;
+  private final ArrowFieldReader elementReader;
+
+  ListReader(
+      ListVector valueVector, BinaryArrayWriter arrayWriter, ArrowFieldReader elementReader) {
+    this.valueVector = valueVector;
+    this.arrayWriter = arrayWriter;
+    this.elementReader = elementReader;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    int offset = writer.writerIndex();
+    int start = valueVector.getElementStartIndex(index);
+    int numElements = valueVector.getElementEndIndex(index) - start;
+    arrayWriter.reset(numElements);
+    for (int i = 0; i < numElements; i++) {
+      elementReader.read(arrayWriter, i, start + i);
+    }
+    writer.setOffsetAndSize(ordinal, offset, writer.writerIndex() - offset);
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
+
+class MapReader extends ArrowFieldReader {
+  private final MapVector valueVector;
+  private final BinaryArrayWriter keyWriter;
+  private final ArrowFieldReader keyReader;
+  private final BinaryArrayWriter valueWriter;
+  private final ArrowFieldReader valueReader;
+
+  MapReader(
+      MapVector valueVector,
+      BinaryArrayWriter keyWriter,
+      ArrowFieldReader keyReader,
+      BinaryArrayWriter valueWriter,
+      ArrowFieldReader valueReader) {
+    this.valueVector = valueVector;
+    this.keyWriter = keyWriter;
+    this.keyReader = keyReader;
+    this.valueWriter = valueWriter;
+    this.valueReader = valueReader;
+  }
+
+  @Override
+  void readValue(BinaryWriter writer, int ordinal, int index) {
+    int offset = writer.writerIndex();
+    int start = valueVector.getElementStartIndex(index);
+    int numElements = valueVector.getElementEndIndex(index) - start;
+    // preserve 8 bytes to write the key array numBytes later
+    writer.writeDirectly(-1);
+    keyWriter.reset(numElements);
+    for (int i = 0; i < numElements; i++) {
+      keyReader.read(keyWriter, i, start + i);
+    }
+    writer.writeDirectly(offset, keyWriter.size());
+    valueWriter.reset(numElements);
+    for (int i = 0; i < numElements; i++) {
+      valueReader.read(valueWriter, i, start + i);
+    }
+    writer.setOffsetAndSize(ordinal, offset, writer.writerIndex() - offset);
+  }
+
+  @Override
+  ValueVector valueVector() {
+    return valueVector;
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.vectorized;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.fory.format.encoder.RowEncoder;
+import org.apache.fory.format.row.binary.BinaryRow;
+
+/**
+ * Reader which reads objects from an arrow ipc stream lazily. Record batches are loaded one by one
+ * when previous batch is consumed, and every row is converted into a {@link BinaryRow} then decoded
+ * by {@link RowEncoder#fromRow}. So memory used by this reader is bounded by one record batch no
+ * matter how large the stream is.
+ */
+public class ArrowRowStreamReader<T> implements Iterator<T>, Closeable {
+  private final RowEncoder<T> encoder;
+  private final ArrowStreamReader reader;
+  private final VectorSchemaRoot root;
+  private final ArrowRowReader rowReader;
+  private int rowIndex;
+
+  public ArrowRowStreamReader(RowEncoder<T> encoder, InputStream in) {
+    this(encoder, Channels.newChannel(in), ArrowUtils.allocator);
+  }
+
+  public ArrowRowStreamReader(RowEncoder<T> encoder, ReadableByteChannel in) {
+    this(encoder, in, ArrowUtils.allocator);
+  }
+
+  public ArrowRowStreamReader(
+      RowEncoder<T> encoder, ReadableByteChannel in, BufferAllocator allocator) {
+    this.encoder = encoder;
+    ArrowStreamReader reader = new ArrowStreamReader(in, allocator);
+    this.reader = reader;
+    try {
+      try {
+        root = reader.getVectorSchemaRoot();
+      } catch (IOException e) {
+        throw new RuntimeException("Read schema of arrow stream failed", e);
+      }
+      if (!root.getSchema().getFields().equals(encoder.schema().getFields())) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Stream schema %s doesn't match encoder schema %s",
+                root.getSchema(), encoder.schema()));
+      }
+      rowReader = new ArrowRowReader(root);
+    } catch (Throwable t) {
+      // caller can't close this reader if construction failed, release the stream and vectors here.
+      try {
+        reader.close();
+      } catch (Throwable e) {
+        t.addSuppressed(e);
+      }
+      throw t;
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (rowIndex >= root.getRowCount()) {
+      try {
+        if (!reader.loadNextBatch()) {
+          return false;
+        }
+      } catch (IOException e) {
+        throw new RuntimeException("Load record batch failed", e);
+      }
+      rowIndex = 0;
+    }
+    return true;
+  }
+
+  @Override
+  public T next() {
+    return encoder.fromRow(nextRow());
+  }
+
+  /**
+   * Returns next row without decoding it. The returned row will be overwritten by next read, use
+   * {@link BinaryRow#copy} to keep it.
+   */
+  public BinaryRow nextRow() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return rowReader.read(rowIndex++);
+  }
+
+  /** Close the stream and release vectors of loaded record batch. */
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.vectorized;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.fory.format.encoder.RowEncoder;
+import org.apache.fory.format.row.Row;
+import org.apache.fory.util.Preconditions;
+
+/**
+ * Writer which writes objects as an arrow ipc stream. Objects are encoded into rows by a {@link
+ * RowEncoder} and appended into arrow vectors, then a record batch is written out every <code>
+ * batchSize</code> rows and the vectors are reused for next batch. So memory used by this writer is
+ * bounded by one record batch no matter how many objects are written.
+ *
+ * <p>Stream written by this writer can be read by {@link ArrowRowStreamReader} or any arrow ipc
+ * stream reader.
+ */
+public class ArrowRowStreamWriter<T> implements Closeable {
+  private final RowEncoder<T> encoder;
+  private final int batchSize;
+  private final VectorSchemaRoot root;
+  private final ArrowWriter arrowWriter;
+  private final ArrowStreamWriter streamWriter;
+  private int numRows;
+
+  public ArrowRowStreamWriter(RowEncoder<T> encoder, OutputStream out, int batchSize) {
+    this(encoder, Channels.newChannel(out), batchSize, ArrowUtils.allocator);
+  }
+
+  public ArrowRowStreamWriter(RowEncoder<T> encoder, WritableByteChannel out, int batchSize) {
+    this(encoder, out, batchSize, ArrowUtils.allocator);
+  }
+
+  public ArrowRowStreamWriter(
+      RowEncoder<T> encoder, WritableByteChannel out, int batchSize, BufferAllocator allocator) {
+    Preconditions.checkArgument(batchSize > 0, "Batch size %s must be positive", batchSize);
+    this.encoder = encoder;
+    this.batchSize = batchSize;
+    root = VectorSchemaRoot.create(encoder.schema(), allocator);
+    arrowWriter = new ArrowWriter(root);
+    streamWriter = new ArrowStreamWriter(root, null, out);
+  }
+
+  public void write(T obj) throws IOException {
+    write(encoder.toRow(obj));
+  }
+
+  /** Write a row which has same schema as the encoder. */
+  public void write(Row row) throws IOException {
+    arrowWriter.write(row);
+    if (++numRows == batchSize) {
+      flush();
+    }
+  }
+
+  /** Write buffered rows as a record batch. */
+  public void flush() throws IOException {
+    if (numRows > 0) {
+      arrowWriter.finish();
+      streamWriter.writeBatch();
+      arrowWriter.reset();
+      numRows = 0;
+    }
+  }
+
+  /** Write buffered rows and end of the stream, then close the stream and release vectors. */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+      streamWriter.end();
+    } finally {
+      streamWriter.close();
+      root.close();
+    }
+  }
+}
@@ -28,7 +28,7 @@ import org.apache.arrow.vector.Float4Vector;
 import org.apache.arrow.vector.Float8Vector;
 import org.apache.arrow.vector.IntVector;
 import org.apache.arrow.vector.SmallIntVector;
-import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.TimeStampVector;
 import org.apache.arrow.vector.TinyIntVector;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.VarBinaryVector;
@@ -149,7 +149,7 @@ public class ArrowWriter {
 
           @Override
           public ArrowArrayWriter visit(ArrowType.Timestamp type) {
-            return new TimestampWriter((TimeStampMicroTZVector) vector);
+            return new TimestampWriter((TimeStampVector) vector);
           }
 
           @Override
@@ -494,9 +494,9 @@ class DateWriter extends ArrowArrayWriter {
 }
 
 class TimestampWriter extends ArrowArrayWriter {
-  private final TimeStampMicroTZVector valueVector;
+  private final TimeStampVector valueVector;
 
-  TimestampWriter(TimeStampMicroTZVector valueVector) {
+  TimestampWriter(TimeStampVector valueVector) {
     this.valueVector = valueVector;
   }
 
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.encoder;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.fory.format.vectorized.ArrowRowReader;
+import org.apache.fory.format.vectorized.ArrowUtils;
+import org.apache.fory.format.vectorized.ArrowWriter;
+import org.apache.fory.test.bean.BeanA;
+import org.apache.fory.util.DecimalUtils;
+import org.testng.annotations.Test;
+
+public class ColumnarEncoderTest {
+
+  public enum Color {
+    RED,
+    GREEN
+  }
+
+  @Data
+  public static class FlatBean {
+    public boolean f1;
+    public byte f2;
+    public short f3;
+    public int f4;
+    public long f5;
+    public float f6;
+    public double f7;
+    public Integer f8;
+    public Double f9;
+    public String f10;
+    public Color f11;
+    public BigDecimal f12;
+    public LocalDate f13;
+    public Instant f14;
+    public Timestamp f15;
+  }
+
+  private static List<FlatBean> createBeans(int num) {
+    List<FlatBean> beans = new ArrayList<>();
+    for (int i = 0; i < num; i++) {
+      FlatBean bean = new FlatBean();
+      bean.f1 = i % 2 == 0;
+      bean.f2 = (byte) i;
+      bean.f3 = (short) (i * 10);
+      bean.f4 = i * 100;
+      bean.f5 = i * 1000L;
+      bean.f6 = i / 3.0f;
+      bean.f7 = i / 7.0;
+      if (i % 3 != 0) {
+        bean.f8 = i;
+        bean.f9 = i * 1.5;
+        bean.f10 = "str" + i;
+        bean.f11 = Color.values()[i % 2];
+        // decimals are read in the scale of inferred decimal type.
+        bean.f12 = BigDecimal.valueOf(i).setScale(DecimalUtils.MAX_SCALE);
+        bean.f13 = LocalDate.ofEpochDay(i);
+        bean.f14 = Instant.ofEpochSecond(i, 1000);
+        bean.f15 = new Timestamp(i * 1000L);
+      }
+      beans.add(bean);
+    }
+    return beans;
+  }
+
+  @Test
+  public void testIsSupported() {
+    assertTrue(ColumnarEncoderBuilder.isSupported(FlatBean.class));
+    assertFalse(ColumnarEncoderBuilder.isSupported(BeanA.class));
+  }
+
+  @Test
+  public void testWriteRead() {
+    ColumnarEncoder<FlatBean> encoder = Encoders.columnarEncoder(FlatBean.class);
+    List<FlatBean> beans = createBeans(20);
+    for (int round = 0; round < 2; round++) {
+      encoder.reset();
+      for (FlatBean bean : beans) {
+        encoder.write(bean);
+      }
+      VectorSchemaRoot root = encoder.finish();
+      assertEquals(root.getRowCount(), beans.size());
+      for (int i = 0; i < beans.size(); i++) {
+        assertEquals(encoder.read(i), beans.get(i));
+      }
+    }
+    encoder.root().close();
+  }
+
+  @Test
+  public void testDecimalScale() {
+    ColumnarEncoder<FlatBean> encoder = Encoders.columnarEncoder(FlatBean.class);
+    FlatBean bean = new FlatBean();
+    bean.f12 = BigDecimal.valueOf(3);
+    encoder.write(bean);
+    bean.f12 = new BigDecimal("0.1234567890123456789");
+    // can't be represented in the scale of vector without rounding.
+    assertThrows(ArithmeticException.class, () -> encoder.write(bean));
+    try (VectorSchemaRoot root = encoder.finish()) {
+      assertEquals(root.getRowCount(), 1);
+      assertEquals(encoder.read(0).f12, BigDecimal.valueOf(3).setScale(DecimalUtils.MAX_SCALE));
+    }
+  }
+
+  @Test
+  public void testCompatibleWithRowFormat() {
+    RowEncoder<FlatBean> rowEncoder = Encoders.bean(FlatBean.class);
+    List<FlatBean> beans = createBeans(10);
+    // vectors written from rows can be read by columnar encoder.
+    ArrowWriter arrowWriter = ArrowUtils.createArrowWriter(rowEncoder.schema());
+    for (FlatBean bean : beans) {
+      arrowWriter.write(rowEncoder.toRow(bean));
+    }
+    try (VectorSchemaRoot root = arrowWriter.finish()) {
+      ColumnarEncoder<FlatBean> encoder = Encoders.columnarEncoder(FlatBean.class, root);
+      for (int i = 0; i < beans.size(); i++) {
+        assertEquals(encoder.read(i), beans.get(i));
+      }
+    }
+    // vectors written by columnar encoder can be read as rows.
+    ColumnarEncoder<FlatBean> encoder = Encoders.columnarEncoder(FlatBean.class);
+    beans.forEach(encoder::write);
+    try (VectorSchemaRoot root = encoder.finish()) {
+      ArrowRowReader rowReader = new ArrowRowReader(root);
+      for (int i = 0; i < beans.size(); i++) {
+        assertEquals(rowEncoder.fromRow(rowReader.read(i)), beans.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testRowBasedFallback() {
+    ColumnarEncoder<BeanA> encoder = Encoders.columnarEncoder(BeanA.class);
+    List<BeanA> beans = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      beans.add(BeanA.createBeanA(i % 3));
+    }
+    beans.forEach(encoder::write);
+    try (VectorSchemaRoot root = encoder.finish()) {
+      assertEquals(root.getRowCount(), beans.size());
+      for (int i = 0; i < beans.size(); i++) {
+        assertEquals(encoder.read(i), beans.get(i));
+      }
+    }
+  }
+}
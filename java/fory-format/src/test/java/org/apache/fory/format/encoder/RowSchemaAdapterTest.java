@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.encoder;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.fory.exception.ClassNotCompatibleException;
+import org.apache.fory.format.row.binary.BinaryRow;
+import org.apache.fory.format.row.binary.writer.BinaryRowWriter;
+import org.apache.fory.format.type.DataTypes;
+import org.testng.annotations.Test;
+
+public class RowSchemaAdapterTest {
+
+  public static class BeanV1 {
+    public int f1;
+    public String f2;
+    public long f3;
+  }
+
+  public static class BeanV2 {
+    public int f1;
+    public String f2;
+    public String f4;
+    public double f5;
+  }
+
+  public static class RenamedV1 {
+    public int a;
+    public int c;
+  }
+
+  public static class RenamedV2 {
+    public int a;
+    public int b;
+  }
+
+  @Test
+  public void testAdapt() {
+    Schema writerSchema =
+        new Schema(
+            Arrays.asList(
+                DataTypes.field("f1", false, DataTypes.int32()),
+                DataTypes.field("f2", DataTypes.utf8()),
+                DataTypes.field("f3", false, DataTypes.int64())));
+    Schema readerSchema =
+        new Schema(
+            Arrays.asList(
+                DataTypes.field("f3", false, DataTypes.int64()),
+                DataTypes.field("f4", DataTypes.utf8()),
+                DataTypes.field("f2", DataTypes.utf8())));
+    BinaryRowWriter writer = new BinaryRowWriter(writerSchema);
+    writer.reset();
+    writer.write(0, 1);
+    writer.write(1, "str");
+    writer.write(2, 100L);
+    RowSchemaAdapter adapter = new RowSchemaAdapter(writerSchema, readerSchema);
+    BinaryRow row = adapter.adapt(writer.getRow());
+    assertEquals(row.getSchema(), readerSchema);
+    assertEquals(row.getInt64(0), 100L);
+    assertTrue(row.isNullAt(1));
+    assertEquals(row.getString(2), "str");
+
+    Schema incompatibleSchema =
+        new Schema(Arrays.asList(DataTypes.field("f2", false, DataTypes.int32())));
+    assertThrows(
+        ClassNotCompatibleException.class,
+        () -> new RowSchemaAdapter(writerSchema, incompatibleSchema));
+  }
+
+  @Test
+  public void testCompatibleBean() {
+    RowEncoder<BeanV1> encoderV1 = Encoders.bean(BeanV1.class);
+    BeanV1 bean = new BeanV1();
+    bean.f1 = 10;
+    bean.f2 = "abc";
+    bean.f3 = 100;
+    byte[] bytes = encoderV1.encode(bean);
+
+    assertThrows(
+        ClassNotCompatibleException.class, () -> Encoders.bean(BeanV2.class).decode(bytes));
+    RowEncoder<BeanV2> encoderV2 = Encoders.compatibleBean(BeanV2.class, encoderV1.schema());
+    BeanV2 beanV2 = encoderV2.decode(bytes);
+    assertEquals(beanV2.f1, 10);
+    assertEquals(beanV2.f2, "abc");
+    assertNull(beanV2.f4);
+    assertEquals(beanV2.f5, 0.0);
+    beanV2 = encoderV2.fromRow(encoderV1.toRow(bean));
+    assertEquals(beanV2.f2, "abc");
+    // rows of current schema are decoded directly.
+    beanV2.f4 = "str";
+    assertEquals(encoderV2.decode(encoderV2.encode(beanV2)).f4, "str");
+  }
+
+  @Test
+  public void testRenamedFieldsOfSameType() {
+    RowEncoder<RenamedV1> encoderV1 = Encoders.bean(RenamedV1.class);
+    RenamedV1 bean = new RenamedV1();
+    bean.a = 1;
+    bean.c = 3;
+    RowEncoder<RenamedV2> encoderV2 = Encoders.compatibleBean(RenamedV2.class);
+    // schema hash only covers field types.
+    assertEquals(
+        DataTypes.computeSchemaHash(encoderV1.schema()),
+        DataTypes.computeSchemaHash(encoderV2.schema()));
+    RenamedV2 beanV2 = encoderV2.fromRow(encoderV1.toRow(bean));
+    assertEquals(beanV2.a, 1);
+    assertEquals(beanV2.b, 0);
+    RenamedV2 bean2 = new RenamedV2();
+    bean2.a = 2;
+    bean2.b = 4;
+    beanV2 = encoderV2.fromRow(encoderV2.toRow(bean2));
+    assertEquals(beanV2.b, 4);
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Encoders.compatibleBean(RenamedV2.class, encoderV1.schema()));
+  }
+}
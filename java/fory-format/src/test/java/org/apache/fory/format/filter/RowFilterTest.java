@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.filter;
+
+import static org.apache.fory.format.filter.RowPredicates.and;
+import static org.apache.fory.format.filter.RowPredicates.eq;
+import static org.apache.fory.format.filter.RowPredicates.gt;
+import static org.apache.fory.format.filter.RowPredicates.gtEq;
+import static org.apache.fory.format.filter.RowPredicates.in;
+import static org.apache.fory.format.filter.RowPredicates.isNotNull;
+import static org.apache.fory.format.filter.RowPredicates.isNull;
+import static org.apache.fory.format.filter.RowPredicates.lt;
+import static org.apache.fory.format.filter.RowPredicates.ltEq;
+import static org.apache.fory.format.filter.RowPredicates.not;
+import static org.apache.fory.format.filter.RowPredicates.notEq;
+import static org.apache.fory.format.filter.RowPredicates.or;
+import static org.apache.fory.format.filter.RowPredicates.startsWith;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.fory.format.row.binary.BinaryArray;
+import org.apache.fory.format.row.binary.BinaryRow;
+import org.apache.fory.format.row.binary.writer.BinaryArrayWriter;
+import org.apache.fory.format.row.binary.writer.BinaryRowWriter;
+import org.apache.fory.format.type.DataTypes;
+import org.testng.annotations.Test;
+
+public class RowFilterTest {
+  private static final int NUM_ROWS = 100;
+  private static final Schema SCHEMA =
+      new Schema(
+          Arrays.asList(
+              DataTypes.notNullField("id", DataTypes.int32()),
+              DataTypes.field("score", DataTypes.int64()),
+              DataTypes.notNullField("ratio", DataTypes.float64()),
+              DataTypes.field("name", DataTypes.utf8()),
+              DataTypes.notNullField("flag", DataTypes.bool()),
+              DataTypes.notNullField("small", DataTypes.int16())));
+
+  private static Long score(int i) {
+    return i % 3 == 0 ? null : i * 10L;
+  }
+
+  private static String name(int i) {
+    if (i % 4 == 0) {
+      return null;
+    }
+    return (i % 5 == 0 ? "名字" : "name") + i;
+  }
+
+  private static BinaryRow[] createRows() {
+    BinaryRow[] rows = new BinaryRow[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      BinaryRowWriter writer = new BinaryRowWriter(SCHEMA);
+      writer.reset();
+      writer.write(0, i);
+      if (score(i) == null) {
+        writer.setNullAt(1);
+      } else {
+        writer.write(1, (long) score(i));
+      }
+      writer.write(2, i * 0.1);
+      if (name(i) == null) {
+        writer.setNullAt(3);
+      } else {
+        writer.write(3, name(i));
+      }
+      writer.write(4, i % 2 == 0);
+      writer.write(5, (short) (i - 50));
+      rows[i] = writer.getRow();
+    }
+    return rows;
+  }
+
+  private static void check(BinaryRow[] rows, RowPredicate predicate, IntPredicate expected) {
+    RowFilter filter = RowPredicates.compile(SCHEMA, predicate);
+    int[] selection = new int[rows.length];
+    int n = filter.filter(rows, rows.length, selection);
+    int[] expectedSelection = IntStream.range(0, rows.length).filter(expected).toArray();
+    assertEquals(Arrays.copyOf(selection, n), expectedSelection, predicate.toString());
+    for (int i = 0; i < rows.length; i++) {
+      assertEquals(filter.test(rows[i]), expected.test(i), predicate.toString());
+    }
+  }
+
+  @Test
+  public void testCompare() {
+    BinaryRow[] rows = createRows();
+    check(rows, eq("id", 10), i -> i == 10);
+    check(rows, notEq("id", 10), i -> i != 10);
+    check(rows, lt("id", 10), i -> i < 10);
+    check(rows, ltEq("id", 10), i -> i <= 10);
+    check(rows, gt("id", 10), i -> i > 10);
+    check(rows, gtEq("id", 10L), i -> i >= 10);
+    check(rows, gt("score", 500), i -> score(i) != null && score(i) > 500);
+    check(rows, notEq("score", 500), i -> score(i) != null && score(i) != 500);
+    check(rows, lt("ratio", 1.5), i -> i * 0.1 < 1.5);
+    check(rows, eq("ratio", 3 * 0.1), i -> i * 0.1 == 3 * 0.1);
+    check(rows, eq("flag", true), i -> i % 2 == 0);
+    check(rows, ltEq("small", -40), i -> i - 50 <= -40);
+  }
+
+  @Test
+  public void testString() {
+    BinaryRow[] rows = createRows();
+    check(rows, eq("name", "name7"), i -> "name7".equals(name(i)));
+    check(rows, eq("name", ""), i -> false);
+    check(rows, notEq("name", "name7"), i -> name(i) != null && !"name7".equals(name(i)));
+    check(rows, gt("name", "name5"), i -> name(i) != null && name(i).compareTo("name5") > 0);
+    check(rows, lt("name", "name10"), i -> name(i) != null && name(i).compareTo("name10") < 0);
+    check(rows, startsWith("name", "name1"), i -> name(i) != null && name(i).startsWith("name1"));
+    check(rows, startsWith("name", "名"), i -> name(i) != null && name(i).startsWith("名"));
+    check(rows, startsWith("name", ""), i -> name(i) != null);
+    check(
+        rows,
+        startsWith("name", "name".getBytes()),
+        i -> name(i) != null && name(i).startsWith("name"));
+    // utf8 bytes order is the code point order.
+    check(rows, gt("name", "name99999999"), i -> name(i) != null && name(i).startsWith("名"));
+  }
+
+  @Test
+  public void testIn() {
+    BinaryRow[] rows = createRows();
+    check(rows, in("id", 3, 1, 99, 1000), i -> i == 1 || i == 3 || i == 99);
+    check(rows, in("score", 30, 60, 70), i -> i == 7);
+    check(rows, in("ratio", 0.2, 0.5), i -> i * 0.1 == 0.2 || i * 0.1 == 0.5);
+    check(rows, in("name", "name9", "名字10", "name1", "x"), i -> i == 1 || i == 9 || i == 10);
+    check(rows, in("flag", false), i -> i % 2 != 0);
+    check(rows, in("id"), i -> false);
+  }
+
+  @Test
+  public void testNullAndLogical() {
+    BinaryRow[] rows = createRows();
+    check(rows, isNull("score"), i -> score(i) == null);
+    check(rows, isNotNull("name"), i -> name(i) != null);
+    check(rows, not(gt("score", 100)), i -> score(i) == null || score(i) <= 100);
+    check(
+        rows,
+        and(gt("id", 10), lt("id", 20), isNotNull("score")),
+        i -> i > 10 && i < 20 && score(i) != null);
+    check(
+        rows,
+        or(isNull("name"), startsWith("name", "name2"), eq("id", 5)),
+        i -> name(i) == null || name(i).startsWith("name2") || i == 5);
+    check(
+        rows,
+        and(or(lt("id", 5), gt("id", 95)), not(isNull("score"))),
+        i -> (i < 5 || i > 95) && score(i) != null);
+  }
+
+  @Test
+  public void testFilterArray() {
+    BinaryRow[] rows = createRows();
+    Field structField = DataTypes.structField("item", true, SCHEMA.getFields());
+    BinaryArrayWriter writer = new BinaryArrayWriter(DataTypes.arrayField(structField));
+    writer.reset(rows.length + 1);
+    for (int i = 0; i < rows.length; i++) {
+      writer.write(i, rows[i]);
+    }
+    writer.setNullAt(rows.length);
+    BinaryArray array = writer.toArray();
+    RowFilter filter = RowPredicates.compile(SCHEMA, or(lt("id", 3), isNull("score")));
+    int[] selection = new int[array.numElements()];
+    int n = filter.filter(array, selection);
+    int[] expected = IntStream.range(0, rows.length).filter(i -> i < 3 || i % 3 == 0).toArray();
+    assertEquals(Arrays.copyOf(selection, n), expected);
+  }
+
+  @Test
+  public void testInvalidPredicate() {
+    try {
+      RowPredicates.compile(SCHEMA, eq("unknown", 1));
+      throw new AssertionError();
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("unknown"));
+    }
+    try {
+      RowPredicates.compile(SCHEMA, startsWith("id", "1"));
+      throw new AssertionError();
+    } catch (UnsupportedOperationException expected) {
+      // expected
+    }
+    try {
+      RowPredicates.compile(SCHEMA, eq("id", "1"));
+      throw new AssertionError();
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testProjection() {
+    BinaryRow[] rows = createRows();
+    RowProjection projection = new RowProjection(SCHEMA, "name", "id", "score");
+    assertEquals(projection.getSchema().getFields().size(), 3);
+    for (int i = 0; i < rows.length; i++) {
+      BinaryRow row = projection.project(rows[i]);
+      assertEquals(row.getString(0), name(i));
+      assertEquals(row.getInt32(1), i);
+      if (score(i) == null) {
+        assertTrue(row.isNullAt(2));
+      } else {
+        assertFalse(row.isNullAt(2));
+        assertEquals(row.getInt64(2), (long) score(i));
+      }
+    }
+    assertTrue(new RowProjection(SCHEMA, "score").project(rows[0]).isNullAt(0));
+    assertNull(new RowProjection(SCHEMA, "name").project(rows[0]).getString(0));
+  }
+}
@@ -19,13 +19,24 @@
 
 package org.apache.fory.format.row.binary;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.fory.format.encoder.Encoders;
+import org.apache.fory.format.encoder.RowEncoder;
 import org.apache.fory.format.row.binary.writer.BinaryArrayWriter;
 import org.apache.fory.format.row.binary.writer.BinaryRowWriter;
 import org.apache.fory.format.type.DataTypes;
+import org.apache.fory.format.type.TypeInference;
 import org.apache.fory.memory.MemoryBuffer;
 import org.apache.fory.memory.MemoryUtils;
 import org.testng.annotations.Test;
@@ -101,4 +112,92 @@ public class BinaryMapTest {
     writer.getRow();
     // System.out.println(row);
   }
+
+  public static class MapBean {
+    public Map<String, Integer> f1;
+    public Map<Long, String> f2;
+  }
+
+  @Test
+  public void testGet() {
+    MapBean bean = new MapBean();
+    bean.f1 = new HashMap<>();
+    bean.f2 = new HashMap<>();
+    for (int i = 0; i < 100; i++) {
+      bean.f1.put("k" + i * 7, i);
+      bean.f2.put((long) i * 7 - 300, "v" + i);
+    }
+    bean.f1.put("", -1);
+    bean.f1.put("\uD83D\uDE00", -2);
+    bean.f1.put("\uFF01", -3);
+    for (boolean sortKeys : new boolean[] {false, true}) {
+      BinaryRowWriter writer = new BinaryRowWriter(TypeInference.inferSchema(MapBean.class));
+      writer.setSortMapKeys(sortKeys);
+      RowEncoder<MapBean> encoder = Encoders.bean(MapBean.class, writer);
+      writer.reset();
+      BinaryRow row = encoder.toRow(bean);
+      BinaryMap map1 = row.getMap(0);
+      BinaryMap map2 = row.getMap(1);
+      assertEquals(map1.isSorted(), sortKeys);
+      assertEquals(map2.isSorted(), sortKeys);
+      for (Map.Entry<String, Integer> entry : bean.f1.entrySet()) {
+        assertEquals(map1.get(entry.getKey()), entry.getValue());
+        if (sortKeys) {
+          assertEquals(map1.getSorted(entry.getKey()), entry.getValue());
+        }
+      }
+      for (Map.Entry<Long, String> entry : bean.f2.entrySet()) {
+        assertEquals(map2.get(entry.getKey()), entry.getValue());
+        if (sortKeys) {
+          assertEquals(map2.getSorted(entry.getKey()), entry.getValue());
+        }
+      }
+      assertNull(map1.get("k1"));
+      assertNull(map1.get(1));
+      assertEquals(map2.indexOf(2L), -1);
+      if (sortKeys) {
+        assertNull(map1.getSorted("k1"));
+        assertEquals(map2.binarySearch(2L), -1);
+        assertEquals(map2.binarySearch(10000L), -1);
+      }
+    }
+  }
+
+  @Test
+  public void testSortKeys() {
+    Map<String, Integer> map = new HashMap<>();
+    map.put("\uD83D\uDE00", 0);
+    map.put("\uFF01", 1);
+    map.put("b", 2);
+    map.put("ab", 3);
+    map.put("a", 4);
+    List<Object> keys = new ArrayList<>(BinaryMap.sortKeys(map).keySet());
+    assertEquals(keys, java.util.Arrays.asList("a", "ab", "b", "\uFF01", "\uD83D\uDE00"));
+    Map<Object, Integer> mixed = new HashMap<>();
+    mixed.put("a", 1);
+    mixed.put(1, 2);
+    assertThrows(IllegalArgumentException.class, () -> BinaryMap.sortKeys(mixed));
+    Map<String, Integer> nullKey = new HashMap<>();
+    nullKey.put(null, 1);
+    assertThrows(IllegalArgumentException.class, () -> BinaryMap.sortKeys(nullKey));
+    assertThrows(
+        IllegalArgumentException.class, () -> BinaryMap.sortKeys(Collections.singletonMap(1.0, 1)));
+  }
+
+  @Test
+  public void testSortKeysWithNullKey() {
+    MapBean bean = new MapBean();
+    bean.f1 = new HashMap<>();
+    bean.f1.put("a", 1);
+    bean.f1.put(null, 2);
+    BinaryRowWriter writer = new BinaryRowWriter(TypeInference.inferSchema(MapBean.class));
+    RowEncoder<MapBean> encoder = Encoders.bean(MapBean.class, writer);
+    writer.reset();
+    BinaryMap map = encoder.toRow(bean).getMap(0);
+    assertFalse(map.isSorted());
+    assertEquals(map.get("a"), 1);
+    writer.setSortMapKeys(true);
+    writer.reset();
+    assertThrows(IllegalArgumentException.class, () -> encoder.toRow(bean));
+  }
 }
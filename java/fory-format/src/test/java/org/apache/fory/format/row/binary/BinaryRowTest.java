@@ -32,6 +32,7 @@ import org.apache.fory.logging.LoggerFactory;
 import org.apache.fory.memory.MemoryBuffer;
 import org.apache.fory.memory.MemoryUtils;
 import org.apache.fory.memory.Platform;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 public class BinaryRowTest {
@@ -246,4 +247,51 @@ public class BinaryRowTest {
     BinaryRow row = writer.getRow();
     System.out.println("row " + row);
   }
+
+  @Test
+  public void testUpdateVarLengthField() {
+    List<Field> fields =
+        Arrays.asList(
+            DataTypes.field("f_int", false, DataTypes.int32()),
+            DataTypes.field("f_string", DataTypes.utf8()),
+            DataTypes.field("f_binary", DataTypes.binary()),
+            DataTypes.arrayField("f_array", DataTypes.utf8()));
+    Schema schema = new Schema(fields);
+    BinaryRowWriter writer = new BinaryRowWriter(schema);
+    writer.reset();
+    writer.write(0, 10);
+    writer.write(1, "abcdefghijk");
+    writer.write(2, new byte[] {1, 2, 3});
+    writer.setNullAt(3);
+    BinaryRow row = writer.getRow();
+    int size = row.getSizeInBytes();
+    // no slack reserved.
+    String str = "a string longer than old value";
+    Assert.assertThrows(IllegalStateException.class, () -> row.setString(1, str));
+
+    BinaryRow updated = row.copyWithSlack(128);
+    // shorter value is written over old value.
+    updated.setString(1, "abc");
+    Assert.assertEquals(updated.getSizeInBytes(), size);
+    Assert.assertEquals(updated.getString(1), "abc");
+    // longer value is appended to slack region.
+    updated.setString(1, str);
+    Assert.assertEquals(updated.getSizeInBytes(), size + 32);
+    Assert.assertEquals(updated.getString(1), str);
+    BinaryArrayWriter arrayWriter = new BinaryArrayWriter(fields.get(3));
+    arrayWriter.reset(2);
+    arrayWriter.write(0, "a");
+    arrayWriter.write(1, "b");
+    updated.setArray(3, arrayWriter.toArray());
+    Assert.assertEquals(updated.getArray(3).getString(1), "b");
+    updated.setBinary(2, null);
+    Assert.assertTrue(updated.isNullAt(2));
+    Assert.assertEquals(updated.getInt32(0), 10);
+    byte[] bytes = new byte[updated.getCapacityInBytes()];
+    Assert.assertThrows(IllegalStateException.class, () -> updated.setBinary(2, bytes));
+
+    // updated row is equal to a row encoded from scratch except old values.
+    BinaryRow copy = (BinaryRow) updated.copy();
+    Assert.assertEquals(copy.toString(), updated.toString());
+  }
 }
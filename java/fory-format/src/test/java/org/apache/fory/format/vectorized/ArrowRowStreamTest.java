@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.format.vectorized;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.fory.format.encoder.Encoders;
+import org.apache.fory.format.encoder.RowEncoder;
+import org.apache.fory.test.bean.BeanA;
+import org.apache.fory.test.bean.BeanB;
+import org.testng.annotations.Test;
+
+public class ArrowRowStreamTest {
+
+  private static List<BeanA> createBeans(int num) {
+    List<BeanA> beans = new ArrayList<>();
+    for (int i = 0; i < num; i++) {
+      BeanA bean = BeanA.createBeanA(i % 3);
+      bean.setF3(i);
+      if (i % 4 == 0) {
+        bean.setF17(null);
+        bean.setDoubleList(null);
+      }
+      beans.add(bean);
+    }
+    return beans;
+  }
+
+  @Test
+  public void testArrowRowReader() {
+    RowEncoder<BeanA> encoder = Encoders.bean(BeanA.class);
+    List<BeanA> beans = createBeans(10);
+    ArrowWriter arrowWriter = ArrowUtils.createArrowWriter(encoder.schema());
+    for (BeanA bean : beans) {
+      arrowWriter.write(encoder.toRow(bean));
+    }
+    try (VectorSchemaRoot root = arrowWriter.finish()) {
+      ArrowRowReader rowReader = new ArrowRowReader(root);
+      for (int i = 0; i < beans.size(); i++) {
+        assertEquals(encoder.fromRow(rowReader.read(i)), beans.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testStream() throws IOException {
+    RowEncoder<BeanA> encoder = Encoders.bean(BeanA.class);
+    List<BeanA> beans = createBeans(25);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ArrowRowStreamWriter<BeanA> writer = new ArrowRowStreamWriter<>(encoder, out, 10)) {
+      for (BeanA bean : beans) {
+        writer.write(bean);
+      }
+    }
+    byte[] bytes = out.toByteArray();
+    // 25 rows are written as 3 record batches.
+    try (ArrowStreamReader reader =
+        new ArrowStreamReader(new ByteArrayInputStream(bytes), ArrowUtils.allocator)) {
+      int numBatches = 0;
+      while (reader.loadNextBatch()) {
+        numBatches++;
+      }
+      assertEquals(numBatches, 3);
+    }
+    List<BeanA> newBeans = new ArrayList<>();
+    try (ArrowRowStreamReader<BeanA> reader =
+        new ArrowRowStreamReader<>(encoder, new ByteArrayInputStream(bytes))) {
+      while (reader.hasNext()) {
+        newBeans.add(reader.next());
+      }
+      assertFalse(reader.hasNext());
+    }
+    assertEquals(newBeans, beans);
+  }
+
+  @Test
+  public void testEmptyStream() throws IOException {
+    RowEncoder<BeanA> encoder = Encoders.bean(BeanA.class);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new ArrowRowStreamWriter<>(encoder, out, 10).close();
+    try (ArrowRowStreamReader<BeanA> reader =
+        new ArrowRowStreamReader<>(encoder, new ByteArrayInputStream(out.toByteArray()))) {
+      assertFalse(reader.hasNext());
+    }
+  }
+
+  @Test
+  public void testSchemaMismatchClosesStream() throws IOException {
+    RowEncoder<BeanA> encoder = Encoders.bean(BeanA.class);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new ArrowRowStreamWriter<>(encoder, out, 10).close();
+    boolean[] closed = {false};
+    ByteArrayInputStream in =
+        new ByteArrayInputStream(out.toByteArray()) {
+          @Override
+          public void close() throws IOException {
+            closed[0] = true;
+            super.close();
+          }
+        };
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ArrowRowStreamReader<>(Encoders.bean(BeanB.class), in));
+    assertTrue(closed[0]);
+  }
+}
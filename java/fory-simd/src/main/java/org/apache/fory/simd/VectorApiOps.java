@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.simd;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+import org.apache.fory.util.VectorizedOps;
+
+/**
+ * {@link VectorizedOps} implemented by the JDK vector api, which is loaded by {@link
+ * VectorizedOps#get} automatically. The jvm must be started with `--add-modules
+ * jdk.incubator.vector`, otherwise fory falls back to scalar code.
+ *
+ * <p>Preferred species of current platform are used, which are 256 bits on AVX2 and 128 bits on
+ * NEON. Utf16 bytes are reinterpreted as shorts by native byte order, which is fine since fory only
+ * supports little-endian platforms.
+ */
+public final class VectorApiOps implements VectorizedOps {
+  private static final VectorSpecies<Byte> BYTE_SPECIES = ByteVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Short> SHORT_SPECIES = ShortVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+  // Bytes narrowed from a short vector, or to be widen to a short vector.
+  private static final VectorSpecies<Byte> HALF_BYTE_SPECIES;
+  private static final int BYTE_LANES = BYTE_SPECIES.length();
+  private static final int SHORT_LANES = SHORT_SPECIES.length();
+  private static final int INT_LANES = INT_SPECIES.length();
+  private static final short NON_ASCII_CHAR_MASK = (short) 0xFF80;
+
+  static {
+    int bitSize = BYTE_SPECIES.vectorBitSize();
+    if (bitSize < 128) {
+      throw new UnsupportedOperationException("Vector size " + bitSize + " is too small");
+    }
+    HALF_BYTE_SPECIES = VectorSpecies.of(byte.class, VectorShape.forBitSize(bitSize >> 1));
+  }
+
+  @Override
+  public int countAsciiUTF16(byte[] src, int offset, int numBytes) {
+    int count = 0;
+    int i = 0;
+    for (; i + BYTE_LANES <= numBytes; i += BYTE_LANES) {
+      ShortVector chars = ByteVector.fromArray(BYTE_SPECIES, src, offset + i).reinterpretAsShorts();
+      count += chars.and(NON_ASCII_CHAR_MASK).eq((short) 0).trueCount();
+    }
+    for (; i < numBytes; i += 2) {
+      if (src[offset + i] >= 0 && src[offset + i + 1] == 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public int compressAsciiUTF16(
+      byte[] src, int srcOffset, byte[] dst, int dstOffset, int numChars) {
+    int n = 0;
+    while (n + SHORT_LANES <= numChars && dstOffset + n + SHORT_LANES <= dst.length) {
+      ShortVector chars =
+          ByteVector.fromArray(BYTE_SPECIES, src, srcOffset + (n << 1)).reinterpretAsShorts();
+      VectorMask<Short> nonAscii = chars.and(NON_ASCII_CHAR_MASK).compare(VectorOperators.NE, 0);
+      int numAscii = nonAscii.anyTrue() ? nonAscii.firstTrue() : SHORT_LANES;
+      if (numAscii == 0) {
+        break;
+      }
+      ByteVector bytes = (ByteVector) chars.convertShape(VectorOperators.S2B, HALF_BYTE_SPECIES, 0);
+      if (numAscii < SHORT_LANES) {
+        bytes.intoArray(dst, dstOffset + n, HALF_BYTE_SPECIES.indexInRange(0, numAscii));
+        n += numAscii;
+        break;
+      }
+      bytes.intoArray(dst, dstOffset + n);
+      n += numAscii;
+    }
+    return n;
+  }
+
+  @Override
+  public int inflateAsciiUTF16(byte[] src, int srcOffset, byte[] dst, int dstOffset, int numBytes) {
+    int lanes = HALF_BYTE_SPECIES.length();
+    int n = 0;
+    while (n + lanes <= numBytes && dstOffset + ((n + lanes) << 1) <= dst.length) {
+      ByteVector bytes = ByteVector.fromArray(HALF_BYTE_SPECIES, src, srcOffset + n);
+      VectorMask<Byte> nonAscii = bytes.lt((byte) 0);
+      int numAscii = nonAscii.anyTrue() ? nonAscii.firstTrue() : lanes;
+      if (numAscii == 0) {
+        break;
+      }
+      ByteVector chars =
+          bytes.convertShape(VectorOperators.B2S, SHORT_SPECIES, 0).reinterpretAsBytes();
+      if (numAscii < lanes) {
+        chars.intoArray(dst, dstOffset + (n << 1), BYTE_SPECIES.indexInRange(0, numAscii << 1));
+        n += numAscii;
+        break;
+      }
+      chars.intoArray(dst, dstOffset + (n << 1));
+      n += numAscii;
+    }
+    return n;
+  }
+
+  @Override
+  public int decodeSmallVarInt32s(byte[] src, int srcOffset, int[] dst, int dstOffset, int count) {
+    int n = 0;
+    while (n + BYTE_LANES <= count && dstOffset + n + BYTE_LANES <= dst.length) {
+      ByteVector bytes = ByteVector.fromArray(BYTE_SPECIES, src, srcOffset + n);
+      // A varint takes more than one byte if the continuation bit is set.
+      VectorMask<Byte> multiBytes = bytes.lt((byte) 0);
+      int numSmall = multiBytes.anyTrue() ? multiBytes.firstTrue() : BYTE_LANES;
+      if (numSmall == 0) {
+        break;
+      }
+      int parts = (numSmall + INT_LANES - 1) / INT_LANES;
+      for (int part = 0; part < parts; part++) {
+        IntVector v = (IntVector) bytes.convertShape(VectorOperators.B2I, INT_SPECIES, part);
+        // zigzag decode: (v >>> 1) ^ -(v & 1)
+        v = v.lanewise(VectorOperators.LSHR, 1).lanewise(VectorOperators.XOR, v.and(1).neg());
+        int index = part * INT_LANES;
+        if (index + INT_LANES <= numSmall) {
+          v.intoArray(dst, dstOffset + n + index);
+        } else {
+          v.intoArray(dst, dstOffset + n + index, INT_SPECIES.indexInRange(index, numSmall));
+        }
+      }
+      n += numSmall;
+      if (numSmall < BYTE_LANES) {
+        break;
+      }
+    }
+    return n;
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fory.simd;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.fory.Fory;
+import org.apache.fory.util.VectorizedOps;
+import org.testng.annotations.Test;
+
+public class VectorApiOpsTest {
+  private final VectorApiOps ops = new VectorApiOps();
+
+  private static String randomString(Random random, int length, int nonAsciiPos) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      builder.append(i == nonAsciiPos ? '中' : (char) ('a' + random.nextInt(26)));
+    }
+    return builder.toString();
+  }
+
+  @Test
+  public void testLoaded() {
+    assertTrue(VectorizedOps.get() instanceof VectorApiOps);
+  }
+
+  @Test
+  public void testAsciiUTF16() {
+    Random random = new Random(7);
+    for (int length = 0; length < 200; length += 7) {
+      for (int pos = -1; pos < length; pos += 5) {
+        String str = randomString(random, length, pos);
+        byte[] utf16 = str.getBytes(StandardCharsets.UTF_16LE);
+        int numAscii = pos < 0 ? length : length - 1;
+        assertEquals(ops.countAsciiUTF16(utf16, 0, utf16.length), numAscii);
+
+        int leadingAscii = pos < 0 ? length : pos;
+        byte[] dst = new byte[length + 8];
+        int n = ops.compressAsciiUTF16(utf16, 0, dst, 8, length);
+        assertTrue(n <= leadingAscii);
+        assertEquals(
+            Arrays.copyOfRange(dst, 8, 8 + n),
+            str.substring(0, n).getBytes(StandardCharsets.ISO_8859_1));
+
+        byte[] utf8 = str.getBytes(StandardCharsets.UTF_8);
+        dst = new byte[utf8.length * 2];
+        n = ops.inflateAsciiUTF16(utf8, 0, dst, 0, utf8.length);
+        assertTrue(n <= leadingAscii);
+        assertEquals(
+            Arrays.copyOf(dst, n << 1), str.substring(0, n).getBytes(StandardCharsets.UTF_16LE));
+        // bytes out of the processed range must be untouched.
+        assertEquals(Arrays.copyOfRange(dst, n << 1, dst.length), new byte[dst.length - (n << 1)]);
+      }
+    }
+  }
+
+  @Test
+  public void testDecodeSmallVarInt32s() {
+    for (int length = 0; length < 200; length += 7) {
+      byte[] bytes = new byte[length];
+      int[] expected = new int[length];
+      for (int i = 0; i < length; i++) {
+        expected[i] = i % 128 - 64;
+        bytes[i] = (byte) ((expected[i] << 1) ^ (expected[i] >> 31));
+      }
+      if (length > 100) {
+        bytes[100] = (byte) 0x80;
+      }
+      int[] values = new int[length];
+      int n = ops.decodeSmallVarInt32s(bytes, 0, values, 0, length);
+      assertTrue(n <= Math.min(length, 100));
+      assertEquals(Arrays.copyOf(values, n), Arrays.copyOf(expected, n));
+    }
+  }
+
+  @Test
+  public void testSerialization() {
+    Fory fory =
+        Fory.builder()
+            .requireClassRegistration(false)
+            .withStringCompressed(true)
+            .withIntArrayCompressed(true)
+            .build();
+    Random random = new Random(17);
+    for (int length = 0; length < 300; length += 13) {
+      for (int pos = -1; pos < length; pos += 31) {
+        String str = randomString(random, length, pos);
+        assertEquals(fory.deserialize(fory.serialize(str)), str);
+      }
+      int[] ints = new int[length * 10];
+      for (int i = 1; i < ints.length; i++) {
+        ints[i] = ints[i - 1] + (i % 97 == 0 ? 1000 : random.nextInt(64));
+      }
+      assertEquals(fory.deserialize(fory.serialize(ints)), ints);
+    }
+  }
+}